@@ -0,0 +1,70 @@
+package me.lnkkerst.webblogapi.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Cost of the {@link CRLFLogConverter} on every logged message, with or without CRLF. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CRLFLogConverterBenchmark {
+
+  private static final String MESSAGE =
+      "REST request to get a page of Posts: PostCriteria{nodeId=LongFilter [equals=1]}";
+
+  private static final String FORGED_MESSAGE =
+      "REST request to get Post : 1\r\n2024-01-01 INFO  Authenticated user admin";
+
+  private CRLFLogConverter converter;
+
+  private LoggingEvent applicationEvent;
+
+  private LoggingEvent safeEvent;
+
+  @Setup
+  public void setup() {
+    converter = new CRLFLogConverter();
+    converter.setOptionList(List.of("red"));
+    converter.start();
+    applicationEvent = event("me.lnkkerst.webblogapi.web.rest.PostResource");
+    safeEvent = event("org.hibernate.SQL");
+  }
+
+  @Benchmark
+  public String plainMessage() {
+    return converter.transform(applicationEvent, MESSAGE);
+  }
+
+  @Benchmark
+  public String forgedMessage() {
+    return converter.transform(applicationEvent, FORGED_MESSAGE);
+  }
+
+  /** A message of a logger trusted not to log user input, which is left as is. */
+  @Benchmark
+  public String safeLoggerMessage() {
+    return converter.transform(safeEvent, FORGED_MESSAGE);
+  }
+
+  private static LoggingEvent event(String loggerName) {
+    LoggingEvent event = new LoggingEvent();
+    event.setLoggerName(loggerName);
+    event.setLevel(Level.INFO);
+    return event;
+  }
+}
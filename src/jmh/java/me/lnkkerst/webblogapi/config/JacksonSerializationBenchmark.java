@@ -0,0 +1,89 @@
+package me.lnkkerst.webblogapi.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import me.lnkkerst.webblogapi.domain.Comment;
+import me.lnkkerst.webblogapi.domain.EntityGraphs;
+import me.lnkkerst.webblogapi.domain.Post;
+import me.lnkkerst.webblogapi.domain.User;
+import me.lnkkerst.webblogapi.service.dto.CommentDTO;
+import me.lnkkerst.webblogapi.service.dto.PostDTO;
+import me.lnkkerst.webblogapi.service.mapper.CommentMapperImpl;
+import me.lnkkerst.webblogapi.service.mapper.PostMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Time to serialize a page of posts or comments, as entity graphs or as DTOs, with the modules of
+ * the {@link JacksonConfiguration} and the Spring Boot defaults.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JacksonSerializationBenchmark {
+
+  @Param({"20", "200"})
+  private int pageSize;
+
+  private ObjectMapper objectMapper;
+
+  private List<Post> posts;
+
+  private List<Comment> comments;
+
+  private List<PostDTO> postDTOs;
+
+  private List<CommentDTO> commentDTOs;
+
+  @Setup
+  public void setup() {
+    JacksonConfiguration jacksonConfiguration = new JacksonConfiguration();
+    objectMapper =
+        Jackson2ObjectMapperBuilder.json()
+            .modules(
+                jacksonConfiguration.javaTimeModule(),
+                jacksonConfiguration.jdk8TimeModule(),
+                jacksonConfiguration.hibernate6Module())
+            .build();
+    List<User> users = EntityGraphs.users(pageSize);
+    posts = EntityGraphs.posts(pageSize, users);
+    comments = EntityGraphs.comments(pageSize, posts, users);
+    postDTOs = new PostMapperImpl().toDto(posts);
+    commentDTOs = new CommentMapperImpl().toDto(comments);
+  }
+
+  @Benchmark
+  public byte[] postEntities() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(posts);
+  }
+
+  @Benchmark
+  public byte[] postDTOs() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(postDTOs);
+  }
+
+  @Benchmark
+  public byte[] commentEntities() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(comments);
+  }
+
+  @Benchmark
+  public byte[] commentDTOs() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(commentDTOs);
+  }
+}
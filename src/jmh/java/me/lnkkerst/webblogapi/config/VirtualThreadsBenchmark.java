@@ -0,0 +1,114 @@
+package me.lnkkerst.webblogapi.config;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+/**
+ * Requests per second at high concurrency, on a fixed pool of platform threads like the Undertow
+ * workers, or on a virtual thread per request like {@link VirtualThreadsConfiguration}.
+ *
+ * <p>Each operation runs a burst of concurrent requests which block for a while outside of the
+ * database, like a slow client or a remote call, then hold one of the few connections of a pool
+ * for a shorter while, like Hikari. Needs Java 21 or later for the virtual threads. The load test
+ * compares the modes on the whole application, see {@code gradle/loadtest.gradle}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(1)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+public class VirtualThreadsBenchmark {
+
+  private static final int REQUESTS = 2000;
+
+  @Param({"platform", "virtual"})
+  private String mode;
+
+  /** Platform threads handling the requests, like the Undertow workers. */
+  @Param({"200"})
+  private int workers;
+
+  /** Connections of the pool, like the Hikari maximum pool size. */
+  @Param({"10"})
+  private int connections;
+
+  @Param({"8"})
+  private int blockedMillis;
+
+  @Param({"1"})
+  private int databaseMillis;
+
+  private ExecutorService platformThreads;
+
+  private Executor executor;
+
+  private Semaphore pool;
+
+  @Setup
+  public void setup() {
+    if ("virtual".equals(mode)) {
+      executor = new VirtualThreadTaskExecutor("benchmark-");
+    } else {
+      platformThreads = Executors.newFixedThreadPool(workers);
+      executor = platformThreads;
+    }
+    pool = new Semaphore(connections, true);
+  }
+
+  @TearDown
+  public void tearDown() {
+    if (platformThreads != null) {
+      platformThreads.shutdownNow();
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(REQUESTS)
+  public void requests() throws InterruptedException {
+    CountDownLatch done = new CountDownLatch(REQUESTS);
+    for (int i = 0; i < REQUESTS; i++) {
+      executor.execute(
+          () -> {
+            try {
+              request();
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            } finally {
+              done.countDown();
+            }
+          });
+    }
+    done.await();
+  }
+
+  private void request() throws InterruptedException {
+    Thread.sleep(blockedMillis);
+    pool.acquire();
+    try {
+      Thread.sleep(databaseMillis);
+    } finally {
+      pool.release();
+    }
+  }
+}
@@ -0,0 +1,97 @@
+package me.lnkkerst.webblogapi.domain;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import me.lnkkerst.webblogapi.security.AuthoritiesConstants;
+
+/**
+ * Detached entity graphs shaped like the pages of the lists, for the benchmarks: every post has
+ * its user and node, every comment its post, user, and the comment it replies to.
+ */
+public final class EntityGraphs {
+
+  private static final ZonedDateTime CREATED_AT =
+      ZonedDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+  private static final String CONTENT =
+      "Lorem ipsum dolor sit amet, consectetur adipiscing elit, sed do eiusmod tempor incididunt"
+          + " ut labore et dolore magna aliqua. Ut enim ad minim veniam, quis nostrud exercitation"
+          + " ullamco laboris nisi ut aliquip ex ea commodo consequat.";
+
+  /**
+   * @param count the number of users.
+   * @return activated users with every profile field set.
+   */
+  public static List<User> users(int count) {
+    Authority authority = new Authority();
+    authority.setName(AuthoritiesConstants.USER);
+    List<User> users = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      User user = new User();
+      user.setId((long) i);
+      user.setLogin("user" + i);
+      user.setFirstName("First" + i);
+      user.setLastName("Last" + i);
+      user.setEmail("user" + i + "@localhost");
+      user.setImageUrl("https://localhost/images/" + i + ".png");
+      user.setActivated(true);
+      user.setLangKey("en");
+      user.setAuthorities(Set.of(authority));
+      users.add(user);
+    }
+    return users;
+  }
+
+  /**
+   * @param count the number of posts.
+   * @param users the users posting in turn.
+   * @return posts spread over a node per ten posts.
+   */
+  public static List<Post> posts(int count, List<User> users) {
+    List<Post> posts = new ArrayList<>(count);
+    Node node = null;
+    for (int i = 0; i < count; i++) {
+      if (i % 10 == 0) {
+        node = new Node().id((long) i / 10).name("node" + i / 10);
+      }
+      posts.add(
+          new Post()
+              .id((long) i)
+              .title("Post " + i)
+              .content(CONTENT)
+              .createdAt(CREATED_AT.plusMinutes(i))
+              .user(users.get(i % users.size()))
+              .node(node));
+    }
+    return posts;
+  }
+
+  /**
+   * @param count the number of comments.
+   * @param posts the posts commented in turn.
+   * @param users the users commenting in turn.
+   * @return comments, each replying to the previous comment of its post.
+   */
+  public static List<Comment> comments(int count, List<Post> posts, List<User> users) {
+    List<Comment> comments = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      Comment comment =
+          new Comment()
+              .id((long) i)
+              .content(CONTENT)
+              .createdAt(CREATED_AT.plusMinutes(i))
+              .post(posts.get(i % posts.size()))
+              .user(users.get(i % users.size()));
+      if (i >= posts.size()) {
+        comment.setReply(comments.get(i - posts.size()));
+      }
+      comments.add(comment);
+    }
+    return comments;
+  }
+
+  private EntityGraphs() {}
+}
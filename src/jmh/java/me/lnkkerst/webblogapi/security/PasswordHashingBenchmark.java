@@ -0,0 +1,71 @@
+package me.lnkkerst.webblogapi.security;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Logins per second per core: each operation checks one password, like {@code POST
+ * /api/authenticate} does, on a single benchmark thread.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(1)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+public class PasswordHashingBenchmark {
+
+  private static final String PASSWORD = "correct horse battery staple";
+
+  @Param({PasswordEncoders.ARGON2, PasswordEncoders.BCRYPT, PasswordEncoders.PBKDF2})
+  private String encodingId;
+
+  @Param({"10"})
+  private int bcryptStrength;
+
+  @Param({"310000"})
+  private int pbkdf2Iterations;
+
+  private PasswordEncoder encoder;
+
+  private BoundedPasswordEncoder boundedEncoder;
+
+  private String hash;
+
+  @Setup
+  public void setup() {
+    encoder = PasswordEncoders.delegating(encodingId, bcryptStrength, pbkdf2Iterations);
+    boundedEncoder = new BoundedPasswordEncoder(encoder, 1, 1);
+    hash = encoder.encode(PASSWORD);
+  }
+
+  @TearDown
+  public void tearDown() {
+    boundedEncoder.destroy();
+  }
+
+  @Benchmark
+  public boolean login() {
+    return encoder.matches(PASSWORD, hash);
+  }
+
+  /** The same, through the hashing thread pool, to measure the cost of the handoff. */
+  @Benchmark
+  public boolean boundedLogin() {
+    return boundedEncoder.matches(PASSWORD, hash);
+  }
+}
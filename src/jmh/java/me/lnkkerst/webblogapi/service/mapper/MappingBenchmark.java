@@ -0,0 +1,69 @@
+package me.lnkkerst.webblogapi.service.mapper;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import me.lnkkerst.webblogapi.domain.Comment;
+import me.lnkkerst.webblogapi.domain.EntityGraphs;
+import me.lnkkerst.webblogapi.domain.Post;
+import me.lnkkerst.webblogapi.domain.User;
+import me.lnkkerst.webblogapi.service.dto.CommentDTO;
+import me.lnkkerst.webblogapi.service.dto.PostDTO;
+import me.lnkkerst.webblogapi.service.dto.UserDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Time to map a page of entities to their DTOs, as the list endpoints do. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MappingBenchmark {
+
+  @Param({"20", "200"})
+  private int pageSize;
+
+  private final PostMapper postMapper = new PostMapperImpl();
+
+  private final CommentMapper commentMapper = new CommentMapperImpl();
+
+  private final UserMapper userMapper = new UserMapper();
+
+  private List<User> users;
+
+  private List<Post> posts;
+
+  private List<Comment> comments;
+
+  @Setup
+  public void setup() {
+    users = EntityGraphs.users(pageSize);
+    posts = EntityGraphs.posts(pageSize, users);
+    comments = EntityGraphs.comments(pageSize, posts, users);
+  }
+
+  @Benchmark
+  public List<PostDTO> postsToDto() {
+    return postMapper.toDto(posts);
+  }
+
+  @Benchmark
+  public List<CommentDTO> commentsToDto() {
+    return commentMapper.toDto(comments);
+  }
+
+  @Benchmark
+  public List<UserDTO> usersToUserDTOs() {
+    return userMapper.usersToUserDTOs(users);
+  }
+}
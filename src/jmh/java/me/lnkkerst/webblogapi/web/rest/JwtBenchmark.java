@@ -0,0 +1,103 @@
+package me.lnkkerst.webblogapi.web.rest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import me.lnkkerst.webblogapi.config.ApplicationProperties;
+import me.lnkkerst.webblogapi.config.SecurityJwtConfiguration;
+import me.lnkkerst.webblogapi.management.SecurityMetersService;
+import me.lnkkerst.webblogapi.security.AuthoritiesConstants;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Time to issue a token in {@link AuthenticateController#createToken(Authentication, boolean)},
+ * and to decode it with the decoder of the {@link SecurityJwtConfiguration}, on the first request
+ * of a client and on the next ones.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JwtBenchmark {
+
+  private static final String BASE64_SECRET =
+      "MmQ1ZGEyNTNkYTAzY2JiYjExNWM5MmRiMGE0M2FmNDljNTEyYTg0MzU0MzQ4ZTE2ZTZlMzU1MWQzMzNhNjc3Nzc1"
+          + "OGMxMzI1NDQ2NmIxMzM5NGQ2ODkzYjBmNzkxZjI2M2NjNjI3ZTkyZmExMzlmNmViYmNlOGU3OGFiOGM5NmY=";
+
+  private static final long TOKEN_VALIDITY_IN_SECONDS = 86400;
+
+  private AuthenticateController authenticateController;
+
+  private Authentication authentication;
+
+  private JwtDecoder decoder;
+
+  private JwtDecoder uncachedDecoder;
+
+  private String token;
+
+  @Setup
+  public void setup() {
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    SecurityJwtConfiguration configuration = configuration(new ApplicationProperties());
+    decoder = configuration.jwtDecoder(new SecurityMetersService(meterRegistry));
+    // Tokens expire from the cache as soon as they are verified
+    ApplicationProperties uncached = new ApplicationProperties();
+    uncached.getCache().getVerifiedToken().setTimeToLiveSeconds(0);
+    uncachedDecoder = configuration(uncached).jwtDecoder(new SecurityMetersService(meterRegistry));
+
+    authenticateController = new AuthenticateController(configuration.jwtEncoder(), null);
+    setField(authenticateController, "tokenValidityInSeconds", TOKEN_VALIDITY_IN_SECONDS);
+    authentication =
+        UsernamePasswordAuthenticationToken.authenticated(
+            "user", null, List.of(new SimpleGrantedAuthority(AuthoritiesConstants.USER)));
+    token = authenticateController.createToken(authentication, false);
+  }
+
+  @Benchmark
+  public String createToken() {
+    return authenticateController.createToken(authentication, false);
+  }
+
+  /** Decode a token already verified, as on every request of a client but the first one. */
+  @Benchmark
+  public Jwt decodeVerified() {
+    return decoder.decode(token);
+  }
+
+  /** Parse and verify a token, as on the first request of a client. */
+  @Benchmark
+  public Jwt decodeUnverified() {
+    return uncachedDecoder.decode(token);
+  }
+
+  private static SecurityJwtConfiguration configuration(ApplicationProperties properties) {
+    SecurityJwtConfiguration configuration = new SecurityJwtConfiguration(properties);
+    setField(configuration, "jwtKey", BASE64_SECRET);
+    return configuration;
+  }
+
+  private static void setField(Object target, String name, Object value) {
+    Field field = ReflectionUtils.findField(target.getClass(), name);
+    ReflectionUtils.makeAccessible(field);
+    ReflectionUtils.setField(field, target, value);
+  }
+}
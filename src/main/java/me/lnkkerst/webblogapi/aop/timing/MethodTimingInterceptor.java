@@ -0,0 +1,286 @@
+package me.lnkkerst.webblogapi.aop.timing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.MethodMatcher;
+import org.springframework.aop.PointcutAdvisor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Interceptor timing the execution of repository, service and Web REST methods, meant to run in
+ * production in place of the {@code LoggingAspect}.
+ *
+ * <p>Timers are tagged with the class of the bean called, so that the methods a repository
+ * inherits from Spring Data, like {@code findById}, are timed per repository. They record latency
+ * histograms, and are created for every advised bean once the application is ready, then found
+ * with two map lookups: a call does no logger lookup, signature resolution, or string building.
+ * Only a sample of the calls are timed, and calls are only logged while {@link #setDebug(boolean)
+ * debug} is on.
+ */
+public class MethodTimingInterceptor
+    implements MethodInterceptor, ApplicationListener<ApplicationReadyEvent> {
+
+  public static final String POINTCUT =
+      "(within(me.lnkkerst.webblogapi.repository..*)"
+          + " || within(me.lnkkerst.webblogapi.service..*)"
+          + " || within(me.lnkkerst.webblogapi.web.rest..*))"
+          + " && (within(@org.springframework.stereotype.Repository *)"
+          + " || within(@org.springframework.stereotype.Service *)"
+          + " || within(@org.springframework.web.bind.annotation.RestController *))";
+
+  public static final String METER_NAME = "application.method.duration";
+
+  public static final String METER_DESCRIPTION =
+      "Execution time of the repository, service and Web REST methods.";
+
+  /** Bounds of the histogram buckets, beyond which the latencies are not told apart. */
+  private static final Duration MINIMUM_EXPECTED_VALUE = Duration.ofMillis(1);
+
+  private static final Duration MAXIMUM_EXPECTED_VALUE = Duration.ofSeconds(10);
+
+  private final ObjectProvider<MeterRegistry> registryProvider;
+
+  private final double samplingRate;
+
+  private final Duration[] serviceLevelObjectives;
+
+  /** The timers by class of the bean called, then by method. */
+  private final ConcurrentMap<Class<?>, ConcurrentMap<Method, MethodTimer>> timers =
+      new ConcurrentHashMap<>();
+
+  private volatile boolean debug;
+
+  /**
+   * @param registryProvider the registry of the timers, only looked up once the application is
+   *     ready so that it is not created before its post processors.
+   * @param samplingRate the fraction of calls to time, between 0 and 1.
+   * @param serviceLevelObjectives the latencies the histograms count the calls under.
+   */
+  public MethodTimingInterceptor(
+      ObjectProvider<MeterRegistry> registryProvider,
+      double samplingRate,
+      List<Duration> serviceLevelObjectives) {
+    this.registryProvider = registryProvider;
+    this.samplingRate = samplingRate;
+    this.serviceLevelObjectives = serviceLevelObjectives.toArray(Duration[]::new);
+  }
+
+  @Override
+  public Object invoke(MethodInvocation invocation) throws Throwable {
+    MethodTimer methodTimer = timerOf(invocation);
+    if (debug && methodTimer.logger.isDebugEnabled()) {
+      return proceedLogged(invocation, methodTimer);
+    }
+    if (!sampled()) {
+      return invocation.proceed();
+    }
+    long start = System.nanoTime();
+    try {
+      return invocation.proceed();
+    } finally {
+      methodTimer.timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  /** Create the timers of the advised beans, before they are first called. */
+  @Override
+  public void onApplicationEvent(ApplicationReadyEvent event) {
+    Map<String, Object> beans =
+        event.getApplicationContext().getBeansOfType(Object.class, false, false);
+    for (Object bean : beans.values()) {
+      if (bean instanceof Advised advised) {
+        registerTimers(advised);
+      }
+    }
+  }
+
+  /**
+   * Create the timers of the methods of a bean this interceptor advises.
+   *
+   * @param advised the proxy of the bean, ignored if not advised by this interceptor.
+   */
+  public void registerTimers(Advised advised) {
+    MethodMatcher methodMatcher = methodMatcherOf(advised);
+    if (methodMatcher == null) {
+      return;
+    }
+    Object target;
+    try {
+      target = advised.getTargetSource().getTarget();
+    } catch (Exception e) {
+      throw new IllegalStateException("Could not get the target of " + advised, e);
+    }
+    if (target == null) {
+      return;
+    }
+    // The methods the proxy is called with, as matched by the proxy
+    Class<?> targetClass = target.getClass();
+    Collection<Class<?>> types =
+        AopUtils.isJdkDynamicProxy(advised)
+            ? Arrays.asList(advised.getProxiedInterfaces())
+            : List.of(AopUtils.getTargetClass(target));
+    ConcurrentMap<Method, MethodTimer> methods =
+        timers.computeIfAbsent(targetClass, type -> new ConcurrentHashMap<>());
+    for (Class<?> type : types) {
+      for (Method method : type.getMethods()) {
+        if (methodMatcher.matches(method, targetClass)) {
+          methods.computeIfAbsent(method, m -> createTimer(target, m));
+        }
+      }
+    }
+  }
+
+  /** The timers of the methods registered or called so far, once each. */
+  public Collection<MethodTimer> getTimers() {
+    Map<Timer, MethodTimer> distinct = new IdentityHashMap<>();
+    timers.values().forEach(methods -> methods.values().forEach(t -> distinct.put(t.timer, t)));
+    return distinct.values();
+  }
+
+  public double getSamplingRate() {
+    return samplingRate;
+  }
+
+  public boolean isDebug() {
+    return debug;
+  }
+
+  /**
+   * Switch the logging of every call on or off. Calls are logged at the debug level, so the logger
+   * of their class must also be at that level.
+   *
+   * @param debug whether to log the calls.
+   */
+  public void setDebug(boolean debug) {
+    this.debug = debug;
+  }
+
+  private MethodTimer timerOf(MethodInvocation invocation) {
+    Object target = invocation.getThis();
+    Method method = invocation.getMethod();
+    ConcurrentMap<Method, MethodTimer> methods = timers.get(target.getClass());
+    MethodTimer methodTimer = methods != null ? methods.get(method) : null;
+    if (methodTimer == null) {
+      // A bean created after the application was ready, or a method not matched up front
+      methodTimer =
+          timers
+              .computeIfAbsent(target.getClass(), type -> new ConcurrentHashMap<>())
+              .computeIfAbsent(method, m -> createTimer(target, m));
+    }
+    return methodTimer;
+  }
+
+  /** The methods a proxy calls this interceptor for, or {@code null} if it does not. */
+  private MethodMatcher methodMatcherOf(Advised advised) {
+    for (Advisor advisor : advised.getAdvisors()) {
+      if (advisor.getAdvice() == this) {
+        return advisor instanceof PointcutAdvisor pointcutAdvisor
+            ? pointcutAdvisor.getPointcut().getMethodMatcher()
+            : MethodMatcher.TRUE;
+      }
+    }
+    return null;
+  }
+
+  private Object proceedLogged(MethodInvocation invocation, MethodTimer methodTimer)
+      throws Throwable {
+    Logger log = methodTimer.logger;
+    String name = methodTimer.methodName;
+    log.debug(
+        "Enter: {}() with argument[s] = {}", name, Arrays.toString(invocation.getArguments()));
+    long start = System.nanoTime();
+    try {
+      Object result = invocation.proceed();
+      log.debug("Exit: {}() with result = {}", name, result);
+      return result;
+    } catch (IllegalArgumentException e) {
+      log.error("Illegal argument: {} in {}()", Arrays.toString(invocation.getArguments()), name);
+      throw e;
+    } finally {
+      methodTimer.timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  private boolean sampled() {
+    return samplingRate >= 1 || ThreadLocalRandom.current().nextDouble() < samplingRate;
+  }
+
+  private MethodTimer createTimer(Object target, Method method) {
+    Class<?> type = typeOf(target);
+    Timer timer =
+        Timer.builder(METER_NAME)
+            .description(METER_DESCRIPTION)
+            .tag("class", type.getSimpleName())
+            .tag("method", method.getName())
+            .publishPercentileHistogram()
+            .serviceLevelObjectives(serviceLevelObjectives)
+            .minimumExpectedValue(MINIMUM_EXPECTED_VALUE)
+            .maximumExpectedValue(MAXIMUM_EXPECTED_VALUE)
+            .register(registryProvider.getObject());
+    return new MethodTimer(type.getSimpleName(), method.getName(), timer, type);
+  }
+
+  /** The class of a bean, or the repository interface of a Spring Data repository. */
+  private static Class<?> typeOf(Object target) {
+    if (AopUtils.isJdkDynamicProxy(target)) {
+      for (Class<?> type : target.getClass().getInterfaces()) {
+        if (type.isAnnotationPresent(Repository.class)) {
+          return type;
+        }
+      }
+    }
+    return AopUtils.getTargetClass(target);
+  }
+
+  /** The timer and logger of a method. */
+  public static final class MethodTimer {
+
+    private final String className;
+
+    private final String methodName;
+
+    private final Timer timer;
+
+    private final Logger logger;
+
+    private MethodTimer(String className, String methodName, Timer timer, Class<?> type) {
+      this.className = className;
+      this.methodName = methodName;
+      this.timer = timer;
+      this.logger = LoggerFactory.getLogger(type);
+    }
+
+    public String getClassName() {
+      return className;
+    }
+
+    public String getMethodName() {
+      return methodName;
+    }
+
+    public Timer getTimer() {
+      return timer;
+    }
+  }
+}
@@ -0,0 +1,2 @@
+/** Method timing. */
+package me.lnkkerst.webblogapi.aop.timing;
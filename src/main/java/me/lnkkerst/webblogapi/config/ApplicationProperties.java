@@ -1,6 +1,9 @@
 package me.lnkkerst.webblogapi.config;
 
+import java.time.Duration;
+import java.util.List;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
 /**
  * Properties specific to Blogapi.
@@ -10,7 +13,604 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
 public class ApplicationProperties {
+
+  private final Cache cache = new Cache();
+
+  private final Security security = new Security();
+
+  private final Timing timing = new Timing();
+
+  private final Sql sql = new Sql();
+
+  private final VirtualThreads virtualThreads = new VirtualThreads();
+
+  private final MailOutbox mailOutbox = new MailOutbox();
+
+  private final UserPurge userPurge = new UserPurge();
+
+  private final HotPosts hotPosts = new HotPosts();
+
+  private final Feed feed = new Feed();
+
+  private final ResponseCache responseCache = new ResponseCache();
+
+  private final Batch batch = new Batch();
+
   // jhipster-needle-application-properties-property
+
+  public Cache getCache() {
+    return cache;
+  }
+
+  public Security getSecurity() {
+    return security;
+  }
+
+  public Timing getTiming() {
+    return timing;
+  }
+
+  public Sql getSql() {
+    return sql;
+  }
+
+  public VirtualThreads getVirtualThreads() {
+    return virtualThreads;
+  }
+
+  public MailOutbox getMailOutbox() {
+    return mailOutbox;
+  }
+
+  public UserPurge getUserPurge() {
+    return userPurge;
+  }
+
+  public HotPosts getHotPosts() {
+    return hotPosts;
+  }
+
+  public Feed getFeed() {
+    return feed;
+  }
+
+  public ResponseCache getResponseCache() {
+    return responseCache;
+  }
+
+  public Batch getBatch() {
+    return batch;
+  }
+
   // jhipster-needle-application-properties-property-getter
+
+  /** Hibernate second-level cache regions, and other caches, see {@link CacheConfiguration}. */
+  public static class Cache {
+
+    private final Region node = new Region(3600, 1000);
+
+    private final Region user = new Region(600, 10000);
+
+    private final Region userAuthorities = new Region(600, 10000);
+
+    private final Region authority = new Region(3600, 100);
+
+    private final Region queryResults = new Region(300, 1000);
+
+    private final Region principal = new Region(60, 10000);
+
+    private final Region verifiedToken = new Region(3600, 10000);
+
+    public Region getNode() {
+      return node;
+    }
+
+    public Region getUser() {
+      return user;
+    }
+
+    public Region getUserAuthorities() {
+      return userAuthorities;
+    }
+
+    public Region getAuthority() {
+      return authority;
+    }
+
+    public Region getQueryResults() {
+      return queryResults;
+    }
+
+    /** Accounts of authenticated users, see {@code PrincipalService}. */
+    public Region getPrincipal() {
+      return principal;
+    }
+
+    /** Already verified JWTs, which are also evicted when they expire. */
+    public Region getVerifiedToken() {
+      return verifiedToken;
+    }
+  }
+
+  /** Security settings, see {@link SecurityConfiguration}. */
+  public static class Security {
+
+    private final Password password = new Password();
+
+    public Password getPassword() {
+      return password;
+    }
+  }
+
+  /** Password hashing algorithm, cost and concurrency. */
+  public static class Password {
+
+    /** Algorithm of new hashes: {@code argon2}, {@code bcrypt} or {@code pbkdf2}. */
+    private String encodingId = "argon2";
+
+    private int bcryptStrength = 10;
+
+    private int pbkdf2Iterations = 310000;
+
+    /** Threads hashing passwords, so that logins cannot take every core. */
+    private int hashingThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+    /** Hashings waiting for a thread, beyond which logins are rejected. */
+    private int hashingQueueCapacity = 200;
+
+    public String getEncodingId() {
+      return encodingId;
+    }
+
+    public void setEncodingId(String encodingId) {
+      this.encodingId = encodingId;
+    }
+
+    public int getBcryptStrength() {
+      return bcryptStrength;
+    }
+
+    public void setBcryptStrength(int bcryptStrength) {
+      this.bcryptStrength = bcryptStrength;
+    }
+
+    public int getPbkdf2Iterations() {
+      return pbkdf2Iterations;
+    }
+
+    public void setPbkdf2Iterations(int pbkdf2Iterations) {
+      this.pbkdf2Iterations = pbkdf2Iterations;
+    }
+
+    public int getHashingThreads() {
+      return hashingThreads;
+    }
+
+    public void setHashingThreads(int hashingThreads) {
+      this.hashingThreads = hashingThreads;
+    }
+
+    public int getHashingQueueCapacity() {
+      return hashingQueueCapacity;
+    }
+
+    public void setHashingQueueCapacity(int hashingQueueCapacity) {
+      this.hashingQueueCapacity = hashingQueueCapacity;
+    }
+  }
+
+  /** Method timing, see {@link LoggingAspectConfiguration}. */
+  public static class Timing {
+
+    private boolean enabled = false;
+
+    /** Fraction of the calls to time, between 0 and 1. */
+    private double samplingRate = 1.0;
+
+    /** Number of methods returned by the management endpoint by default. */
+    private int slowestMethods = 20;
+
+    /** Latencies the histograms of the methods count the calls under, besides their buckets. */
+    private List<Duration> serviceLevelObjectives =
+        List.of(
+            Duration.ofMillis(10),
+            Duration.ofMillis(50),
+            Duration.ofMillis(100),
+            Duration.ofMillis(500),
+            Duration.ofSeconds(1));
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public double getSamplingRate() {
+      return samplingRate;
+    }
+
+    public void setSamplingRate(double samplingRate) {
+      this.samplingRate = samplingRate;
+    }
+
+    public int getSlowestMethods() {
+      return slowestMethods;
+    }
+
+    public void setSlowestMethods(int slowestMethods) {
+      this.slowestMethods = slowestMethods;
+    }
+
+    public List<Duration> getServiceLevelObjectives() {
+      return serviceLevelObjectives;
+    }
+
+    public void setServiceLevelObjectives(List<Duration> serviceLevelObjectives) {
+      this.serviceLevelObjectives = serviceLevelObjectives;
+    }
+  }
+
+  /** SQL statements budget of the requests, see {@link DatabaseConfiguration}. */
+  public static class Sql {
+
+    private boolean enabled = true;
+
+    /** Statements a request may prepare before it is reported. */
+    private int statementBudget = 20;
+
+    /** Times a request may prepare the same statement before it is reported as an N+1 select. */
+    private int repeatedStatementThreshold = 5;
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public int getStatementBudget() {
+      return statementBudget;
+    }
+
+    public void setStatementBudget(int statementBudget) {
+      this.statementBudget = statementBudget;
+    }
+
+    public int getRepeatedStatementThreshold() {
+      return repeatedStatementThreshold;
+    }
+
+    public void setRepeatedStatementThreshold(int repeatedStatementThreshold) {
+      this.repeatedStatementThreshold = repeatedStatementThreshold;
+    }
+  }
+
+  /**
+   * Virtual threads, used when {@code spring.threads.virtual.enabled} is set, see {@link
+   * VirtualThreadsConfiguration}.
+   */
+  public static class VirtualThreads {
+
+    /** Time a virtual thread may stay pinned to its carrier before it is reported. */
+    private Duration pinnedThreshold = Duration.ofMillis(20);
+
+    public Duration getPinnedThreshold() {
+      return pinnedThreshold;
+    }
+
+    public void setPinnedThreshold(Duration pinnedThreshold) {
+      this.pinnedThreshold = pinnedThreshold;
+    }
+  }
+
+  /** Delivery of the mail outbox, see {@code MailDeliveryService}. */
+  public static class MailOutbox {
+
+    /** Time between two deliveries of the due mails. */
+    private Duration pollInterval = Duration.ofSeconds(5);
+
+    /** Mails sent over a single SMTP connection. */
+    private int batchSize = 50;
+
+    /** Delivery attempts of a mail before it is given up. */
+    private int maxAttempts = 8;
+
+    /** Delay before the first retry, doubled on every next one. */
+    private Duration initialBackoff = Duration.ofSeconds(30);
+
+    private Duration maxBackoff = Duration.ofHours(1);
+
+    public Duration getPollInterval() {
+      return pollInterval;
+    }
+
+    public void setPollInterval(Duration pollInterval) {
+      this.pollInterval = pollInterval;
+    }
+
+    public int getBatchSize() {
+      return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+      this.batchSize = batchSize;
+    }
+
+    public int getMaxAttempts() {
+      return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+      this.maxAttempts = maxAttempts;
+    }
+
+    public Duration getInitialBackoff() {
+      return initialBackoff;
+    }
+
+    public void setInitialBackoff(Duration initialBackoff) {
+      this.initialBackoff = initialBackoff;
+    }
+
+    public Duration getMaxBackoff() {
+      return maxBackoff;
+    }
+
+    public void setMaxBackoff(Duration maxBackoff) {
+      this.maxBackoff = maxBackoff;
+    }
+  }
+
+  /** Purge of the not activated users, see {@code UserService}. */
+  public static class UserPurge {
+
+    /** Users deleted per transaction. */
+    private int chunkSize = 500;
+
+    /** Pause between two chunks, leaving the database to other transactions. */
+    private Duration pause = Duration.ofMillis(100);
+
+    public int getChunkSize() {
+      return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+      this.chunkSize = chunkSize;
+    }
+
+    public Duration getPause() {
+      return pause;
+    }
+
+    public void setPause(Duration pause) {
+      this.pause = pause;
+    }
+  }
+
+  /** Ranking of the hot posts, see {@code HotPostService}. */
+  public static class HotPosts {
+
+    /** Time after which the weight of a post, comment or favorite is halved. */
+    private Duration halfLife = Duration.ofHours(12);
+
+    /** Weight of the post itself, when it is created. */
+    private double postWeight = 1.0;
+
+    /** Weight of each comment of the post. */
+    private double commentWeight = 1.0;
+
+    /** Weight of each favorite pointing to the post. */
+    private double favoriteWeight = 2.0;
+
+    /** Posts kept in memory by each ranking, and maximum size of a request. */
+    private int rankingSize = 100;
+
+    /** Interval of the decay of the stored scores, which also reloads the rankings. */
+    private Duration decayInterval = Duration.ofHours(1);
+
+    public Duration getHalfLife() {
+      return halfLife;
+    }
+
+    public void setHalfLife(Duration halfLife) {
+      this.halfLife = halfLife;
+    }
+
+    public double getPostWeight() {
+      return postWeight;
+    }
+
+    public void setPostWeight(double postWeight) {
+      this.postWeight = postWeight;
+    }
+
+    public double getCommentWeight() {
+      return commentWeight;
+    }
+
+    public void setCommentWeight(double commentWeight) {
+      this.commentWeight = commentWeight;
+    }
+
+    public double getFavoriteWeight() {
+      return favoriteWeight;
+    }
+
+    public void setFavoriteWeight(double favoriteWeight) {
+      this.favoriteWeight = favoriteWeight;
+    }
+
+    public int getRankingSize() {
+      return rankingSize;
+    }
+
+    public void setRankingSize(int rankingSize) {
+      this.rankingSize = rankingSize;
+    }
+
+    public Duration getDecayInterval() {
+      return decayInterval;
+    }
+
+    public void setDecayInterval(Duration decayInterval) {
+      this.decayInterval = decayInterval;
+    }
+  }
+
+  /** Feed of the followed users and nodes, see {@code FeedService}. */
+  public static class Feed {
+
+    /** Whether the owners following many sources get an inbox written on post creation. */
+    private boolean inboxEnabled = false;
+
+    /** Followed users and nodes above which an owner gets an inbox. */
+    private int inboxThreshold = 100;
+
+    /** Newest posts kept in an inbox, the older ones are read from the sources. */
+    private int inboxSize = 500;
+
+    public boolean isInboxEnabled() {
+      return inboxEnabled;
+    }
+
+    public void setInboxEnabled(boolean inboxEnabled) {
+      this.inboxEnabled = inboxEnabled;
+    }
+
+    public int getInboxThreshold() {
+      return inboxThreshold;
+    }
+
+    public void setInboxThreshold(int inboxThreshold) {
+      this.inboxThreshold = inboxThreshold;
+    }
+
+    public int getInboxSize() {
+      return inboxSize;
+    }
+
+    public void setInboxSize(int inboxSize) {
+      this.inboxSize = inboxSize;
+    }
+  }
+
+  /** Cache of the responses to anonymous reads, see {@code ResponseCacheFilter}. */
+  public static class ResponseCache {
+
+    /** Whether the responses are cached, checked on every request. */
+    private boolean enabled = true;
+
+    /** Total size of the cached bodies, fixed on startup. */
+    private DataSize maxSize = DataSize.ofMegabytes(64);
+
+    /** Time a response is cached, fixed on startup. */
+    private Duration timeToLive = Duration.ofMinutes(10);
+
+    /** Whether the bodies are stored gzip-compressed. */
+    private boolean gzip = true;
+
+    /** Size under which a body is stored uncompressed. */
+    private DataSize gzipMinSize = DataSize.ofKilobytes(1);
+
+    /** Pages of the posts of a node which are cached, counting from the first one. */
+    private int maxPages = 3;
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public DataSize getMaxSize() {
+      return maxSize;
+    }
+
+    public void setMaxSize(DataSize maxSize) {
+      this.maxSize = maxSize;
+    }
+
+    public Duration getTimeToLive() {
+      return timeToLive;
+    }
+
+    public void setTimeToLive(Duration timeToLive) {
+      this.timeToLive = timeToLive;
+    }
+
+    public boolean isGzip() {
+      return gzip;
+    }
+
+    public void setGzip(boolean gzip) {
+      this.gzip = gzip;
+    }
+
+    public DataSize getGzipMinSize() {
+      return gzipMinSize;
+    }
+
+    public void setGzipMinSize(DataSize gzipMinSize) {
+      this.gzipMinSize = gzipMinSize;
+    }
+
+    public int getMaxPages() {
+      return maxPages;
+    }
+
+    public void setMaxPages(int maxPages) {
+      this.maxPages = maxPages;
+    }
+  }
+
+  /** Batched creations, see {@code POST /api/comments/batch} and {@code /api/favorites/batch}. */
+  public static class Batch {
+
+    /** Items a single batch may hold. */
+    private int maxItems = 1000;
+
+    public int getMaxItems() {
+      return maxItems;
+    }
+
+    public void setMaxItems(int maxItems) {
+      this.maxItems = maxItems;
+    }
+  }
+
+  /** Expiry and size bound of a single cache region. */
+  public static class Region {
+
+    private long timeToLiveSeconds;
+
+    private long maxEntries;
+
+    public Region() {}
+
+    public Region(long timeToLiveSeconds, long maxEntries) {
+      this.timeToLiveSeconds = timeToLiveSeconds;
+      this.maxEntries = maxEntries;
+    }
+
+    public long getTimeToLiveSeconds() {
+      return timeToLiveSeconds;
+    }
+
+    public void setTimeToLiveSeconds(long timeToLiveSeconds) {
+      this.timeToLiveSeconds = timeToLiveSeconds;
+    }
+
+    public long getMaxEntries() {
+      return maxEntries;
+    }
+
+    public void setMaxEntries(long maxEntries) {
+      this.maxEntries = maxEntries;
+    }
+  }
   // jhipster-needle-application-properties-property-class
 }
@@ -0,0 +1,92 @@
+package me.lnkkerst.webblogapi.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import me.lnkkerst.webblogapi.domain.Authority;
+import me.lnkkerst.webblogapi.domain.Node;
+import me.lnkkerst.webblogapi.domain.User;
+import me.lnkkerst.webblogapi.service.PrincipalService;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * In-process Caffeine regions backing the Hibernate second-level cache.
+ *
+ * <p>Regions are exposed through the Spring cache manager, so their hit, miss and eviction counts
+ * are published on the Prometheus endpoint as {@code cache_*} meters.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfiguration {
+
+  private final ApplicationProperties.Cache cache;
+
+  public CacheConfiguration(ApplicationProperties applicationProperties) {
+    this.cache = applicationProperties.getCache();
+  }
+
+  @Bean
+  public HibernatePropertiesCustomizer hibernatePropertiesCustomizer(
+      javax.cache.CacheManager cacheManager) {
+    return hibernateProperties ->
+        hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+  }
+
+  @Bean
+  public JCacheManagerCustomizer cacheManagerCustomizer() {
+    return cm -> {
+      createCache(cm, Node.class.getName(), regionConfiguration(cache.getNode()));
+      createCache(cm, User.class.getName(), regionConfiguration(cache.getUser()));
+      createCache(
+          cm,
+          User.class.getName() + ".authorities",
+          regionConfiguration(cache.getUserAuthorities()));
+      createCache(cm, Authority.class.getName(), regionConfiguration(cache.getAuthority()));
+      createCache(
+          cm,
+          RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+          regionConfiguration(cache.getQueryResults()));
+      // Update timestamps must outlive every cached query result, so they never expire
+      createCache(
+          cm, RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, baseConfiguration());
+      createCache(
+          cm,
+          PrincipalService.PRINCIPALS_BY_LOGIN_CACHE,
+          regionConfiguration(cache.getPrincipal()));
+      // jhipster-needle-caffeine-add-entry
+    };
+  }
+
+  private void createCache(
+      javax.cache.CacheManager cm,
+      String cacheName,
+      javax.cache.configuration.Configuration<Object, Object> configuration) {
+    javax.cache.Cache<Object, Object> existing = cm.getCache(cacheName);
+    if (existing != null) {
+      existing.clear();
+    } else {
+      cm.createCache(cacheName, configuration);
+    }
+  }
+
+  private CaffeineConfiguration<Object, Object> regionConfiguration(
+      ApplicationProperties.Region region) {
+    CaffeineConfiguration<Object, Object> configuration = baseConfiguration();
+    configuration.setMaximumSize(OptionalLong.of(region.getMaxEntries()));
+    configuration.setExpireAfterWrite(
+        OptionalLong.of(TimeUnit.SECONDS.toNanos(region.getTimeToLiveSeconds())));
+    return configuration;
+  }
+
+  private CaffeineConfiguration<Object, Object> baseConfiguration() {
+    CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+    configuration.setStatisticsEnabled(true);
+    return configuration;
+  }
+}
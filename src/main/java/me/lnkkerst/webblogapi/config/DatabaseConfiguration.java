@@ -1,8 +1,16 @@
 package me.lnkkerst.webblogapi.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import java.sql.SQLException;
+import me.lnkkerst.webblogapi.management.SqlStatementBudgetFilter;
+import me.lnkkerst.webblogapi.management.SqlStatementCounter;
+import me.lnkkerst.webblogapi.repository.ExtendedJpaRepository;
+import org.hibernate.cfg.AvailableSettings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
@@ -14,7 +22,9 @@ import tech.jhipster.config.JHipsterConstants;
 import tech.jhipster.config.h2.H2ConfigurationHelper;
 
 @Configuration
-@EnableJpaRepositories({"me.lnkkerst.webblogapi.repository"})
+@EnableJpaRepositories(
+    value = {"me.lnkkerst.webblogapi.repository"},
+    repositoryBaseClass = ExtendedJpaRepository.class)
 @EnableJpaAuditing(auditorAwareRef = "springSecurityAuditorAware")
 @EnableTransactionManagement
 public class DatabaseConfiguration {
@@ -23,8 +33,38 @@ public class DatabaseConfiguration {
 
   private final Environment env;
 
-  public DatabaseConfiguration(Environment env) {
+  private final ApplicationProperties.Sql sql;
+
+  public DatabaseConfiguration(Environment env, ApplicationProperties applicationProperties) {
     this.env = env;
+    this.sql = applicationProperties.getSql();
+  }
+
+  /**
+   * Count the SQL statements with the {@link SqlStatementCounter}, which is also used by the tests
+   * to assert the number of statements of a request.
+   */
+  @Bean
+  public HibernatePropertiesCustomizer sqlStatementCounterCustomizer() {
+    return hibernateProperties ->
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementCounter());
+  }
+
+  /** Report the API requests over the SQL statements budget. */
+  @Bean
+  @ConditionalOnProperty(
+      prefix = "application.sql",
+      name = "enabled",
+      havingValue = "true",
+      matchIfMissing = true)
+  public FilterRegistrationBean<SqlStatementBudgetFilter> sqlStatementBudgetFilter(
+      MeterRegistry meterRegistry) {
+    FilterRegistrationBean<SqlStatementBudgetFilter> registration =
+        new FilterRegistrationBean<>(
+            new SqlStatementBudgetFilter(
+                meterRegistry, sql.getStatementBudget(), sql.getRepeatedStatementThreshold()));
+    registration.addUrlPatterns("/api/*");
+    return registration;
   }
 
   /**
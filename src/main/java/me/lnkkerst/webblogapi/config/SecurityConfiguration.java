@@ -13,7 +13,6 @@ import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.server.resource.web.BearerTokenAuthenticationEntryPoint;
 import org.springframework.security.oauth2.server.resource.web.access.BearerTokenAccessDeniedHandler;
@@ -31,14 +30,24 @@ public class SecurityConfiguration {
 
   private final JHipsterProperties jHipsterProperties;
 
-  public SecurityConfiguration(Environment env, JHipsterProperties jHipsterProperties) {
+  private final ApplicationProperties.Password password;
+
+  public SecurityConfiguration(
+      Environment env,
+      JHipsterProperties jHipsterProperties,
+      ApplicationProperties applicationProperties) {
     this.env = env;
     this.jHipsterProperties = jHipsterProperties;
+    this.password = applicationProperties.getSecurity().getPassword();
   }
 
   @Bean
   public PasswordEncoder passwordEncoder() {
-    return new BCryptPasswordEncoder();
+    return new BoundedPasswordEncoder(
+        PasswordEncoders.delegating(
+            password.getEncodingId(), password.getBcryptStrength(), password.getPbkdf2Iterations()),
+        password.getHashingThreads(),
+        password.getHashingQueueCapacity());
   }
 
   @Bean
@@ -66,6 +75,8 @@ public class SecurityConfiguration {
                     .permitAll()
                     .requestMatchers(mvc.pattern(HttpMethod.GET, "/api/comments/**"))
                     .permitAll()
+                    .requestMatchers(mvc.pattern(HttpMethod.GET, "/api/search/**"))
+                    .permitAll()
                     .requestMatchers(mvc.pattern("/api/register"))
                     .permitAll()
                     .requestMatchers(mvc.pattern("/api/activate"))
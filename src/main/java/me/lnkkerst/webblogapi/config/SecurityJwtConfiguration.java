@@ -5,14 +5,17 @@ import static me.lnkkerst.webblogapi.security.SecurityUtils.JWT_ALGORITHM;
 
 import com.nimbusds.jose.jwk.source.ImmutableSecret;
 import com.nimbusds.jose.util.Base64;
+import java.time.Duration;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 import me.lnkkerst.webblogapi.management.SecurityMetersService;
+import me.lnkkerst.webblogapi.security.CachingJwtDecoder;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtTimestampValidator;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
@@ -24,26 +27,23 @@ public class SecurityJwtConfiguration {
   @Value("${jhipster.security.authentication.jwt.base64-secret}")
   private String jwtKey;
 
+  private final ApplicationProperties.Region verifiedTokens;
+
+  public SecurityJwtConfiguration(ApplicationProperties applicationProperties) {
+    this.verifiedTokens = applicationProperties.getCache().getVerifiedToken();
+  }
+
   @Bean
   public JwtDecoder jwtDecoder(SecurityMetersService metersService) {
     NimbusJwtDecoder jwtDecoder =
         NimbusJwtDecoder.withSecretKey(getSecretKey()).macAlgorithm(JWT_ALGORITHM).build();
-    return token -> {
-      try {
-        return jwtDecoder.decode(token);
-      } catch (Exception e) {
-        if (e.getMessage().contains("Invalid signature")) {
-          metersService.trackTokenInvalidSignature();
-        } else if (e.getMessage().contains("Jwt expired at")) {
-          metersService.trackTokenExpired();
-        } else if (e.getMessage().contains("Invalid JWT serialization")) {
-          metersService.trackTokenMalformed();
-        } else if (e.getMessage().contains("Invalid unsecured/JWS/JWE")) {
-          metersService.trackTokenMalformed();
-        }
-        throw e;
-      }
-    };
+    // Tokens are not bound to certificates, so the timestamps are all there is to validate
+    jwtDecoder.setJwtValidator(new JwtTimestampValidator());
+    return new CachingJwtDecoder(
+        jwtDecoder,
+        metersService,
+        verifiedTokens.getMaxEntries(),
+        Duration.ofSeconds(verifiedTokens.getTimeToLiveSeconds()));
   }
 
   @Bean
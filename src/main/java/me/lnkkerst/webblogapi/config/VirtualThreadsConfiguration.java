@@ -0,0 +1,52 @@
+package me.lnkkerst.webblogapi.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import me.lnkkerst.webblogapi.management.VirtualThreadPinningMonitor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.web.embedded.undertow.UndertowServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+/**
+ * Runs the requests on virtual threads when {@code spring.threads.virtual.enabled} is set on Java
+ * 21 or later. The {@code @Async} tasks follow, see {@link AsyncConfiguration}.
+ *
+ * <p>Requests are no longer bounded by the Undertow worker pool, the Hikari pool is what limits
+ * the concurrent database work: the requests past its size wait for a connection, up to its
+ * connection timeout, without holding a platform thread.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadsConfiguration {
+
+  private final Logger log = LoggerFactory.getLogger(VirtualThreadsConfiguration.class);
+
+  private final ApplicationProperties.VirtualThreads virtualThreads;
+
+  public VirtualThreadsConfiguration(ApplicationProperties applicationProperties) {
+    this.virtualThreads = applicationProperties.getVirtualThreads();
+  }
+
+  /** Dispatch the servlet requests from the Undertow I/O threads to a new virtual thread each. */
+  @Bean
+  public WebServerFactoryCustomizer<UndertowServletWebServerFactory> undertowVirtualThreads() {
+    return factory ->
+        factory.addDeploymentInfoCustomizers(
+            deploymentInfo -> {
+              log.debug("Running requests on virtual threads");
+              VirtualThreadTaskExecutor executor = new VirtualThreadTaskExecutor("undertow-");
+              deploymentInfo.setExecutor(executor);
+              deploymentInfo.setAsyncExecutor(executor);
+            });
+  }
+
+  @Bean
+  public VirtualThreadPinningMonitor virtualThreadPinningMonitor(MeterRegistry meterRegistry) {
+    return new VirtualThreadPinningMonitor(meterRegistry, virtualThreads.getPinnedThreshold());
+  }
+}
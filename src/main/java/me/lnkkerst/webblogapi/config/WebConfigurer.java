@@ -1,9 +1,12 @@
 package me.lnkkerst.webblogapi.config;
 
 import jakarta.servlet.*;
+import me.lnkkerst.webblogapi.service.ResponseCacheService;
+import me.lnkkerst.webblogapi.web.filter.ResponseCacheFilter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.web.server.*;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.boot.web.servlet.ServletContextInitializer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -60,6 +63,20 @@ public class WebConfigurer implements ServletContextInitializer {
     return new CorsFilter(source);
   }
 
+  /**
+   * Serve the anonymous reads of nodes and posts from the {@link ResponseCacheService}. The filter
+   * runs after the security filters, which authenticate the request first.
+   */
+  @Bean
+  public FilterRegistrationBean<ResponseCacheFilter> responseCacheFilter(
+      ResponseCacheService responseCacheService, ApplicationProperties applicationProperties) {
+    FilterRegistrationBean<ResponseCacheFilter> registration =
+        new FilterRegistrationBean<>(
+            new ResponseCacheFilter(responseCacheService, applicationProperties));
+    registration.addUrlPatterns("/api/nodes", "/api/posts/*");
+    return registration;
+  }
+
   /** Initializes H2 console. */
   private void initH2Console(ServletContext servletContext) {
     log.debug("Initialize H2 console");
@@ -1,5 +1,6 @@
 package me.lnkkerst.webblogapi.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
@@ -14,9 +15,13 @@ public class Comment implements Serializable {
 
   private static final long serialVersionUID = 1L;
 
+  public static final int PATH_SEGMENT_LENGTH = 8;
+
+  public static final int PATH_MAX_LENGTH = 512;
+
   @Id
-  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
-  @SequenceGenerator(name = "sequenceGenerator")
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "commentSequenceGenerator")
+  @SequenceGenerator(name = "commentSequenceGenerator")
   @Column(name = "id")
   private Long id;
 
@@ -46,6 +51,20 @@ public class Comment implements Serializable {
       allowSetters = true)
   private Comment reply;
 
+  /**
+   * Materialized path of the comment in its thread: the ids of its ancestors then its own id, each
+   * encoded on {@link #PATH_SEGMENT_LENGTH} base 36 digits. The comments of a subthread are the
+   * ones whose path starts with the path of its first comment. Maintained by the comment service.
+   */
+  @JsonIgnore
+  @Size(max = PATH_MAX_LENGTH)
+  @Column(name = "path", length = PATH_MAX_LENGTH)
+  private String path;
+
+  @Version
+  @Column(name = "version", nullable = false)
+  private long version;
+
   // jhipster-needle-entity-add-field - JHipster will add fields here
 
   public Long getId() {
@@ -126,6 +145,27 @@ public class Comment implements Serializable {
     return this;
   }
 
+  public String getPath() {
+    return this.path;
+  }
+
+  public void setPath(String path) {
+    this.path = path;
+  }
+
+  public long getVersion() {
+    return this.version;
+  }
+
+  public Comment version(long version) {
+    this.setVersion(version);
+    return this;
+  }
+
+  public void setVersion(long version) {
+    this.version = version;
+  }
+
   // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
   @Override
@@ -0,0 +1,73 @@
+package me.lnkkerst.webblogapi.domain;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import me.lnkkerst.webblogapi.domain.enumeration.CounterType;
+
+/**
+ * A precomputed count of rows related to a target entity, maintained incrementally by the services
+ * writing those rows.
+ */
+@Entity
+@Table(name = "entity_counter")
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class EntityCounter implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  @EmbeddedId private EntityCounterId id;
+
+  @Column(name = "total", nullable = false)
+  private long total;
+
+  public EntityCounter() {}
+
+  public EntityCounter(CounterType type, Long targetId) {
+    this.id = new EntityCounterId(type, targetId);
+  }
+
+  public EntityCounterId getId() {
+    return this.id;
+  }
+
+  public void setId(EntityCounterId id) {
+    this.id = id;
+  }
+
+  public long getTotal() {
+    return this.total;
+  }
+
+  public EntityCounter total(long total) {
+    this.setTotal(total);
+    return this;
+  }
+
+  public void setTotal(long total) {
+    this.total = total;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof EntityCounter)) {
+      return false;
+    }
+    return getId() != null && getId().equals(((EntityCounter) o).getId());
+  }
+
+  @Override
+  public int hashCode() {
+    // see
+    // https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+    return getClass().hashCode();
+  }
+
+  // prettier-ignore
+  @Override
+  public String toString() {
+    return "EntityCounter{" + "id=" + getId() + ", total=" + getTotal() + "}";
+  }
+}
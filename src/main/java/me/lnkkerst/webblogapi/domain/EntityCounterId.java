@@ -0,0 +1,66 @@
+package me.lnkkerst.webblogapi.domain;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.util.Objects;
+import me.lnkkerst.webblogapi.domain.enumeration.CounterType;
+
+/** Identifier of an {@link EntityCounter}: what is counted, for which target entity. */
+@Embeddable
+public class EntityCounterId implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "counter_type", length = 32, nullable = false)
+  private CounterType type;
+
+  @Column(name = "target_id", nullable = false)
+  private Long targetId;
+
+  public EntityCounterId() {}
+
+  public EntityCounterId(CounterType type, Long targetId) {
+    this.type = type;
+    this.targetId = targetId;
+  }
+
+  public CounterType getType() {
+    return this.type;
+  }
+
+  public void setType(CounterType type) {
+    this.type = type;
+  }
+
+  public Long getTargetId() {
+    return this.targetId;
+  }
+
+  public void setTargetId(Long targetId) {
+    this.targetId = targetId;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof EntityCounterId)) {
+      return false;
+    }
+    EntityCounterId that = (EntityCounterId) o;
+    return type == that.type && Objects.equals(targetId, that.targetId);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(type, targetId);
+  }
+
+  // prettier-ignore
+  @Override
+  public String toString() {
+    return "EntityCounterId{" + "type='" + getType() + "'" + ", targetId=" + getTargetId() + "}";
+  }
+}
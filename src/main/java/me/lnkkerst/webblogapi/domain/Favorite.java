@@ -15,8 +15,8 @@ public class Favorite implements Serializable {
   private static final long serialVersionUID = 1L;
 
   @Id
-  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
-  @SequenceGenerator(name = "sequenceGenerator")
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "favoriteSequenceGenerator")
+  @SequenceGenerator(name = "favoriteSequenceGenerator")
   @Column(name = "id")
   private Long id;
 
@@ -0,0 +1,88 @@
+package me.lnkkerst.webblogapi.domain;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * A post in the feed inbox of an owner, written when the post is created by a followed user or in
+ * a followed node, see {@link FeedInbox}.
+ *
+ * <p>Entries are always new when saved, so that they are inserted in JDBC batches without being
+ * looked up first.
+ */
+@Entity
+@Table(name = "feed_entry")
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class FeedEntry implements Persistable<FeedEntryId>, Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  @EmbeddedId private FeedEntryId id;
+
+  /** The creation time of the post, which orders the feed. */
+  @Column(name = "created_at", nullable = false)
+  private ZonedDateTime createdAt;
+
+  @Transient private boolean isNew = true;
+
+  public FeedEntry() {}
+
+  public FeedEntry(Long ownerId, Long postId, ZonedDateTime createdAt) {
+    this.id = new FeedEntryId(ownerId, postId);
+    this.createdAt = createdAt;
+  }
+
+  @Override
+  public FeedEntryId getId() {
+    return this.id;
+  }
+
+  public void setId(FeedEntryId id) {
+    this.id = id;
+  }
+
+  public ZonedDateTime getCreatedAt() {
+    return this.createdAt;
+  }
+
+  public void setCreatedAt(ZonedDateTime createdAt) {
+    this.createdAt = createdAt;
+  }
+
+  @Override
+  public boolean isNew() {
+    return this.isNew;
+  }
+
+  @PostLoad
+  @PostPersist
+  public void updateEntityState() {
+    this.isNew = false;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof FeedEntry)) {
+      return false;
+    }
+    return getId() != null && getId().equals(((FeedEntry) o).getId());
+  }
+
+  @Override
+  public int hashCode() {
+    // see
+    // https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+    return getClass().hashCode();
+  }
+
+  // prettier-ignore
+  @Override
+  public String toString() {
+    return "FeedEntry{" + "id=" + getId() + ", createdAt='" + getCreatedAt() + "'" + "}";
+  }
+}
@@ -0,0 +1,64 @@
+package me.lnkkerst.webblogapi.domain;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.util.Objects;
+
+/** Identifier of a {@link FeedEntry}: which post, in the inbox of which owner. */
+@Embeddable
+public class FeedEntryId implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  @Column(name = "owner_id", nullable = false)
+  private Long ownerId;
+
+  @Column(name = "post_id", nullable = false)
+  private Long postId;
+
+  public FeedEntryId() {}
+
+  public FeedEntryId(Long ownerId, Long postId) {
+    this.ownerId = ownerId;
+    this.postId = postId;
+  }
+
+  public Long getOwnerId() {
+    return this.ownerId;
+  }
+
+  public void setOwnerId(Long ownerId) {
+    this.ownerId = ownerId;
+  }
+
+  public Long getPostId() {
+    return this.postId;
+  }
+
+  public void setPostId(Long postId) {
+    this.postId = postId;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof FeedEntryId)) {
+      return false;
+    }
+    FeedEntryId that = (FeedEntryId) o;
+    return Objects.equals(ownerId, that.ownerId) && Objects.equals(postId, that.postId);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(ownerId, postId);
+  }
+
+  // prettier-ignore
+  @Override
+  public String toString() {
+    return "FeedEntryId{" + "ownerId=" + getOwnerId() + ", postId=" + getPostId() + "}";
+  }
+}
@@ -0,0 +1,101 @@
+package me.lnkkerst.webblogapi.domain;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+
+/**
+ * The feed inbox of an owner following many users and nodes, holding the {@link FeedEntry entries}
+ * of their posts so that the feed is read with a single index seek.
+ *
+ * <p>An inbox is filled with the newest posts of the followed sources when it is created, then
+ * written to whenever one of them gets a post. The posts older than the oldest copied one, the
+ * {@code since} position, are still read from the sources.
+ */
+@Entity
+@Table(name = "feed_inbox")
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class FeedInbox implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  @Id
+  @Column(name = "owner_id")
+  private Long ownerId;
+
+  /** The creation time of the oldest post copied, or {@code null} if all of them were. */
+  @Column(name = "since_created_at")
+  private ZonedDateTime sinceCreatedAt;
+
+  /** The id of the oldest post copied, or {@code null} if all of them were. */
+  @Column(name = "since_post_id")
+  private Long sincePostId;
+
+  public FeedInbox() {}
+
+  public FeedInbox(Long ownerId) {
+    this.ownerId = ownerId;
+  }
+
+  public Long getOwnerId() {
+    return this.ownerId;
+  }
+
+  public void setOwnerId(Long ownerId) {
+    this.ownerId = ownerId;
+  }
+
+  public ZonedDateTime getSinceCreatedAt() {
+    return this.sinceCreatedAt;
+  }
+
+  public void setSinceCreatedAt(ZonedDateTime sinceCreatedAt) {
+    this.sinceCreatedAt = sinceCreatedAt;
+  }
+
+  public Long getSincePostId() {
+    return this.sincePostId;
+  }
+
+  public void setSincePostId(Long sincePostId) {
+    this.sincePostId = sincePostId;
+  }
+
+  public FeedInbox since(ZonedDateTime createdAt, Long postId) {
+    this.setSinceCreatedAt(createdAt);
+    this.setSincePostId(postId);
+    return this;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof FeedInbox)) {
+      return false;
+    }
+    return getOwnerId() != null && getOwnerId().equals(((FeedInbox) o).getOwnerId());
+  }
+
+  @Override
+  public int hashCode() {
+    // see
+    // https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+    return getClass().hashCode();
+  }
+
+  // prettier-ignore
+  @Override
+  public String toString() {
+    return "FeedInbox{"
+        + "ownerId="
+        + getOwnerId()
+        + ", sinceCreatedAt='"
+        + getSinceCreatedAt()
+        + "'"
+        + ", sincePostId="
+        + getSincePostId()
+        + "}";
+  }
+}
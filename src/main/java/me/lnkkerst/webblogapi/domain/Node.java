@@ -3,10 +3,13 @@ package me.lnkkerst.webblogapi.domain;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import java.io.Serializable;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /** A Node. */
 @Entity
 @Table(name = "node")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @SuppressWarnings("common-java:DuplicatedBlocks")
 public class Node implements Serializable {
 
@@ -22,6 +25,10 @@ public class Node implements Serializable {
   @Column(name = "name", nullable = false)
   private String name;
 
+  @Version
+  @Column(name = "version", nullable = false)
+  private long version;
+
   // jhipster-needle-entity-add-field - JHipster will add fields here
 
   public Long getId() {
@@ -50,6 +57,19 @@ public class Node implements Serializable {
     this.name = name;
   }
 
+  public long getVersion() {
+    return this.version;
+  }
+
+  public Node version(long version) {
+    this.setVersion(version);
+    return this;
+  }
+
+  public void setVersion(long version) {
+    this.version = version;
+  }
+
   // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
   @Override
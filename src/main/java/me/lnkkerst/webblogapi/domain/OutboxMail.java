@@ -0,0 +1,228 @@
+package me.lnkkerst.webblogapi.domain;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+import java.io.Serializable;
+import java.time.Instant;
+import org.hibernate.annotations.JdbcTypeCode;
+
+/**
+ * An email waiting in the outbox for the mail delivery service to send it. Written in the
+ * transaction of the change it reports, and deleted once sent.
+ */
+@Entity
+@Table(name = "mail_outbox")
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class OutboxMail implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  public static final int LAST_ERROR_MAX_LENGTH = 512;
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+  @SequenceGenerator(name = "sequenceGenerator")
+  @Column(name = "id")
+  private Long id;
+
+  @NotNull
+  @Size(max = 254)
+  @Column(name = "recipient", length = 254, nullable = false)
+  private String recipient;
+
+  @NotNull
+  @Size(max = 255)
+  @Column(name = "subject", length = 255, nullable = false)
+  private String subject;
+
+  @Lob
+  @JdbcTypeCode(java.sql.Types.VARCHAR)
+  @NotNull
+  @Column(name = "content", nullable = false)
+  private String content;
+
+  @Column(name = "multipart", nullable = false)
+  private boolean multipart;
+
+  @Column(name = "html", nullable = false)
+  private boolean html;
+
+  @NotNull
+  @Column(name = "created_at", nullable = false)
+  private Instant createdAt;
+
+  /** Failed delivery attempts. */
+  @Column(name = "attempts", nullable = false)
+  private int attempts;
+
+  /** When to try delivering next, {@code null} once the delivery was given up. */
+  @Column(name = "next_attempt_at")
+  private Instant nextAttemptAt;
+
+  @Size(max = LAST_ERROR_MAX_LENGTH)
+  @Column(name = "last_error", length = LAST_ERROR_MAX_LENGTH)
+  private String lastError;
+
+  public Long getId() {
+    return this.id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public String getRecipient() {
+    return this.recipient;
+  }
+
+  public OutboxMail recipient(String recipient) {
+    this.setRecipient(recipient);
+    return this;
+  }
+
+  public void setRecipient(String recipient) {
+    this.recipient = recipient;
+  }
+
+  public String getSubject() {
+    return this.subject;
+  }
+
+  public OutboxMail subject(String subject) {
+    this.setSubject(subject);
+    return this;
+  }
+
+  public void setSubject(String subject) {
+    this.subject = subject;
+  }
+
+  public String getContent() {
+    return this.content;
+  }
+
+  public OutboxMail content(String content) {
+    this.setContent(content);
+    return this;
+  }
+
+  public void setContent(String content) {
+    this.content = content;
+  }
+
+  public boolean isMultipart() {
+    return this.multipart;
+  }
+
+  public OutboxMail multipart(boolean multipart) {
+    this.setMultipart(multipart);
+    return this;
+  }
+
+  public void setMultipart(boolean multipart) {
+    this.multipart = multipart;
+  }
+
+  public boolean isHtml() {
+    return this.html;
+  }
+
+  public OutboxMail html(boolean html) {
+    this.setHtml(html);
+    return this;
+  }
+
+  public void setHtml(boolean html) {
+    this.html = html;
+  }
+
+  public Instant getCreatedAt() {
+    return this.createdAt;
+  }
+
+  public OutboxMail createdAt(Instant createdAt) {
+    this.setCreatedAt(createdAt);
+    return this;
+  }
+
+  public void setCreatedAt(Instant createdAt) {
+    this.createdAt = createdAt;
+  }
+
+  public int getAttempts() {
+    return this.attempts;
+  }
+
+  public OutboxMail attempts(int attempts) {
+    this.setAttempts(attempts);
+    return this;
+  }
+
+  public void setAttempts(int attempts) {
+    this.attempts = attempts;
+  }
+
+  public Instant getNextAttemptAt() {
+    return this.nextAttemptAt;
+  }
+
+  public OutboxMail nextAttemptAt(Instant nextAttemptAt) {
+    this.setNextAttemptAt(nextAttemptAt);
+    return this;
+  }
+
+  public void setNextAttemptAt(Instant nextAttemptAt) {
+    this.nextAttemptAt = nextAttemptAt;
+  }
+
+  public String getLastError() {
+    return this.lastError;
+  }
+
+  public OutboxMail lastError(String lastError) {
+    this.setLastError(lastError);
+    return this;
+  }
+
+  public void setLastError(String lastError) {
+    this.lastError = lastError;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof OutboxMail)) {
+      return false;
+    }
+    return getId() != null && getId().equals(((OutboxMail) o).getId());
+  }
+
+  @Override
+  public int hashCode() {
+    // see
+    // https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+    return getClass().hashCode();
+  }
+
+  // prettier-ignore
+  @Override
+  public String toString() {
+    return "OutboxMail{"
+        + "id="
+        + getId()
+        + ", recipient='"
+        + getRecipient()
+        + "'"
+        + ", subject='"
+        + getSubject()
+        + "'"
+        + ", attempts="
+        + getAttempts()
+        + ", nextAttemptAt='"
+        + getNextAttemptAt()
+        + "'"
+        + "}";
+  }
+}
@@ -14,8 +14,8 @@ public class Post implements Serializable {
   private static final long serialVersionUID = 1L;
 
   @Id
-  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
-  @SequenceGenerator(name = "sequenceGenerator")
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "postSequenceGenerator")
+  @SequenceGenerator(name = "postSequenceGenerator")
   @Column(name = "id")
   private Long id;
 
@@ -41,6 +41,10 @@ public class Post implements Serializable {
   @NotNull
   private Node node;
 
+  @Version
+  @Column(name = "version", nullable = false)
+  private long version;
+
   // jhipster-needle-entity-add-field - JHipster will add fields here
 
   public Long getId() {
@@ -121,6 +125,19 @@ public class Post implements Serializable {
     return this;
   }
 
+  public long getVersion() {
+    return this.version;
+  }
+
+  public Post version(long version) {
+    this.setVersion(version);
+    return this;
+  }
+
+  public void setVersion(long version) {
+    this.version = version;
+  }
+
   // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
   @Override
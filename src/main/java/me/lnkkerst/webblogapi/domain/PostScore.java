@@ -0,0 +1,115 @@
+package me.lnkkerst.webblogapi.domain;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+
+/**
+ * The hot score of a post, a sum of weights which decay exponentially with time, maintained
+ * incrementally by the services writing the post, its comments and its favorites.
+ *
+ * <p>The score is stored as decayed to {@link #getScoredAt() a time}, its value at any other time
+ * is derived from the decay rate.
+ */
+@Entity
+@Table(name = "post_score")
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class PostScore implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  @Id
+  @Column(name = "post_id")
+  private Long postId;
+
+  @Column(name = "node_id", nullable = false)
+  private Long nodeId;
+
+  @Column(name = "score", nullable = false)
+  private double score;
+
+  /** The time the score is decayed to, in seconds since the epoch. */
+  @Column(name = "scored_at", nullable = false)
+  private long scoredAt;
+
+  public PostScore() {}
+
+  public PostScore(Long postId, Long nodeId) {
+    this.postId = postId;
+    this.nodeId = nodeId;
+  }
+
+  public Long getPostId() {
+    return this.postId;
+  }
+
+  public void setPostId(Long postId) {
+    this.postId = postId;
+  }
+
+  public Long getNodeId() {
+    return this.nodeId;
+  }
+
+  public void setNodeId(Long nodeId) {
+    this.nodeId = nodeId;
+  }
+
+  public double getScore() {
+    return this.score;
+  }
+
+  public PostScore score(double score) {
+    this.setScore(score);
+    return this;
+  }
+
+  public void setScore(double score) {
+    this.score = score;
+  }
+
+  public long getScoredAt() {
+    return this.scoredAt;
+  }
+
+  public PostScore scoredAt(long scoredAt) {
+    this.setScoredAt(scoredAt);
+    return this;
+  }
+
+  public void setScoredAt(long scoredAt) {
+    this.scoredAt = scoredAt;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof PostScore)) {
+      return false;
+    }
+    return getPostId() != null && getPostId().equals(((PostScore) o).getPostId());
+  }
+
+  @Override
+  public int hashCode() {
+    // see
+    // https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+    return getClass().hashCode();
+  }
+
+  // prettier-ignore
+  @Override
+  public String toString() {
+    return "PostScore{"
+        + "postId="
+        + getPostId()
+        + ", nodeId="
+        + getNodeId()
+        + ", score="
+        + getScore()
+        + ", scoredAt="
+        + getScoredAt()
+        + "}";
+  }
+}
@@ -14,10 +14,13 @@ import java.util.Set;
 import me.lnkkerst.webblogapi.config.Constants;
 import org.apache.commons.lang3.StringUtils;
 import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /** A user. */
 @Entity
 @Table(name = "jhi_user")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class User extends AbstractAuditingEntity<Long> implements Serializable {
 
   private static final long serialVersionUID = 1L;
@@ -35,8 +38,8 @@ public class User extends AbstractAuditingEntity<Long> implements Serializable {
 
   @JsonIgnore
   @NotNull
-  @Size(min = 60, max = 60)
-  @Column(name = "password_hash", length = 60, nullable = false)
+  @Size(min = 60, max = 128)
+  @Column(name = "password_hash", length = 128, nullable = false)
   private String password;
 
   @Size(max = 50)
@@ -83,6 +86,7 @@ public class User extends AbstractAuditingEntity<Long> implements Serializable {
       name = "jhi_user_authority",
       joinColumns = {@JoinColumn(name = "user_id", referencedColumnName = "id")},
       inverseJoinColumns = {@JoinColumn(name = "authority_name", referencedColumnName = "name")})
+  @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
   @BatchSize(size = 20)
   private Set<Authority> authorities = new HashSet<>();
 
@@ -0,0 +1,19 @@
+package me.lnkkerst.webblogapi.domain.enumeration;
+
+/** The CounterType enumeration, naming what an {@code EntityCounter} counts for its target. */
+public enum CounterType {
+  /** Posts of a node. */
+  NODE_POSTS,
+  /** Comments of a post. */
+  POST_COMMENTS,
+  /** Favorites pointing to a post. */
+  POST_FAVORITES,
+  /** Favorites pointing to a node. */
+  NODE_FAVORITES,
+  /** Favorites pointing to a user. */
+  USER_FAVORITES,
+  /** Writes to a post and to its comments, which version the lists of its comments. */
+  POST_VERSION,
+  /** Writes to the nodes, which version their lists, counted for the target {@code 0}. */
+  NODES_VERSION,
+}
@@ -0,0 +1,112 @@
+package me.lnkkerst.webblogapi.management;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import me.lnkkerst.webblogapi.aop.timing.MethodTimingInterceptor;
+import me.lnkkerst.webblogapi.aop.timing.MethodTimingInterceptor.MethodTimer;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+
+/**
+ * {@code /management/methodtimings}: the slowest methods timed by the {@link
+ * MethodTimingInterceptor}, and the switch of its debug logging.
+ */
+@Endpoint(id = "methodtimings")
+public class MethodTimingEndpoint {
+
+  private final MethodTimingInterceptor interceptor;
+
+  private final int defaultLimit;
+
+  public MethodTimingEndpoint(MethodTimingInterceptor interceptor, int defaultLimit) {
+    this.interceptor = interceptor;
+    this.defaultLimit = defaultLimit;
+  }
+
+  /**
+   * {@code GET /management/methodtimings} : get the methods with the highest mean execution time.
+   *
+   * @param limit the number of methods to return.
+   * @return the sampling rate, the debug switch, and the methods slowest first.
+   */
+  @ReadOperation
+  public Map<String, Object> slowest(@Nullable Integer limit) {
+    List<MethodTiming> methods =
+        interceptor.getTimers().stream()
+            .filter(methodTimer -> methodTimer.getTimer().count() > 0)
+            .map(MethodTiming::new)
+            .sorted(Comparator.comparingDouble(MethodTiming::getMeanMillis).reversed())
+            .limit(limit != null ? limit : defaultLimit)
+            .toList();
+    Map<String, Object> body = new LinkedHashMap<>();
+    body.put("samplingRate", interceptor.getSamplingRate());
+    body.put("debug", interceptor.isDebug());
+    body.put("methods", methods);
+    return body;
+  }
+
+  /**
+   * {@code POST /management/methodtimings} : switch the logging of every call on or off.
+   *
+   * @param debug whether to log the calls.
+   */
+  @WriteOperation
+  public void debug(boolean debug) {
+    interceptor.setDebug(debug);
+  }
+
+  /** The execution time of a method, as sampled. */
+  public static class MethodTiming {
+
+    private final String className;
+
+    private final String methodName;
+
+    private final long count;
+
+    private final double meanMillis;
+
+    private final double maxMillis;
+
+    private final double totalMillis;
+
+    MethodTiming(MethodTimer methodTimer) {
+      this.className = methodTimer.getClassName();
+      this.methodName = methodTimer.getMethodName();
+      this.count = methodTimer.getTimer().count();
+      this.meanMillis = methodTimer.getTimer().mean(TimeUnit.MILLISECONDS);
+      this.maxMillis = methodTimer.getTimer().max(TimeUnit.MILLISECONDS);
+      this.totalMillis = methodTimer.getTimer().totalTime(TimeUnit.MILLISECONDS);
+    }
+
+    public String getClassName() {
+      return className;
+    }
+
+    public String getMethodName() {
+      return methodName;
+    }
+
+    public long getCount() {
+      return count;
+    }
+
+    public double getMeanMillis() {
+      return meanMillis;
+    }
+
+    /** The maximum over the recent window of the timer. */
+    public double getMaxMillis() {
+      return maxMillis;
+    }
+
+    public double getTotalMillis() {
+      return totalMillis;
+    }
+  }
+}
@@ -13,10 +13,18 @@ public class SecurityMetersService {
   public static final String INVALID_TOKENS_METER_BASE_UNIT = "errors";
   public static final String INVALID_TOKENS_METER_CAUSE_DIMENSION = "cause";
 
+  public static final String TOKEN_CACHE_METER_NAME = "security.authentication.token-cache";
+  public static final String TOKEN_CACHE_METER_DESCRIPTION =
+      "Indicates lookups of the tokens presented by the clients in the cache of verified tokens.";
+  public static final String TOKEN_CACHE_METER_BASE_UNIT = "lookups";
+  public static final String TOKEN_CACHE_METER_RESULT_DIMENSION = "result";
+
   private final Counter tokenInvalidSignatureCounter;
   private final Counter tokenExpiredCounter;
   private final Counter tokenUnsupportedCounter;
   private final Counter tokenMalformedCounter;
+  private final Counter tokenCacheHitCounter;
+  private final Counter tokenCacheMissCounter;
 
   public SecurityMetersService(MeterRegistry registry) {
     this.tokenInvalidSignatureCounter =
@@ -26,6 +34,8 @@ public class SecurityMetersService {
         invalidTokensCounterForCauseBuilder("unsupported").register(registry);
     this.tokenMalformedCounter =
         invalidTokensCounterForCauseBuilder("malformed").register(registry);
+    this.tokenCacheHitCounter = tokenCacheCounterForResultBuilder("hit").register(registry);
+    this.tokenCacheMissCounter = tokenCacheCounterForResultBuilder("miss").register(registry);
   }
 
   private Counter.Builder invalidTokensCounterForCauseBuilder(String cause) {
@@ -35,6 +45,13 @@ public class SecurityMetersService {
         .tag(INVALID_TOKENS_METER_CAUSE_DIMENSION, cause);
   }
 
+  private Counter.Builder tokenCacheCounterForResultBuilder(String result) {
+    return Counter.builder(TOKEN_CACHE_METER_NAME)
+        .baseUnit(TOKEN_CACHE_METER_BASE_UNIT)
+        .description(TOKEN_CACHE_METER_DESCRIPTION)
+        .tag(TOKEN_CACHE_METER_RESULT_DIMENSION, result);
+  }
+
   public void trackTokenInvalidSignature() {
     this.tokenInvalidSignatureCounter.increment();
   }
@@ -50,4 +67,12 @@ public class SecurityMetersService {
   public void trackTokenMalformed() {
     this.tokenMalformedCounter.increment();
   }
+
+  public void trackTokenCacheHit() {
+    this.tokenCacheHitCounter.increment();
+  }
+
+  public void trackTokenCacheMiss() {
+    this.tokenCacheMissCounter.increment();
+  }
 }
@@ -0,0 +1,111 @@
+package me.lnkkerst.webblogapi.management;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Counts the SQL statements of every request with the {@link SqlStatementCounter}, records them
+ * per route, and reports the requests over the statement budget and the statements repeated often
+ * enough to be N+1 selects.
+ */
+public class SqlStatementBudgetFilter extends OncePerRequestFilter {
+
+  public static final String STATEMENTS_METER_NAME = "application.request.sql.statements";
+  public static final String STATEMENTS_METER_DESCRIPTION =
+      "Indicates the number of SQL statements prepared by the requests.";
+  public static final String STATEMENTS_METER_BASE_UNIT = "statements";
+
+  public static final String OVER_BUDGET_METER_NAME = "application.request.sql.over-budget";
+  public static final String OVER_BUDGET_METER_DESCRIPTION =
+      "Indicates the requests which prepared more SQL statements than the budget.";
+  public static final String OVER_BUDGET_METER_BASE_UNIT = "requests";
+
+  public static final String URI_DIMENSION = "uri";
+
+  private static final String UNKNOWN_URI = "UNKNOWN";
+
+  private final Logger log = LoggerFactory.getLogger(SqlStatementBudgetFilter.class);
+
+  private final MeterRegistry registry;
+
+  private final int statementBudget;
+
+  private final int repeatedStatementThreshold;
+
+  /**
+   * @param registry the registry of the meters.
+   * @param statementBudget the number of statements a request may prepare without being reported.
+   * @param repeatedStatementThreshold the number of times a statement may be prepared by a request
+   *     without being reported.
+   */
+  public SqlStatementBudgetFilter(
+      MeterRegistry registry, int statementBudget, int repeatedStatementThreshold) {
+    this.registry = registry;
+    this.statementBudget = statementBudget;
+    this.repeatedStatementThreshold = repeatedStatementThreshold;
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    SqlStatementCounter.Scope statements = SqlStatementCounter.open();
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      statements.close();
+      record(request, statements);
+    }
+  }
+
+  private void record(HttpServletRequest request, SqlStatementCounter.Scope statements) {
+    String uri = uriOf(request);
+    long total = statements.getTotal();
+    DistributionSummary.builder(STATEMENTS_METER_NAME)
+        .baseUnit(STATEMENTS_METER_BASE_UNIT)
+        .description(STATEMENTS_METER_DESCRIPTION)
+        .tag(URI_DIMENSION, uri)
+        .register(registry)
+        .record(total);
+    if (total > statementBudget) {
+      Counter.builder(OVER_BUDGET_METER_NAME)
+          .baseUnit(OVER_BUDGET_METER_BASE_UNIT)
+          .description(OVER_BUDGET_METER_DESCRIPTION)
+          .tag(URI_DIMENSION, uri)
+          .register(registry)
+          .increment();
+      log.warn(
+          "{} {} prepared {} SQL statements, over the budget of {}",
+          request.getMethod(),
+          uri,
+          total,
+          statementBudget);
+    }
+    for (Map.Entry<String, Integer> repeated :
+        statements.getRepeated(repeatedStatementThreshold).entrySet()) {
+      log.warn(
+          "{} {} prepared {} times, possibly an N+1 select: {}",
+          request.getMethod(),
+          uri,
+          repeated.getValue(),
+          repeated.getKey());
+    }
+  }
+
+  /** The route pattern rather than the path, so that the meters are not tagged per entity id. */
+  private static String uriOf(HttpServletRequest request) {
+    Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    return pattern != null ? pattern.toString() : UNKNOWN_URI;
+  }
+}
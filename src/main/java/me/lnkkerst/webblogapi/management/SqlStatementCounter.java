@@ -0,0 +1,103 @@
+package me.lnkkerst.webblogapi.management;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate statement inspector counting the SQL statements prepared by the current thread, so
+ * that requests issuing too many statements, and N+1 selects in particular, can be told apart.
+ *
+ * <p>Statements are only counted within a {@link Scope} opened by {@link #open()}, as by the
+ * {@link SqlStatementBudgetFilter} around every request: scheduled jobs and other threads only
+ * cost a thread local lookup per statement. Scopes can be nested, the statements of a closed scope
+ * are added to the enclosing one.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+  private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+  @Override
+  public String inspect(String sql) {
+    Scope scope = CURRENT.get();
+    if (scope != null) {
+      scope.add(sql, 1);
+    }
+    return sql;
+  }
+
+  /**
+   * Start counting the statements of the current thread.
+   *
+   * @return the scope, to close on the same thread once done.
+   */
+  public static Scope open() {
+    Scope scope = new Scope(CURRENT.get());
+    CURRENT.set(scope);
+    return scope;
+  }
+
+  /** Statements counted on a thread between {@link #open()} and {@link #close()}. */
+  public static final class Scope implements AutoCloseable {
+
+    private final Scope parent;
+
+    private final Map<String, Integer> statements = new HashMap<>();
+
+    private long total;
+
+    private boolean closed;
+
+    private Scope(Scope parent) {
+      this.parent = parent;
+    }
+
+    private void add(String sql, int count) {
+      total += count;
+      statements.merge(sql, count, Integer::sum);
+    }
+
+    /** The number of statements prepared in this scope and its closed nested scopes. */
+    public long getTotal() {
+      return total;
+    }
+
+    /** The distinct statements prepared in this scope and its closed nested scopes. */
+    public Set<String> getStatements() {
+      return Collections.unmodifiableSet(statements.keySet());
+    }
+
+    /**
+     * Get the statements prepared at least a number of times, as an N+1 select would be.
+     *
+     * @param threshold the minimum number of times.
+     * @return the number of times of each of these statements, the most repeated first.
+     */
+    public Map<String, Integer> getRepeated(int threshold) {
+      Map<String, Integer> repeated = new LinkedHashMap<>();
+      statements.entrySet().stream()
+          .filter(statement -> statement.getValue() >= threshold)
+          .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+          .forEach(statement -> repeated.put(statement.getKey(), statement.getValue()));
+      return repeated;
+    }
+
+    /** Stop counting, and add the statements to the enclosing scope if any. */
+    @Override
+    public void close() {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      if (parent == null) {
+        CURRENT.remove();
+        return;
+      }
+      CURRENT.set(parent);
+      statements.forEach(parent::add);
+    }
+  }
+}
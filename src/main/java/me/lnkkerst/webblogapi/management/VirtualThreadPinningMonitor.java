@@ -0,0 +1,97 @@
+package me.lnkkerst.webblogapi.management;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+
+/**
+ * Reports the virtual threads which block while pinned to their carrier thread, typically inside a
+ * {@code synchronized} block of a JDBC driver or connection pool, as they hold the carrier for the
+ * whole wait and the other virtual threads cannot use it.
+ *
+ * <p>Pinned waits over the threshold are read from the {@code jdk.VirtualThreadPinned} flight
+ * recorder event: they are recorded in a timer, and the stack of each distinct one is logged once.
+ */
+public class VirtualThreadPinningMonitor implements InitializingBean, DisposableBean {
+
+  public static final String PINNED_METER_NAME = "application.virtual-threads.pinned";
+  public static final String PINNED_METER_DESCRIPTION =
+      "Indicates the time virtual threads blocked while pinned to their carrier thread.";
+
+  static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+  /** Distinct stacks logged, the next ones are only recorded. */
+  private static final int MAX_LOGGED_STACKS = 100;
+
+  private static final int MAX_LOGGED_FRAMES = 12;
+
+  private final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+  private final Timer pinned;
+
+  private final Duration threshold;
+
+  /** Stacks already logged, only read and written by the recording stream thread. */
+  private final Set<String> loggedStacks = new HashSet<>();
+
+  private RecordingStream recording;
+
+  /**
+   * @param registry the registry of the meters.
+   * @param threshold the time a virtual thread may stay pinned before it is reported.
+   */
+  public VirtualThreadPinningMonitor(MeterRegistry registry, Duration threshold) {
+    this.pinned =
+        Timer.builder(PINNED_METER_NAME).description(PINNED_METER_DESCRIPTION).register(registry);
+    this.threshold = threshold;
+  }
+
+  @Override
+  public void afterPropertiesSet() {
+    recording = new RecordingStream();
+    recording.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+    recording.onEvent(PINNED_EVENT, this::record);
+    recording.startAsync();
+    log.debug("Reporting virtual threads pinned for more than {}", threshold);
+  }
+
+  @Override
+  public void destroy() {
+    if (recording != null) {
+      recording.close();
+    }
+  }
+
+  private void record(RecordedEvent event) {
+    pinned.record(event.getDuration());
+    if (event.getStackTrace() == null || loggedStacks.size() >= MAX_LOGGED_STACKS) {
+      return;
+    }
+    String stack =
+        event.getStackTrace().getFrames().stream()
+            .limit(MAX_LOGGED_FRAMES)
+            .map(VirtualThreadPinningMonitor::toString)
+            .collect(Collectors.joining("\n\tat ", "\tat ", ""));
+    if (loggedStacks.add(stack)) {
+      log.warn("Virtual thread pinned for {} ms at:\n{}", event.getDuration().toMillis(), stack);
+    }
+  }
+
+  private static String toString(RecordedFrame frame) {
+    return frame.getMethod().getType().getName()
+        + "."
+        + frame.getMethod().getName()
+        + ":"
+        + frame.getLineNumber();
+  }
+}
@@ -1,15 +1,91 @@
 package me.lnkkerst.webblogapi.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import me.lnkkerst.webblogapi.domain.Comment;
+import me.lnkkerst.webblogapi.domain.Post;
+import org.hibernate.LockOptions;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-/** Spring Data JPA repository for the Comment entity. */
+/**
+ * Spring Data JPA repository for the Comment entity.
+ *
+ * <p>Subthread queries match on a {@code path} prefix, see {@link Comment#getPath()}, and are
+ * served by a range scan of the path index.
+ */
 @SuppressWarnings("unused")
 @Repository
 public interface CommentRepository
-    extends JpaRepository<Comment, Long>, JpaSpecificationExecutor<Comment> {
+    extends JpaRepository<Comment, Long>,
+        JpaSpecificationExecutor<Comment>,
+        SpecificationContentExecutor<Comment> {
   @Query("select comment from Comment comment where comment.user.login = ?#{authentication.name}")
   List<Comment> findByUserIsCurrentUser();
+
+  /** Count a comment and all its replies, direct or not. */
+  long countByPathStartingWith(String path);
+
+  @Query(
+      "select max(length(comment.path)) from Comment comment where comment.path like :pathPattern")
+  Optional<Integer> findMaxPathLength(@Param("pathPattern") String pathPattern);
+
+  /**
+   * Lock the comments without a path whose parent, if any, already has one, in the order of their
+   * ids. The comments already locked by another instance are skipped, on the databases which
+   * support it, so that instances share the backfill.
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @QueryHints(
+      @QueryHint(
+          name = "jakarta.persistence.lock.timeout",
+          value = "" + LockOptions.SKIP_LOCKED))
+  @Query(
+      "select comment from Comment comment where comment.path is null and comment.id > :afterId"
+          + " and (comment.reply is null or exists (select reply.id from Comment reply"
+          + " where reply = comment.reply and reply.path is not null))"
+          + " order by comment.id")
+  List<Comment> findAllWithoutPath(@Param("afterId") Long afterId, Pageable pageable);
+
+  /** The ids of the direct replies of the comments. */
+  @Query("select comment.id from Comment comment where comment.reply.id in :ids")
+  List<Long> findIdsByReplyIdIn(@Param("ids") Collection<Long> ids);
+
+  /** Rewrite the paths of the replies of a comment which moved from one path to another. */
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query(
+      "update Comment comment"
+          + " set comment.path = concat(:path, substring(comment.path, :previousLength + 1))"
+          + " where comment.path like :previousPathPattern")
+  int updatePathPrefix(
+      @Param("path") String path,
+      @Param("previousLength") int previousLength,
+      @Param("previousPathPattern") String previousPathPattern);
+
+  /** Move the comments matching the path pattern to another post. */
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("update Comment comment set comment.post = :post where comment.path like :pathPattern")
+  int updatePostByPathLike(@Param("post") Post post, @Param("pathPattern") String pathPattern);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("update Comment comment set comment.post = :post where comment.id in :ids")
+  int updatePostByIdIn(@Param("post") Post post, @Param("ids") Collection<Long> ids);
+
+  /** Unlink the comments matching the path pattern, so that they can be deleted in any order. */
+  @Modifying(flushAutomatically = true)
+  @Query("update Comment comment set comment.reply = null where comment.path like :pathPattern")
+  int clearReplyByPathLike(@Param("pathPattern") String pathPattern);
+
+  @Modifying(flushAutomatically = true)
+  @Query("update Comment comment set comment.reply = null where comment.id in :ids")
+  int clearReplyByIdIn(@Param("ids") Collection<Long> ids);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("delete from Comment comment where comment.path like :pathPattern")
+  int deleteByPathLike(@Param("pathPattern") String pathPattern);
 }
@@ -0,0 +1,46 @@
+package me.lnkkerst.webblogapi.repository;
+
+import java.util.Collection;
+import java.util.Optional;
+import me.lnkkerst.webblogapi.domain.EntityCounter;
+import me.lnkkerst.webblogapi.domain.EntityCounterId;
+import me.lnkkerst.webblogapi.domain.enumeration.CounterType;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/** Spring Data JPA repository for the EntityCounter entity. */
+@Repository
+public interface EntityCounterRepository extends JpaRepository<EntityCounter, EntityCounterId> {
+  @Query(
+      "select counter.total from EntityCounter counter"
+          + " where counter.id.type = :type and counter.id.targetId = :targetId")
+  Optional<Long> findTotal(@Param("type") CounterType type, @Param("targetId") Long targetId);
+
+  /**
+   * Atomically add {@code delta} to a counter, in the database row itself so that concurrent
+   * writers never lose an update.
+   *
+   * @return the number of updated rows, {@code 0} if the counter is not maintained.
+   */
+  @Modifying
+  @Query(
+      "update EntityCounter counter set counter.total = counter.total + :delta"
+          + " where counter.id.type = :type and counter.id.targetId = :targetId")
+  int add(
+      @Param("type") CounterType type,
+      @Param("targetId") Long targetId,
+      @Param("delta") long delta);
+
+  /**
+   * Delete the counters of a type of several targets at once.
+   *
+   * @return the number of deleted counters.
+   */
+  @Modifying
+  @Query(
+      "delete from EntityCounter counter"
+          + " where counter.id.type = :type and counter.id.targetId in :targetIds")
+  int deleteTargets(
+      @Param("type") CounterType type, @Param("targetIds") Collection<Long> targetIds);
+}
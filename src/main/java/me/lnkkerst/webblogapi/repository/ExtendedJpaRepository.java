@@ -0,0 +1,134 @@
+package me.lnkkerst.webblogapi.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.query.Query;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+
+/** Base class of the application repositories, adding {@link SpecificationContentExecutor}. */
+public class ExtendedJpaRepository<T, ID> extends SimpleJpaRepository<T, ID>
+    implements SpecificationContentExecutor<T> {
+
+  private final JpaEntityInformation<T, ?> entityInformation;
+
+  private final EntityManager entityManager;
+
+  public ExtendedJpaRepository(
+      JpaEntityInformation<T, ?> entityInformation, EntityManager entityManager) {
+    super(entityInformation, entityManager);
+    this.entityInformation = entityInformation;
+    this.entityManager = entityManager;
+  }
+
+  @Override
+  public List<T> findContent(Specification<T> spec, Pageable pageable) {
+    return page(getQuery(spec, pageable), pageable).getResultList();
+  }
+
+  @Override
+  public <R> List<R> findContent(
+      Specification<T> spec, Pageable pageable, Class<R> type, Projection<T> projection) {
+    CriteriaQuery<R> query = projectionQuery(spec, pageable.getSort(), type, projection);
+    return page(entityManager.createQuery(query), pageable).getResultList();
+  }
+
+  @Override
+  public <R> Stream<R> streamContent(
+      Specification<T> spec,
+      Sort sort,
+      Class<R> type,
+      Projection<T> projection,
+      int fetchSize) {
+    CriteriaQuery<R> criteria = projectionQuery(spec, sort, type, projection);
+    @SuppressWarnings("unchecked")
+    Query<R> query = entityManager.createQuery(criteria).unwrap(Query.class);
+    ScrollableResults<R> results =
+        query
+            .setFetchSize(fetchSize)
+            .setReadOnly(true)
+            .setCacheMode(CacheMode.IGNORE)
+            .scroll(ScrollMode.FORWARD_ONLY);
+    Spliterator<R> rows =
+        new Spliterators.AbstractSpliterator<R>(
+            Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+          private long read;
+
+          @Override
+          public boolean tryAdvance(Consumer<? super R> action) {
+            if (!results.next()) {
+              return false;
+            }
+            action.accept(results.get());
+            if (++read % fetchSize == 0) {
+              entityManager.clear();
+            }
+            return true;
+          }
+        };
+    return StreamSupport.stream(rows, false).onClose(results::close);
+  }
+
+  @Override
+  public ContentVersion findContentVersion(
+      Specification<T> spec, VersionProjection<T> versions) {
+    CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Tuple> query = builder.createTupleQuery();
+    Root<T> root = query.from(getDomainClass());
+    Predicate predicate = spec == null ? null : spec.toPredicate(root, query, builder);
+    if (predicate != null) {
+      query.where(predicate);
+    }
+    Path<Long> id = root.get(entityInformation.getIdAttribute().getName());
+    query.multiselect(
+        builder.count(root),
+        builder.coalesce(builder.max(id), 0L),
+        builder.coalesce(builder.sum(versions.select(root, builder)), 0L));
+    Tuple version = entityManager.createQuery(query).getSingleResult();
+    return new ContentVersion(
+        version.get(0, Long.class), version.get(1, Long.class), version.get(2, Long.class));
+  }
+
+  private <R> CriteriaQuery<R> projectionQuery(
+      Specification<T> spec, Sort sort, Class<R> type, Projection<T> projection) {
+    CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+    CriteriaQuery<R> query = builder.createQuery(type);
+    Root<T> root = query.from(getDomainClass());
+    Predicate predicate = spec == null ? null : spec.toPredicate(root, query, builder);
+    if (predicate != null) {
+      query.where(predicate);
+    }
+    query.select(builder.construct(type, projection.select(root, builder)));
+    if (sort.isSorted()) {
+      query.orderBy(QueryUtils.toOrders(sort, root, builder));
+    }
+    return query;
+  }
+
+  private <R> TypedQuery<R> page(TypedQuery<R> query, Pageable pageable) {
+    if (pageable.isPaged()) {
+      query.setFirstResult((int) pageable.getOffset());
+      query.setMaxResults(pageable.getPageSize());
+    }
+    return query;
+  }
+}
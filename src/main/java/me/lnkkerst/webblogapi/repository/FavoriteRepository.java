@@ -3,13 +3,16 @@ package me.lnkkerst.webblogapi.repository;
 import java.util.List;
 import me.lnkkerst.webblogapi.domain.Favorite;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /** Spring Data JPA repository for the Favorite entity. */
 @SuppressWarnings("unused")
 @Repository
 public interface FavoriteRepository
-    extends JpaRepository<Favorite, Long>, JpaSpecificationExecutor<Favorite> {
+    extends JpaRepository<Favorite, Long>,
+        JpaSpecificationExecutor<Favorite>,
+        SpecificationContentExecutor<Favorite> {
   @Query(
       "select favorite from Favorite favorite where favorite.owner.login = ?#{authentication.name}")
   List<Favorite> findByOwnerIsCurrentUser();
@@ -17,4 +20,27 @@ public interface FavoriteRepository
   @Query(
       "select favorite from Favorite favorite where favorite.user.login = ?#{authentication.name}")
   List<Favorite> findByUserIsCurrentUser();
+
+  /** The users and nodes an owner follows, through the favorites pointing to them. */
+  @Query(
+      "select followedUser.id as userId, followedNode.id as nodeId from Favorite favorite"
+          + " left join favorite.user followedUser left join favorite.node followedNode"
+          + " where favorite.owner.id = :ownerId"
+          + " and (followedUser.id is not null or followedNode.id is not null)")
+  List<Followed> findFollowed(@Param("ownerId") Long ownerId);
+
+  /** The owners with a feed inbox who follow the user or the node of a post. */
+  @Query(
+      "select distinct favorite.owner.id from Favorite favorite"
+          + " where (favorite.user.id = :userId or favorite.node.id = :nodeId)"
+          + " and exists (select inbox from FeedInbox inbox"
+          + " where inbox.ownerId = favorite.owner.id)")
+  List<Long> findInboxOwnersFollowing(@Param("userId") Long userId, @Param("nodeId") Long nodeId);
+
+  /** A user or a node followed through a favorite, the other one is {@code null}. */
+  interface Followed {
+    Long getUserId();
+
+    Long getNodeId();
+  }
 }
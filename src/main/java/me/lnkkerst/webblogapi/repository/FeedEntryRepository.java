@@ -0,0 +1,65 @@
+package me.lnkkerst.webblogapi.repository;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import me.lnkkerst.webblogapi.domain.FeedEntry;
+import me.lnkkerst.webblogapi.domain.FeedEntryId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/** Spring Data JPA repository for the {@link FeedEntry} entity. */
+@Repository
+public interface FeedEntryRepository extends JpaRepository<FeedEntry, FeedEntryId> {
+  /** The ids of the newest posts of an inbox. */
+  @Query(
+      "select entry.id.postId from FeedEntry entry where entry.id.ownerId = :ownerId"
+          + " order by entry.createdAt desc, entry.id.postId desc")
+  List<Long> findNewestPostIds(@Param("ownerId") Long ownerId, Pageable pageable);
+
+  /** The ids of the newest posts of an inbox, created before a keyset position. */
+  @Query(
+      "select entry.id.postId from FeedEntry entry where entry.id.ownerId = :ownerId"
+          + " and (entry.createdAt < :createdAt"
+          + " or (entry.createdAt = :createdAt and entry.id.postId < :postId))"
+          + " order by entry.createdAt desc, entry.id.postId desc")
+  List<Long> findNewestPostIdsAfter(
+      @Param("ownerId") Long ownerId,
+      @Param("createdAt") ZonedDateTime createdAt,
+      @Param("postId") Long postId,
+      Pageable pageable);
+
+  /** The positions of the entries of an inbox, newest first. */
+  @Query(
+      "select entry.createdAt as createdAt, entry.id.postId as postId from FeedEntry entry"
+          + " where entry.id.ownerId = :ownerId"
+          + " order by entry.createdAt desc, entry.id.postId desc")
+  List<Position> findNewestPositions(@Param("ownerId") Long ownerId, Pageable pageable);
+
+  /** Delete the entries of an inbox created after a keyset position, being older. */
+  @Modifying
+  @Query(
+      "delete from FeedEntry entry where entry.id.ownerId = :ownerId"
+          + " and (entry.createdAt < :createdAt"
+          + " or (entry.createdAt = :createdAt and entry.id.postId < :postId))")
+  int deleteByOwnerAfter(
+      @Param("ownerId") Long ownerId,
+      @Param("createdAt") ZonedDateTime createdAt,
+      @Param("postId") Long postId);
+
+  @Modifying
+  @Query("delete from FeedEntry entry where entry.id.ownerId = :ownerId")
+  int deleteByOwner(@Param("ownerId") Long ownerId);
+
+  @Modifying
+  @Query("delete from FeedEntry entry where entry.id.postId = :postId")
+  int deleteByPost(@Param("postId") Long postId);
+
+  /** The position of an entry in its inbox. */
+  interface Position {
+    ZonedDateTime getCreatedAt();
+
+    Long getPostId();
+  }
+}
@@ -0,0 +1,9 @@
+package me.lnkkerst.webblogapi.repository;
+
+import me.lnkkerst.webblogapi.domain.FeedInbox;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.stereotype.Repository;
+
+/** Spring Data JPA repository for the {@link FeedInbox} entity. */
+@Repository
+public interface FeedInboxRepository extends JpaRepository<FeedInbox, Long> {}
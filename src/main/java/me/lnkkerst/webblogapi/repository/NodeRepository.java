@@ -7,4 +7,7 @@ import org.springframework.stereotype.Repository;
 /** Spring Data JPA repository for the Node entity. */
 @SuppressWarnings("unused")
 @Repository
-public interface NodeRepository extends JpaRepository<Node, Long>, JpaSpecificationExecutor<Node> {}
+public interface NodeRepository
+    extends JpaRepository<Node, Long>,
+        JpaSpecificationExecutor<Node>,
+        SpecificationContentExecutor<Node> {}
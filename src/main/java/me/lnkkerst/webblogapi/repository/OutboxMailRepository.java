@@ -0,0 +1,30 @@
+package me.lnkkerst.webblogapi.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
+import java.util.List;
+import me.lnkkerst.webblogapi.domain.OutboxMail;
+import org.hibernate.LockOptions;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/** Spring Data JPA repository for the {@link OutboxMail} entity. */
+@Repository
+public interface OutboxMailRepository extends JpaRepository<OutboxMail, Long> {
+  /**
+   * Lock the mails due for delivery, oldest due first. The mails already locked by another
+   * instance are skipped, on the databases which support it, so that instances share the outbox.
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @QueryHints(
+      @QueryHint(
+          name = "jakarta.persistence.lock.timeout",
+          value = "" + LockOptions.SKIP_LOCKED))
+  @Query(
+      "select mail from OutboxMail mail where mail.nextAttemptAt <= :now"
+          + " order by mail.nextAttemptAt, mail.id")
+  List<OutboxMail> findDue(@Param("now") Instant now, Pageable pageable);
+}
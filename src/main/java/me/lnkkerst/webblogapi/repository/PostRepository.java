@@ -8,7 +8,10 @@ import org.springframework.stereotype.Repository;
 /** Spring Data JPA repository for the Post entity. */
 @SuppressWarnings("unused")
 @Repository
-public interface PostRepository extends JpaRepository<Post, Long>, JpaSpecificationExecutor<Post> {
+public interface PostRepository
+    extends JpaRepository<Post, Long>,
+        JpaSpecificationExecutor<Post>,
+        SpecificationContentExecutor<Post> {
   @Query("select post from Post post where post.user.login = ?#{authentication.name}")
   List<Post> findByUserIsCurrentUser();
 }
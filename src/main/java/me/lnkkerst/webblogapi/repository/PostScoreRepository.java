@@ -0,0 +1,97 @@
+package me.lnkkerst.webblogapi.repository;
+
+import java.util.List;
+import java.util.Optional;
+import me.lnkkerst.webblogapi.domain.PostScore;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the {@link PostScore} entity.
+ *
+ * <p>Scores decay at a {@code rate} per second: a score {@code s} decayed to {@code t} is worth
+ * {@code s * exp(rate * (t - u))} at {@code u}. Posts are ranked by {@code ln(s) + rate * t}, the
+ * logarithm of their score decayed to the epoch, which does not change as time passes.
+ */
+@Repository
+public interface PostScoreRepository extends JpaRepository<PostScore, Long> {
+  /**
+   * Atomically decay a score to {@code now} and add a weight to it, in the database row itself so
+   * that concurrent writers never lose an update.
+   *
+   * @return the number of updated rows, {@code 0} if the score is not maintained.
+   */
+  // The score is assigned first, as MariaDB reads the columns already assigned by the statement.
+  // Reset scores are not decayed, as their time may be far enough to underflow.
+  @Modifying
+  @Query(
+      "update PostScore score"
+          + " set score.score = case when score.score > 0"
+          + " then score.score * exp(:rate * (score.scoredAt - :now)) else 0 end + :weight,"
+          + " score.scoredAt = :now"
+          + " where score.postId = :postId")
+  int add(
+      @Param("postId") Long postId,
+      @Param("weight") double weight,
+      @Param("rate") double rate,
+      @Param("now") long now);
+
+  /**
+   * Decay every score with a value to {@code now}.
+   *
+   * @return the number of decayed scores.
+   */
+  @Modifying
+  @Query(
+      "update PostScore score"
+          + " set score.score = score.score * exp(:rate * (score.scoredAt - :now)),"
+          + " score.scoredAt = :now"
+          + " where score.score > 0")
+  int decay(@Param("rate") double rate, @Param("now") long now);
+
+  /**
+   * Reset the scores decayed below a minimum, so that their posts are no longer ranked.
+   *
+   * @return the number of reset scores.
+   */
+  @Modifying
+  @Query("update PostScore score set score.score = 0 where score.score > 0 and score.score < :min")
+  int clearBelow(@Param("min") double min);
+
+  @Modifying
+  @Query("update PostScore score set score.nodeId = :nodeId where score.postId = :postId")
+  int moveToNode(@Param("postId") Long postId, @Param("nodeId") Long nodeId);
+
+  /** Read a score from the database, never from the persistence context. */
+  @Query(
+      "select score.postId as postId, score.nodeId as nodeId, score.score as score,"
+          + " score.scoredAt as scoredAt from PostScore score where score.postId = :postId")
+  Optional<Score> findScore(@Param("postId") Long postId);
+
+  @Query(
+      "select score.postId as postId, score.nodeId as nodeId, score.score as score,"
+          + " score.scoredAt as scoredAt from PostScore score where score.score > 0"
+          + " order by ln(score.score) + :rate * score.scoredAt desc, score.postId desc")
+  List<Score> findTop(@Param("rate") double rate, Pageable pageable);
+
+  @Query(
+      "select score.postId as postId, score.nodeId as nodeId, score.score as score,"
+          + " score.scoredAt as scoredAt from PostScore score"
+          + " where score.nodeId = :nodeId and score.score > 0"
+          + " order by ln(score.score) + :rate * score.scoredAt desc, score.postId desc")
+  List<Score> findTopByNode(
+      @Param("nodeId") Long nodeId, @Param("rate") double rate, Pageable pageable);
+
+  /** The columns of a score, read without loading the entity. */
+  interface Score {
+    Long getPostId();
+
+    Long getNodeId();
+
+    double getScore();
+
+    long getScoredAt();
+  }
+}
@@ -0,0 +1,131 @@
+package me.lnkkerst.webblogapi.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import java.util.List;
+import java.util.Locale;
+import org.hibernate.dialect.MariaDBDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Ranked full-text search over posts and comments.
+ *
+ * <p>On MariaDB the queries use the {@code FULLTEXT} indexes on {@code post (title, content)} and
+ * {@code comment (content)}, which InnoDB keeps up to date in the same transaction as every insert,
+ * update and delete, and rank rows by {@code MATCH ... AGAINST} relevance. Other databases, like
+ * the H2 one used in development and tests, fall back to a case-insensitive {@code LIKE} which
+ * ranks title matches first.
+ *
+ * <p>Only ids are returned, in rank order: callers load the rows they need with a projection.
+ */
+@Repository
+public class SearchRepository {
+
+  private static final String POST_MATCH = "match (p.title, p.content) against (?1)";
+
+  private static final String COMMENT_MATCH = "match (c.content) against (?1)";
+
+  private static final String POST_LIKE = "(lower(p.title) like ?1 or lower(p.content) like ?1)";
+
+  private static final String COMMENT_LIKE = "lower(c.content) like ?1";
+
+  private final EntityManager entityManager;
+
+  private final boolean fullText;
+
+  public SearchRepository(EntityManager entityManager) {
+    this.entityManager = entityManager;
+    this.fullText =
+        entityManager
+                .getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices()
+                .getDialect()
+            instanceof MariaDBDialect;
+  }
+
+  /**
+   * Search the posts whose title or content match the terms.
+   *
+   * @param terms the words to search.
+   * @param pageable the page, its sort is ignored in favor of the rank.
+   * @return the ids of the matching posts, best match first.
+   */
+  public List<Long> findPostIds(String terms, Pageable pageable) {
+    String sql =
+        fullText
+            ? "select p.id from post p where " + POST_MATCH + " order by " + POST_MATCH + " desc"
+            : "select p.id from post p where "
+                + POST_LIKE
+                + " order by case when lower(p.title) like ?1 then 1 else 0 end desc";
+    return ids(entityManager.createNativeQuery(sql + ", p.id desc"), terms, pageable);
+  }
+
+  /**
+   * Count the posts whose title or content match the terms.
+   *
+   * @param terms the words to search.
+   * @return the number of matching posts.
+   */
+  public long countPosts(String terms) {
+    String sql = "select count(*) from post p where " + (fullText ? POST_MATCH : POST_LIKE);
+    return count(entityManager.createNativeQuery(sql), terms);
+  }
+
+  /**
+   * Search the comments whose content match the terms.
+   *
+   * @param terms the words to search.
+   * @param pageable the page, its sort is ignored in favor of the rank.
+   * @return the ids of the matching comments, best match first.
+   */
+  public List<Long> findCommentIds(String terms, Pageable pageable) {
+    String sql =
+        fullText
+            ? "select c.id from comment c where "
+                + COMMENT_MATCH
+                + " order by "
+                + COMMENT_MATCH
+                + " desc, c.id desc"
+            : "select c.id from comment c where " + COMMENT_LIKE + " order by c.id desc";
+    return ids(entityManager.createNativeQuery(sql), terms, pageable);
+  }
+
+  /**
+   * Count the comments whose content match the terms.
+   *
+   * @param terms the words to search.
+   * @return the number of matching comments.
+   */
+  public long countComments(String terms) {
+    String sql =
+        "select count(*) from comment c where " + (fullText ? COMMENT_MATCH : COMMENT_LIKE);
+    return count(entityManager.createNativeQuery(sql), terms);
+  }
+
+  private List<Long> ids(Query query, String terms, Pageable pageable) {
+    bind(query, terms);
+    if (pageable.isPaged()) {
+      query.setFirstResult((int) pageable.getOffset());
+      query.setMaxResults(pageable.getPageSize());
+    }
+    List<?> rows = query.getResultList();
+    return rows.stream().map(row -> ((Number) row).longValue()).toList();
+  }
+
+  private long count(Query query, String terms) {
+    bind(query, terms);
+    return ((Number) query.getSingleResult()).longValue();
+  }
+
+  private void bind(Query query, String terms) {
+    String pattern = "%" + escapeLike(terms.toLowerCase(Locale.ROOT)) + "%";
+    query.setParameter(1, fullText ? terms : pattern);
+  }
+
+  private static String escapeLike(String value) {
+    return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+  }
+}
@@ -0,0 +1,93 @@
+package me.lnkkerst.webblogapi.repository;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import java.util.List;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.repository.NoRepositoryBean;
+
+/**
+ * Read the content of a page of entities matching a {@link Specification}, without the count
+ * query issued by {@link
+ * org.springframework.data.jpa.repository.JpaSpecificationExecutor#findAll(Specification,
+ * Pageable)}.
+ *
+ * <p>Implemented by {@link ExtendedJpaRepository}.
+ */
+@NoRepositoryBean
+public interface SpecificationContentExecutor<T> {
+  List<T> findContent(Specification<T> spec, Pageable pageable);
+
+  /**
+   * Read a page of matching rows straight into a projection type, selecting only the given columns
+   * and without hydrating any entity.
+   *
+   * @param spec the filters the rows should match.
+   * @param pageable the page, and the sort which may only reference entity attributes.
+   * @param type the projection type, with a public constructor taking the selected columns.
+   * @param projection the columns to select, in constructor order.
+   * @return the matching rows.
+   */
+  <R> List<R> findContent(
+      Specification<T> spec, Pageable pageable, Class<R> type, Projection<T> projection);
+
+  /**
+   * Stream the matching rows into a projection type from a forward-only cursor, which reads them
+   * {@code fetchSize} at a time. The persistence context is cleared every {@code fetchSize} rows,
+   * so that memory does not grow with the number of rows: the stream must be read in a read-only
+   * transaction of its own, then closed.
+   *
+   * @param spec the filters the rows should match.
+   * @param sort the order of the rows, which may only reference entity attributes.
+   * @param type the projection type, with a public constructor taking the selected columns.
+   * @param projection the columns to select, in constructor order.
+   * @param fetchSize the number of rows read from the database at a time.
+   * @return the matching rows, to be closed once read.
+   */
+  <R> Stream<R> streamContent(
+      Specification<T> spec,
+      Sort sort,
+      Class<R> type,
+      Projection<T> projection,
+      int fetchSize);
+
+  /**
+   * Read the version of the rows matching a {@link Specification}: their number, their greatest id
+   * and the sum of their versions. As versions only grow and ids are never reused, it changes
+   * whenever a matching row is created, updated or deleted: rows deleted and created in equal
+   * numbers leave a row with a greater id, unless the created rows were deleted too. Only rows
+   * entering and leaving the filters through updates can make it come back to a previous value.
+   *
+   * @param spec the filters the rows should match.
+   * @param versions the version of a matching row, which may add the versions of the rows joined
+   *     to it so that their updates change the result too.
+   * @return the version of the matching rows.
+   */
+  ContentVersion findContentVersion(Specification<T> spec, VersionProjection<T> versions);
+
+  /** Columns passed to the constructor of a projection type. */
+  @FunctionalInterface
+  interface Projection<T> {
+    Selection<?>[] select(Root<T> root, CriteriaBuilder builder);
+  }
+
+  /** Version of a matching row, see {@link #findContentVersion}. */
+  @FunctionalInterface
+  interface VersionProjection<T> {
+    Expression<Long> select(Root<T> root, CriteriaBuilder builder);
+  }
+
+  /**
+   * Version of a set of rows, see {@link #findContentVersion}.
+   *
+   * @param count the number of rows.
+   * @param maxId the greatest id of the rows, {@code 0} if there is none.
+   * @param versions the sum of the versions of the rows.
+   */
+  record ContentVersion(long count, long maxId, long versions) {}
+}
@@ -1,12 +1,20 @@
 package me.lnkkerst.webblogapi.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import me.lnkkerst.webblogapi.domain.User;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /** Spring Data JPA repository for the {@link User} entity. */
@@ -26,10 +34,63 @@ public interface UserRepository extends JpaRepository<User, Long> {
   Optional<User> findOneById(Long id);
 
   @EntityGraph(attributePaths = "authorities")
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
   Optional<User> findOneWithAuthoritiesByLogin(String login);
 
   @EntityGraph(attributePaths = "authorities")
   Optional<User> findOneWithAuthoritiesByEmailIgnoreCase(String email);
 
   Page<User> findAllByIdNotNullAndActivatedIsTrue(Pageable pageable);
+
+  /**
+   * Lock the next not activated users created before a date, in id order, so that they cannot be
+   * activated until they are deleted with {@link #deleteNotActivatedAuthorities} and {@link
+   * #deleteNotActivated}.
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query(
+      "select u.id as id, u.login as login from User u"
+          + " where u.id > :afterId and u.activated = false and u.activationKey is not null"
+          + " and u.createdDate < :createdBefore order by u.id")
+  List<NotActivatedUser> findNotActivated(
+      @Param("afterId") long afterId,
+      @Param("createdBefore") Instant createdBefore,
+      Pageable pageable);
+
+  /**
+   * Delete the authorities of the not activated users created before a date, in an id range. The
+   * query space keeps the second-level cache invalidation to the cached user authorities.
+   */
+  @Modifying
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "jhi_user_authority"))
+  @Query(
+      value =
+          "delete from jhi_user_authority where user_id in (select u.id from jhi_user u"
+              + " where u.id between :fromId and :toId and u.activated = false"
+              + " and u.activation_key is not null and u.created_date < :createdBefore)",
+      nativeQuery = true)
+  int deleteNotActivatedAuthorities(
+      @Param("fromId") long fromId,
+      @Param("toId") long toId,
+      @Param("createdBefore") Instant createdBefore);
+
+  /**
+   * Delete the not activated users created before a date, in an id range, once their authorities
+   * are deleted.
+   */
+  @Modifying
+  @Query(
+      "delete from User u where u.id between :fromId and :toId and u.activated = false"
+          + " and u.activationKey is not null and u.createdDate < :createdBefore")
+  int deleteNotActivated(
+      @Param("fromId") long fromId,
+      @Param("toId") long toId,
+      @Param("createdBefore") Instant createdBefore);
+
+  /** A not activated user, see {@link #findNotActivated}. */
+  interface NotActivatedUser {
+    Long getId();
+
+    String getLogin();
+  }
 }
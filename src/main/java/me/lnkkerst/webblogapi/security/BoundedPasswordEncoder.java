@@ -0,0 +1,82 @@
+package me.lnkkerst.webblogapi.security;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Password encoder which hashes on a dedicated, bounded pool of threads.
+ *
+ * <p>Hashing is deliberately CPU bound: running it on the request threads lets a burst of logins
+ * take every core, and starve the rest of the API. Here the caller waits for one of the pool
+ * threads instead, and gets a {@link PasswordHashingUnavailableException} when too many hashings
+ * are already waiting.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+  private final PasswordEncoder delegate;
+
+  private final ThreadPoolExecutor executor;
+
+  /**
+   * @param delegate the encoder doing the hashing.
+   * @param threads the number of threads hashing passwords.
+   * @param queueCapacity the number of hashings which may wait for a thread.
+   */
+  public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity) {
+    this.delegate = delegate;
+    CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("password-hashing-");
+    threadFactory.setDaemon(true);
+    this.executor =
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            threadFactory);
+  }
+
+  @Override
+  public String encode(CharSequence rawPassword) {
+    return hash(() -> delegate.encode(rawPassword));
+  }
+
+  @Override
+  public boolean matches(CharSequence rawPassword, String encodedPassword) {
+    return hash(() -> delegate.matches(rawPassword, encodedPassword));
+  }
+
+  @Override
+  public boolean upgradeEncoding(String encodedPassword) {
+    // Only parses the hash
+    return delegate.upgradeEncoding(encodedPassword);
+  }
+
+  @Override
+  public void destroy() {
+    executor.shutdownNow();
+  }
+
+  private <T> T hash(Callable<T> task) {
+    try {
+      return executor.submit(task).get();
+    } catch (RejectedExecutionException e) {
+      throw new PasswordHashingUnavailableException("Too many passwords to hash, try again", e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new PasswordHashingUnavailableException("Interrupted while hashing a password", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+}
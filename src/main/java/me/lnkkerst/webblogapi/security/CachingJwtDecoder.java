@@ -0,0 +1,119 @@
+package me.lnkkerst.webblogapi.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.nimbusds.jose.proc.BadJOSEException;
+import com.nimbusds.jose.proc.BadJWSException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import me.lnkkerst.webblogapi.management.SecurityMetersService;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwtValidationException;
+
+/**
+ * JWT decoder which remembers the tokens it already verified until they expire.
+ *
+ * <p>A client sends the same token with every request, so only its first request pays for parsing
+ * and verifying it. Tokens are stateless and cannot be revoked, so a cached token is exactly as
+ * valid as a verified one until its {@code exp}. Cache keys are SHA-256 digests of the tokens, so
+ * that the cache does not hold usable credentials.
+ *
+ * <p>Rejected tokens are never cached, and are counted by cause in {@link SecurityMetersService}.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+  private final JwtDecoder delegate;
+
+  private final SecurityMetersService metersService;
+
+  private final Cache<String, Jwt> verifiedTokens;
+
+  /**
+   * @param delegate the decoder which verifies the tokens, with timestamp validation only.
+   * @param metersService the meters of cache lookups and of rejected tokens.
+   * @param maxEntries the maximum number of cached tokens.
+   * @param maxTimeToLive the maximum time a token is cached, even if it expires later.
+   */
+  public CachingJwtDecoder(
+      JwtDecoder delegate,
+      SecurityMetersService metersService,
+      long maxEntries,
+      Duration maxTimeToLive) {
+    this.delegate = delegate;
+    this.metersService = metersService;
+    this.verifiedTokens =
+        Caffeine.newBuilder()
+            .maximumSize(maxEntries)
+            .expireAfter(Expiry.<String, Jwt>creating((key, jwt) -> timeToLive(jwt, maxTimeToLive)))
+            .build();
+  }
+
+  @Override
+  public Jwt decode(String token) throws JwtException {
+    String key = digest(token);
+    Jwt jwt = verifiedTokens.getIfPresent(key);
+    if (jwt != null) {
+      metersService.trackTokenCacheHit();
+      return jwt;
+    }
+    metersService.trackTokenCacheMiss();
+    try {
+      jwt = delegate.decode(token);
+    } catch (JwtException e) {
+      track(e);
+      throw e;
+    }
+    if (jwt.getExpiresAt() != null) {
+      verifiedTokens.put(key, jwt);
+    }
+    return jwt;
+  }
+
+  private void track(JwtException e) {
+    if (e instanceof JwtValidationException) {
+      // Only timestamps are validated
+      metersService.trackTokenExpired();
+      return;
+    }
+    for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+      if (cause instanceof ParseException) {
+        metersService.trackTokenMalformed();
+        return;
+      }
+      if (cause instanceof BadJWSException) {
+        metersService.trackTokenInvalidSignature();
+        return;
+      }
+      if (cause instanceof BadJOSEException) {
+        metersService.trackTokenUnsupported();
+        return;
+      }
+    }
+  }
+
+  private static Duration timeToLive(Jwt jwt, Duration maxTimeToLive) {
+    Duration untilExpiry = Duration.between(Instant.now(), jwt.getExpiresAt());
+    if (untilExpiry.isNegative()) {
+      return Duration.ZERO;
+    }
+    return untilExpiry.compareTo(maxTimeToLive) < 0 ? untilExpiry : maxTimeToLive;
+  }
+
+  private static String digest(String token) {
+    try {
+      byte[] hash =
+          MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+      return Base64.getEncoder().encodeToString(hash);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+}
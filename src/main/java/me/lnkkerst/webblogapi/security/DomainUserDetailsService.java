@@ -9,14 +9,20 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
-/** Authenticate a user from the database. */
+/**
+ * Authenticate a user from the database.
+ *
+ * <p>Also stores the new hash of a password which was hashed with an outdated algorithm or cost,
+ * once it has been checked on login.
+ */
 @Component("userDetailsService")
-public class DomainUserDetailsService implements UserDetailsService {
+public class DomainUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
   private final Logger log = LoggerFactory.getLogger(DomainUserDetailsService.class);
 
@@ -51,6 +57,18 @@ public class DomainUserDetailsService implements UserDetailsService {
                     "User " + lowercaseLogin + " was not found in the database"));
   }
 
+  @Override
+  @Transactional
+  public UserDetails updatePassword(UserDetails user, String newPassword) {
+    log.debug("Rehashing the password of {}", user.getUsername());
+    userRepository
+        .findOneByLogin(user.getUsername())
+        .ifPresent(existingUser -> existingUser.setPassword(newPassword));
+    return org.springframework.security.core.userdetails.User.withUserDetails(user)
+        .password(newPassword)
+        .build();
+  }
+
   private org.springframework.security.core.userdetails.User createSpringSecurityUser(
       String lowercaseLogin, User user) {
     if (!user.isActivated()) {
@@ -0,0 +1,59 @@
+package me.lnkkerst.webblogapi.security;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+/** Factory of the password encoders used to hash and check user passwords. */
+public final class PasswordEncoders {
+
+  public static final String BCRYPT = "bcrypt";
+
+  public static final String PBKDF2 = "pbkdf2";
+
+  public static final String ARGON2 = "argon2";
+
+  private static final int PBKDF2_SALT_LENGTH = 16;
+
+  private PasswordEncoders() {}
+
+  /**
+   * Create an encoder which hashes new passwords with one algorithm, and checks passwords hashed
+   * with any of them.
+   *
+   * <p>Hashes are prefixed with the id of their algorithm, like {@code {bcrypt}$2a$10$...}. Hashes
+   * without prefix are the BCrypt ones stored before algorithms could be configured. Both are
+   * reported by {@link PasswordEncoder#upgradeEncoding(String)} when they do not use the current
+   * algorithm and cost, so that they get rehashed on the next login.
+   *
+   * <p>Argon2id, with the Spring Security 5.8 defaults of 16 MiB and 2 iterations, comes from
+   * Bouncy Castle.
+   *
+   * @param encodingId the id of the algorithm of new hashes.
+   * @param bcryptStrength the log2 of the number of BCrypt rounds.
+   * @param pbkdf2Iterations the number of PBKDF2 iterations.
+   * @return the encoder.
+   * @throws IllegalArgumentException if the algorithm is unknown.
+   */
+  public static DelegatingPasswordEncoder delegating(
+      String encodingId, int bcryptStrength, int pbkdf2Iterations) {
+    Map<String, PasswordEncoder> encoders = new HashMap<>();
+    BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+    encoders.put(BCRYPT, bcrypt);
+    encoders.put(ARGON2, Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+    encoders.put(
+        PBKDF2,
+        new Pbkdf2PasswordEncoder(
+            "",
+            PBKDF2_SALT_LENGTH,
+            pbkdf2Iterations,
+            Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256));
+    DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(encodingId, encoders);
+    encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+    return encoder;
+  }
+}
@@ -0,0 +1,15 @@
+package me.lnkkerst.webblogapi.security;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/** Thrown when too many passwords are waiting to be hashed. */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class PasswordHashingUnavailableException extends RuntimeException {
+
+  private static final long serialVersionUID = 1L;
+
+  public PasswordHashingUnavailableException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
@@ -0,0 +1,151 @@
+package me.lnkkerst.webblogapi.service;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import me.lnkkerst.webblogapi.service.dto.BatchResultDTO;
+
+/**
+ * The items of a batch of new entities. Items are rejected one by one, the ones left valid are
+ * then saved together, so that a bad item does not fail the whole batch.
+ *
+ * <p>Associations are checked with one query per association for the whole batch, and replaced
+ * with the managed entities, so that saving the items does not read them again.
+ */
+final class BatchItems<T> {
+
+  private final List<T> items;
+
+  private final BatchResultDTO[] results;
+
+  /**
+   * Reject the empty items, the ones which already have an id, and the ones which break a
+   * constraint.
+   *
+   * @param items the items, in the order of the request.
+   * @param validator the validator of the constraints.
+   * @param id the id of an item.
+   */
+  BatchItems(List<T> items, Validator validator, Function<T, Long> id) {
+    this.items = items;
+    this.results = new BatchResultDTO[items.size()];
+    for (int index = 0; index < items.size(); index++) {
+      T item = items.get(index);
+      if (item == null) {
+        results[index] = BatchResultDTO.rejected(index, "The item is empty");
+      } else if (id.apply(item) != null) {
+        results[index] = BatchResultDTO.rejected(index, "A new entity cannot already have an ID");
+      } else {
+        Set<ConstraintViolation<T>> violations = validator.validate(item);
+        if (!violations.isEmpty()) {
+          results[index] = BatchResultDTO.rejected(index, messageOf(violations));
+        }
+      }
+    }
+  }
+
+  /**
+   * Reject the valid items whose association points to an entity which does not exist, and
+   * replace the association of the other ones with the managed entity.
+   *
+   * @param getter the association of an item, which may be {@code null}.
+   * @param setter sets the association of an item.
+   * @param id the id of an associated entity.
+   * @param load loads the existing entities among ids.
+   * @param message why the items pointing to a missing entity are rejected.
+   */
+  <R> void resolve(
+      Function<T, R> getter,
+      BiConsumer<T, R> setter,
+      Function<R, Long> id,
+      Function<Set<Long>, List<R>> load,
+      String message) {
+    Set<Long> ids = new HashSet<>();
+    for (T item : valid()) {
+      R associated = getter.apply(item);
+      if (associated != null && id.apply(associated) != null) {
+        ids.add(id.apply(associated));
+      }
+    }
+    Map<Long, R> existing = new HashMap<>();
+    if (!ids.isEmpty()) {
+      load.apply(ids).forEach(entity -> existing.put(id.apply(entity), entity));
+    }
+    check(
+        item -> {
+          R associated = getter.apply(item);
+          if (associated == null) {
+            return null;
+          }
+          R managed = existing.get(id.apply(associated));
+          if (managed == null) {
+            return message;
+          }
+          setter.accept(item, managed);
+          return null;
+        });
+  }
+
+  /**
+   * Reject the valid items which fail a check.
+   *
+   * @param problem the reason to reject an item, or {@code null} if it is valid.
+   */
+  void check(Function<T, String> problem) {
+    for (int index = 0; index < items.size(); index++) {
+      if (results[index] == null) {
+        String message = problem.apply(items.get(index));
+        if (message != null) {
+          results[index] = BatchResultDTO.rejected(index, message);
+        }
+      }
+    }
+  }
+
+  /**
+   * The items not rejected so far.
+   *
+   * @return the items, in the order of the request.
+   */
+  List<T> valid() {
+    List<T> valid = new ArrayList<>(items.size());
+    for (int index = 0; index < items.size(); index++) {
+      if (results[index] == null) {
+        valid.add(items.get(index));
+      }
+    }
+    return valid;
+  }
+
+  /**
+   * The results of the batch, once the valid items are saved.
+   *
+   * @param id the id of a saved item.
+   * @return the result of each item, in the order of the request.
+   */
+  List<BatchResultDTO> results(Function<T, Long> id) {
+    List<BatchResultDTO> all = new ArrayList<>(items.size());
+    for (int index = 0; index < items.size(); index++) {
+      all.add(
+          results[index] != null
+              ? results[index]
+              : BatchResultDTO.created(index, id.apply(items.get(index))));
+    }
+    return all;
+  }
+
+  private static <T> String messageOf(Set<ConstraintViolation<T>> violations) {
+    return violations.stream()
+        .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+        .sorted()
+        .collect(Collectors.joining(", "));
+  }
+}
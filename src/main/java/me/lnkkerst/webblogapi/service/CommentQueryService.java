@@ -1,16 +1,34 @@
 package me.lnkkerst.webblogapi.service;
 
+import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Selection;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 import me.lnkkerst.webblogapi.domain.*; // for static metamodels
 import me.lnkkerst.webblogapi.domain.Comment;
+import me.lnkkerst.webblogapi.domain.enumeration.CounterType;
 import me.lnkkerst.webblogapi.repository.CommentRepository;
+import me.lnkkerst.webblogapi.repository.SpecificationContentExecutor.ContentVersion;
+import me.lnkkerst.webblogapi.repository.SpecificationContentExecutor.Projection;
+import me.lnkkerst.webblogapi.repository.SpecificationContentExecutor.VersionProjection;
 import me.lnkkerst.webblogapi.service.criteria.CommentCriteria;
+import me.lnkkerst.webblogapi.service.dto.CommentDTO;
+import me.lnkkerst.webblogapi.service.dto.CommentTreeDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import tech.jhipster.service.QueryService;
@@ -25,12 +43,47 @@ import tech.jhipster.service.QueryService;
 @Transactional(readOnly = true)
 public class CommentQueryService extends QueryService<Comment> {
 
+  /** Columns of a {@link CommentDTO} in list views, see {@link #findDtoByCriteria}. */
+  private static final Projection<Comment> LIST_PROJECTION =
+      (root, builder) -> {
+        Join<Comment, Post> post = root.join(Comment_.post);
+        Join<Comment, User> user = root.join(Comment_.user);
+        return new Selection<?>[] {
+          root.get(Comment_.id),
+          root.get(Comment_.content),
+          root.get(Comment_.createdAt),
+          post.get(Post_.id),
+          post.get(Post_.title),
+          user.get(User_.id),
+          user.get(User_.login),
+          // The foreign key column is read as is, the replied comment is not joined
+          root.get(Comment_.reply).get(Comment_.id)
+        };
+      };
+
+  /**
+   * Version of a comment, see {@link #findVersionByCriteria}. A comment shows its post and the
+   * comment it replies to, whose versions are added.
+   */
+  private static final VersionProjection<Comment> VERSION =
+      (root, builder) ->
+          builder.sum(
+              builder.sum(root.get(Comment_.version), root.join(Comment_.post).get(Post_.version)),
+              builder.coalesce(
+                  root.join(Comment_.reply, JoinType.LEFT).get(Comment_.version), 0L));
+
+  /** Rows read from the database at a time by {@link #exportByCriteria}. */
+  private static final int EXPORT_FETCH_SIZE = 1000;
+
   private final Logger log = LoggerFactory.getLogger(CommentQueryService.class);
 
   private final CommentRepository commentRepository;
 
-  public CommentQueryService(CommentRepository commentRepository) {
+  private final CounterService counterService;
+
+  public CommentQueryService(CommentRepository commentRepository, CounterService counterService) {
     this.commentRepository = commentRepository;
+    this.counterService = counterService;
   }
 
   /**
@@ -57,7 +110,111 @@ public class CommentQueryService extends QueryService<Comment> {
   public Page<Comment> findByCriteria(CommentCriteria criteria, Pageable page) {
     log.debug("find by criteria : {}, page: {}", criteria, page);
     final Specification<Comment> specification = createSpecification(criteria);
-    return commentRepository.findAll(specification, page);
+    return countFromCounter(criteria)
+        .<Page<Comment>>map(
+            total ->
+                new PageImpl<>(commentRepository.findContent(specification, page), page, total))
+        .orElseGet(() -> commentRepository.findAll(specification, page));
+  }
+
+  /**
+   * Return a {@link Page} of {@link CommentDTO} which matches the criteria from the database. Only
+   * the columns shown in list views are selected, in a single query, without loading any entity.
+   *
+   * @param criteria The object which holds all the filters, which the entities should match.
+   * @param page The page, which should be returned.
+   * @return the matching comments.
+   */
+  @Transactional(readOnly = true)
+  public Page<CommentDTO> findDtoByCriteria(CommentCriteria criteria, Pageable page) {
+    log.debug("find dto by criteria : {}, page: {}", criteria, page);
+    final Specification<Comment> specification = createSpecification(criteria);
+    List<CommentDTO> content =
+        commentRepository.findContent(specification, page, CommentDTO.class, LIST_PROJECTION);
+    return PageableExecutionUtils.getPage(
+        content,
+        page,
+        () -> countFromCounter(criteria).orElseGet(() -> commentRepository.count(specification)));
+  }
+
+  /**
+   * Return the comment threads of a post. All its comments are read with a single list projection
+   * query, then linked to the comment they reply to in memory.
+   *
+   * @param postId The id of the post.
+   * @param maxDepth The number of levels to return, {@code 1} for the threads without any reply.
+   * @param maxReplies The maximum number of direct replies returned under each comment.
+   * @param page The page of threads, which are ordered oldest first like the replies.
+   * @return the threads, the total being the number of comments which are not replies.
+   */
+  @Transactional(readOnly = true)
+  public Page<CommentTreeDTO> findTreeByPost(
+      Long postId, int maxDepth, int maxReplies, Pageable page) {
+    log.debug("find tree by post : {}, depth: {}, replies: {}", postId, maxDepth, maxReplies);
+    CommentCriteria criteria = new CommentCriteria();
+    criteria.postId().setEquals(postId);
+    List<CommentDTO> comments =
+        new ArrayList<>(findDtoByCriteria(criteria, Pageable.unpaged()).getContent());
+    comments.sort(
+        Comparator.comparing(CommentDTO::getCreatedAt).thenComparing(CommentDTO::getId));
+
+    Map<Long, List<CommentDTO>> replies = new HashMap<>();
+    for (CommentDTO comment : comments) {
+      replies.put(comment.getId(), new ArrayList<>());
+    }
+    List<CommentDTO> threads = new ArrayList<>();
+    for (CommentDTO comment : comments) {
+      // A reply to a comment of another post starts a thread of its own
+      List<CommentDTO> siblings =
+          comment.getReply() == null ? null : replies.get(comment.getReply().getId());
+      (siblings == null ? threads : siblings).add(comment);
+    }
+
+    int from = (int) Math.min(page.isPaged() ? page.getOffset() : 0, threads.size());
+    int to = page.isPaged() ? Math.min(from + page.getPageSize(), threads.size()) : threads.size();
+    List<CommentTreeDTO> content = new ArrayList<>(to - from);
+    for (CommentDTO thread : threads.subList(from, to)) {
+      content.add(toTree(thread, replies, 1, maxDepth, maxReplies));
+    }
+    return new PageImpl<>(content, page, threads.size());
+  }
+
+  private CommentTreeDTO toTree(
+      CommentDTO comment,
+      Map<Long, List<CommentDTO>> replies,
+      int depth,
+      int maxDepth,
+      int maxReplies) {
+    CommentTreeDTO tree = new CommentTreeDTO(comment);
+    List<CommentDTO> children = replies.get(comment.getId());
+    int shown = depth < maxDepth ? Math.min(children.size(), maxReplies) : 0;
+    for (CommentDTO child : children.subList(0, shown)) {
+      tree.getReplies().add(toTree(child, replies, depth + 1, maxDepth, maxReplies));
+    }
+    tree.setOmittedReplies(children.size() - shown);
+    return tree;
+  }
+
+  /**
+   * Pass every {@link CommentDTO} which matches the criteria to a consumer, in id order. Only the
+   * columns shown in list views are selected, and they are read from a forward-only cursor, so
+   * that memory does not grow with the number of comments exported.
+   *
+   * @param criteria The object which holds all the filters, which the entities should match.
+   * @param consumer The consumer of the matching comments, called within the transaction.
+   */
+  @Transactional(readOnly = true)
+  public void exportByCriteria(CommentCriteria criteria, Consumer<CommentDTO> consumer) {
+    log.debug("export by criteria : {}", criteria);
+    try (Stream<CommentDTO> comments =
+        commentRepository.streamContent(
+            createSpecification(criteria),
+            Sort.by(Comment_.ID),
+            CommentDTO.class,
+            LIST_PROJECTION,
+            EXPORT_FETCH_SIZE)) {
+      comments.forEach(consumer);
+    }
   }
 
   /**
@@ -69,8 +226,79 @@ public class CommentQueryService extends QueryService<Comment> {
   @Transactional(readOnly = true)
   public long countByCriteria(CommentCriteria criteria) {
     log.debug("count by criteria : {}", criteria);
-    final Specification<Comment> specification = createSpecification(criteria);
-    return commentRepository.count(specification);
+    return countFromCounter(criteria)
+        .orElseGet(() -> commentRepository.count(createSpecification(criteria)));
+  }
+
+  /**
+   * Return the version of the entities which match the criteria, which changes whenever one of
+   * them, their post or the comment they reply to is created, updated or deleted, without reading
+   * them.
+   *
+   * @param criteria The object which holds all the filters, which the entities should match.
+   * @return the version of the matching entities.
+   */
+  @Transactional(readOnly = true)
+  public ContentVersion findVersionByCriteria(CommentCriteria criteria) {
+    log.debug("find version by criteria : {}", criteria);
+    return commentRepository.findContentVersion(createSpecification(criteria), VERSION);
+  }
+
+  /**
+   * Return the maintained version of the comments of a post, which moves whenever the post or one
+   * of its comments is written, without reading them.
+   *
+   * @param postId the id of the post.
+   * @return the version, or empty if the post does not exist or its version is not maintained.
+   */
+  @Transactional(readOnly = true)
+  public Optional<Long> findVersionByPost(Long postId) {
+    return counterService.getTotal(CounterType.POST_VERSION, postId);
+  }
+
+  /**
+   * Return the maintained version of the entities which match the criteria, when the criteria only
+   * filters on the post, see {@link #findVersionByPost}.
+   *
+   * @param criteria The object which holds all the filters, which the entities should match.
+   * @return the version of the matching entities, or empty if it is not maintained.
+   */
+  @Transactional(readOnly = true)
+  public Optional<Long> findPostVersionByCriteria(CommentCriteria criteria) {
+    log.debug("find post version by criteria : {}", criteria);
+    return postOf(criteria).flatMap(this::findVersionByPost);
+  }
+
+  /**
+   * Read the number of matching entities from a maintained counter, when the criteria only filters
+   * on the post.
+   *
+   * @param criteria The object which holds all the filters, which the entities should match.
+   * @return the number of matching entities, or empty if it has to be counted.
+   */
+  private Optional<Long> countFromCounter(CommentCriteria criteria) {
+    return postOf(criteria)
+        .flatMap(postId -> counterService.getTotal(CounterType.POST_COMMENTS, postId));
+  }
+
+  /**
+   * The id of the post a criteria filters on, when it does not filter on anything else.
+   *
+   * @param criteria The object which holds all the filters, which the entities should match.
+   * @return the id of the post, or empty if the criteria has other filters.
+   */
+  private static Optional<Long> postOf(CommentCriteria criteria) {
+    if (criteria == null || criteria.getPostId() == null) {
+      return Optional.empty();
+    }
+    Long postId = criteria.getPostId().getEquals();
+    CommentCriteria expected = new CommentCriteria();
+    expected.postId().setEquals(postId);
+    expected.setDistinct(criteria.getDistinct());
+    if (postId == null || !expected.equals(criteria)) {
+      return Optional.empty();
+    }
+    return Optional.of(postId);
   }
 
   /**
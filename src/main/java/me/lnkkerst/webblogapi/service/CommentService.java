@@ -1,26 +1,86 @@
 package me.lnkkerst.webblogapi.service;
 
+import jakarta.validation.Validator;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
 import me.lnkkerst.webblogapi.domain.Comment;
+import me.lnkkerst.webblogapi.domain.Post;
+import me.lnkkerst.webblogapi.domain.User;
+import me.lnkkerst.webblogapi.domain.enumeration.CounterType;
 import me.lnkkerst.webblogapi.repository.CommentRepository;
+import me.lnkkerst.webblogapi.repository.PostRepository;
+import me.lnkkerst.webblogapi.repository.UserRepository;
+import me.lnkkerst.webblogapi.service.dto.BatchResultDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-/** Service Implementation for managing {@link me.lnkkerst.webblogapi.domain.Comment}. */
+/**
+ * Service Implementation for managing {@link me.lnkkerst.webblogapi.domain.Comment}.
+ *
+ * <p>Also maintains the materialized {@link Comment#getPath() path} of each comment, so that a
+ * whole subthread can be counted or deleted with a single indexed query.
+ */
 @Service
 @Transactional
 public class CommentService {
 
+  private static final int BACKFILL_BATCH_SIZE = 500;
+
+  private static final int BACKFILL_MAX_BATCHES = 20;
+
   private final Logger log = LoggerFactory.getLogger(CommentService.class);
 
   private final CommentRepository commentRepository;
 
-  public CommentService(CommentRepository commentRepository) {
+  private final CounterService counterService;
+
+  private final HotPostService hotPostService;
+
+  private final ResponseCacheService responseCacheService;
+
+  private final PostRepository postRepository;
+
+  private final UserRepository userRepository;
+
+  private final Validator validator;
+
+  private final TransactionTemplate transactionTemplate;
+
+  public CommentService(
+      CommentRepository commentRepository,
+      CounterService counterService,
+      HotPostService hotPostService,
+      ResponseCacheService responseCacheService,
+      PostRepository postRepository,
+      UserRepository userRepository,
+      Validator validator,
+      PlatformTransactionManager transactionManager) {
     this.commentRepository = commentRepository;
+    this.counterService = counterService;
+    this.hotPostService = hotPostService;
+    this.responseCacheService = responseCacheService;
+    this.postRepository = postRepository;
+    this.userRepository = userRepository;
+    this.validator = validator;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
   }
 
   /**
@@ -31,7 +91,73 @@ public class CommentService {
    */
   public Comment save(Comment comment) {
     log.debug("Request to save Comment : {}", comment);
-    return commentRepository.save(comment);
+    checkSamePost(comment, parentOf(comment));
+    Comment result = commentRepository.save(comment);
+    result.setPath(pathOf(result));
+    counterService.increment(CounterType.POST_COMMENTS, result.getPost().getId());
+    counterService.increment(CounterType.POST_VERSION, result.getPost().getId());
+    hotPostService.addComment(result.getPost().getId());
+    responseCacheService.evictPost(result.getPost().getId());
+    return result;
+  }
+
+  /**
+   * Save a batch of new comments in a single transaction, inserted with JDBC batches.
+   *
+   * <p>Comments which are not valid, or point to a post, user or replied comment which does not
+   * exist, are rejected and the other ones are still saved. Counters and scores are moved once per
+   * post, in the order of the post ids so that concurrent batches do not deadlock.
+   *
+   * @param comments the comments to save.
+   * @return the result of each comment, in the order of the batch.
+   */
+  public List<BatchResultDTO> saveAll(List<Comment> comments) {
+    log.debug("Request to save {} Comments", comments.size());
+    BatchItems<Comment> batch = new BatchItems<>(comments, validator, Comment::getId);
+    batch.resolve(
+        Comment::getPost,
+        Comment::setPost,
+        Post::getId,
+        postRepository::findAllById,
+        "The post does not exist");
+    batch.resolve(
+        Comment::getUser,
+        Comment::setUser,
+        User::getId,
+        userRepository::findAllById,
+        "The user does not exist");
+    batch.resolve(
+        Comment::getReply,
+        Comment::setReply,
+        Comment::getId,
+        commentRepository::findAllById,
+        "The replied comment does not exist");
+    // The path of a comment is known before its id, but for its last segment
+    Map<Comment, String> parentPaths = new IdentityHashMap<>();
+    batch.check(
+        comment -> {
+          try {
+            parentPaths.put(comment, parentPathOf(comment));
+            return null;
+          } catch (InvalidReplyException e) {
+            return e.getMessage();
+          }
+        });
+
+    List<Comment> valid = commentRepository.saveAll(batch.valid());
+    Map<Long, Long> commentsByPost = new TreeMap<>();
+    for (Comment comment : valid) {
+      comment.setPath(parentPaths.get(comment) + segment(comment.getId()));
+      commentsByPost.merge(comment.getPost().getId(), 1L, Long::sum);
+    }
+    commentsByPost.forEach(
+        (postId, count) -> {
+          counterService.add(CounterType.POST_COMMENTS, postId, count);
+          counterService.increment(CounterType.POST_VERSION, postId);
+          hotPostService.addComments(postId, count);
+          responseCacheService.evictPost(postId);
+        });
+    return batch.results(Comment::getId);
   }
 
   /**
@@ -42,7 +168,30 @@ public class CommentService {
    */
   public Comment update(Comment comment) {
     log.debug("Request to update Comment : {}", comment);
-    return commentRepository.save(comment);
+    checkSamePost(comment, parentOf(comment));
+    Optional<Comment> existing = commentRepository.findById(comment.getId());
+    Long previousPostId = existing.map(previous -> previous.getPost().getId()).orElse(null);
+    String previousPath = existing.map(Comment::getPath).orElse(null);
+    Comment result = commentRepository.save(comment);
+    String path = pathOf(result);
+    result.setPath(path);
+    Long postId = result.getPost().getId();
+    if (previousPath != null && !previousPath.equals(path)) {
+      moveReplies(previousPath, path);
+    }
+    if (!Objects.equals(previousPostId, postId)) {
+      // The replies follow the comment to the other post
+      long moved = 1 + moveRepliesToPost(result, previousPath);
+      counterService.add(CounterType.POST_COMMENTS, previousPostId, -moved);
+      counterService.add(CounterType.POST_COMMENTS, postId, moved);
+      counterService.increment(CounterType.POST_VERSION, previousPostId);
+      if (previousPostId != null) {
+        responseCacheService.evictPost(previousPostId);
+      }
+    }
+    counterService.increment(CounterType.POST_VERSION, postId);
+    responseCacheService.evictPost(postId);
+    return result;
   }
 
   /**
@@ -64,6 +213,9 @@ public class CommentService {
               if (comment.getCreatedAt() != null) {
                 existingComment.setCreatedAt(comment.getCreatedAt());
               }
+              counterService.increment(
+                  CounterType.POST_VERSION, existingComment.getPost().getId());
+              responseCacheService.evictPost(existingComment.getPost().getId());
 
               return existingComment;
             })
@@ -95,12 +247,222 @@ public class CommentService {
   }
 
   /**
-   * Delete the comment by id.
+   * Count the replies of a comment, direct or not.
+   *
+   * @param id the id of the entity.
+   * @return the number of replies, or empty if the comment does not exist.
+   */
+  @Transactional(readOnly = true)
+  public Optional<Long> countReplies(Long id) {
+    log.debug("Request to count the replies of Comment : {}", id);
+    return commentRepository
+        .findById(id)
+        .map(
+            comment ->
+                comment.getPath() == null
+                    ? (long) replyIdsOf(comment.getId()).size()
+                    : commentRepository.countByPathStartingWith(comment.getPath()) - 1);
+  }
+
+  /**
+   * Delete the comment by id, together with all its replies.
    *
    * @param id the id of the entity.
    */
   public void delete(Long id) {
     log.debug("Request to delete Comment : {}", id);
-    commentRepository.deleteById(id);
+    commentRepository
+        .findById(id)
+        .ifPresent(
+            comment -> {
+              Long postId = comment.getPost().getId();
+              counterService.increment(CounterType.POST_VERSION, postId);
+              responseCacheService.evictPost(postId);
+              if (comment.getPath() == null) {
+                List<Long> ids = new ArrayList<>(replyIdsOf(id));
+                ids.add(id);
+                commentRepository.clearReplyByIdIn(ids);
+                commentRepository.deleteAllByIdInBatch(ids);
+                counterService.add(CounterType.POST_COMMENTS, postId, -ids.size());
+                return;
+              }
+              // Replies are unlinked first, as foreign keys are checked row by row
+              String pattern = comment.getPath() + "%";
+              commentRepository.clearReplyByPathLike(pattern);
+              int deleted = commentRepository.deleteByPathLike(pattern);
+              counterService.add(CounterType.POST_COMMENTS, postId, -deleted);
+            });
+  }
+
+  /**
+   * Fill in the path of the comments which have none yet, like the ones created before paths were
+   * maintained. Each batch fills the comments whose parent already has a path, so a thread is
+   * completed one level per batch.
+   *
+   * <p>Each batch is committed in a transaction of its own, and locks its comments so that the
+   * instances running the backfill at the same time fill distinct comments. Comments whose path
+   * cannot be computed, like the ones nested too deep, are logged and left without a path.
+   *
+   * <p>This is scheduled to get fired every hour, and is a no-op once every path is filled.
+   */
+  @Scheduled(initialDelayString = "PT1M", fixedDelayString = "PT1H")
+  @Transactional(propagation = Propagation.SUPPORTS)
+  public void backfillPaths() {
+    int filled = 0;
+    long afterId = 0;
+    boolean progressed = false;
+    for (int batch = 0; batch < BACKFILL_MAX_BATCHES; batch++) {
+      long from = afterId;
+      BackfillBatch result = transactionTemplate.execute(status -> backfillBatch(from));
+      filled += result.filled();
+      progressed |= result.filled() > 0;
+      if (result.read() == BACKFILL_BATCH_SIZE) {
+        afterId = result.lastId();
+        continue;
+      }
+      // End of a pass: the replies of the comments it filled are found by the next one
+      if (!progressed) {
+        break;
+      }
+      afterId = 0;
+      progressed = false;
+    }
+    if (filled > 0) {
+      log.info("Filled the path of {} comments", filled);
+    }
+  }
+
+  private BackfillBatch backfillBatch(long afterId) {
+    List<Comment> comments =
+        commentRepository.findAllWithoutPath(afterId, PageRequest.of(0, BACKFILL_BATCH_SIZE));
+    int filled = 0;
+    for (Comment comment : comments) {
+      try {
+        comment.setPath(pathOf(comment));
+        filled++;
+      } catch (InvalidReplyException e) {
+        log.warn("Could not fill the path of Comment {}: {}", comment.getId(), e.getMessage());
+      }
+    }
+    long lastId = comments.isEmpty() ? afterId : comments.get(comments.size() - 1).getId();
+    return new BackfillBatch(comments.size(), filled, lastId);
   }
+
+  /**
+   * Compute the path of a comment from the closest ancestor which has one.
+   *
+   * @throws InvalidReplyException if the comment replies to one of its replies, or is too deep.
+   */
+  private String pathOf(Comment comment) {
+    Deque<Long> ids = new ArrayDeque<>();
+    ids.push(comment.getId());
+    Comment parent = parentOf(comment);
+    while (parent != null && parent.getPath() == null) {
+      ids.push(parent.getId());
+      if (ids.size() * Comment.PATH_SEGMENT_LENGTH > Comment.PATH_MAX_LENGTH) {
+        throw new InvalidReplyException("Replies are nested too deep");
+      }
+      parent = parentOf(parent);
+    }
+    StringBuilder path = new StringBuilder(parent == null ? "" : parent.getPath());
+    while (!ids.isEmpty()) {
+      path.append(segment(ids.pop()));
+    }
+    if (path.length() > Comment.PATH_MAX_LENGTH) {
+      throw new InvalidReplyException("Replies are nested too deep");
+    }
+    return path.toString();
+  }
+
+  /**
+   * The path of the comment replied to, empty for a comment of the post itself.
+   *
+   * @throws InvalidReplyException if the comment replied to is on another post, or a reply to it
+   *     would be too deep.
+   */
+  private String parentPathOf(Comment comment) {
+    Comment parent = comment.getReply();
+    if (parent == null) {
+      return "";
+    }
+    checkSamePost(comment, parent);
+    String path = parent.getPath() != null ? parent.getPath() : pathOf(parent);
+    if (path.length() + Comment.PATH_SEGMENT_LENGTH > Comment.PATH_MAX_LENGTH) {
+      throw new InvalidReplyException("Replies are nested too deep");
+    }
+    return path;
+  }
+
+  /**
+   * Check that a reply is on the post of the comment it replies to, as threads are counted, moved
+   * and deleted with the post of their first comment.
+   *
+   * @param parent the replied comment as stored, {@code null} for a comment of the post itself.
+   * @throws InvalidReplyException if the replied comment is on another post.
+   */
+  private static void checkSamePost(Comment comment, Comment parent) {
+    if (parent != null && !Objects.equals(parent.getPost().getId(), comment.getPost().getId())) {
+      throw new InvalidReplyException("A reply must be on the post of the comment it replies to");
+    }
+  }
+
+  /** The replied comment as stored, as the one received may only hold its id. */
+  private Comment parentOf(Comment comment) {
+    if (comment.getReply() == null) {
+      return null;
+    }
+    return commentRepository
+        .findById(comment.getReply().getId())
+        .orElseThrow(() -> new InvalidReplyException("The replied comment does not exist"));
+  }
+
+  /** Rewrite the paths of the replies of a comment which moved to another parent. */
+  private void moveReplies(String previousPath, String path) {
+    if (path.startsWith(previousPath)) {
+      throw new InvalidReplyException("A comment cannot reply to one of its replies");
+    }
+    int longest =
+        commentRepository.findMaxPathLength(previousPath + "%").orElse(previousPath.length());
+    if (path.length() + longest - previousPath.length() > Comment.PATH_MAX_LENGTH) {
+      throw new InvalidReplyException("Replies are nested too deep");
+    }
+    commentRepository.updatePathPrefix(path, previousPath.length(), previousPath + "_%");
+  }
+
+  /**
+   * Move the replies of a comment to the post of the comment.
+   *
+   * @param previousPath the path the comment had, {@code null} if it had none yet.
+   * @return the number of replies moved.
+   */
+  private int moveRepliesToPost(Comment comment, String previousPath) {
+    if (previousPath != null) {
+      return commentRepository.updatePostByPathLike(comment.getPost(), comment.getPath() + "_%");
+    }
+    List<Long> ids = replyIdsOf(comment.getId());
+    return ids.isEmpty() ? 0 : commentRepository.updatePostByIdIn(comment.getPost(), ids);
+  }
+
+  /**
+   * The ids of the replies of a comment, direct or not, found one level at a time from the
+   * replied comments, for the threads whose paths are not filled yet.
+   */
+  private List<Long> replyIdsOf(Long id) {
+    List<Long> ids = new ArrayList<>();
+    Set<Long> seen = new HashSet<>(Set.of(id));
+    List<Long> level = List.of(id);
+    while (!level.isEmpty()) {
+      level = commentRepository.findIdsByReplyIdIn(level).stream().filter(seen::add).toList();
+      ids.addAll(level);
+    }
+    return ids;
+  }
+
+  private static String segment(Long id) {
+    String digits = Long.toString(id, Character.MAX_RADIX);
+    return "0".repeat(Math.max(0, Comment.PATH_SEGMENT_LENGTH - digits.length())) + digits;
+  }
+
+  /** The outcome of a batch of the path backfill. */
+  private record BackfillBatch(int read, int filled, long lastId) {}
 }
@@ -0,0 +1,104 @@
+package me.lnkkerst.webblogapi.service;
+
+import java.util.Collection;
+import java.util.Optional;
+import me.lnkkerst.webblogapi.domain.EntityCounter;
+import me.lnkkerst.webblogapi.domain.EntityCounterId;
+import me.lnkkerst.webblogapi.domain.enumeration.CounterType;
+import me.lnkkerst.webblogapi.repository.EntityCounterRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service Implementation for managing {@link EntityCounter}.
+ *
+ * <p>A counter is created along with its target entity, then moved in the same transaction as each
+ * row it counts. Targets without a counter row are simply not maintained, and readers must fall
+ * back to a {@code COUNT} query for them.
+ */
+@Service
+@Transactional
+public class CounterService {
+
+  /** The target of the counters of a whole entity, like {@link CounterType#NODES_VERSION}. */
+  public static final Long ALL_TARGETS = 0L;
+
+  private final Logger log = LoggerFactory.getLogger(CounterService.class);
+
+  private final EntityCounterRepository entityCounterRepository;
+
+  public CounterService(EntityCounterRepository entityCounterRepository) {
+    this.entityCounterRepository = entityCounterRepository;
+  }
+
+  /**
+   * Start maintaining a counter for a newly created target.
+   *
+   * @param type what is counted.
+   * @param targetId the id of the target entity.
+   */
+  public void create(CounterType type, Long targetId) {
+    log.debug("Request to create counter {} of {}", type, targetId);
+    entityCounterRepository.save(new EntityCounter(type, targetId));
+  }
+
+  /**
+   * Stop maintaining a counter, when its target is deleted.
+   *
+   * @param type what is counted.
+   * @param targetId the id of the target entity.
+   */
+  public void delete(CounterType type, Long targetId) {
+    log.debug("Request to delete counter {} of {}", type, targetId);
+    entityCounterRepository.deleteById(new EntityCounterId(type, targetId));
+  }
+
+  /**
+   * Stop maintaining the counters of several targets, when they are deleted together.
+   *
+   * @param type what is counted.
+   * @param targetIds the ids of the target entities.
+   */
+  public void deleteAll(CounterType type, Collection<Long> targetIds) {
+    log.debug("Request to delete counters {} of {} targets", type, targetIds.size());
+    entityCounterRepository.deleteTargets(type, targetIds);
+  }
+
+  public void increment(CounterType type, Long targetId) {
+    add(type, targetId, 1);
+  }
+
+  public void decrement(CounterType type, Long targetId) {
+    add(type, targetId, -1);
+  }
+
+  /**
+   * Get the value of a counter.
+   *
+   * @param type what is counted.
+   * @param targetId the id of the target entity.
+   * @return the value, or empty if this counter is not maintained.
+   */
+  @Transactional(readOnly = true)
+  public Optional<Long> getTotal(CounterType type, Long targetId) {
+    return entityCounterRepository.findTotal(type, targetId);
+  }
+
+  /**
+   * Move a counter by any amount, when several counted rows go at once.
+   *
+   * @param type what is counted.
+   * @param targetId the id of the target entity, ignored if {@code null}.
+   * @param delta the amount to add, negative to subtract.
+   */
+  public void add(CounterType type, Long targetId, long delta) {
+    if (targetId == null) {
+      return;
+    }
+    if (entityCounterRepository.add(type, targetId, delta) == 0) {
+      log.debug("Counter {} of {} is not maintained", type, targetId);
+    }
+  }
+}
@@ -0,0 +1,71 @@
+package me.lnkkerst.webblogapi.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.util.function.Consumer;
+import me.lnkkerst.webblogapi.domain.Node;
+import me.lnkkerst.webblogapi.domain.User;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Service for evicting Hibernate second-level cache entries.
+ *
+ * <p>Evictions are deferred until the current transaction commits, so a concurrent reader cannot
+ * put the old state back into the cache in between.
+ */
+@Service
+public class EntityCacheService {
+
+  public static final String USER_AUTHORITIES_REGION = User.class.getName() + ".authorities";
+
+  private final Logger log = LoggerFactory.getLogger(EntityCacheService.class);
+
+  private final EntityManagerFactory entityManagerFactory;
+
+  public EntityCacheService(EntityManagerFactory entityManagerFactory) {
+    this.entityManagerFactory = entityManagerFactory;
+  }
+
+  /**
+   * Evict a node.
+   *
+   * @param id the id of the node.
+   */
+  public void evictNode(Long id) {
+    afterCommit(cache -> cache.evictEntityData(Node.class, id));
+  }
+
+  /**
+   * Evict a user together with its authorities.
+   *
+   * @param id the id of the user.
+   */
+  public void evictUser(Long id) {
+    afterCommit(
+        cache -> {
+          cache.evictEntityData(User.class, id);
+          cache.evictCollectionData(USER_AUTHORITIES_REGION, id);
+        });
+  }
+
+  private void afterCommit(Consumer<Cache> eviction) {
+    Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      eviction.accept(cache);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            log.debug("Evicting second-level cache entries after commit");
+            eviction.accept(cache);
+          }
+        });
+  }
+}
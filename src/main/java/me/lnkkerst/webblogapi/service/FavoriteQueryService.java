@@ -2,18 +2,23 @@ package me.lnkkerst.webblogapi.service;
 
 import jakarta.persistence.criteria.JoinType;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
 import me.lnkkerst.webblogapi.domain.*; // for static metamodels
 import me.lnkkerst.webblogapi.domain.Favorite;
+import me.lnkkerst.webblogapi.domain.enumeration.CounterType;
 import me.lnkkerst.webblogapi.repository.FavoriteRepository;
 import me.lnkkerst.webblogapi.service.criteria.FavoriteCriteria;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import tech.jhipster.service.QueryService;
+import tech.jhipster.service.filter.LongFilter;
 
 /**
  * Service for executing complex queries for {@link Favorite} entities in the database. The main
@@ -29,8 +34,12 @@ public class FavoriteQueryService extends QueryService<Favorite> {
 
   private final FavoriteRepository favoriteRepository;
 
-  public FavoriteQueryService(FavoriteRepository favoriteRepository) {
+  private final CounterService counterService;
+
+  public FavoriteQueryService(
+      FavoriteRepository favoriteRepository, CounterService counterService) {
     this.favoriteRepository = favoriteRepository;
+    this.counterService = counterService;
   }
 
   /**
@@ -57,7 +66,11 @@ public class FavoriteQueryService extends QueryService<Favorite> {
   public Page<Favorite> findByCriteria(FavoriteCriteria criteria, Pageable page) {
     log.debug("find by criteria : {}, page: {}", criteria, page);
     final Specification<Favorite> specification = createSpecification(criteria);
-    return favoriteRepository.findAll(specification, page);
+    return countFromCounter(criteria)
+        .<Page<Favorite>>map(
+            total ->
+                new PageImpl<>(favoriteRepository.findContent(specification, page), page, total))
+        .orElseGet(() -> favoriteRepository.findAll(specification, page));
   }
 
   /**
@@ -69,8 +82,55 @@ public class FavoriteQueryService extends QueryService<Favorite> {
   @Transactional(readOnly = true)
   public long countByCriteria(FavoriteCriteria criteria) {
     log.debug("count by criteria : {}", criteria);
-    final Specification<Favorite> specification = createSpecification(criteria);
-    return favoriteRepository.count(specification);
+    return countFromCounter(criteria)
+        .orElseGet(() -> favoriteRepository.count(createSpecification(criteria)));
+  }
+
+  /**
+   * Read the number of matching entities from a maintained counter, when the criteria only filters
+   * on the favorited post, node or user.
+   *
+   * @param criteria The object which holds all the filters, which the entities should match.
+   * @return the number of matching entities, or empty if it has to be counted.
+   */
+  private Optional<Long> countFromCounter(FavoriteCriteria criteria) {
+    if (criteria == null) {
+      return Optional.empty();
+    }
+    return onlyEquals(criteria, FavoriteCriteria::getPostId, FavoriteCriteria::postId)
+        .flatMap(postId -> counterService.getTotal(CounterType.POST_FAVORITES, postId))
+        .or(
+            () ->
+                onlyEquals(criteria, FavoriteCriteria::getNodeId, FavoriteCriteria::nodeId)
+                    .flatMap(
+                        nodeId -> counterService.getTotal(CounterType.NODE_FAVORITES, nodeId)))
+        .or(
+            () ->
+                onlyEquals(criteria, FavoriteCriteria::getUserId, FavoriteCriteria::userId)
+                    .flatMap(
+                        userId -> counterService.getTotal(CounterType.USER_FAVORITES, userId)));
+  }
+
+  /**
+   * The value of an equality filter, if the criteria holds nothing else.
+   *
+   * @param criteria The object which holds all the filters, which the entities should match.
+   * @param getter Reads the filter from the criteria.
+   * @param creator Creates the filter on an empty criteria.
+   * @return the value of the filter, or empty if the criteria holds anything else.
+   */
+  private Optional<Long> onlyEquals(
+      FavoriteCriteria criteria,
+      Function<FavoriteCriteria, LongFilter> getter,
+      Function<FavoriteCriteria, LongFilter> creator) {
+    LongFilter filter = getter.apply(criteria);
+    if (filter == null || filter.getEquals() == null) {
+      return Optional.empty();
+    }
+    FavoriteCriteria expected = new FavoriteCriteria();
+    creator.apply(expected).setEquals(filter.getEquals());
+    expected.setDistinct(criteria.getDistinct());
+    return expected.equals(criteria) ? Optional.of(filter.getEquals()) : Optional.empty();
   }
 
   /**
@@ -1,8 +1,25 @@
 package me.lnkkerst.webblogapi.service;
 
+import jakarta.validation.Validator;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import me.lnkkerst.webblogapi.domain.EntityCounterId;
 import me.lnkkerst.webblogapi.domain.Favorite;
+import me.lnkkerst.webblogapi.domain.Node;
+import me.lnkkerst.webblogapi.domain.Post;
+import me.lnkkerst.webblogapi.domain.User;
+import me.lnkkerst.webblogapi.domain.enumeration.CounterType;
 import me.lnkkerst.webblogapi.repository.FavoriteRepository;
+import me.lnkkerst.webblogapi.repository.NodeRepository;
+import me.lnkkerst.webblogapi.repository.PostRepository;
+import me.lnkkerst.webblogapi.repository.UserRepository;
+import me.lnkkerst.webblogapi.service.dto.BatchResultDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -15,12 +32,45 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional
 public class FavoriteService {
 
+  /** The order counters are moved in by a batch, so that concurrent batches do not deadlock. */
+  private static final Comparator<EntityCounterId> COUNTER_ORDER =
+      Comparator.comparing(EntityCounterId::getType).thenComparing(EntityCounterId::getTargetId);
+
   private final Logger log = LoggerFactory.getLogger(FavoriteService.class);
 
   private final FavoriteRepository favoriteRepository;
 
-  public FavoriteService(FavoriteRepository favoriteRepository) {
+  private final CounterService counterService;
+
+  private final HotPostService hotPostService;
+
+  private final FeedService feedService;
+
+  private final UserRepository userRepository;
+
+  private final NodeRepository nodeRepository;
+
+  private final PostRepository postRepository;
+
+  private final Validator validator;
+
+  public FavoriteService(
+      FavoriteRepository favoriteRepository,
+      CounterService counterService,
+      HotPostService hotPostService,
+      FeedService feedService,
+      UserRepository userRepository,
+      NodeRepository nodeRepository,
+      PostRepository postRepository,
+      Validator validator) {
     this.favoriteRepository = favoriteRepository;
+    this.counterService = counterService;
+    this.hotPostService = hotPostService;
+    this.feedService = feedService;
+    this.userRepository = userRepository;
+    this.nodeRepository = nodeRepository;
+    this.postRepository = postRepository;
+    this.validator = validator;
   }
 
   /**
@@ -31,7 +81,74 @@ public class FavoriteService {
    */
   public Favorite save(Favorite favorite) {
     log.debug("Request to save Favorite : {}", favorite);
-    return favoriteRepository.save(favorite);
+    Favorite result = favoriteRepository.save(favorite);
+    List<EntityCounterId> counters = counters(result);
+    counters.forEach(counter -> counterService.increment(counter.getType(), counter.getTargetId()));
+    if (result.getPost() != null) {
+      hotPostService.addFavorite(result.getPost().getId());
+    }
+    if (isFollow(counters)) {
+      feedService.followsChanged(result.getOwner().getId());
+    }
+    return result;
+  }
+
+  /**
+   * Save a batch of new favorites in a single transaction, inserted with JDBC batches.
+   *
+   * <p>Favorites which are not valid, or point to an owner, user, node or post which does not
+   * exist, are rejected and the other ones are still saved. Counters and scores are moved once per
+   * target, in a fixed order so that concurrent batches do not deadlock.
+   *
+   * @param favorites the favorites to save.
+   * @return the result of each favorite, in the order of the batch.
+   */
+  public List<BatchResultDTO> saveAll(List<Favorite> favorites) {
+    log.debug("Request to save {} Favorites", favorites.size());
+    BatchItems<Favorite> batch = new BatchItems<>(favorites, validator, Favorite::getId);
+    batch.resolve(
+        Favorite::getOwner,
+        Favorite::setOwner,
+        User::getId,
+        userRepository::findAllById,
+        "The owner does not exist");
+    batch.resolve(
+        Favorite::getUser,
+        Favorite::setUser,
+        User::getId,
+        userRepository::findAllById,
+        "The user does not exist");
+    batch.resolve(
+        Favorite::getNode,
+        Favorite::setNode,
+        Node::getId,
+        nodeRepository::findAllById,
+        "The node does not exist");
+    batch.resolve(
+        Favorite::getPost,
+        Favorite::setPost,
+        Post::getId,
+        postRepository::findAllById,
+        "The post does not exist");
+
+    Map<EntityCounterId, Long> counts = new TreeMap<>(COUNTER_ORDER);
+    Set<Long> followers = new TreeSet<>();
+    for (Favorite favorite : favoriteRepository.saveAll(batch.valid())) {
+      List<EntityCounterId> counters = counters(favorite);
+      counters.forEach(counter -> counts.merge(counter, 1L, Long::sum));
+      if (isFollow(counters)) {
+        followers.add(favorite.getOwner().getId());
+      }
+    }
+    counts.forEach(
+        (counter, count) -> {
+          counterService.add(counter.getType(), counter.getTargetId(), count);
+          if (counter.getType() == CounterType.POST_FAVORITES) {
+            hotPostService.addFavorites(counter.getTargetId(), count);
+          }
+        });
+    followers.forEach(feedService::followsChanged);
+    return batch.results(Favorite::getId);
   }
 
   /**
@@ -42,7 +159,22 @@ public class FavoriteService {
    */
   public Favorite update(Favorite favorite) {
     log.debug("Request to update Favorite : {}", favorite);
-    return favoriteRepository.save(favorite);
+    Optional<Favorite> previous = favoriteRepository.findById(favorite.getId());
+    List<EntityCounterId> previousCounters = previous.map(this::counters).orElse(List.of());
+    Long previousOwnerId = previous.map(existing -> existing.getOwner().getId()).orElse(null);
+    Favorite result = favoriteRepository.save(favorite);
+    List<EntityCounterId> counters = counters(result);
+    previousCounters.stream()
+        .filter(counter -> !counters.contains(counter))
+        .forEach(counter -> counterService.decrement(counter.getType(), counter.getTargetId()));
+    counters.stream()
+        .filter(counter -> !previousCounters.contains(counter))
+        .forEach(counter -> counterService.increment(counter.getType(), counter.getTargetId()));
+    if (isFollow(previousCounters) || isFollow(counters)) {
+      feedService.followsChanged(previousOwnerId);
+      feedService.followsChanged(result.getOwner().getId());
+    }
+    return result;
   }
 
   /**
@@ -98,6 +230,42 @@ public class FavoriteService {
    */
   public void delete(Long id) {
     log.debug("Request to delete Favorite : {}", id);
-    favoriteRepository.deleteById(id);
+    favoriteRepository
+        .findById(id)
+        .ifPresent(
+            favorite -> {
+              favoriteRepository.delete(favorite);
+              List<EntityCounterId> counters = counters(favorite);
+              for (EntityCounterId counter : counters) {
+                counterService.decrement(counter.getType(), counter.getTargetId());
+              }
+              if (isFollow(counters)) {
+                feedService.followsChanged(favorite.getOwner().getId());
+              }
+            });
+  }
+
+  /** Whether a favorite follows a user or a node, given its counters, and feeds their posts. */
+  private static boolean isFollow(List<EntityCounterId> counters) {
+    return counters.stream()
+        .anyMatch(
+            counter ->
+                counter.getType() == CounterType.USER_FAVORITES
+                    || counter.getType() == CounterType.NODE_FAVORITES);
+  }
+
+  /** The counters a favorite takes part in, one per target it points to. */
+  private List<EntityCounterId> counters(Favorite favorite) {
+    List<EntityCounterId> counters = new ArrayList<>();
+    if (favorite.getPost() != null) {
+      counters.add(new EntityCounterId(CounterType.POST_FAVORITES, favorite.getPost().getId()));
+    }
+    if (favorite.getNode() != null) {
+      counters.add(new EntityCounterId(CounterType.NODE_FAVORITES, favorite.getNode().getId()));
+    }
+    if (favorite.getUser() != null) {
+      counters.add(new EntityCounterId(CounterType.USER_FAVORITES, favorite.getUser().getId()));
+    }
+    return counters;
   }
 }
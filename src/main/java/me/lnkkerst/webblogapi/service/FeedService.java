@@ -0,0 +1,343 @@
+package me.lnkkerst.webblogapi.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import me.lnkkerst.webblogapi.config.ApplicationProperties;
+import me.lnkkerst.webblogapi.domain.FeedEntry;
+import me.lnkkerst.webblogapi.domain.FeedInbox;
+import me.lnkkerst.webblogapi.domain.Post;
+import me.lnkkerst.webblogapi.repository.FavoriteRepository;
+import me.lnkkerst.webblogapi.repository.FeedEntryRepository;
+import me.lnkkerst.webblogapi.repository.FeedInboxRepository;
+import me.lnkkerst.webblogapi.service.criteria.PostCriteria;
+import me.lnkkerst.webblogapi.service.dto.PostCursor;
+import me.lnkkerst.webblogapi.service.dto.PostDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service Implementation building the feed of an owner: the posts of the users and nodes it follows
+ * through its {@link me.lnkkerst.webblogapi.domain.Favorite favorites}, newest first, in the {@link
+ * PostQueryService#KEYSET_SORT keyset order}.
+ *
+ * <p>The followed sources are resolved once per slice, then the newest posts of each one are read
+ * with an index seek past the cursor, and merged with a priority queue. As a source cannot give
+ * more posts to a slice than the slice holds, one seek per source is enough.
+ *
+ * <p>When {@code application.feed.inbox-enabled} is set, owners following more sources than the
+ * threshold get a {@link FeedInbox} instead, written whenever one of their sources gets a post, so
+ * that their feed is read with a single seek. An inbox keeps the newest {@code
+ * application.feed.inbox-size} posts, the older ones are read from the sources. An inbox is dropped
+ * when its owner follows or stops following a source, and rebuilt on the next read.
+ */
+@Service
+@Transactional
+public class FeedService {
+
+  /** Newest posts first, like {@link PostQueryService#KEYSET_SORT}. */
+  private static final Comparator<PostDTO> FEED_ORDER =
+      Comparator.comparing((PostDTO post) -> post.getCreatedAt().toInstant())
+          .thenComparing(PostDTO::getId)
+          .reversed();
+
+  private final Logger log = LoggerFactory.getLogger(FeedService.class);
+
+  private final FavoriteRepository favoriteRepository;
+
+  private final FeedInboxRepository feedInboxRepository;
+
+  private final FeedEntryRepository feedEntryRepository;
+
+  private final PostQueryService postQueryService;
+
+  private final ApplicationProperties.Feed properties;
+
+  /** Creates the inboxes on their own, so that a concurrent creation does not fail the read. */
+  private final TransactionTemplate inboxTransaction;
+
+  public FeedService(
+      FavoriteRepository favoriteRepository,
+      FeedInboxRepository feedInboxRepository,
+      FeedEntryRepository feedEntryRepository,
+      PostQueryService postQueryService,
+      ApplicationProperties applicationProperties,
+      PlatformTransactionManager transactionManager) {
+    this.favoriteRepository = favoriteRepository;
+    this.feedInboxRepository = feedInboxRepository;
+    this.feedEntryRepository = feedEntryRepository;
+    this.postQueryService = postQueryService;
+    this.properties = applicationProperties.getFeed();
+    this.inboxTransaction = new TransactionTemplate(transactionManager);
+    this.inboxTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+  }
+
+  /**
+   * Get a slice of the feed of an owner.
+   *
+   * @param ownerId the id of the owner.
+   * @param after the position to continue from, or {@code null} to start from the newest post.
+   * @param size the maximum number of posts to return.
+   * @return the posts, newest first.
+   */
+  public Slice<PostDTO> findFeed(Long ownerId, PostCursor after, int size) {
+    log.debug("Request to get the feed of User {} after {}", ownerId, after);
+    Sources sources = followedBy(ownerId);
+    FeedInbox inbox = null;
+    if (properties.isInboxEnabled() && sources.size() > properties.getInboxThreshold()) {
+      inbox = feedInboxRepository.findById(ownerId).orElseGet(() -> createInbox(ownerId, sources));
+    }
+    // The sources are merged without an inbox, or while one created concurrently cannot be read
+    List<PostDTO> content =
+        inbox != null
+            ? readInbox(inbox, sources, after, size + 1)
+            : merge(sources, after, size + 1);
+    // One extra post was read to know whether there is a next slice
+    boolean hasNext = content.size() > size;
+    return new SliceImpl<>(
+        hasNext ? content.subList(0, size) : content,
+        PageRequest.of(0, size, PostQueryService.KEYSET_SORT),
+        hasNext);
+  }
+
+  /**
+   * Write a new post to the inboxes of the owners who follow its user or its node, then trim them
+   * to their size.
+   *
+   * @param post the post.
+   */
+  public void fanOut(Post post) {
+    if (!properties.isInboxEnabled()) {
+      return;
+    }
+    List<Long> ownerIds =
+        favoriteRepository.findInboxOwnersFollowing(post.getUser().getId(), post.getNode().getId());
+    log.debug("Request to write Post {} to {} feed inboxes", post.getId(), ownerIds.size());
+    feedEntryRepository.saveAll(
+        ownerIds.stream()
+            .map(ownerId -> new FeedEntry(ownerId, post.getId(), post.getCreatedAt()))
+            .toList());
+    ownerIds.forEach(this::trim);
+  }
+
+  /**
+   * Write a post to the inboxes again, once its node or creation time changed.
+   *
+   * @param post the post.
+   */
+  public void refanOut(Post post) {
+    if (!properties.isInboxEnabled()) {
+      return;
+    }
+    feedEntryRepository.deleteByPost(post.getId());
+    fanOut(post);
+  }
+
+  /**
+   * Remove a deleted post from the inboxes.
+   *
+   * @param postId the id of the post.
+   */
+  public void deletePost(Long postId) {
+    feedEntryRepository.deleteByPost(postId);
+  }
+
+  /**
+   * Drop the inbox of an owner whose followed sources changed, it is rebuilt on its next read.
+   *
+   * @param ownerId the id of the owner.
+   */
+  public void followsChanged(Long ownerId) {
+    if (ownerId == null || !feedInboxRepository.existsById(ownerId)) {
+      return;
+    }
+    log.debug("Request to drop the feed inbox of User : {}", ownerId);
+    feedEntryRepository.deleteByOwner(ownerId);
+    feedInboxRepository.deleteById(ownerId);
+  }
+
+  private Sources followedBy(Long ownerId) {
+    Set<Long> userIds = new LinkedHashSet<>();
+    Set<Long> nodeIds = new LinkedHashSet<>();
+    for (FavoriteRepository.Followed followed : favoriteRepository.findFollowed(ownerId)) {
+      if (followed.getUserId() != null) {
+        userIds.add(followed.getUserId());
+      }
+      if (followed.getNodeId() != null) {
+        nodeIds.add(followed.getNodeId());
+      }
+    }
+    return new Sources(userIds, nodeIds);
+  }
+
+  /**
+   * Merge the newest posts of the sources.
+   *
+   * @return at most {@code limit} posts, newest first.
+   */
+  private List<PostDTO> merge(Sources sources, PostCursor after, int limit) {
+    PriorityQueue<Head> heads = new PriorityQueue<>(Comparator.comparing(Head::post, FEED_ORDER));
+    for (PostCriteria criteria : sources.criteria()) {
+      Iterator<PostDTO> posts =
+          postQueryService.findDtoByCriteria(criteria, after, limit).getContent().iterator();
+      if (posts.hasNext()) {
+        heads.add(new Head(posts.next(), posts));
+      }
+    }
+    List<PostDTO> merged = new ArrayList<>(limit);
+    while (merged.size() < limit && !heads.isEmpty()) {
+      Head head = heads.poll();
+      // A post of a followed user in a followed node comes from both, one after the other
+      if (merged.isEmpty() || !merged.get(merged.size() - 1).getId().equals(head.post().getId())) {
+        merged.add(head.post());
+      }
+      if (head.rest().hasNext()) {
+        heads.add(new Head(head.rest().next(), head.rest()));
+      }
+    }
+    return merged;
+  }
+
+  /** Drop the entries of an inbox past its size, their posts are read from the sources instead. */
+  private void trim(Long ownerId) {
+    List<FeedEntryRepository.Position> oldestKept =
+        feedEntryRepository.findNewestPositions(
+            ownerId, PageRequest.of(properties.getInboxSize() - 1, 1));
+    if (oldestKept.isEmpty()) {
+      return;
+    }
+    PostCursor oldest =
+        new PostCursor(oldestKept.get(0).getCreatedAt(), oldestKept.get(0).getPostId());
+    if (feedEntryRepository.deleteByOwnerAfter(ownerId, oldest.getCreatedAt(), oldest.getId())
+        == 0) {
+      return;
+    }
+    log.debug("Request to trim the feed inbox of User {} to {}", ownerId, oldest);
+    // Entries written with a past creation time may be older than the posts the inbox holds all of
+    feedInboxRepository
+        .findById(ownerId)
+        .filter(inbox -> inbox.getSincePostId() == null || isBefore(oldest, since(inbox)))
+        .ifPresent(inbox -> inbox.since(oldest.getCreatedAt(), oldest.getId()));
+  }
+
+  /**
+   * Fill a new inbox with the newest posts of the sources.
+   *
+   * @return the inbox, or {@code null} if it was created concurrently and cannot be read yet.
+   */
+  private FeedInbox createInbox(Long ownerId, Sources sources) {
+    List<PostDTO> newest = merge(sources, null, properties.getInboxSize() + 1);
+    FeedInbox inbox = new FeedInbox(ownerId);
+    if (newest.size() > properties.getInboxSize()) {
+      newest = newest.subList(0, properties.getInboxSize());
+      PostDTO oldest = newest.get(newest.size() - 1);
+      inbox.since(oldest.getCreatedAt(), oldest.getId());
+    }
+    log.debug("Request to create the feed inbox of User {} with {} posts", ownerId, newest.size());
+    List<FeedEntry> entries =
+        newest.stream()
+            .map(post -> new FeedEntry(ownerId, post.getId(), post.getCreatedAt()))
+            .toList();
+    try {
+      return inboxTransaction.execute(
+          status -> {
+            feedEntryRepository.saveAll(entries);
+            return feedInboxRepository.saveAndFlush(inbox);
+          });
+    } catch (DataIntegrityViolationException e) {
+      log.debug("The feed inbox of User {} was created concurrently", ownerId);
+      return feedInboxRepository.findById(ownerId).orElse(null);
+    }
+  }
+
+  /**
+   * Read the newest posts of an inbox, then of the sources past the posts it holds.
+   *
+   * <p>The inbox holds every post of the sources down to its {@code since} position, and may hold
+   * older ones written with a past creation time. When it does not fill the slice, the sources are
+   * read from the same position and merged with it.
+   *
+   * @return at most {@code limit} posts, newest first.
+   */
+  private List<PostDTO> readInbox(FeedInbox inbox, Sources sources, PostCursor after, int limit) {
+    PostCursor since = since(inbox);
+    if (since != null && after != null && !isBefore(after, since)) {
+      return merge(sources, after, limit);
+    }
+    PageRequest page = PageRequest.of(0, limit);
+    List<Long> postIds =
+        after == null
+            ? feedEntryRepository.findNewestPostIds(inbox.getOwnerId(), page)
+            : feedEntryRepository.findNewestPostIdsAfter(
+                inbox.getOwnerId(), after.getCreatedAt(), after.getId(), page);
+    List<PostDTO> content = new ArrayList<>(postQueryService.findDtoByIds(postIds));
+    if (since == null) {
+      return content;
+    }
+    // The posts past since are not all in the inbox, so they cannot be trusted to fill the slice
+    content.removeIf(post -> isBefore(since, PostCursor.of(post)));
+    if (content.size() == limit) {
+      return content;
+    }
+    Set<Long> read = new HashSet<>();
+    content.forEach(post -> read.add(post.getId()));
+    merge(sources, after, limit).stream()
+        .filter(post -> !read.contains(post.getId()))
+        .forEach(content::add);
+    content.sort(FEED_ORDER);
+    return content.size() > limit ? content.subList(0, limit) : content;
+  }
+
+  /** The position of the oldest post of the sources held by an inbox, if it does not hold all. */
+  private static PostCursor since(FeedInbox inbox) {
+    return inbox.getSincePostId() == null
+        ? null
+        : new PostCursor(inbox.getSinceCreatedAt(), inbox.getSincePostId());
+  }
+
+  /** Whether a position comes before another one in the feed, being newer. */
+  private static boolean isBefore(PostCursor position, PostCursor other) {
+    int createdAt = position.getCreatedAt().toInstant().compareTo(other.getCreatedAt().toInstant());
+    return createdAt > 0 || (createdAt == 0 && position.getId() > other.getId());
+  }
+
+  /** The users and nodes followed by an owner. */
+  private record Sources(Set<Long> userIds, Set<Long> nodeIds) {
+    int size() {
+      return userIds.size() + nodeIds.size();
+    }
+
+    /** The criteria of the posts of each source. */
+    List<PostCriteria> criteria() {
+      List<PostCriteria> criteria = new ArrayList<>(size());
+      for (Long userId : userIds) {
+        PostCriteria ofUser = new PostCriteria();
+        ofUser.userId().setEquals(userId);
+        criteria.add(ofUser);
+      }
+      for (Long nodeId : nodeIds) {
+        PostCriteria ofNode = new PostCriteria();
+        ofNode.nodeId().setEquals(nodeId);
+        criteria.add(ofNode);
+      }
+      return criteria;
+    }
+  }
+
+  /** The next post of a source, and the ones after it. */
+  private record Head(PostDTO post, Iterator<PostDTO> rest) {}
+}
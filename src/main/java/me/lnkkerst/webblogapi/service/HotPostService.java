@@ -0,0 +1,365 @@
+package me.lnkkerst.webblogapi.service;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import me.lnkkerst.webblogapi.config.ApplicationProperties;
+import me.lnkkerst.webblogapi.domain.Post;
+import me.lnkkerst.webblogapi.domain.PostScore;
+import me.lnkkerst.webblogapi.repository.PostScoreRepository;
+import me.lnkkerst.webblogapi.service.dto.PostDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Service Implementation ranking the hot posts, by a score which sums the weights of a post, its
+ * comments and its favorites, each halved every {@code application.hot-posts.half-life}.
+ *
+ * <p>Scores are stored in {@link PostScore} and moved by the services writing the posts, comments
+ * and favorites, in the same transaction. The best posts of each node, and of all nodes, are kept
+ * in memory in sorted rankings loaded from the database on first use. As every score decays at the
+ * same rate, decay never reorders a ranking, and a post only climbs when it is written; rankings
+ * are therefore only updated by writes, and reloaded when a post leaves them or a transaction
+ * which moved them rolls back. They are also reloaded after each periodic decay of the stored
+ * scores, to pick up the writes of the other instances.
+ *
+ * <p>A ranking being loaded may miss the writes committed meanwhile, so they are offered to it as
+ * well, and kept over the scores it loads.
+ */
+@Service
+@Transactional
+public class HotPostService {
+
+  /** Scores decayed under this are reset, and their posts no longer ranked. */
+  static final double MIN_SCORE = 0.01;
+
+  /** Key of the ranking of all the nodes. */
+  private static final Long ALL_NODES = -1L;
+
+  private final Logger log = LoggerFactory.getLogger(HotPostService.class);
+
+  private final PostScoreRepository postScoreRepository;
+
+  private final PostQueryService postQueryService;
+
+  private final ApplicationProperties.HotPosts properties;
+
+  private final Map<Long, Ranking> rankings = new ConcurrentHashMap<>();
+
+  /** The rankings being loaded, until they are in {@link #rankings}. */
+  private final Map<Long, Ranking> loading = new ConcurrentHashMap<>();
+
+  public HotPostService(
+      PostScoreRepository postScoreRepository,
+      PostQueryService postQueryService,
+      ApplicationProperties applicationProperties) {
+    this.postScoreRepository = postScoreRepository;
+    this.postQueryService = postQueryService;
+    this.properties = applicationProperties.getHotPosts();
+  }
+
+  /**
+   * Start scoring a newly created post, with the weight of the post itself.
+   *
+   * @param post the post.
+   */
+  public void create(Post post) {
+    log.debug("Request to create the score of Post : {}", post.getId());
+    long now = Instant.now().getEpochSecond();
+    double score = properties.getPostWeight();
+    postScoreRepository.save(
+        new PostScore(post.getId(), post.getNode().getId()).score(score).scoredAt(now));
+    offer(post.getId(), post.getNode().getId(), score, now);
+  }
+
+  /**
+   * Add the weight of a new comment to the score of its post.
+   *
+   * @param postId the id of the post.
+   */
+  public void addComment(Long postId) {
+    add(postId, properties.getCommentWeight());
+  }
+
+  /**
+   * Add the weight of a new favorite to the score of the post it points to.
+   *
+   * @param postId the id of the post.
+   */
+  public void addFavorite(Long postId) {
+    add(postId, properties.getFavoriteWeight());
+  }
+
+  /**
+   * Add the weight of several new comments to the score of their post.
+   *
+   * @param postId the id of the post.
+   * @param count the number of comments.
+   */
+  public void addComments(Long postId, long count) {
+    add(postId, count * properties.getCommentWeight());
+  }
+
+  /**
+   * Add the weight of several new favorites to the score of the post they point to.
+   *
+   * @param postId the id of the post.
+   * @param count the number of favorites.
+   */
+  public void addFavorites(Long postId, long count) {
+    add(postId, count * properties.getFavoriteWeight());
+  }
+
+  /**
+   * Follow a post moved to another node.
+   *
+   * @param postId the id of the post.
+   * @param previousNodeId the id of the node the post was in.
+   * @param nodeId the id of the node the post is in.
+   */
+  public void move(Long postId, Long previousNodeId, Long nodeId) {
+    log.debug("Request to move the score of Post {} to Node {}", postId, nodeId);
+    postScoreRepository.moveToNode(postId, nodeId);
+    reloadAfterCompletion(previousNodeId, nodeId);
+  }
+
+  /**
+   * Stop scoring a deleted post.
+   *
+   * @param postId the id of the post.
+   */
+  public void delete(Long postId) {
+    log.debug("Request to delete the score of Post : {}", postId);
+    postScoreRepository
+        .findScore(postId)
+        .ifPresent(
+            score -> {
+              postScoreRepository.deleteById(postId);
+              reloadAfterCompletion(score.getNodeId());
+            });
+  }
+
+  /**
+   * Get the hot posts, best first.
+   *
+   * @param nodeId the id of the node of the posts, or {@code null} for all the nodes.
+   * @param size the maximum number of posts, at most {@link #getRankingSize()}.
+   * @return the posts, as shown in list views.
+   */
+  @Transactional(readOnly = true)
+  public List<PostDTO> findHot(Long nodeId, int size) {
+    log.debug("Request to get the hot Posts of Node : {}", nodeId);
+    // Posts deleted by another instance are still ranked until the next reload
+    return postQueryService.findDtoByIds(ranking(nodeId == null ? ALL_NODES : nodeId).top(size));
+  }
+
+  /** The posts kept by each ranking, and the maximum size of {@link #findHot}. */
+  public int getRankingSize() {
+    return properties.getRankingSize();
+  }
+
+  /**
+   * Decay the stored scores, so that they keep meaningful values, and reset the ones which decayed
+   * to almost nothing. The rankings are then reloaded from the database.
+   *
+   * <p>This is scheduled to get fired every {@code application.hot-posts.decay-interval}.
+   */
+  @Scheduled(
+      initialDelayString = "${application.hot-posts.decay-interval:PT1H}",
+      fixedDelayString = "${application.hot-posts.decay-interval:PT1H}")
+  public void decay() {
+    int decayed = postScoreRepository.decay(rate(), Instant.now().getEpochSecond());
+    int cleared = postScoreRepository.clearBelow(MIN_SCORE);
+    log.debug("Decayed {} post scores, {} of them no longer ranked", decayed, cleared);
+    afterCompletion(rankings::clear);
+  }
+
+  /**
+   * Drop the rankings, so that they are loaded again from the stored scores on their next read,
+   * like after scores were written without this service.
+   */
+  public void reload() {
+    log.debug("Request to reload the hot Post rankings");
+    afterCompletion(rankings::clear);
+  }
+
+  private void add(Long postId, double weight) {
+    if (postId == null) {
+      return;
+    }
+    long now = Instant.now().getEpochSecond();
+    if (postScoreRepository.add(postId, weight, rate(), now) == 0) {
+      log.debug("Score of Post {} is not maintained", postId);
+      return;
+    }
+    postScoreRepository
+        .findScore(postId)
+        .ifPresent(
+            score -> offer(postId, score.getNodeId(), score.getScore(), score.getScoredAt()));
+  }
+
+  /**
+   * Offer a new score to the rankings already loaded, right away so that the writer sees it. They
+   * are reloaded if the transaction rolls back, and offered the score again once it commits, along
+   * with the rankings loaded meanwhile.
+   */
+  private void offer(Long postId, Long nodeId, double score, long scoredAt) {
+    double rank = rank(score, scoredAt);
+    List<Long> keys = List.of(ALL_NODES, nodeId);
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      keys.forEach(key -> offerCommitted(key, postId, rank));
+      return;
+    }
+    for (Long key : keys) {
+      Ranking ranking = rankings.get(key);
+      if (ranking != null) {
+        ranking.offer(postId, rank);
+      }
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCompletion(int status) {
+            if (status == STATUS_COMMITTED) {
+              keys.forEach(key -> offerCommitted(key, postId, rank));
+            } else {
+              keys.forEach(rankings::remove);
+            }
+          }
+        });
+  }
+
+  /** Offer a committed score to a ranking, loaded or being loaded. */
+  private void offerCommitted(Long key, Long postId, double rank) {
+    Ranking loaded = rankings.get(key);
+    if (loaded != null) {
+      loaded.offer(postId, rank);
+    }
+    Ranking beingLoaded = loading.get(key);
+    if (beingLoaded != null && beingLoaded != loaded) {
+      beingLoaded.offer(postId, rank);
+    }
+  }
+
+  /** Reload the rankings of nodes once the transaction is over, as posts left them. */
+  private void reloadAfterCompletion(Long... nodeIds) {
+    afterCompletion(
+        () -> {
+          rankings.remove(ALL_NODES);
+          for (Long nodeId : nodeIds) {
+            if (nodeId != null) {
+              rankings.remove(nodeId);
+            }
+          }
+        });
+  }
+
+  private void afterCompletion(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCompletion(int status) {
+            action.run();
+          }
+        });
+  }
+
+  private Ranking ranking(Long key) {
+    Ranking ranking = rankings.get(key);
+    if (ranking != null) {
+      return ranking;
+    }
+    ranking =
+        rankings.computeIfAbsent(
+            key,
+            k -> {
+              int size = properties.getRankingSize();
+              Ranking loaded = new Ranking(size);
+              // Offered the writes committed from now on, until it is in the rankings
+              loading.put(k, loaded);
+              double rate = rate();
+              PageRequest top = PageRequest.of(0, size);
+              List<PostScoreRepository.Score> scores =
+                  k.equals(ALL_NODES)
+                      ? postScoreRepository.findTop(rate, top)
+                      : postScoreRepository.findTopByNode(k, rate, top);
+              for (PostScoreRepository.Score score : scores) {
+                loaded.offerIfAbsent(
+                    score.getPostId(), rank(score.getScore(), score.getScoredAt()));
+              }
+              return loaded;
+            });
+    loading.remove(key, ranking);
+    return ranking;
+  }
+
+  /** The rank of a score, its logarithm once decayed to the epoch. */
+  private double rank(double score, long scoredAt) {
+    return Math.log(score) + rate() * scoredAt;
+  }
+
+  /** The decay rate of the scores, per second. */
+  private double rate() {
+    return Math.log(2) / properties.getHalfLife().toSeconds();
+  }
+
+  private record Entry(Long postId, double rank) {}
+
+  /** The best posts by rank, the newest first among equals, bounded to a size. */
+  private static final class Ranking {
+
+    private static final Comparator<Entry> ORDER =
+        Comparator.comparingDouble(Entry::rank)
+            .reversed()
+            .thenComparing(Entry::postId, Comparator.reverseOrder());
+
+    private final int size;
+
+    private final NavigableSet<Entry> entries = new TreeSet<>(ORDER);
+
+    private final Map<Long, Entry> entriesByPost = new HashMap<>();
+
+    Ranking(int size) {
+      this.size = size;
+    }
+
+    synchronized void offer(Long postId, double rank) {
+      Entry previous = entriesByPost.remove(postId);
+      if (previous != null) {
+        entries.remove(previous);
+      }
+      Entry entry = new Entry(postId, rank);
+      entries.add(entry);
+      entriesByPost.put(postId, entry);
+      if (entries.size() > size) {
+        entriesByPost.remove(entries.pollLast().postId());
+      }
+    }
+
+    /** Offer a rank unless the post was offered a newer one. */
+    synchronized void offerIfAbsent(Long postId, double rank) {
+      if (!entriesByPost.containsKey(postId)) {
+        offer(postId, rank);
+      }
+    }
+
+    synchronized List<Long> top(int count) {
+      return entries.stream().limit(count).map(Entry::postId).toList();
+    }
+  }
+}
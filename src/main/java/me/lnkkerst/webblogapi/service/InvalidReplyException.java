@@ -0,0 +1,11 @@
+package me.lnkkerst.webblogapi.service;
+
+/** Thrown when a comment would reply to one of its own replies, or nest too deep. */
+public class InvalidReplyException extends RuntimeException {
+
+  private static final long serialVersionUID = 1L;
+
+  public InvalidReplyException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,241 @@
+package me.lnkkerst.webblogapi.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import me.lnkkerst.webblogapi.config.ApplicationProperties;
+import me.lnkkerst.webblogapi.domain.OutboxMail;
+import me.lnkkerst.webblogapi.repository.OutboxMailRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Service sending the emails of the outbox, written by the {@link MailService}.
+ *
+ * <p>Due mails are locked and sent in batches, each over a single SMTP connection, in a short
+ * transaction of its own. Sent mails are deleted, failed ones are retried after a doubling backoff
+ * until they are given up, and left in the outbox for inspection.
+ */
+@Service
+public class MailDeliveryService {
+
+  public static final String SENT_METER_NAME = "application.mail.sent";
+  public static final String SENT_METER_DESCRIPTION = "Indicates the emails sent from the outbox.";
+
+  public static final String FAILED_METER_NAME = "application.mail.failed";
+  public static final String FAILED_METER_DESCRIPTION =
+      "Indicates the failed deliveries of emails, which are retried later or given up.";
+  public static final String OUTCOME_DIMENSION = "outcome";
+  public static final String RETRIED_OUTCOME = "retried";
+  public static final String ABANDONED_OUTCOME = "abandoned";
+
+  public static final String MAIL_METER_BASE_UNIT = "emails";
+
+  public static final String BATCH_METER_NAME = "application.mail.batch";
+  public static final String BATCH_METER_DESCRIPTION =
+      "Indicates the time taken to send a batch of emails over a single SMTP connection.";
+
+  /** Batches sent per run at most, the next ones are left to the next run. */
+  private static final int MAX_BATCHES = 100;
+
+  private final Logger log = LoggerFactory.getLogger(MailDeliveryService.class);
+
+  private final OutboxMailRepository outboxMailRepository;
+
+  private final JavaMailSender javaMailSender;
+
+  private final JHipsterProperties jHipsterProperties;
+
+  private final ApplicationProperties.MailOutbox mailOutbox;
+
+  private final TransactionTemplate transactionTemplate;
+
+  private final Counter sent;
+
+  private final Counter retried;
+
+  private final Counter abandoned;
+
+  private final Timer batch;
+
+  public MailDeliveryService(
+      OutboxMailRepository outboxMailRepository,
+      JavaMailSender javaMailSender,
+      JHipsterProperties jHipsterProperties,
+      ApplicationProperties applicationProperties,
+      PlatformTransactionManager transactionManager,
+      MeterRegistry meterRegistry) {
+    this.outboxMailRepository = outboxMailRepository;
+    this.javaMailSender = javaMailSender;
+    this.jHipsterProperties = jHipsterProperties;
+    this.mailOutbox = applicationProperties.getMailOutbox();
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.sent =
+        Counter.builder(SENT_METER_NAME)
+            .baseUnit(MAIL_METER_BASE_UNIT)
+            .description(SENT_METER_DESCRIPTION)
+            .register(meterRegistry);
+    this.retried = failedCounter(meterRegistry, RETRIED_OUTCOME);
+    this.abandoned = failedCounter(meterRegistry, ABANDONED_OUTCOME);
+    this.batch =
+        Timer.builder(BATCH_METER_NAME)
+            .description(BATCH_METER_DESCRIPTION)
+            .register(meterRegistry);
+  }
+
+  private static Counter failedCounter(MeterRegistry meterRegistry, String outcome) {
+    return Counter.builder(FAILED_METER_NAME)
+        .baseUnit(MAIL_METER_BASE_UNIT)
+        .description(FAILED_METER_DESCRIPTION)
+        .tag(OUTCOME_DIMENSION, outcome)
+        .register(meterRegistry);
+  }
+
+  /**
+   * Send the due mails of the outbox, one batch after the other until none is left.
+   *
+   * <p>This is scheduled to get fired every {@code application.mail-outbox.poll-interval}.
+   */
+  @Scheduled(
+      initialDelayString = "${application.mail-outbox.poll-interval:PT5S}",
+      fixedDelayString = "${application.mail-outbox.poll-interval:PT5S}")
+  public void deliverPending() {
+    for (int i = 0; i < MAX_BATCHES; i++) {
+      Integer due = transactionTemplate.execute(status -> deliverBatch());
+      if (due == null || due < mailOutbox.getBatchSize()) {
+        break;
+      }
+    }
+  }
+
+  /**
+   * Send a batch of due mails over a single SMTP connection.
+   *
+   * @return the number of due mails in the batch.
+   */
+  private int deliverBatch() {
+    Instant now = Instant.now();
+    List<OutboxMail> mails =
+        outboxMailRepository.findDue(now, PageRequest.of(0, mailOutbox.getBatchSize()));
+    if (mails.isEmpty()) {
+      return 0;
+    }
+    Map<MimeMessage, OutboxMail> messages = new LinkedHashMap<>();
+    for (OutboxMail mail : mails) {
+      try {
+        messages.put(toMimeMessage(mail), mail);
+      } catch (MessagingException e) {
+        // The mail itself is invalid, like its recipient, it would fail again
+        giveUp(mail, e);
+      }
+    }
+    Map<Object, Exception> failures = send(messages.keySet().toArray(MimeMessage[]::new));
+    List<OutboxMail> delivered = new ArrayList<>();
+    messages.forEach(
+        (message, mail) -> {
+          Exception failure = failures.get(message);
+          if (failure == null) {
+            delivered.add(mail);
+          } else {
+            retryLater(mail, failure, now);
+          }
+        });
+    outboxMailRepository.deleteAllInBatch(delivered);
+    sent.increment(delivered.size());
+    log.debug("Sent {} of {} due emails", delivered.size(), mails.size());
+    return mails.size();
+  }
+
+  /**
+   * Send messages over a single connection.
+   *
+   * @return the messages which could not be sent, with their failure.
+   */
+  private Map<Object, Exception> send(MimeMessage[] messages) {
+    if (messages.length == 0) {
+      return Map.of();
+    }
+    Timer.Sample sample = Timer.start();
+    try {
+      javaMailSender.send(messages);
+      return Map.of();
+    } catch (MailSendException e) {
+      if (!e.getFailedMessages().isEmpty()) {
+        return e.getFailedMessages();
+      }
+      return allFailed(messages, e);
+    } catch (MailException e) {
+      return allFailed(messages, e);
+    } finally {
+      sample.stop(batch);
+    }
+  }
+
+  private static Map<Object, Exception> allFailed(MimeMessage[] messages, Exception failure) {
+    Map<Object, Exception> failures = new LinkedHashMap<>();
+    for (MimeMessage message : messages) {
+      failures.put(message, failure);
+    }
+    return failures;
+  }
+
+  private void retryLater(OutboxMail mail, Exception failure, Instant now) {
+    int attempts = mail.getAttempts() + 1;
+    if (attempts >= mailOutbox.getMaxAttempts()) {
+      giveUp(mail, failure);
+      return;
+    }
+    Duration backoff =
+        mailOutbox.getInitialBackoff().multipliedBy(1L << Math.min(attempts - 1, 30));
+    if (backoff.compareTo(mailOutbox.getMaxBackoff()) > 0) {
+      backoff = mailOutbox.getMaxBackoff();
+    }
+    mail.attempts(attempts).nextAttemptAt(now.plus(backoff)).lastError(describe(failure));
+    retried.increment();
+    log.info("Email to '{}' could not be sent, retrying in {}", mail.getRecipient(), backoff);
+  }
+
+  private void giveUp(OutboxMail mail, Exception failure) {
+    mail.attempts(mail.getAttempts() + 1).nextAttemptAt(null).lastError(describe(failure));
+    abandoned.increment();
+    log.warn("Email to '{}' could not be sent, giving up", mail.getRecipient(), failure);
+  }
+
+  private static String describe(Exception failure) {
+    String description = String.valueOf(failure.getMessage());
+    return description.length() > OutboxMail.LAST_ERROR_MAX_LENGTH
+        ? description.substring(0, OutboxMail.LAST_ERROR_MAX_LENGTH)
+        : description;
+  }
+
+  private MimeMessage toMimeMessage(OutboxMail mail) throws MessagingException {
+    // Prepare message using a Spring helper
+    MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+    MimeMessageHelper message =
+        new MimeMessageHelper(mimeMessage, mail.isMultipart(), StandardCharsets.UTF_8.name());
+    message.setTo(mail.getRecipient());
+    message.setFrom(jHipsterProperties.getMail().getFrom());
+    message.setSubject(mail.getSubject());
+    message.setText(mail.getContent(), mail.isHtml());
+    return mimeMessage;
+  }
+}
@@ -1,28 +1,28 @@
 package me.lnkkerst.webblogapi.service;
 
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
-import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.Locale;
+import me.lnkkerst.webblogapi.domain.OutboxMail;
 import me.lnkkerst.webblogapi.domain.User;
+import me.lnkkerst.webblogapi.repository.OutboxMailRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.MessageSource;
-import org.springframework.mail.MailException;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.thymeleaf.context.Context;
 import org.thymeleaf.spring6.SpringTemplateEngine;
 import tech.jhipster.config.JHipsterProperties;
 
 /**
- * Service for sending emails asynchronously.
+ * Service for sending emails through the outbox.
  *
- * <p>We use the {@link Async} annotation to send emails asynchronously.
+ * <p>Emails are written to the outbox in the transaction of the caller, so that they are only sent
+ * once the change they report is committed, and are not lost on a restart. They are sent in
+ * batches by the {@link MailDeliveryService}.
  */
 @Service
+@Transactional
 public class MailService {
 
   private final Logger log = LoggerFactory.getLogger(MailService.class);
@@ -33,7 +33,7 @@ public class MailService {
 
   private final JHipsterProperties jHipsterProperties;
 
-  private final JavaMailSender javaMailSender;
+  private final OutboxMailRepository outboxMailRepository;
 
   private final MessageSource messageSource;
 
@@ -41,53 +41,37 @@ public class MailService {
 
   public MailService(
       JHipsterProperties jHipsterProperties,
-      JavaMailSender javaMailSender,
+      OutboxMailRepository outboxMailRepository,
       MessageSource messageSource,
       SpringTemplateEngine templateEngine) {
     this.jHipsterProperties = jHipsterProperties;
-    this.javaMailSender = javaMailSender;
+    this.outboxMailRepository = outboxMailRepository;
     this.messageSource = messageSource;
     this.templateEngine = templateEngine;
   }
 
-  @Async
   public void sendEmail(
       String to, String subject, String content, boolean isMultipart, boolean isHtml) {
-    this.sendEmailSync(to, subject, content, isMultipart, isHtml);
-  }
-
-  private void sendEmailSync(
-      String to, String subject, String content, boolean isMultipart, boolean isHtml) {
     log.debug(
-        "Send email[multipart '{}' and html '{}'] to '{}' with subject '{}' and content={}",
+        "Queuing email[multipart '{}' and html '{}'] to '{}' with subject '{}' and content={}",
         isMultipart,
         isHtml,
         to,
         subject,
         content);
-
-    // Prepare message using a Spring helper
-    MimeMessage mimeMessage = javaMailSender.createMimeMessage();
-    try {
-      MimeMessageHelper message =
-          new MimeMessageHelper(mimeMessage, isMultipart, StandardCharsets.UTF_8.name());
-      message.setTo(to);
-      message.setFrom(jHipsterProperties.getMail().getFrom());
-      message.setSubject(subject);
-      message.setText(content, isHtml);
-      javaMailSender.send(mimeMessage);
-      log.debug("Sent email to User '{}'", to);
-    } catch (MailException | MessagingException e) {
-      log.warn("Email could not be sent to user '{}'", to, e);
-    }
+    Instant now = Instant.now();
+    outboxMailRepository.save(
+        new OutboxMail()
+            .recipient(to)
+            .subject(subject)
+            .content(content)
+            .multipart(isMultipart)
+            .html(isHtml)
+            .createdAt(now)
+            .nextAttemptAt(now));
   }
 
-  @Async
   public void sendEmailFromTemplate(User user, String templateName, String titleKey) {
-    this.sendEmailFromTemplateSync(user, templateName, titleKey);
-  }
-
-  private void sendEmailFromTemplateSync(User user, String templateName, String titleKey) {
     if (user.getEmail() == null) {
       log.debug("Email doesn't exist for user '{}'", user.getLogin());
       return;
@@ -98,24 +82,21 @@ public class MailService {
     context.setVariable(BASE_URL, jHipsterProperties.getMail().getBaseUrl());
     String content = templateEngine.process(templateName, context);
     String subject = messageSource.getMessage(titleKey, null, locale);
-    this.sendEmailSync(user.getEmail(), subject, content, false, true);
+    this.sendEmail(user.getEmail(), subject, content, false, true);
   }
 
-  @Async
   public void sendActivationEmail(User user) {
-    log.debug("Sending activation email to '{}'", user.getEmail());
-    this.sendEmailFromTemplateSync(user, "mail/activationEmail", "email.activation.title");
+    log.debug("Queuing activation email to '{}'", user.getEmail());
+    this.sendEmailFromTemplate(user, "mail/activationEmail", "email.activation.title");
   }
 
-  @Async
   public void sendCreationEmail(User user) {
-    log.debug("Sending creation email to '{}'", user.getEmail());
-    this.sendEmailFromTemplateSync(user, "mail/creationEmail", "email.activation.title");
+    log.debug("Queuing creation email to '{}'", user.getEmail());
+    this.sendEmailFromTemplate(user, "mail/creationEmail", "email.activation.title");
   }
 
-  @Async
   public void sendPasswordResetMail(User user) {
-    log.debug("Sending password reset email to '{}'", user.getEmail());
-    this.sendEmailFromTemplateSync(user, "mail/passwordResetEmail", "email.reset.title");
+    log.debug("Queuing password reset email to '{}'", user.getEmail());
+    this.sendEmailFromTemplate(user, "mail/passwordResetEmail", "email.reset.title");
   }
 }
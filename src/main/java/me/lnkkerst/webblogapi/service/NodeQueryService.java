@@ -1,9 +1,13 @@
 package me.lnkkerst.webblogapi.service;
 
 import java.util.List;
+import java.util.Optional;
 import me.lnkkerst.webblogapi.domain.*; // for static metamodels
 import me.lnkkerst.webblogapi.domain.Node;
+import me.lnkkerst.webblogapi.domain.enumeration.CounterType;
 import me.lnkkerst.webblogapi.repository.NodeRepository;
+import me.lnkkerst.webblogapi.repository.SpecificationContentExecutor.ContentVersion;
+import me.lnkkerst.webblogapi.repository.SpecificationContentExecutor.VersionProjection;
 import me.lnkkerst.webblogapi.service.criteria.NodeCriteria;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -24,12 +28,19 @@ import tech.jhipster.service.QueryService;
 @Transactional(readOnly = true)
 public class NodeQueryService extends QueryService<Node> {
 
+  /** Version of a node, see {@link #findVersionByCriteria}. */
+  private static final VersionProjection<Node> VERSION =
+      (root, builder) -> root.get(Node_.version);
+
   private final Logger log = LoggerFactory.getLogger(NodeQueryService.class);
 
   private final NodeRepository nodeRepository;
 
-  public NodeQueryService(NodeRepository nodeRepository) {
+  private final CounterService counterService;
+
+  public NodeQueryService(NodeRepository nodeRepository, CounterService counterService) {
     this.nodeRepository = nodeRepository;
+    this.counterService = counterService;
   }
 
   /**
@@ -72,6 +83,30 @@ public class NodeQueryService extends QueryService<Node> {
     return nodeRepository.count(specification);
   }
 
+  /**
+   * Return the version of the entities which match the criteria, which changes whenever one of
+   * them is created, updated or deleted, without reading them.
+   *
+   * @param criteria The object which holds all the filters, which the entities should match.
+   * @return the version of the matching entities.
+   */
+  @Transactional(readOnly = true)
+  public ContentVersion findVersionByCriteria(NodeCriteria criteria) {
+    log.debug("find version by criteria : {}", criteria);
+    return nodeRepository.findContentVersion(createSpecification(criteria), VERSION);
+  }
+
+  /**
+   * Return the maintained version of the nodes, which moves whenever one of them is created,
+   * updated or deleted, so that it versions their lists whatever the criteria.
+   *
+   * @return the version, or empty if it is not maintained.
+   */
+  @Transactional(readOnly = true)
+  public Optional<Long> findVersion() {
+    return counterService.getTotal(CounterType.NODES_VERSION, CounterService.ALL_TARGETS);
+  }
+
   /**
    * Function to convert {@link NodeCriteria} to a {@link Specification}
    *
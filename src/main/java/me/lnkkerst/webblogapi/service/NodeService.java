@@ -2,6 +2,7 @@ package me.lnkkerst.webblogapi.service;
 
 import java.util.Optional;
 import me.lnkkerst.webblogapi.domain.Node;
+import me.lnkkerst.webblogapi.domain.enumeration.CounterType;
 import me.lnkkerst.webblogapi.repository.NodeRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -19,8 +20,21 @@ public class NodeService {
 
   private final NodeRepository nodeRepository;
 
-  public NodeService(NodeRepository nodeRepository) {
+  private final EntityCacheService entityCacheService;
+
+  private final CounterService counterService;
+
+  private final ResponseCacheService responseCacheService;
+
+  public NodeService(
+      NodeRepository nodeRepository,
+      EntityCacheService entityCacheService,
+      CounterService counterService,
+      ResponseCacheService responseCacheService) {
     this.nodeRepository = nodeRepository;
+    this.entityCacheService = entityCacheService;
+    this.counterService = counterService;
+    this.responseCacheService = responseCacheService;
   }
 
   /**
@@ -31,7 +45,12 @@ public class NodeService {
    */
   public Node save(Node node) {
     log.debug("Request to save Node : {}", node);
-    return nodeRepository.save(node);
+    Node result = nodeRepository.save(node);
+    counterService.create(CounterType.NODE_POSTS, result.getId());
+    counterService.create(CounterType.NODE_FAVORITES, result.getId());
+    counterService.increment(CounterType.NODES_VERSION, CounterService.ALL_TARGETS);
+    responseCacheService.evictNode(result.getId());
+    return result;
   }
 
   /**
@@ -42,6 +61,9 @@ public class NodeService {
    */
   public Node update(Node node) {
     log.debug("Request to update Node : {}", node);
+    counterService.increment(CounterType.NODES_VERSION, CounterService.ALL_TARGETS);
+    entityCacheService.evictNode(node.getId());
+    responseCacheService.evictNode(node.getId());
     return nodeRepository.save(node);
   }
 
@@ -53,6 +75,9 @@ public class NodeService {
    */
   public Optional<Node> partialUpdate(Node node) {
     log.debug("Request to partially update Node : {}", node);
+    counterService.increment(CounterType.NODES_VERSION, CounterService.ALL_TARGETS);
+    entityCacheService.evictNode(node.getId());
+    responseCacheService.evictNode(node.getId());
 
     return nodeRepository
         .findById(node.getId())
@@ -99,5 +124,10 @@ public class NodeService {
   public void delete(Long id) {
     log.debug("Request to delete Node : {}", id);
     nodeRepository.deleteById(id);
+    counterService.delete(CounterType.NODE_POSTS, id);
+    counterService.delete(CounterType.NODE_FAVORITES, id);
+    counterService.increment(CounterType.NODES_VERSION, CounterService.ALL_TARGETS);
+    entityCacheService.evictNode(id);
+    responseCacheService.evictNode(id);
   }
 }
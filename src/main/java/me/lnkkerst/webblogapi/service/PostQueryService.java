@@ -1,16 +1,37 @@
 package me.lnkkerst.webblogapi.service;
 
+import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Selection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import me.lnkkerst.webblogapi.domain.*; // for static metamodels
 import me.lnkkerst.webblogapi.domain.Post;
+import me.lnkkerst.webblogapi.domain.enumeration.CounterType;
 import me.lnkkerst.webblogapi.repository.PostRepository;
+import me.lnkkerst.webblogapi.repository.SpecificationContentExecutor.ContentVersion;
+import me.lnkkerst.webblogapi.repository.SpecificationContentExecutor.Projection;
+import me.lnkkerst.webblogapi.repository.SpecificationContentExecutor.VersionProjection;
 import me.lnkkerst.webblogapi.service.criteria.PostCriteria;
+import me.lnkkerst.webblogapi.service.dto.PostCursor;
+import me.lnkkerst.webblogapi.service.dto.PostDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import tech.jhipster.service.QueryService;
@@ -25,12 +46,47 @@ import tech.jhipster.service.QueryService;
 @Transactional(readOnly = true)
 public class PostQueryService extends QueryService<Post> {
 
+  /** Order used by keyset pagination, the id breaks ties between posts created together. */
+  public static final Sort KEYSET_SORT =
+      Sort.by(Sort.Order.desc(Post_.CREATED_AT), Sort.Order.desc(Post_.ID));
+
+  /** Columns of a {@link PostDTO} in list views, see {@link #findDtoByCriteria}. */
+  private static final Projection<Post> LIST_PROJECTION =
+      (root, builder) -> {
+        Join<Post, User> user = root.join(Post_.user);
+        Join<Post, Node> node = root.join(Post_.node);
+        return new Selection<?>[] {
+          root.get(Post_.id),
+          root.get(Post_.title),
+          root.get(Post_.content),
+          root.get(Post_.createdAt),
+          user.get(User_.id),
+          user.get(User_.login),
+          node.get(Node_.id),
+          node.get(Node_.name)
+        };
+      };
+
+  /**
+   * Version of a post, see {@link #findVersionByCriteria}. A post shows its node, whose version is
+   * added.
+   */
+  private static final VersionProjection<Post> VERSION =
+      (root, builder) ->
+          builder.sum(root.get(Post_.version), root.join(Post_.node).get(Node_.version));
+
+  /** Rows read from the database at a time by {@link #exportByCriteria}. */
+  private static final int EXPORT_FETCH_SIZE = 1000;
+
   private final Logger log = LoggerFactory.getLogger(PostQueryService.class);
 
   private final PostRepository postRepository;
 
-  public PostQueryService(PostRepository postRepository) {
+  private final CounterService counterService;
+
+  public PostQueryService(PostRepository postRepository, CounterService counterService) {
     this.postRepository = postRepository;
+    this.counterService = counterService;
   }
 
   /**
@@ -57,7 +113,136 @@ public class PostQueryService extends QueryService<Post> {
   public Page<Post> findByCriteria(PostCriteria criteria, Pageable page) {
     log.debug("find by criteria : {}, page: {}", criteria, page);
     final Specification<Post> specification = createSpecification(criteria);
-    return postRepository.findAll(specification, page);
+    return countFromCounter(criteria)
+        .<Page<Post>>map(
+            total -> new PageImpl<>(postRepository.findContent(specification, page), page, total))
+        .orElseGet(() -> postRepository.findAll(specification, page));
+  }
+
+  /**
+   * Return a {@link Slice} of {@link Post} which matches the criteria from the database, seeking
+   * past the given cursor instead of skipping an offset. Entities are ordered by {@link
+   * #KEYSET_SORT} and no count query is issued.
+   *
+   * @param criteria The object which holds all the filters, which the entities should match.
+   * @param after The position to continue from, or {@code null} to start from the newest post.
+   * @param size The maximum number of entities to return.
+   * @return the matching entities.
+   */
+  @Transactional(readOnly = true)
+  public Slice<Post> findByCriteria(PostCriteria criteria, PostCursor after, int size) {
+    log.debug("find by criteria : {}, after: {}, size: {}", criteria, after, size);
+    Specification<Post> specification = createSpecification(criteria);
+    if (after != null) {
+      specification = specification.and(seekAfter(after));
+    }
+    // Fetch one extra row to know whether there is a next slice without counting
+    List<Post> content =
+        postRepository.findBy(
+            specification, query -> query.sortBy(KEYSET_SORT).limit(size + 1).all());
+    boolean hasNext = content.size() > size;
+    return new SliceImpl<>(
+        hasNext ? content.subList(0, size) : content,
+        PageRequest.of(0, size, KEYSET_SORT),
+        hasNext);
+  }
+
+  /**
+   * Return a {@link Page} of {@link PostDTO} which matches the criteria from the database. Only the
+   * columns shown in list views are selected, in a single query, without loading any entity.
+   *
+   * @param criteria The object which holds all the filters, which the entities should match.
+   * @param page The page, which should be returned.
+   * @return the matching posts.
+   */
+  @Transactional(readOnly = true)
+  public Page<PostDTO> findDtoByCriteria(PostCriteria criteria, Pageable page) {
+    log.debug("find dto by criteria : {}, page: {}", criteria, page);
+    final Specification<Post> specification = createSpecification(criteria);
+    List<PostDTO> content =
+        postRepository.findContent(specification, page, PostDTO.class, LIST_PROJECTION);
+    return PageableExecutionUtils.getPage(
+        content,
+        page,
+        () -> countFromCounter(criteria).orElseGet(() -> postRepository.count(specification)));
+  }
+
+  /**
+   * Return a {@link Slice} of {@link PostDTO} which matches the criteria from the database, like
+   * {@link #findByCriteria(PostCriteria, PostCursor, int)} but selecting only the columns shown in
+   * list views.
+   *
+   * @param criteria The object which holds all the filters, which the entities should match.
+   * @param after The position to continue from, or {@code null} to start from the newest post.
+   * @param size The maximum number of posts to return.
+   * @return the matching posts.
+   */
+  @Transactional(readOnly = true)
+  public Slice<PostDTO> findDtoByCriteria(PostCriteria criteria, PostCursor after, int size) {
+    log.debug("find dto by criteria : {}, after: {}, size: {}", criteria, after, size);
+    Specification<Post> specification = createSpecification(criteria);
+    if (after != null) {
+      specification = specification.and(seekAfter(after));
+    }
+    // Fetch one extra row to know whether there is a next slice without counting
+    List<PostDTO> content =
+        postRepository.findContent(
+            specification,
+            PageRequest.of(0, size + 1, KEYSET_SORT),
+            PostDTO.class,
+            LIST_PROJECTION);
+    boolean hasNext = content.size() > size;
+    return new SliceImpl<>(
+        hasNext ? content.subList(0, size) : content,
+        PageRequest.of(0, size, KEYSET_SORT),
+        hasNext);
+  }
+
+  /**
+   * Return the {@link PostDTO} of the given posts, in the order of their ids. Only the columns
+   * shown in list views are selected, in a single query, and the ids of missing posts are skipped.
+   *
+   * @param ids The ids of the posts, in the order they are returned.
+   * @return the existing posts.
+   */
+  @Transactional(readOnly = true)
+  public List<PostDTO> findDtoByIds(List<Long> ids) {
+    log.debug("find dto by ids : {}", ids);
+    if (ids.isEmpty()) {
+      return List.of();
+    }
+    Map<Long, PostDTO> posts =
+        postRepository
+            .findContent(
+                (root, query, builder) -> root.get(Post_.id).in(ids),
+                PageRequest.of(0, ids.size()),
+                PostDTO.class,
+                LIST_PROJECTION)
+            .stream()
+            .collect(Collectors.toMap(PostDTO::getId, Function.identity()));
+    return ids.stream().map(posts::get).filter(Objects::nonNull).toList();
+  }
+
+  /**
+   * Pass every {@link PostDTO} which matches the criteria to a consumer, in id order. Only the
+   * columns shown in list views are selected, and they are read from a forward-only cursor, so
+   * that memory does not grow with the number of posts exported.
+   *
+   * @param criteria The object which holds all the filters, which the entities should match.
+   * @param consumer The consumer of the matching posts, called within the transaction.
+   */
+  @Transactional(readOnly = true)
+  public void exportByCriteria(PostCriteria criteria, Consumer<PostDTO> consumer) {
+    log.debug("export by criteria : {}", criteria);
+    try (Stream<PostDTO> posts =
+        postRepository.streamContent(
+            createSpecification(criteria),
+            Sort.by(Post_.ID),
+            PostDTO.class,
+            LIST_PROJECTION,
+            EXPORT_FETCH_SIZE)) {
+      posts.forEach(consumer);
+    }
   }
 
   /**
@@ -69,8 +254,57 @@ public class PostQueryService extends QueryService<Post> {
   @Transactional(readOnly = true)
   public long countByCriteria(PostCriteria criteria) {
     log.debug("count by criteria : {}", criteria);
-    final Specification<Post> specification = createSpecification(criteria);
-    return postRepository.count(specification);
+    return countFromCounter(criteria)
+        .orElseGet(() -> postRepository.count(createSpecification(criteria)));
+  }
+
+  /**
+   * Return the version of the entities which match the criteria, which changes whenever one of
+   * them or their node is created, updated or deleted, without reading them.
+   *
+   * @param criteria The object which holds all the filters, which the entities should match.
+   * @return the version of the matching entities.
+   */
+  @Transactional(readOnly = true)
+  public ContentVersion findVersionByCriteria(PostCriteria criteria) {
+    log.debug("find version by criteria : {}", criteria);
+    return postRepository.findContentVersion(createSpecification(criteria), VERSION);
+  }
+
+  /**
+   * Read the number of matching entities from a maintained counter, when the criteria only filters
+   * on the node.
+   *
+   * @param criteria The object which holds all the filters, which the entities should match.
+   * @return the number of matching entities, or empty if it has to be counted.
+   */
+  private Optional<Long> countFromCounter(PostCriteria criteria) {
+    if (criteria == null || criteria.getNodeId() == null) {
+      return Optional.empty();
+    }
+    Long nodeId = criteria.getNodeId().getEquals();
+    PostCriteria expected = new PostCriteria();
+    expected.nodeId().setEquals(nodeId);
+    expected.setDistinct(criteria.getDistinct());
+    if (nodeId == null || !expected.equals(criteria)) {
+      return Optional.empty();
+    }
+    return counterService.getTotal(CounterType.NODE_POSTS, nodeId);
+  }
+
+  /**
+   * Seek predicate matching the posts which come after the cursor in {@link #KEYSET_SORT} order.
+   *
+   * @param cursor the last position seen by the client.
+   * @return the matching {@link Specification}.
+   */
+  protected Specification<Post> seekAfter(PostCursor cursor) {
+    return (root, query, builder) ->
+        builder.or(
+            builder.lessThan(root.get(Post_.createdAt), cursor.getCreatedAt()),
+            builder.and(
+                builder.equal(root.get(Post_.createdAt), cursor.getCreatedAt()),
+                builder.lessThan(root.get(Post_.id), cursor.getId())));
   }
 
   /**
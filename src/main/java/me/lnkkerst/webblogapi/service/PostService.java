@@ -1,7 +1,10 @@
 package me.lnkkerst.webblogapi.service;
 
+import java.time.Instant;
+import java.util.Objects;
 import java.util.Optional;
 import me.lnkkerst.webblogapi.domain.Post;
+import me.lnkkerst.webblogapi.domain.enumeration.CounterType;
 import me.lnkkerst.webblogapi.repository.PostRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -19,8 +22,25 @@ public class PostService {
 
   private final PostRepository postRepository;
 
-  public PostService(PostRepository postRepository) {
+  private final CounterService counterService;
+
+  private final HotPostService hotPostService;
+
+  private final FeedService feedService;
+
+  private final ResponseCacheService responseCacheService;
+
+  public PostService(
+      PostRepository postRepository,
+      CounterService counterService,
+      HotPostService hotPostService,
+      FeedService feedService,
+      ResponseCacheService responseCacheService) {
     this.postRepository = postRepository;
+    this.counterService = counterService;
+    this.hotPostService = hotPostService;
+    this.feedService = feedService;
+    this.responseCacheService = responseCacheService;
   }
 
   /**
@@ -31,7 +51,15 @@ public class PostService {
    */
   public Post save(Post post) {
     log.debug("Request to save Post : {}", post);
-    return postRepository.save(post);
+    Post result = postRepository.save(post);
+    counterService.create(CounterType.POST_COMMENTS, result.getId());
+    counterService.create(CounterType.POST_FAVORITES, result.getId());
+    counterService.create(CounterType.POST_VERSION, result.getId());
+    counterService.increment(CounterType.NODE_POSTS, result.getNode().getId());
+    hotPostService.create(result);
+    feedService.fanOut(result);
+    responseCacheService.evictPost(result.getId(), result.getNode().getId());
+    return result;
   }
 
   /**
@@ -42,7 +70,25 @@ public class PostService {
    */
   public Post update(Post post) {
     log.debug("Request to update Post : {}", post);
-    return postRepository.save(post);
+    Optional<Post> previous = postRepository.findById(post.getId());
+    Long previousNodeId = previous.map(existing -> existing.getNode().getId()).orElse(null);
+    Instant previousCreatedAt =
+        previous.map(existing -> existing.getCreatedAt().toInstant()).orElse(null);
+    Post result = postRepository.save(post);
+    counterService.increment(CounterType.POST_VERSION, result.getId());
+    Long nodeId = result.getNode().getId();
+    if (!Objects.equals(previousNodeId, nodeId)) {
+      counterService.decrement(CounterType.NODE_POSTS, previousNodeId);
+      counterService.increment(CounterType.NODE_POSTS, nodeId);
+      hotPostService.move(result.getId(), previousNodeId, nodeId);
+    }
+    if (!Objects.equals(previousNodeId, nodeId)
+        || !Objects.equals(previousCreatedAt, result.getCreatedAt().toInstant())) {
+      // The inboxes following the new node get the post, at its new position
+      feedService.refanOut(result);
+    }
+    responseCacheService.evictPost(result.getId(), previousNodeId, nodeId);
+    return result;
   }
 
   /**
@@ -65,8 +111,14 @@ public class PostService {
                 existingPost.setContent(post.getContent());
               }
               if (post.getCreatedAt() != null) {
+                boolean moved = !post.getCreatedAt().isEqual(existingPost.getCreatedAt());
                 existingPost.setCreatedAt(post.getCreatedAt());
+                if (moved) {
+                  feedService.refanOut(existingPost);
+                }
               }
+              counterService.increment(CounterType.POST_VERSION, existingPost.getId());
+              responseCacheService.evictPost(existingPost.getId(), existingPost.getNode().getId());
 
               return existingPost;
             })
@@ -104,6 +156,18 @@ public class PostService {
    */
   public void delete(Long id) {
     log.debug("Request to delete Post : {}", id);
-    postRepository.deleteById(id);
+    postRepository
+        .findById(id)
+        .ifPresent(
+            post -> {
+              postRepository.delete(post);
+              counterService.decrement(CounterType.NODE_POSTS, post.getNode().getId());
+              counterService.delete(CounterType.POST_COMMENTS, id);
+              counterService.delete(CounterType.POST_FAVORITES, id);
+              counterService.delete(CounterType.POST_VERSION, id);
+              hotPostService.delete(id);
+              feedService.deletePost(id);
+              responseCacheService.evictPost(id, post.getNode().getId());
+            });
   }
 }
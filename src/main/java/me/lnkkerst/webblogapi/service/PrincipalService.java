@@ -0,0 +1,84 @@
+package me.lnkkerst.webblogapi.service;
+
+import java.util.Optional;
+import me.lnkkerst.webblogapi.repository.UserRepository;
+import me.lnkkerst.webblogapi.security.SecurityUtils;
+import me.lnkkerst.webblogapi.service.dto.AdminUserDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Service for the account of the authenticated user, cached by login for a short time.
+ *
+ * <p>Clients fetch the current account on every page, so it is served from the cache instead of
+ * loading the user and its authorities each time. Entries are evicted by {@link UserService}
+ * whenever a user changes or is deleted, both right away and once the change is committed.
+ */
+@Service
+public class PrincipalService {
+
+  public static final String PRINCIPALS_BY_LOGIN_CACHE = "principalsByLogin";
+
+  private final Logger log = LoggerFactory.getLogger(PrincipalService.class);
+
+  private final UserRepository userRepository;
+
+  private final Cache cache;
+
+  public PrincipalService(UserRepository userRepository, CacheManager cacheManager) {
+    this.userRepository = userRepository;
+    this.cache = cacheManager.getCache(PRINCIPALS_BY_LOGIN_CACHE);
+  }
+
+  /**
+   * Get the account of the authenticated user.
+   *
+   * @return the account, shared with other callers so it must not be modified, or empty if there
+   *     is no authenticated user or it does not exist anymore.
+   */
+  public Optional<AdminUserDTO> getCurrentAccount() {
+    return SecurityUtils.getCurrentUserLogin().flatMap(this::getAccount);
+  }
+
+  /**
+   * Get the account of a user.
+   *
+   * @param login the login of the user.
+   * @return the account, shared with other callers so it must not be modified.
+   */
+  public Optional<AdminUserDTO> getAccount(String login) {
+    AdminUserDTO account = cache.get(login, AdminUserDTO.class);
+    if (account != null) {
+      return Optional.of(account);
+    }
+    Optional<AdminUserDTO> loaded =
+        userRepository.findOneWithAuthoritiesByLogin(login).map(AdminUserDTO::new);
+    loaded.ifPresent(value -> cache.put(login, value));
+    return loaded;
+  }
+
+  /**
+   * Evict the account of a user.
+   *
+   * @param login the login of the user.
+   */
+  public void evict(String login) {
+    cache.evict(login);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      // A concurrent reader may have cached the previous state until the change is committed
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+              log.debug("Evicting principal {} after commit", login);
+              cache.evict(login);
+            }
+          });
+    }
+  }
+}
@@ -0,0 +1,302 @@
+package me.lnkkerst.webblogapi.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import me.lnkkerst.webblogapi.config.ApplicationProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Service holding the already serialized responses to anonymous reads, see {@code
+ * ResponseCacheFilter}.
+ *
+ * <p>Each response is tagged with the rows it is built from, and the writes evict the tags they
+ * change once their transaction commits. A response is only stored if none of its tags were
+ * evicted since its request started, so that a read racing a write cannot store the old rows.
+ * The keys of the responses are indexed by tag, so that an eviction only looks up the responses
+ * it removes.
+ *
+ * <p>Bodies are held as byte arrays, gzip-compressed when large enough, and the cache is bounded
+ * by their total size. Lookups are published as the {@code cache.*} meters of the {@value
+ * #CACHE_NAME} cache, and the total size as {@value #SIZE_METER_NAME}.
+ */
+@Service
+public class ResponseCacheService {
+
+  public static final String CACHE_NAME = "responses";
+
+  public static final String SIZE_METER_NAME = "application.response-cache.size";
+  public static final String SIZE_METER_DESCRIPTION =
+      "Indicates the total size of the cached response bodies.";
+  public static final String SIZE_METER_BASE_UNIT = "bytes";
+
+  /** Tag of the responses embedding nodes, which are few and rarely written. */
+  public static final String NODES_TAG = "nodes";
+
+  private final Logger log = LoggerFactory.getLogger(ResponseCacheService.class);
+
+  private final ApplicationProperties.ResponseCache properties;
+
+  private final Cache<String, CachedResponse> responses;
+
+  /** The keys of the cached responses by tag, cleaned up as the responses are removed. */
+  private final Map<String, Set<String>> keysByTag = new ConcurrentHashMap<>();
+
+  /** Sequence number of the last eviction of each tag, kept longer than any request runs. */
+  private final Cache<String, Long> evictedTags;
+
+  private final AtomicLong evictions = new AtomicLong();
+
+  public ResponseCacheService(
+      ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+    this.properties = applicationProperties.getResponseCache();
+    this.responses =
+        Caffeine.newBuilder()
+            .maximumWeight(properties.getMaxSize().toBytes())
+            .weigher((String key, CachedResponse response) -> response.weight())
+            .expireAfterWrite(properties.getTimeToLive())
+            .removalListener(this::unindex)
+            .recordStats()
+            .build();
+    this.evictedTags = Caffeine.newBuilder().expireAfterWrite(properties.getTimeToLive()).build();
+    CaffeineCacheMetrics.monitor(meterRegistry, responses, CACHE_NAME);
+    Gauge.builder(SIZE_METER_NAME, responses, ResponseCacheService::size)
+        .description(SIZE_METER_DESCRIPTION)
+        .baseUnit(SIZE_METER_BASE_UNIT)
+        .register(meterRegistry);
+  }
+
+  /**
+   * The tag of the responses built from the posts of a node.
+   *
+   * @param nodeId the id of the node.
+   * @return the tag.
+   */
+  public static String nodeTag(Long nodeId) {
+    return "node:" + nodeId;
+  }
+
+  /**
+   * The tag of the responses built from a post or its comments.
+   *
+   * @param postId the id of the post.
+   * @return the tag.
+   */
+  public static String postTag(Long postId) {
+    return "post:" + postId;
+  }
+
+  /**
+   * Get a cached response.
+   *
+   * @param key the normalized request.
+   * @return the response, if cached.
+   */
+  public Optional<CachedResponse> get(String key) {
+    return Optional.ofNullable(responses.getIfPresent(key));
+  }
+
+  /**
+   * The position to pass to {@link #put}, taken before the rows of a response are read.
+   *
+   * @return the sequence number of the last eviction.
+   */
+  public long position() {
+    return evictions.get();
+  }
+
+  /**
+   * Cache a response, unless one of its tags was evicted since a position.
+   *
+   * @param key the normalized request.
+   * @param headers the headers set by the controller.
+   * @param body the serialized body.
+   * @param tags the tags of the rows the response is built from.
+   * @param since the position taken before the rows were read.
+   */
+  public void put(
+      String key, Map<String, List<String>> headers, byte[] body, Set<String> tags, long since) {
+    boolean gzipped = properties.isGzip() && body.length >= properties.getGzipMinSize().toBytes();
+    CachedResponse response =
+        new CachedResponse(Map.copyOf(headers), gzipped ? gzip(body) : body, gzipped, tags);
+    if (isEvictedSince(tags, since)) {
+      return;
+    }
+    responses.put(key, response);
+    index(key, tags);
+    // An eviction between the check and the indexing may have missed the response
+    if (isEvictedSince(tags, since)) {
+      responses.asMap().remove(key, response);
+    }
+  }
+
+  /**
+   * Evict the responses embedding nodes, and the ones built from the posts of a node, once the
+   * current transaction commits.
+   *
+   * @param nodeId the id of the node.
+   */
+  public void evictNode(Long nodeId) {
+    afterCommit(Set.of(NODES_TAG, nodeTag(nodeId)));
+  }
+
+  /**
+   * Evict the responses built from a post or its comments, and from the posts of its nodes, once
+   * the current transaction commits.
+   *
+   * @param postId the id of the post.
+   * @param nodeIds the ids of the nodes the post is or was in, {@code null} ones are ignored.
+   */
+  public void evictPost(Long postId, Long... nodeIds) {
+    Set<String> tags = new HashSet<>();
+    tags.add(postTag(postId));
+    for (Long nodeId : nodeIds) {
+      if (nodeId != null) {
+        tags.add(nodeTag(nodeId));
+      }
+    }
+    afterCommit(tags);
+  }
+
+  /** Evict every response now. */
+  public void clear() {
+    responses.invalidateAll();
+  }
+
+  private boolean isEvictedSince(Set<String> tags, long since) {
+    for (String tag : tags) {
+      Long evicted = evictedTags.getIfPresent(tag);
+      if (evicted != null && evicted > since) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void evict(Set<String> tags) {
+    long sequence = evictions.incrementAndGet();
+    tags.forEach(tag -> evictedTags.put(tag, sequence));
+    Set<String> keys = new HashSet<>();
+    for (String tag : tags) {
+      keys.addAll(keysByTag.getOrDefault(tag, Set.of()));
+    }
+    responses.invalidateAll(keys);
+    log.debug("Evicted the cached responses tagged {}", tags);
+  }
+
+  /** Index a response once stored, so that a removal listener cannot unindex it meanwhile. */
+  private void index(String key, Set<String> tags) {
+    for (String tag : tags) {
+      keysByTag.compute(
+          tag,
+          (t, keys) -> {
+            Set<String> indexed = keys != null ? keys : ConcurrentHashMap.newKeySet();
+            indexed.add(key);
+            return indexed;
+          });
+    }
+  }
+
+  /** Unindex a removed response, unless its key was cached again with the same tags. */
+  private void unindex(String key, CachedResponse response, RemovalCause cause) {
+    if (key == null || response == null) {
+      return;
+    }
+    for (String tag : response.tags()) {
+      keysByTag.computeIfPresent(
+          tag,
+          (t, keys) -> {
+            CachedResponse current = responses.asMap().get(key);
+            if (current == null || !current.tags().contains(tag)) {
+              keys.remove(key);
+            }
+            return keys.isEmpty() ? null : keys;
+          });
+    }
+  }
+
+  private void afterCommit(Set<String> tags) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      evict(tags);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            evict(tags);
+          }
+        });
+  }
+
+  private static double size(Cache<String, CachedResponse> responses) {
+    return responses
+        .policy()
+        .eviction()
+        .map(eviction -> eviction.weightedSize().orElse(0))
+        .orElse(0L);
+  }
+
+  private static byte[] gzip(byte[] body) {
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4);
+    try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+      out.write(body);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return compressed.toByteArray();
+  }
+
+  /**
+   * A cached response.
+   *
+   * @param headers the headers set by the controller.
+   * @param body the body, compressed if {@code gzipped}.
+   * @param gzipped whether the body is gzip-compressed.
+   * @param tags the tags of the rows the response is built from.
+   */
+  public record CachedResponse(
+      Map<String, List<String>> headers, byte[] body, boolean gzipped, Set<String> tags) {
+
+    /**
+     * The uncompressed body.
+     *
+     * @return the body.
+     */
+    public byte[] plainBody() {
+      if (!gzipped) {
+        return body;
+      }
+      try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+        return in.readAllBytes();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    /** The approximate size of the response, its body and a few hundred bytes of headers. */
+    int weight() {
+      return body.length + 512;
+    }
+  }
+}
@@ -0,0 +1,102 @@
+package me.lnkkerst.webblogapi.service;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import me.lnkkerst.webblogapi.repository.SearchRepository;
+import me.lnkkerst.webblogapi.service.criteria.CommentCriteria;
+import me.lnkkerst.webblogapi.service.criteria.PostCriteria;
+import me.lnkkerst.webblogapi.service.dto.CommentDTO;
+import me.lnkkerst.webblogapi.service.dto.PostDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service for the ranked full-text search of posts and comments, see {@link SearchRepository}.
+ *
+ * <p>The search returns the ids of a page of hits, which are then loaded with the list projections
+ * of {@link PostQueryService} and {@link CommentQueryService}.
+ */
+@Service
+@Transactional(readOnly = true)
+public class SearchService {
+
+  private final Logger log = LoggerFactory.getLogger(SearchService.class);
+
+  private final SearchRepository searchRepository;
+
+  private final PostQueryService postQueryService;
+
+  private final CommentQueryService commentQueryService;
+
+  public SearchService(
+      SearchRepository searchRepository,
+      PostQueryService postQueryService,
+      CommentQueryService commentQueryService) {
+    this.searchRepository = searchRepository;
+    this.postQueryService = postQueryService;
+    this.commentQueryService = commentQueryService;
+  }
+
+  /**
+   * Search the posts.
+   *
+   * @param terms the words to search.
+   * @param pageable the pagination information, its sort is ignored in favor of the rank.
+   * @return the matching posts, best match first.
+   */
+  public Page<PostDTO> searchPosts(String terms, Pageable pageable) {
+    log.debug("Request to search Posts for : {}", terms);
+    List<Long> ids = searchRepository.findPostIds(terms, pageable);
+    List<PostDTO> content = List.of();
+    if (!ids.isEmpty()) {
+      PostCriteria criteria = new PostCriteria();
+      criteria.id().setIn(ids);
+      content =
+          inRankOrder(
+              ids,
+              postQueryService.findDtoByCriteria(criteria, Pageable.unpaged()).getContent(),
+              PostDTO::getId);
+    }
+    return PageableExecutionUtils.getPage(
+        content, pageable, () -> searchRepository.countPosts(terms));
+  }
+
+  /**
+   * Search the comments.
+   *
+   * @param terms the words to search.
+   * @param pageable the pagination information, its sort is ignored in favor of the rank.
+   * @return the matching comments, best match first.
+   */
+  public Page<CommentDTO> searchComments(String terms, Pageable pageable) {
+    log.debug("Request to search Comments for : {}", terms);
+    List<Long> ids = searchRepository.findCommentIds(terms, pageable);
+    List<CommentDTO> content = List.of();
+    if (!ids.isEmpty()) {
+      CommentCriteria criteria = new CommentCriteria();
+      criteria.id().setIn(ids);
+      content =
+          inRankOrder(
+              ids,
+              commentQueryService.findDtoByCriteria(criteria, Pageable.unpaged()).getContent(),
+              CommentDTO::getId);
+    }
+    return PageableExecutionUtils.getPage(
+        content, pageable, () -> searchRepository.countComments(terms));
+  }
+
+  private static <T> List<T> inRankOrder(List<Long> ids, List<T> rows, Function<T, Long> id) {
+    Map<Long, Integer> rank =
+        IntStream.range(0, ids.size()).boxed().collect(Collectors.toMap(ids::get, i -> i));
+    return rows.stream().sorted(Comparator.comparing(row -> rank.get(id.apply(row)))).toList();
+  }
+}
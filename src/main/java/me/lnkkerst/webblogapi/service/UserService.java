@@ -1,14 +1,20 @@
 package me.lnkkerst.webblogapi.service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
+import me.lnkkerst.webblogapi.config.ApplicationProperties;
 import me.lnkkerst.webblogapi.config.Constants;
 import me.lnkkerst.webblogapi.domain.Authority;
 import me.lnkkerst.webblogapi.domain.User;
+import me.lnkkerst.webblogapi.domain.enumeration.CounterType;
 import me.lnkkerst.webblogapi.repository.AuthorityRepository;
 import me.lnkkerst.webblogapi.repository.UserRepository;
+import me.lnkkerst.webblogapi.repository.UserRepository.NotActivatedUser;
 import me.lnkkerst.webblogapi.security.AuthoritiesConstants;
 import me.lnkkerst.webblogapi.security.SecurityUtils;
 import me.lnkkerst.webblogapi.service.dto.AdminUserDTO;
@@ -16,11 +22,15 @@ import me.lnkkerst.webblogapi.service.dto.UserDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import tech.jhipster.security.RandomUtil;
 
 /** Service class for managing users. */
@@ -28,6 +38,15 @@ import tech.jhipster.security.RandomUtil;
 @Transactional
 public class UserService {
 
+  public static final String PURGED_METER_NAME = "application.users.purged";
+  public static final String PURGED_METER_DESCRIPTION =
+      "Indicates the not activated users deleted by the nightly purge.";
+  public static final String PURGED_METER_BASE_UNIT = "users";
+
+  public static final String PURGE_CHUNK_METER_NAME = "application.users.purge.chunk";
+  public static final String PURGE_CHUNK_METER_DESCRIPTION =
+      "Indicates the time taken by a transaction of the nightly purge of not activated users.";
+
   private final Logger log = LoggerFactory.getLogger(UserService.class);
 
   private final UserRepository userRepository;
@@ -36,13 +55,47 @@ public class UserService {
 
   private final AuthorityRepository authorityRepository;
 
+  private final EntityCacheService entityCacheService;
+
+  private final CounterService counterService;
+
+  private final PrincipalService principalService;
+
+  private final ApplicationProperties.UserPurge userPurge;
+
+  private final TransactionTemplate transactionTemplate;
+
+  private final Counter purged;
+
+  private final Timer purgeChunk;
+
   public UserService(
       UserRepository userRepository,
       PasswordEncoder passwordEncoder,
-      AuthorityRepository authorityRepository) {
+      AuthorityRepository authorityRepository,
+      EntityCacheService entityCacheService,
+      CounterService counterService,
+      PrincipalService principalService,
+      ApplicationProperties applicationProperties,
+      PlatformTransactionManager transactionManager,
+      MeterRegistry meterRegistry) {
     this.userRepository = userRepository;
     this.passwordEncoder = passwordEncoder;
     this.authorityRepository = authorityRepository;
+    this.entityCacheService = entityCacheService;
+    this.counterService = counterService;
+    this.principalService = principalService;
+    this.userPurge = applicationProperties.getUserPurge();
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.purged =
+        Counter.builder(PURGED_METER_NAME)
+            .baseUnit(PURGED_METER_BASE_UNIT)
+            .description(PURGED_METER_DESCRIPTION)
+            .register(meterRegistry);
+    this.purgeChunk =
+        Timer.builder(PURGE_CHUNK_METER_NAME)
+            .description(PURGE_CHUNK_METER_DESCRIPTION)
+            .register(meterRegistry);
   }
 
   public Optional<User> activateRegistration(String key) {
@@ -54,6 +107,7 @@ public class UserService {
               // activate given user for the registration key.
               user.setActivated(true);
               user.setActivationKey(null);
+              this.clearUserCaches(user);
               log.debug("Activated user: {}", user);
               return user;
             });
@@ -69,6 +123,7 @@ public class UserService {
               user.setPassword(passwordEncoder.encode(newPassword));
               user.setResetKey(null);
               user.setResetDate(null);
+              this.clearUserCaches(user);
               return user;
             });
   }
@@ -81,6 +136,7 @@ public class UserService {
             user -> {
               user.setResetKey(RandomUtil.generateResetKey());
               user.setResetDate(Instant.now());
+              this.clearUserCaches(user);
               return user;
             });
   }
@@ -126,6 +182,7 @@ public class UserService {
     authorityRepository.findById(AuthoritiesConstants.USER).ifPresent(authorities::add);
     newUser.setAuthorities(authorities);
     userRepository.save(newUser);
+    counterService.create(CounterType.USER_FAVORITES, newUser.getId());
     log.debug("Created Information for User: {}", newUser);
     return newUser;
   }
@@ -136,6 +193,8 @@ public class UserService {
     }
     userRepository.delete(existingUser);
     userRepository.flush();
+    counterService.delete(CounterType.USER_FAVORITES, existingUser.getId());
+    this.clearUserCaches(existingUser);
     return true;
   }
 
@@ -168,6 +227,7 @@ public class UserService {
       user.setAuthorities(authorities);
     }
     userRepository.save(user);
+    counterService.create(CounterType.USER_FAVORITES, user.getId());
     log.debug("Created Information for User: {}", user);
     return user;
   }
@@ -184,6 +244,8 @@ public class UserService {
         .map(Optional::get)
         .map(
             user -> {
+              // The login may change, and the previous one must not stay cached
+              this.clearUserCaches(user);
               user.setLogin(userDTO.getLogin().toLowerCase());
               user.setFirstName(userDTO.getFirstName());
               user.setLastName(userDTO.getLastName());
@@ -201,6 +263,7 @@ public class UserService {
                   .map(Optional::get)
                   .forEach(managedAuthorities::add);
               userRepository.save(user);
+              this.clearUserCaches(user);
               log.debug("Changed Information for User: {}", user);
               return user;
             })
@@ -213,6 +276,8 @@ public class UserService {
         .ifPresent(
             user -> {
               userRepository.delete(user);
+              counterService.delete(CounterType.USER_FAVORITES, user.getId());
+              this.clearUserCaches(user);
               log.debug("Deleted User: {}", user);
             });
   }
@@ -228,8 +293,7 @@ public class UserService {
    */
   public void updateUser(
       String firstName, String lastName, String email, String langKey, String imageUrl) {
-    SecurityUtils.getCurrentUserLogin()
-        .flatMap(userRepository::findOneByLogin)
+    getCurrentUser()
         .ifPresent(
             user -> {
               user.setFirstName(firstName);
@@ -240,14 +304,14 @@ public class UserService {
               user.setLangKey(langKey);
               user.setImageUrl(imageUrl);
               userRepository.save(user);
+              this.clearUserCaches(user);
               log.debug("Changed Information for User: {}", user);
             });
   }
 
   @Transactional
   public void changePassword(String currentClearTextPassword, String newPassword) {
-    SecurityUtils.getCurrentUserLogin()
-        .flatMap(userRepository::findOneByLogin)
+    getCurrentUser()
         .ifPresent(
             user -> {
               String currentEncryptedPassword = user.getPassword();
@@ -256,6 +320,7 @@ public class UserService {
               }
               String encryptedPassword = passwordEncoder.encode(newPassword);
               user.setPassword(encryptedPassword);
+              this.clearUserCaches(user);
               log.debug("Changed password for User: {}", user);
             });
   }
@@ -299,20 +364,77 @@ public class UserService {
   /**
    * Not activated users should be automatically deleted after 3 days.
    *
+   * <p>Users are deleted by chunks of {@code application.user-purge.chunk-size}, each in a short
+   * transaction of its own with set-based deletes over its id range, pausing in between so that a
+   * registration wave does not hold locks for minutes.
+   *
    * <p>This is scheduled to get fired everyday, at 01:00 (am).
    */
   @Scheduled(cron = "0 0 1 * * ?")
+  @Transactional(propagation = Propagation.SUPPORTS)
   public void removeNotActivatedUsers() {
-    userRepository
-        .findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(
-            Instant.now().minus(3, ChronoUnit.DAYS))
-        .forEach(
-            user -> {
-              log.debug("Deleting not activated user {}", user.getLogin());
-              userRepository.delete(user);
-            });
+    Instant createdBefore = Instant.now().minus(3, ChronoUnit.DAYS);
+    long afterId = 0;
+    long deleted = 0;
+    while (true) {
+      long from = afterId;
+      PurgedChunk chunk =
+          purgeChunk.record(
+              () -> transactionTemplate.execute(status -> purgeChunk(from, createdBefore)));
+      if (chunk == null || chunk.users() == 0) {
+        break;
+      }
+      deleted += chunk.users();
+      afterId = chunk.lastId();
+      log.debug("Deleted {} not activated users, up to id {}", deleted, afterId);
+      if (chunk.users() < userPurge.getChunkSize() || !pause()) {
+        break;
+      }
+    }
+    if (deleted > 0) {
+      log.info("Deleted {} not activated users", deleted);
+    }
   }
 
+  /** Delete the next chunk of not activated users, after an id. */
+  private PurgedChunk purgeChunk(long afterId, Instant createdBefore) {
+    List<NotActivatedUser> users =
+        userRepository.findNotActivated(
+            afterId, createdBefore, PageRequest.of(0, userPurge.getChunkSize()));
+    if (users.isEmpty()) {
+      return new PurgedChunk(0, afterId);
+    }
+    // The users are locked, so the deletes of their id range match them exactly
+    long fromId = users.get(0).getId();
+    long toId = users.get(users.size() - 1).getId();
+    userRepository.deleteNotActivatedAuthorities(fromId, toId, createdBefore);
+    int deleted = userRepository.deleteNotActivated(fromId, toId, createdBefore);
+    counterService.deleteAll(
+        CounterType.USER_FAVORITES, users.stream().map(NotActivatedUser::getId).toList());
+    // The bulk deletes evict the users from the second-level cache, not from the principals
+    users.forEach(user -> principalService.evict(user.getLogin()));
+    purged.increment(deleted);
+    return new PurgedChunk(deleted, toId);
+  }
+
+  /**
+   * Pause between two chunks of the purge.
+   *
+   * @return {@code false} if interrupted, to stop the purge.
+   */
+  private boolean pause() {
+    try {
+      Thread.sleep(userPurge.getPause().toMillis());
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  /** The outcome of a chunk of the purge. */
+  private record PurgedChunk(int users, long lastId) {}
+
   /**
    * Gets a list of all the authorities.
    *
@@ -322,4 +444,20 @@ public class UserService {
   public List<String> getAuthorities() {
     return authorityRepository.findAll().stream().map(Authority::getName).toList();
   }
+
+  /**
+   * Load the authenticated user by id, which hits the second-level cache, as its id is known from
+   * the cached principal.
+   */
+  private Optional<User> getCurrentUser() {
+    return principalService
+        .getCurrentAccount()
+        .map(AdminUserDTO::getId)
+        .flatMap(userRepository::findById);
+  }
+
+  private void clearUserCaches(User user) {
+    entityCacheService.evictUser(user.getId());
+    principalService.evict(user.getLogin());
+  }
 }
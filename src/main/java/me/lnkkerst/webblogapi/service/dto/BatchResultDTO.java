@@ -0,0 +1,114 @@
+package me.lnkkerst.webblogapi.service.dto;
+
+import java.io.Serializable;
+import java.util.Objects;
+import org.springframework.http.HttpStatus;
+
+/**
+ * The outcome of one item of a batch, as returned by {@code POST /api/comments/batch} and {@code
+ * POST /api/favorites/batch}: either created with its id, or rejected with the reason.
+ */
+public class BatchResultDTO implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  private int index;
+
+  private int status;
+
+  private Long id;
+
+  private String message;
+
+  public BatchResultDTO() {
+    // Empty constructor needed for Jackson.
+  }
+
+  private BatchResultDTO(int index, int status, Long id, String message) {
+    this.index = index;
+    this.status = status;
+    this.id = id;
+    this.message = message;
+  }
+
+  public static BatchResultDTO created(int index, Long id) {
+    return new BatchResultDTO(index, HttpStatus.CREATED.value(), id, null);
+  }
+
+  public static BatchResultDTO rejected(int index, String message) {
+    return new BatchResultDTO(index, HttpStatus.BAD_REQUEST.value(), null, message);
+  }
+
+  /** The position of the item in the batch, starting from 0. */
+  public int getIndex() {
+    return index;
+  }
+
+  public void setIndex(int index) {
+    this.index = index;
+  }
+
+  /** {@code 201} if the item was created, {@code 400} if it was rejected. */
+  public int getStatus() {
+    return status;
+  }
+
+  public void setStatus(int status) {
+    this.status = status;
+  }
+
+  /** The id of the created entity. */
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  /** Why the item was rejected. */
+  public String getMessage() {
+    return message;
+  }
+
+  public void setMessage(String message) {
+    this.message = message;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof BatchResultDTO)) {
+      return false;
+    }
+
+    BatchResultDTO batchResultDTO = (BatchResultDTO) o;
+    return index == batchResultDTO.index
+        && status == batchResultDTO.status
+        && Objects.equals(id, batchResultDTO.id)
+        && Objects.equals(message, batchResultDTO.message);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(index, status, id, message);
+  }
+
+  // prettier-ignore
+  @Override
+  public String toString() {
+    return "BatchResultDTO{"
+        + "index="
+        + getIndex()
+        + ", status="
+        + getStatus()
+        + ", id="
+        + getId()
+        + ", message='"
+        + getMessage()
+        + "'"
+        + "}";
+  }
+}
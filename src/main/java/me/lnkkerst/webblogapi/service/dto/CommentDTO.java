@@ -21,6 +21,38 @@ public class CommentDTO implements Serializable {
 
   private UserDTO user;
 
+  public CommentDTO() {
+    // Empty constructor needed for Jackson.
+  }
+
+  /**
+   * Constructor used by the list projection, which selects the comment columns together with the id
+   * and title of its post, the id and login of its user and the id of the comment it replies to.
+   */
+  public CommentDTO(
+      Long id,
+      String content,
+      ZonedDateTime createdAt,
+      Long postId,
+      String postTitle,
+      Long userId,
+      String userLogin,
+      Long replyId) {
+    this.id = id;
+    this.content = content;
+    this.createdAt = createdAt;
+    this.post = new PostDTO();
+    this.post.setId(postId);
+    this.post.setTitle(postTitle);
+    this.user = new UserDTO();
+    this.user.setId(userId);
+    this.user.setLogin(userLogin);
+    if (replyId != null) {
+      this.reply = new CommentDTO();
+      this.reply.setId(replyId);
+    }
+  }
+
   public Long getId() {
     return id;
   }
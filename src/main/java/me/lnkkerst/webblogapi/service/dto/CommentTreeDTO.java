@@ -0,0 +1,127 @@
+package me.lnkkerst.webblogapi.service.dto;
+
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A comment of a thread together with its replies, as returned by {@code GET
+ * /api/posts/:id/comment-tree}.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class CommentTreeDTO implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  private Long id;
+
+  private String content;
+
+  private ZonedDateTime createdAt;
+
+  private UserDTO user;
+
+  private List<CommentTreeDTO> replies = new ArrayList<>();
+
+  private int omittedReplies;
+
+  public CommentTreeDTO() {
+    // Empty constructor needed for Jackson.
+  }
+
+  public CommentTreeDTO(CommentDTO comment) {
+    this.id = comment.getId();
+    this.content = comment.getContent();
+    this.createdAt = comment.getCreatedAt();
+    this.user = comment.getUser();
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public String getContent() {
+    return content;
+  }
+
+  public void setContent(String content) {
+    this.content = content;
+  }
+
+  public ZonedDateTime getCreatedAt() {
+    return createdAt;
+  }
+
+  public void setCreatedAt(ZonedDateTime createdAt) {
+    this.createdAt = createdAt;
+  }
+
+  public UserDTO getUser() {
+    return user;
+  }
+
+  public void setUser(UserDTO user) {
+    this.user = user;
+  }
+
+  /** The direct replies, oldest first. */
+  public List<CommentTreeDTO> getReplies() {
+    return replies;
+  }
+
+  public void setReplies(List<CommentTreeDTO> replies) {
+    this.replies = replies;
+  }
+
+  /** The number of direct replies left out of {@link #getReplies()} by the depth or reply limit. */
+  public int getOmittedReplies() {
+    return omittedReplies;
+  }
+
+  public void setOmittedReplies(int omittedReplies) {
+    this.omittedReplies = omittedReplies;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof CommentTreeDTO)) {
+      return false;
+    }
+
+    CommentTreeDTO commentTreeDTO = (CommentTreeDTO) o;
+    if (this.id == null) {
+      return false;
+    }
+    return Objects.equals(this.id, commentTreeDTO.id);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(this.id);
+  }
+
+  // prettier-ignore
+  @Override
+  public String toString() {
+    return "CommentTreeDTO{"
+        + "id="
+        + getId()
+        + ", createdAt='"
+        + getCreatedAt()
+        + "'"
+        + ", replies="
+        + getReplies().size()
+        + ", omittedReplies="
+        + getOmittedReplies()
+        + "}";
+  }
+}
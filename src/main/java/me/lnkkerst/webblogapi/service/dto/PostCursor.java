@@ -0,0 +1,102 @@
+package me.lnkkerst.webblogapi.service.dto;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Base64;
+import java.util.Objects;
+import me.lnkkerst.webblogapi.domain.Post;
+
+/**
+ * A keyset position in the {@link me.lnkkerst.webblogapi.domain.Post} list, made of the {@code
+ * createdAt} and {@code id} of the last post a client has seen.
+ *
+ * <p>Cursors are exchanged with clients as opaque URL-safe strings, see {@link #encode()} and
+ * {@link #decode(String)}.
+ */
+public class PostCursor implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  private static final String SEPARATOR = ",";
+
+  private final ZonedDateTime createdAt;
+
+  private final Long id;
+
+  public PostCursor(ZonedDateTime createdAt, Long id) {
+    this.createdAt = Objects.requireNonNull(createdAt);
+    this.id = Objects.requireNonNull(id);
+  }
+
+  public static PostCursor of(Post post) {
+    return new PostCursor(post.getCreatedAt(), post.getId());
+  }
+
+  public static PostCursor of(PostDTO post) {
+    return new PostCursor(post.getCreatedAt(), post.getId());
+  }
+
+  /**
+   * Decode a cursor previously produced by {@link #encode()}.
+   *
+   * @param value the opaque cursor.
+   * @return the decoded cursor.
+   * @throws IllegalArgumentException if the value is not a valid cursor.
+   */
+  public static PostCursor decode(String value) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+      int separator = raw.lastIndexOf(SEPARATOR);
+      if (separator < 0) {
+        throw new IllegalArgumentException("Invalid cursor: " + value);
+      }
+      Instant createdAt = Instant.parse(raw.substring(0, separator));
+      Long id = Long.valueOf(raw.substring(separator + 1));
+      return new PostCursor(ZonedDateTime.ofInstant(createdAt, ZoneOffset.UTC), id);
+    } catch (DateTimeException e) {
+      throw new IllegalArgumentException("Invalid cursor: " + value, e);
+    }
+  }
+
+  public String encode() {
+    String raw = createdAt.toInstant() + SEPARATOR + id;
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  public ZonedDateTime getCreatedAt() {
+    return createdAt;
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof PostCursor)) {
+      return false;
+    }
+    PostCursor that = (PostCursor) o;
+    return createdAt.toInstant().equals(that.createdAt.toInstant()) && id.equals(that.id);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(createdAt.toInstant(), id);
+  }
+
+  // prettier-ignore
+  @Override
+  public String toString() {
+    return "PostCursor{" + "createdAt='" + createdAt + "'" + ", id=" + id + "}";
+  }
+}
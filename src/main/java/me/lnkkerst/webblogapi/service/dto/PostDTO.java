@@ -21,6 +21,35 @@ public class PostDTO implements Serializable {
 
   private NodeDTO node;
 
+  public PostDTO() {
+    // Empty constructor needed for Jackson.
+  }
+
+  /**
+   * Constructor used by the list projection, which selects the post columns together with the id
+   * and login of its user and the id and name of its node.
+   */
+  public PostDTO(
+      Long id,
+      String title,
+      String content,
+      ZonedDateTime createdAt,
+      Long userId,
+      String userLogin,
+      Long nodeId,
+      String nodeName) {
+    this.id = id;
+    this.title = title;
+    this.content = content;
+    this.createdAt = createdAt;
+    this.user = new UserDTO();
+    this.user.setId(userId);
+    this.user.setLogin(userLogin);
+    this.node = new NodeDTO();
+    this.node.setId(nodeId);
+    this.node.setName(nodeName);
+  }
+
   public Long getId() {
     return id;
   }
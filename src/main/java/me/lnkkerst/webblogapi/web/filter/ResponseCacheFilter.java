@@ -0,0 +1,200 @@
+package me.lnkkerst.webblogapi.web.filter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import me.lnkkerst.webblogapi.config.ApplicationProperties;
+import me.lnkkerst.webblogapi.security.SecurityUtils;
+import me.lnkkerst.webblogapi.service.ResponseCacheService;
+import me.lnkkerst.webblogapi.service.ResponseCacheService.CachedResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+/**
+ * Serves the anonymous reads of nodes and posts from the {@link ResponseCacheService}, so that
+ * they skip the queries and the serialization until a write evicts them. Cached are:
+ *
+ * <ul>
+ *   <li>{@code GET /api/nodes}, tagged with all the nodes;
+ *   <li>{@code GET /api/posts/{id}} and {@code GET /api/posts/{id}/comment-tree}, tagged with the
+ *       post and all the nodes;
+ *   <li>the first pages of {@code GET /api/posts?nodeId.equals=}, tagged with the node and all the
+ *       nodes.
+ * </ul>
+ *
+ * <p>Requests are keyed by their URL and sorted parameters. Only the {@code 200 (OK)} responses
+ * are cached, with the headers set by the controller, and a cached response still answers {@code
+ * If-None-Match} with {@code 304 (Not Modified)}. Requests with credentials always go through, as
+ * well as every request while {@code application.response-cache.enabled} is not set.
+ *
+ * <p>Users shown in the responses are not tagged, so their changes show up once the responses
+ * expire.
+ */
+public class ResponseCacheFilter extends OncePerRequestFilter {
+
+  private static final String NODES_PATH = "/api/nodes";
+
+  private static final String POSTS_PATH = "/api/posts";
+
+  private static final Pattern POST_PATH = Pattern.compile("/api/posts/(\\d+)(/comment-tree)?");
+
+  private static final String NODE_ID_PARAMETER = "nodeId.equals";
+
+  private static final String PAGE_PARAMETER = "page";
+
+  /** Parameters of the cached pages of posts, any other one may filter them by more than node. */
+  private static final Set<String> POSTS_PARAMETERS =
+      Set.of(NODE_ID_PARAMETER, PAGE_PARAMETER, "size", "sort");
+
+  private static final String GZIP = "gzip";
+
+  private final ResponseCacheService responseCacheService;
+
+  private final ApplicationProperties.ResponseCache properties;
+
+  public ResponseCacheFilter(
+      ResponseCacheService responseCacheService, ApplicationProperties applicationProperties) {
+    this.responseCacheService = responseCacheService;
+    this.properties = applicationProperties.getResponseCache();
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !properties.isEnabled()
+        || !"GET".equals(request.getMethod())
+        || request.getHeader(HttpHeaders.AUTHORIZATION) != null
+        || SecurityUtils.isAuthenticated();
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    Optional<Set<String>> tags = tagsOf(request);
+    if (tags.isEmpty()) {
+      filterChain.doFilter(request, response);
+      return;
+    }
+    String key = keyOf(request);
+    Optional<CachedResponse> cached = responseCacheService.get(key);
+    if (cached.isPresent()) {
+      write(cached.get(), request, response);
+      return;
+    }
+
+    long since = responseCacheService.position();
+    Set<String> headersBefore = new HashSet<>(response.getHeaderNames());
+    ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+    filterChain.doFilter(request, wrapper);
+    if (wrapper.getStatus() == HttpServletResponse.SC_OK) {
+      Map<String, List<String>> headers = new HashMap<>();
+      for (String name : wrapper.getHeaderNames()) {
+        if (!headersBefore.contains(name) && !HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+          headers.put(name, List.copyOf(wrapper.getHeaders(name)));
+        }
+      }
+      if (wrapper.getContentType() != null) {
+        headers.put(HttpHeaders.CONTENT_TYPE, List.of(wrapper.getContentType()));
+      }
+      responseCacheService.put(key, headers, wrapper.getContentAsByteArray(), tags.get(), since);
+    }
+    wrapper.copyBodyToResponse();
+  }
+
+  /** The tags of a cached request, or empty if the request is not cached. */
+  private Optional<Set<String>> tagsOf(HttpServletRequest request) {
+    String path = request.getRequestURI().substring(request.getContextPath().length());
+    if (NODES_PATH.equals(path)) {
+      return Optional.of(Set.of(ResponseCacheService.NODES_TAG));
+    }
+    Matcher post = POST_PATH.matcher(path);
+    if (post.matches()) {
+      Long postId = Long.valueOf(post.group(1));
+      return Optional.of(
+          Set.of(ResponseCacheService.postTag(postId), ResponseCacheService.NODES_TAG));
+    }
+    if (POSTS_PATH.equals(path) && isFirstPageOfNode(request)) {
+      Long nodeId = Long.valueOf(request.getParameter(NODE_ID_PARAMETER));
+      return Optional.of(
+          Set.of(ResponseCacheService.nodeTag(nodeId), ResponseCacheService.NODES_TAG));
+    }
+    return Optional.empty();
+  }
+
+  private boolean isFirstPageOfNode(HttpServletRequest request) {
+    Map<String, String[]> parameters = request.getParameterMap();
+    if (!POSTS_PARAMETERS.containsAll(parameters.keySet())) {
+      return false;
+    }
+    String nodeId = request.getParameter(NODE_ID_PARAMETER);
+    String page = request.getParameter(PAGE_PARAMETER);
+    return nodeId != null
+        && nodeId.matches("\\d+")
+        && (page == null
+            || (page.matches("\\d{1,9}") && Integer.parseInt(page) < properties.getMaxPages()));
+  }
+
+  /** The URL of a request followed by its parameters sorted by name, values kept in order. */
+  private static String keyOf(HttpServletRequest request) {
+    StringBuilder key = new StringBuilder(request.getRequestURL());
+    char separator = '?';
+    for (Map.Entry<String, String[]> parameter :
+        new TreeMap<>(request.getParameterMap()).entrySet()) {
+      for (String value : parameter.getValue()) {
+        key.append(separator)
+            .append(URLEncoder.encode(parameter.getKey(), StandardCharsets.UTF_8))
+            .append('=')
+            .append(URLEncoder.encode(value, StandardCharsets.UTF_8));
+        separator = '&';
+      }
+    }
+    return key.toString();
+  }
+
+  private static void write(
+      CachedResponse cached, HttpServletRequest request, HttpServletResponse response)
+      throws IOException {
+    cached.headers().forEach((name, values) -> values.forEach(v -> response.addHeader(name, v)));
+    String eTag = response.getHeader(HttpHeaders.ETAG);
+    // Sets the 304 status when the tag matches
+    if (eTag != null && new ServletWebRequest(request, response).checkNotModified(eTag)) {
+      return;
+    }
+    byte[] body;
+    if (!cached.gzipped()) {
+      body = cached.body();
+    } else {
+      response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+      if (acceptsGzip(request)) {
+        response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+        body = cached.body();
+      } else {
+        body = cached.plainBody();
+      }
+    }
+    response.setStatus(HttpServletResponse.SC_OK);
+    response.setContentLength(body.length);
+    response.getOutputStream().write(body);
+  }
+
+  private static boolean acceptsGzip(HttpServletRequest request) {
+    String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+    return acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains(GZIP);
+  }
+}
@@ -0,0 +1,2 @@
+/** Request filters. */
+package me.lnkkerst.webblogapi.web.filter;
@@ -6,6 +6,7 @@ import me.lnkkerst.webblogapi.domain.User;
 import me.lnkkerst.webblogapi.repository.UserRepository;
 import me.lnkkerst.webblogapi.security.SecurityUtils;
 import me.lnkkerst.webblogapi.service.MailService;
+import me.lnkkerst.webblogapi.service.PrincipalService;
 import me.lnkkerst.webblogapi.service.UserService;
 import me.lnkkerst.webblogapi.service.dto.AdminUserDTO;
 import me.lnkkerst.webblogapi.service.dto.PasswordChangeDTO;
@@ -38,11 +39,17 @@ public class AccountResource {
 
   private final MailService mailService;
 
+  private final PrincipalService principalService;
+
   public AccountResource(
-      UserRepository userRepository, UserService userService, MailService mailService) {
+      UserRepository userRepository,
+      UserService userService,
+      MailService mailService,
+      PrincipalService principalService) {
     this.userRepository = userRepository;
     this.userService = userService;
     this.mailService = mailService;
+    this.principalService = principalService;
   }
 
   /**
@@ -86,9 +93,8 @@ public class AccountResource {
    */
   @GetMapping("/account")
   public AdminUserDTO getAccount() {
-    return userService
-        .getUserWithAuthorities()
-        .map(AdminUserDTO::new)
+    return principalService
+        .getCurrentAccount()
         .orElseThrow(() -> new AccountResourceException("User could not be found"));
   }
 
@@ -7,11 +7,15 @@ import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import me.lnkkerst.webblogapi.config.ApplicationProperties;
 import me.lnkkerst.webblogapi.domain.Comment;
 import me.lnkkerst.webblogapi.repository.CommentRepository;
+import me.lnkkerst.webblogapi.repository.SpecificationContentExecutor.ContentVersion;
 import me.lnkkerst.webblogapi.service.CommentQueryService;
 import me.lnkkerst.webblogapi.service.CommentService;
 import me.lnkkerst.webblogapi.service.criteria.CommentCriteria;
+import me.lnkkerst.webblogapi.service.dto.BatchResultDTO;
+import me.lnkkerst.webblogapi.service.dto.CommentDTO;
 import me.lnkkerst.webblogapi.web.rest.errors.BadRequestAlertException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,6 +25,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
@@ -44,13 +49,17 @@ public class CommentResource {
 
   private final CommentQueryService commentQueryService;
 
+  private final ApplicationProperties.Batch batch;
+
   public CommentResource(
       CommentService commentService,
       CommentRepository commentRepository,
-      CommentQueryService commentQueryService) {
+      CommentQueryService commentQueryService,
+      ApplicationProperties applicationProperties) {
     this.commentService = commentService;
     this.commentRepository = commentRepository;
     this.commentQueryService = commentQueryService;
+    this.batch = applicationProperties.getBatch();
   }
 
   /**
@@ -77,6 +86,29 @@ public class CommentResource {
         .body(result);
   }
 
+  /**
+   * {@code POST /comments/batch} : Create a batch of new comments in a single transaction.
+   *
+   * <p>Each comment is validated on its own: the ones which are not valid are rejected, and the
+   * other ones are still created.
+   *
+   * @param comments the comments to create.
+   * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the result of
+   *     each comment, in the order of the batch, or with status {@code 400 (Bad Request)} if the
+   *     batch holds more than {@code application.batch.max-items} comments.
+   */
+  @PostMapping("/batch")
+  public ResponseEntity<List<BatchResultDTO>> createComments(@RequestBody List<Comment> comments) {
+    log.debug("REST request to save a batch of {} Comments", comments.size());
+    if (comments.size() > batch.getMaxItems()) {
+      throw new BadRequestAlertException(
+          "A batch cannot hold more than " + batch.getMaxItems() + " comments",
+          ENTITY_NAME,
+          "batchtoolarge");
+    }
+    return ResponseEntity.ok(commentService.saveAll(comments));
+  }
+
   /**
    * {@code PUT /comments/:id} : Updates an existing comment.
    *
@@ -154,21 +186,38 @@ public class CommentResource {
   /**
    * {@code GET /comments} : get all the comments.
    *
+   * <p>Comments are listed as {@link CommentDTO}, with only the id and title of their post, the id
+   * and login of their user and the id of the comment they reply to.
+   *
+   * <p>The response is tagged with the version of the comments of a post, when the criteria only
+   * filters on it.
+   *
    * @param pageable the pagination information.
    * @param criteria the criteria which the requested entities should match.
+   * @param request the request, which may hold the entity tag of the response in {@code
+   *     If-None-Match}.
    * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of comments in
-   *     body.
+   *     body, or with status {@code 304 (Not Modified)} if the client holds it already.
    */
   @GetMapping("")
-  public ResponseEntity<List<Comment>> getAllComments(
-      CommentCriteria criteria, @org.springdoc.core.annotations.ParameterObject Pageable pageable) {
+  public ResponseEntity<List<CommentDTO>> getAllComments(
+      CommentCriteria criteria,
+      @org.springdoc.core.annotations.ParameterObject Pageable pageable,
+      WebRequest request) {
     log.debug("REST request to get Comments by criteria: {}", criteria);
 
-    Page<Comment> page = commentQueryService.findByCriteria(criteria, pageable);
-    HttpHeaders headers =
-        PaginationUtil.generatePaginationHttpHeaders(
-            ServletUriComponentsBuilder.fromCurrentRequest(), page);
-    return ResponseEntity.ok().headers(headers).body(page.getContent());
+    // Read first, so that a concurrent write can only leave the tag older than the body
+    Optional<Long> version = commentQueryService.findPostVersionByCriteria(criteria);
+    return ETagUtil.ifNoneMatch(
+        request,
+        version,
+        () -> {
+          Page<CommentDTO> page = commentQueryService.findDtoByCriteria(criteria, pageable);
+          HttpHeaders headers =
+              PaginationUtil.generatePaginationHttpHeaders(
+                  ServletUriComponentsBuilder.fromCurrentRequest(), page);
+          return ResponseEntity.ok().headers(headers).body(page.getContent());
+        });
   }
 
   /**
@@ -187,18 +236,40 @@ public class CommentResource {
    * {@code GET /comments/:id} : get the "id" comment.
    *
    * @param id the id of the comment to retrieve.
+   * @param request the request, which may hold the entity tag of the response in {@code
+   *     If-None-Match}.
    * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the comment, or
-   *     with status {@code 404 (Not Found)}.
+   *     with status {@code 304 (Not Modified)} if the client holds it already, or with status
+   *     {@code 404 (Not Found)}.
    */
   @GetMapping("/{id}")
-  public ResponseEntity<Comment> getComment(@PathVariable("id") Long id) {
+  public ResponseEntity<Comment> getComment(@PathVariable("id") Long id, WebRequest request) {
     log.debug("REST request to get Comment : {}", id);
-    Optional<Comment> comment = commentService.findOne(id);
-    return ResponseUtil.wrapOrNotFound(comment);
+    CommentCriteria criteria = new CommentCriteria();
+    criteria.id().setEquals(id);
+    ContentVersion version = commentQueryService.findVersionByCriteria(criteria);
+    if (version.count() == 0) {
+      return ResponseEntity.notFound().build();
+    }
+    return ETagUtil.ifNoneMatch(
+        request, version, () -> ResponseUtil.wrapOrNotFound(commentService.findOne(id)));
+  }
+
+  /**
+   * {@code GET /comments/:id/replies/count} : count the replies of the "id" comment, direct or not.
+   *
+   * @param id the id of the comment whose replies to count.
+   * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the count in body, or with
+   *     status {@code 404 (Not Found)}.
+   */
+  @GetMapping("/{id}/replies/count")
+  public ResponseEntity<Long> countReplies(@PathVariable("id") Long id) {
+    log.debug("REST request to count the replies of Comment : {}", id);
+    return ResponseUtil.wrapOrNotFound(commentService.countReplies(id));
   }
 
   /**
-   * {@code DELETE /comments/:id} : delete the "id" comment.
+   * {@code DELETE /comments/:id} : delete the "id" comment, together with all its replies.
    *
    * @param id the id of the comment to delete.
    * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}.
@@ -0,0 +1,76 @@
+package me.lnkkerst.webblogapi.web.rest;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+import me.lnkkerst.webblogapi.repository.SpecificationContentExecutor.ContentVersion;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Utility class for answering conditional {@code GET} requests with entity tags derived from the
+ * version of the rows a response is built from, so that a client already holding a response gets
+ * {@code 304 (Not Modified)} without the rows being read or serialized again.
+ */
+final class ETagUtil {
+
+  /** Responses may be stored, but only used once revalidated with their entity tag. */
+  private static final CacheControl REVALIDATE = CacheControl.noCache();
+
+  private ETagUtil() {}
+
+  /**
+   * Answer a request with {@code 304 (Not Modified)} when its {@code If-None-Match} header holds
+   * the entity tag of a version, otherwise build the response.
+   *
+   * @param request the request.
+   * @param version the version of the rows the response is built from.
+   * @param response builds the response when the client does not hold it already.
+   * @return the response, with the entity tag of the version in its {@code ETag} header.
+   */
+  static <T> ResponseEntity<T> ifNoneMatch(
+      WebRequest request, ContentVersion version, Supplier<ResponseEntity<T>> response) {
+    return ifNoneMatch(request, eTag(version), response);
+  }
+
+  /**
+   * Answer a request with {@code 304 (Not Modified)} when its {@code If-None-Match} header holds
+   * the entity tag of a maintained version, otherwise build the response.
+   *
+   * @param request the request.
+   * @param version the maintained version of the rows the response is built from, or empty if it
+   *     is not maintained, in which case the response is built without an entity tag.
+   * @param response builds the response when the client does not hold it already.
+   * @return the response, with the entity tag of the version in its {@code ETag} header.
+   */
+  static <T> ResponseEntity<T> ifNoneMatch(
+      WebRequest request, Optional<Long> version, Supplier<ResponseEntity<T>> response) {
+    return version
+        .map(value -> ifNoneMatch(request, "\"" + value + "\"", response))
+        .orElseGet(response);
+  }
+
+  private static <T> ResponseEntity<T> ifNoneMatch(
+      WebRequest request, String eTag, Supplier<ResponseEntity<T>> response) {
+    // Sets the ETag header, and the 304 status when the tag matches
+    if (request.checkNotModified(eTag)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE).build();
+    }
+    ResponseEntity<T> built = response.get();
+    return ResponseEntity.status(built.getStatusCode())
+        .headers(built.getHeaders())
+        .cacheControl(REVALIDATE)
+        .body(built.getBody());
+  }
+
+  /**
+   * The strong entity tag of a version.
+   *
+   * @param version the version.
+   * @return the entity tag, quoted.
+   */
+  static String eTag(ContentVersion version) {
+    return "\"" + version.count() + "-" + version.maxId() + "-" + version.versions() + "\"";
+  }
+}
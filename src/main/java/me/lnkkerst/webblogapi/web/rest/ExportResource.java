@@ -0,0 +1,127 @@
+package me.lnkkerst.webblogapi.web.rest;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+import me.lnkkerst.webblogapi.security.AuthoritiesConstants;
+import me.lnkkerst.webblogapi.service.CommentQueryService;
+import me.lnkkerst.webblogapi.service.PostQueryService;
+import me.lnkkerst.webblogapi.service.criteria.CommentCriteria;
+import me.lnkkerst.webblogapi.service.criteria.PostCriteria;
+import me.lnkkerst.webblogapi.service.dto.CommentDTO;
+import me.lnkkerst.webblogapi.service.dto.PostDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller exporting posts and comments matching a criteria as newline-delimited JSON.
+ *
+ * <p>Every line is the list view of a post or comment, in id order. Rows are read from a
+ * forward-only cursor and written to the response as they come, so that neither the application
+ * nor the database holds the whole export in memory.
+ */
+@RestController
+@RequestMapping("/api/admin/export")
+public class ExportResource {
+
+  static final String NDJSON_CONTENT_TYPE = "application/x-ndjson";
+
+  private final Logger log = LoggerFactory.getLogger(ExportResource.class);
+
+  private final PostQueryService postQueryService;
+
+  private final CommentQueryService commentQueryService;
+
+  private final ObjectMapper objectMapper;
+
+  public ExportResource(
+      PostQueryService postQueryService,
+      CommentQueryService commentQueryService,
+      ObjectMapper objectMapper) {
+    this.postQueryService = postQueryService;
+    this.commentQueryService = commentQueryService;
+    this.objectMapper = objectMapper;
+  }
+
+  /**
+   * {@code GET /admin/export/posts} : export the posts.
+   *
+   * @param criteria the criteria which the requested posts should match.
+   * @param response the response the posts are written to, one per line.
+   * @throws IOException if the response could not be written.
+   */
+  @GetMapping("/posts")
+  @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+  public void exportPosts(PostCriteria criteria, HttpServletResponse response)
+      throws IOException {
+    log.debug("REST request to export Posts by criteria: {}", criteria);
+    write(response, PostDTO.class, posts -> postQueryService.exportByCriteria(criteria, posts));
+  }
+
+  /**
+   * {@code GET /admin/export/comments} : export the comments.
+   *
+   * @param criteria the criteria which the requested comments should match.
+   * @param response the response the comments are written to, one per line.
+   * @throws IOException if the response could not be written.
+   */
+  @GetMapping("/comments")
+  @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+  public void exportComments(CommentCriteria criteria, HttpServletResponse response)
+      throws IOException {
+    log.debug("REST request to export Comments by criteria: {}", criteria);
+    write(
+        response,
+        CommentDTO.class,
+        comments -> commentQueryService.exportByCriteria(criteria, comments));
+  }
+
+  /**
+   * Write the values passed by an export to the response, one JSON document per line.
+   *
+   * @param response the response.
+   * @param type the type of the values.
+   * @param export the export, called with the consumer of the values.
+   */
+  private <T> void write(HttpServletResponse response, Class<T> type, Consumer<Consumer<T>> export)
+      throws IOException {
+    response.setContentType(NDJSON_CONTENT_TYPE);
+    response.setCharacterEncoding("UTF-8");
+    // The servlet output stream buffers the response and sends it in chunks as it fills up
+    ObjectWriter writer =
+        objectMapper
+            .writerFor(type)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+            .withRootValueSeparator("\n");
+    OutputStream out = response.getOutputStream();
+    try (JsonGenerator generator =
+        writer
+            .createGenerator(out)
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM)) {
+      export.accept(
+          value -> {
+            try {
+              writer.writeValue(generator, value);
+            } catch (IOException e) {
+              throw new UncheckedIOException(e);
+            }
+          });
+      if (generator.getOutputContext().getEntryCount() > 0) {
+        generator.writeRaw('\n');
+      }
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+}
@@ -7,11 +7,13 @@ import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import me.lnkkerst.webblogapi.config.ApplicationProperties;
 import me.lnkkerst.webblogapi.domain.Favorite;
 import me.lnkkerst.webblogapi.repository.FavoriteRepository;
 import me.lnkkerst.webblogapi.service.FavoriteQueryService;
 import me.lnkkerst.webblogapi.service.FavoriteService;
 import me.lnkkerst.webblogapi.service.criteria.FavoriteCriteria;
+import me.lnkkerst.webblogapi.service.dto.BatchResultDTO;
 import me.lnkkerst.webblogapi.web.rest.errors.BadRequestAlertException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -44,13 +46,17 @@ public class FavoriteResource {
 
   private final FavoriteQueryService favoriteQueryService;
 
+  private final ApplicationProperties.Batch batch;
+
   public FavoriteResource(
       FavoriteService favoriteService,
       FavoriteRepository favoriteRepository,
-      FavoriteQueryService favoriteQueryService) {
+      FavoriteQueryService favoriteQueryService,
+      ApplicationProperties applicationProperties) {
     this.favoriteService = favoriteService;
     this.favoriteRepository = favoriteRepository;
     this.favoriteQueryService = favoriteQueryService;
+    this.batch = applicationProperties.getBatch();
   }
 
   /**
@@ -77,6 +83,30 @@ public class FavoriteResource {
         .body(result);
   }
 
+  /**
+   * {@code POST /favorites/batch} : Create a batch of new favorites in a single transaction.
+   *
+   * <p>Each favorite is validated on its own: the ones which are not valid are rejected, and the
+   * other ones are still created.
+   *
+   * @param favorites the favorites to create.
+   * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the result of
+   *     each favorite, in the order of the batch, or with status {@code 400 (Bad Request)} if the
+   *     batch holds more than {@code application.batch.max-items} favorites.
+   */
+  @PostMapping("/batch")
+  public ResponseEntity<List<BatchResultDTO>> createFavorites(
+      @RequestBody List<Favorite> favorites) {
+    log.debug("REST request to save a batch of {} Favorites", favorites.size());
+    if (favorites.size() > batch.getMaxItems()) {
+      throw new BadRequestAlertException(
+          "A batch cannot hold more than " + batch.getMaxItems() + " favorites",
+          ENTITY_NAME,
+          "batchtoolarge");
+    }
+    return ResponseEntity.ok(favoriteService.saveAll(favorites));
+  }
+
   /**
    * {@code PUT /favorites/:id} : Updates an existing favorite.
    *
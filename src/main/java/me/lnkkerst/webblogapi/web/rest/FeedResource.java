@@ -0,0 +1,81 @@
+package me.lnkkerst.webblogapi.web.rest;
+
+import java.util.List;
+import me.lnkkerst.webblogapi.service.FeedService;
+import me.lnkkerst.webblogapi.service.PrincipalService;
+import me.lnkkerst.webblogapi.service.dto.AdminUserDTO;
+import me.lnkkerst.webblogapi.service.dto.PostCursor;
+import me.lnkkerst.webblogapi.service.dto.PostDTO;
+import me.lnkkerst.webblogapi.web.rest.errors.BadRequestAlertException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/** REST controller for reading the feed of the current user. */
+@RestController
+@RequestMapping("/api/feed")
+public class FeedResource {
+
+  private static class FeedResourceException extends RuntimeException {
+
+    private FeedResourceException(String message) {
+      super(message);
+    }
+  }
+
+  private final Logger log = LoggerFactory.getLogger(FeedResource.class);
+
+  private static final String ENTITY_NAME = "feed";
+
+  private final FeedService feedService;
+
+  private final PrincipalService principalService;
+
+  public FeedResource(FeedService feedService, PrincipalService principalService) {
+    this.feedService = feedService;
+    this.principalService = principalService;
+  }
+
+  /**
+   * {@code GET /feed} : get the posts of the users and nodes followed by the current user.
+   *
+   * <p>Posts are returned newest first using keyset pagination, like {@code GET /posts?after=}: the
+   * sort and page number are ignored, and the cursor of the next slice is returned in the {@code
+   * X-Next-Cursor} header when there is one.
+   *
+   * @param pageable the pagination information.
+   * @param after the cursor returned with the previous slice, absent or empty for the first one.
+   * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of posts in body,
+   *     or with status {@code 400 (Bad Request)} if the cursor is not valid.
+   * @throws RuntimeException {@code 500 (Internal Server Error)} if the user couldn't be found.
+   */
+  @GetMapping("")
+  public ResponseEntity<List<PostDTO>> getFeed(
+      @org.springdoc.core.annotations.ParameterObject Pageable pageable,
+      @RequestParam(value = "after", required = false) String after) {
+    log.debug("REST request to get the feed after : {}", after);
+    PostCursor cursor;
+    try {
+      cursor = after == null || after.isBlank() ? null : PostCursor.decode(after);
+    } catch (IllegalArgumentException e) {
+      throw new BadRequestAlertException("Invalid cursor", ENTITY_NAME, "cursorinvalid");
+    }
+    AdminUserDTO account =
+        principalService
+            .getCurrentAccount()
+            .orElseThrow(() -> new FeedResourceException("User could not be found"));
+
+    Slice<PostDTO> slice = feedService.findFeed(account.getId(), cursor, pageable.getPageSize());
+    HttpHeaders headers = new HttpHeaders();
+    if (slice.hasNext()) {
+      List<PostDTO> content = slice.getContent();
+      headers.add(
+          PostResource.NEXT_CURSOR_HEADER, PostCursor.of(content.get(content.size() - 1)).encode());
+    }
+    return ResponseEntity.ok().headers(headers).body(slice.getContent());
+  }
+}
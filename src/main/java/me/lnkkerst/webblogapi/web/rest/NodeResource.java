@@ -9,6 +9,7 @@ import java.util.Objects;
 import java.util.Optional;
 import me.lnkkerst.webblogapi.domain.Node;
 import me.lnkkerst.webblogapi.repository.NodeRepository;
+import me.lnkkerst.webblogapi.repository.SpecificationContentExecutor.ContentVersion;
 import me.lnkkerst.webblogapi.service.NodeQueryService;
 import me.lnkkerst.webblogapi.service.NodeService;
 import me.lnkkerst.webblogapi.service.criteria.NodeCriteria;
@@ -21,6 +22,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
@@ -149,20 +151,34 @@ public class NodeResource {
   /**
    * {@code GET /nodes} : get all the nodes.
    *
+   * <p>The response is tagged with the version of the nodes.
+   *
    * @param pageable the pagination information.
    * @param criteria the criteria which the requested entities should match.
-   * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of nodes in body.
+   * @param request the request, which may hold the entity tag of the response in {@code
+   *     If-None-Match}.
+   * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of nodes in body,
+   *     or with status {@code 304 (Not Modified)} if the client holds it already.
    */
   @GetMapping("")
   public ResponseEntity<List<Node>> getAllNodes(
-      NodeCriteria criteria, @org.springdoc.core.annotations.ParameterObject Pageable pageable) {
+      NodeCriteria criteria,
+      @org.springdoc.core.annotations.ParameterObject Pageable pageable,
+      WebRequest request) {
     log.debug("REST request to get Nodes by criteria: {}", criteria);
 
-    Page<Node> page = nodeQueryService.findByCriteria(criteria, pageable);
-    HttpHeaders headers =
-        PaginationUtil.generatePaginationHttpHeaders(
-            ServletUriComponentsBuilder.fromCurrentRequest(), page);
-    return ResponseEntity.ok().headers(headers).body(page.getContent());
+    // Read first, so that a concurrent write can only leave the tag older than the body
+    Optional<Long> version = nodeQueryService.findVersion();
+    return ETagUtil.ifNoneMatch(
+        request,
+        version,
+        () -> {
+          Page<Node> page = nodeQueryService.findByCriteria(criteria, pageable);
+          HttpHeaders headers =
+              PaginationUtil.generatePaginationHttpHeaders(
+                  ServletUriComponentsBuilder.fromCurrentRequest(), page);
+          return ResponseEntity.ok().headers(headers).body(page.getContent());
+        });
   }
 
   /**
@@ -181,14 +197,23 @@ public class NodeResource {
    * {@code GET /nodes/:id} : get the "id" node.
    *
    * @param id the id of the node to retrieve.
+   * @param request the request, which may hold the entity tag of the response in {@code
+   *     If-None-Match}.
    * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the node, or with
-   *     status {@code 404 (Not Found)}.
+   *     status {@code 304 (Not Modified)} if the client holds it already, or with status {@code
+   *     404 (Not Found)}.
    */
   @GetMapping("/{id}")
-  public ResponseEntity<Node> getNode(@PathVariable("id") Long id) {
+  public ResponseEntity<Node> getNode(@PathVariable("id") Long id, WebRequest request) {
     log.debug("REST request to get Node : {}", id);
-    Optional<Node> node = nodeService.findOne(id);
-    return ResponseUtil.wrapOrNotFound(node);
+    NodeCriteria criteria = new NodeCriteria();
+    criteria.id().setEquals(id);
+    ContentVersion version = nodeQueryService.findVersionByCriteria(criteria);
+    if (version.count() == 0) {
+      return ResponseEntity.notFound().build();
+    }
+    return ETagUtil.ifNoneMatch(
+        request, version, () -> ResponseUtil.wrapOrNotFound(nodeService.findOne(id)));
   }
 
   /**
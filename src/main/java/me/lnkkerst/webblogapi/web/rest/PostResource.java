@@ -9,18 +9,26 @@ import java.util.Objects;
 import java.util.Optional;
 import me.lnkkerst.webblogapi.domain.Post;
 import me.lnkkerst.webblogapi.repository.PostRepository;
+import me.lnkkerst.webblogapi.repository.SpecificationContentExecutor.ContentVersion;
+import me.lnkkerst.webblogapi.service.CommentQueryService;
+import me.lnkkerst.webblogapi.service.HotPostService;
 import me.lnkkerst.webblogapi.service.PostQueryService;
 import me.lnkkerst.webblogapi.service.PostService;
 import me.lnkkerst.webblogapi.service.criteria.PostCriteria;
+import me.lnkkerst.webblogapi.service.dto.CommentTreeDTO;
+import me.lnkkerst.webblogapi.service.dto.PostCursor;
+import me.lnkkerst.webblogapi.service.dto.PostDTO;
 import me.lnkkerst.webblogapi.web.rest.errors.BadRequestAlertException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
@@ -35,6 +43,12 @@ public class PostResource {
 
   private static final String ENTITY_NAME = "post";
 
+  static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+  static final int MAX_COMMENT_TREE_DEPTH = 32;
+
+  static final int MAX_COMMENT_TREE_REPLIES = 500;
+
   @Value("${jhipster.clientApp.name}")
   private String applicationName;
 
@@ -44,11 +58,21 @@ public class PostResource {
 
   private final PostQueryService postQueryService;
 
+  private final CommentQueryService commentQueryService;
+
+  private final HotPostService hotPostService;
+
   public PostResource(
-      PostService postService, PostRepository postRepository, PostQueryService postQueryService) {
+      PostService postService,
+      PostRepository postRepository,
+      PostQueryService postQueryService,
+      CommentQueryService commentQueryService,
+      HotPostService hotPostService) {
     this.postService = postService;
     this.postRepository = postRepository;
     this.postQueryService = postQueryService;
+    this.commentQueryService = commentQueryService;
+    this.hotPostService = hotPostService;
   }
 
   /**
@@ -149,22 +173,54 @@ public class PostResource {
   /**
    * {@code GET /posts} : get all the posts.
    *
+   * <p>Posts are listed as {@link PostDTO}, with only the id and login of their user and the id and
+   * name of their node.
+   *
+   * <p>When the {@code after} parameter is present (it may be empty for the first slice), posts are
+   * returned newest first using keyset pagination: the sort and page number are ignored, no total
+   * count is computed, and the cursor of the next slice is returned in the {@code X-Next-Cursor}
+   * header when there is one.
+   *
    * @param pageable the pagination information.
    * @param criteria the criteria which the requested entities should match.
-   * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of posts in body.
+   * @param after the cursor returned with the previous slice, for keyset pagination.
+   * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of posts in body,
+   *     or with status {@code 400 (Bad Request)} if the cursor is not valid.
    */
   @GetMapping("")
-  public ResponseEntity<List<Post>> getAllPosts(
-      PostCriteria criteria, @org.springdoc.core.annotations.ParameterObject Pageable pageable) {
+  public ResponseEntity<List<PostDTO>> getAllPosts(
+      PostCriteria criteria,
+      @org.springdoc.core.annotations.ParameterObject Pageable pageable,
+      @RequestParam(value = "after", required = false) String after) {
     log.debug("REST request to get Posts by criteria: {}", criteria);
+    if (after != null) {
+      return getPostsAfter(criteria, after, pageable.getPageSize());
+    }
 
-    Page<Post> page = postQueryService.findByCriteria(criteria, pageable);
+    Page<PostDTO> page = postQueryService.findDtoByCriteria(criteria, pageable);
     HttpHeaders headers =
         PaginationUtil.generatePaginationHttpHeaders(
             ServletUriComponentsBuilder.fromCurrentRequest(), page);
     return ResponseEntity.ok().headers(headers).body(page.getContent());
   }
 
+  private ResponseEntity<List<PostDTO>> getPostsAfter(
+      PostCriteria criteria, String after, int size) {
+    PostCursor cursor;
+    try {
+      cursor = after.isBlank() ? null : PostCursor.decode(after);
+    } catch (IllegalArgumentException e) {
+      throw new BadRequestAlertException("Invalid cursor", ENTITY_NAME, "cursorinvalid");
+    }
+    Slice<PostDTO> slice = postQueryService.findDtoByCriteria(criteria, cursor, size);
+    HttpHeaders headers = new HttpHeaders();
+    if (slice.hasNext()) {
+      List<PostDTO> content = slice.getContent();
+      headers.add(NEXT_CURSOR_HEADER, PostCursor.of(content.get(content.size() - 1)).encode());
+    }
+    return ResponseEntity.ok().headers(headers).body(slice.getContent());
+  }
+
   /**
    * {@code GET /posts/count} : count all the posts.
    *
@@ -177,18 +233,99 @@ public class PostResource {
     return ResponseEntity.ok().body(postQueryService.countByCriteria(criteria));
   }
 
+  /**
+   * {@code GET /posts/hot} : get the hot posts, ranked by the decayed weights of the posts, their
+   * comments and their favorites.
+   *
+   * @param nodeId the id of the node of the posts, all the nodes if absent.
+   * @param size the number of posts to return, at most {@code application.hot-posts.ranking-size}.
+   * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the posts in body, best
+   *     first, or with status {@code 400 (Bad Request)} if the size is out of range.
+   */
+  @GetMapping("/hot")
+  public ResponseEntity<List<PostDTO>> getHotPosts(
+      @RequestParam(value = "nodeId", required = false) Long nodeId,
+      @RequestParam(value = "size", defaultValue = "20") int size) {
+    log.debug("REST request to get the hot Posts of Node : {}", nodeId);
+    if (size < 1 || size > hotPostService.getRankingSize()) {
+      throw new BadRequestAlertException("Invalid size", ENTITY_NAME, "sizeinvalid");
+    }
+    return ResponseEntity.ok().body(hotPostService.findHot(nodeId, size));
+  }
+
   /**
    * {@code GET /posts/:id} : get the "id" post.
    *
    * @param id the id of the post to retrieve.
+   * @param request the request, which may hold the entity tag of the response in {@code
+   *     If-None-Match}.
    * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the post, or with
-   *     status {@code 404 (Not Found)}.
+   *     status {@code 304 (Not Modified)} if the client holds it already, or with status {@code
+   *     404 (Not Found)}.
    */
   @GetMapping("/{id}")
-  public ResponseEntity<Post> getPost(@PathVariable("id") Long id) {
+  public ResponseEntity<Post> getPost(@PathVariable("id") Long id, WebRequest request) {
     log.debug("REST request to get Post : {}", id);
-    Optional<Post> post = postService.findOne(id);
-    return ResponseUtil.wrapOrNotFound(post);
+    PostCriteria criteria = new PostCriteria();
+    criteria.id().setEquals(id);
+    ContentVersion version = postQueryService.findVersionByCriteria(criteria);
+    if (version.count() == 0) {
+      return ResponseEntity.notFound().build();
+    }
+    return ETagUtil.ifNoneMatch(
+        request, version, () -> ResponseUtil.wrapOrNotFound(postService.findOne(id)));
+  }
+
+  /**
+   * {@code GET /posts/:id/comment-tree} : get the comment threads of the "id" post.
+   *
+   * <p>Threads are paginated with the usual {@code page} and {@code size} parameters. Below each
+   * comment, at most {@code replies} direct replies are returned, down to {@code depth} levels, and
+   * the number of replies left out is given in {@code omittedReplies}.
+   *
+   * <p>The response is tagged with the version of the comments of the post.
+   *
+   * @param id the id of the post.
+   * @param depth the number of levels to return, {@code 1} for the threads without any reply.
+   * @param replies the maximum number of direct replies returned under each comment.
+   * @param pageable the pagination information of the threads.
+   * @param request the request, which may hold the entity tag of the response in {@code
+   *     If-None-Match}.
+   * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the threads in body, or
+   *     with status {@code 304 (Not Modified)} if the client holds them already, or with status
+   *     {@code 400 (Bad Request)} if a limit is out of range, or with status {@code 404 (Not
+   *     Found)}.
+   */
+  @GetMapping("/{id}/comment-tree")
+  public ResponseEntity<List<CommentTreeDTO>> getCommentTree(
+      @PathVariable("id") Long id,
+      @RequestParam(value = "depth", defaultValue = "8") int depth,
+      @RequestParam(value = "replies", defaultValue = "50") int replies,
+      @org.springdoc.core.annotations.ParameterObject Pageable pageable,
+      WebRequest request) {
+    log.debug("REST request to get the comment tree of Post : {}", id);
+    if (depth < 1 || depth > MAX_COMMENT_TREE_DEPTH) {
+      throw new BadRequestAlertException("Invalid depth", ENTITY_NAME, "depthinvalid");
+    }
+    if (replies < 0 || replies > MAX_COMMENT_TREE_REPLIES) {
+      throw new BadRequestAlertException("Invalid replies", ENTITY_NAME, "repliesinvalid");
+    }
+    Optional<Long> version = commentQueryService.findVersionByPost(id);
+    if (version.isEmpty() && !postRepository.existsById(id)) {
+      return ResponseEntity.notFound().build();
+    }
+
+    return ETagUtil.ifNoneMatch(
+        request,
+        version,
+        () -> {
+          Page<CommentTreeDTO> page =
+              commentQueryService.findTreeByPost(id, depth, replies, pageable);
+          HttpHeaders headers =
+              PaginationUtil.generatePaginationHttpHeaders(
+                  ServletUriComponentsBuilder.fromCurrentRequest(), page);
+          return ResponseEntity.ok().headers(headers).body(page.getContent());
+        });
   }
 
   /**
@@ -0,0 +1,80 @@
+package me.lnkkerst.webblogapi.web.rest;
+
+import java.util.List;
+import me.lnkkerst.webblogapi.service.SearchService;
+import me.lnkkerst.webblogapi.service.dto.CommentDTO;
+import me.lnkkerst.webblogapi.service.dto.PostDTO;
+import me.lnkkerst.webblogapi.web.rest.errors.BadRequestAlertException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import tech.jhipster.web.util.PaginationUtil;
+
+/** REST controller for the full-text search of posts and comments. */
+@RestController
+@RequestMapping("/api/search")
+public class SearchResource {
+
+  private final Logger log = LoggerFactory.getLogger(SearchResource.class);
+
+  private static final String ENTITY_NAME = "search";
+
+  private final SearchService searchService;
+
+  public SearchResource(SearchService searchService) {
+    this.searchService = searchService;
+  }
+
+  /**
+   * {@code GET /search/posts?q=:terms} : search the posts by title and content.
+   *
+   * @param terms the words to search.
+   * @param pageable the pagination information, the sort is ignored in favor of the rank.
+   * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the matching posts in body,
+   *     best match first, or with status {@code 400 (Bad Request)} if there is nothing to search.
+   */
+  @GetMapping("/posts")
+  public ResponseEntity<List<PostDTO>> searchPosts(
+      @RequestParam("q") String terms,
+      @org.springdoc.core.annotations.ParameterObject Pageable pageable) {
+    log.debug("REST request to search Posts for : {}", terms);
+    Page<PostDTO> page = searchService.searchPosts(validTerms(terms), pageable);
+    HttpHeaders headers =
+        PaginationUtil.generatePaginationHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(), page);
+    return ResponseEntity.ok().headers(headers).body(page.getContent());
+  }
+
+  /**
+   * {@code GET /search/comments?q=:terms} : search the comments by content.
+   *
+   * @param terms the words to search.
+   * @param pageable the pagination information, the sort is ignored in favor of the rank.
+   * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the matching comments in
+   *     body, best match first, or with status {@code 400 (Bad Request)} if there is nothing to
+   *     search.
+   */
+  @GetMapping("/comments")
+  public ResponseEntity<List<CommentDTO>> searchComments(
+      @RequestParam("q") String terms,
+      @org.springdoc.core.annotations.ParameterObject Pageable pageable) {
+    log.debug("REST request to search Comments for : {}", terms);
+    Page<CommentDTO> page = searchService.searchComments(validTerms(terms), pageable);
+    HttpHeaders headers =
+        PaginationUtil.generatePaginationHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(), page);
+    return ResponseEntity.ok().headers(headers).body(page.getContent());
+  }
+
+  private String validTerms(String terms) {
+    if (terms.isBlank()) {
+      throw new BadRequestAlertException("Nothing to search", ENTITY_NAME, "termsempty");
+    }
+    return terms.strip();
+  }
+}
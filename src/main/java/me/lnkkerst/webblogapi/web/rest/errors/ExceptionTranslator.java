@@ -93,6 +93,9 @@ public class ExceptionTranslator extends ResponseEntityExceptionHandler {
       return (ProblemDetailWithCause) new EmailAlreadyUsedException().getBody();
     if (ex instanceof me.lnkkerst.webblogapi.service.InvalidPasswordException)
       return (ProblemDetailWithCause) new InvalidPasswordException().getBody();
+    if (ex instanceof me.lnkkerst.webblogapi.service.InvalidReplyException)
+      return (ProblemDetailWithCause)
+          new BadRequestAlertException(ex.getMessage(), "comment", "replyinvalid").getBody();
 
     if (ex instanceof ErrorResponseException exp
         && exp.getBody() instanceof ProblemDetailWithCause problemDetailWithCause)
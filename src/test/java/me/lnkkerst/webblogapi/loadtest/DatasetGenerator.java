@@ -0,0 +1,460 @@
+package me.lnkkerst.webblogapi.loadtest;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import me.lnkkerst.webblogapi.domain.Comment;
+import me.lnkkerst.webblogapi.domain.enumeration.CounterType;
+import me.lnkkerst.webblogapi.domain.enumeration.FavoriteType;
+import me.lnkkerst.webblogapi.security.AuthoritiesConstants;
+import me.lnkkerst.webblogapi.security.PasswordEncoders;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Fills the database with a synthetic dataset shaped like production data, to reproduce its query
+ * plans and to load test against:
+ *
+ * <ul>
+ *   <li>a few hot nodes get most of the posts,
+ *   <li>posts and comments come from users following a power law,
+ *   <li>recent posts get most of the comments, which often reply to the previous comment of their
+ *       post, building deep reply chains,
+ *   <li>favorites point to hot nodes, popular posts and prolific users,
+ * </ul>
+ *
+ * <p>along with the comment paths, the entity counters and the post scores the services maintain.
+ * Rows are written with JDBC batches, bypassing Hibernate, and ids are taken after the current
+ * values of the {@link #SEQUENCES}, which are then moved past them: the application must not run
+ * while the dataset is generated.
+ *
+ * <p>Users log in as {@code user0}, {@code user1}... with the password {@link #PASSWORD}. Run it
+ * against a database with {@code ./gradlew generateDataset -PjdbcUrl=... -Pscale=1} (see {@code
+ * gradle/loadtest.gradle}).
+ */
+public class DatasetGenerator {
+
+  public static final String PASSWORD = "loadtest";
+
+  private static final int BATCH_SIZE = 1000;
+
+  /** Ids Hibernate may have reserved from the sequences, and that are left alone. */
+  private static final int RESERVED_IDS = 1000;
+
+  /** The shared sequence, and the ones of the posts, comments and favorites. */
+  private static final String[] SEQUENCES = {
+    "sequence_generator",
+    "post_sequence_generator",
+    "comment_sequence_generator",
+    "favorite_sequence_generator",
+  };
+
+  private static final int MAX_REPLY_DEPTH = Comment.PATH_MAX_LENGTH / Comment.PATH_SEGMENT_LENGTH;
+
+  private static final double REPLY_PROBABILITY = 0.6;
+
+  private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+  private static final long SPAN_MINUTES = 365L * 24 * 60;
+
+  private static final String[] WORDS = {
+    "java", "spring", "database", "index", "query", "cache", "latency", "thread", "travel",
+    "quokka", "garden", "coffee", "music", "camera", "bicycle", "kernel", "compiler", "recipe",
+    "mountain", "river", "library", "network", "server", "keyboard", "planet", "weather",
+  };
+
+  private final Logger log = LoggerFactory.getLogger(DatasetGenerator.class);
+
+  private final Scale scale;
+
+  private final SplittableRandom random;
+
+  /** The number of rows of each table. */
+  public record Scale(int nodes, int users, int posts, int comments, int favorites) {
+    /**
+     * @param factor {@code 1} for about 100 thousand users, a million posts, five million
+     *     comments and a million favorites.
+     * @return the numbers of rows for this factor.
+     */
+    public static Scale of(double factor) {
+      return new Scale(
+          Math.max(5, (int) (200 * factor)),
+          Math.max(10, (int) (100_000 * factor)),
+          Math.max(50, (int) (1_000_000 * factor)),
+          Math.max(100, (int) (5_000_000 * factor)),
+          Math.max(50, (int) (1_000_000 * factor)));
+    }
+  }
+
+  public DatasetGenerator(Scale scale, long seed) {
+    this.scale = scale;
+    this.random = new SplittableRandom(seed);
+  }
+
+  /**
+   * Generate the dataset.
+   *
+   * @param connection the connection to the database, committed every batch.
+   * @throws SQLException if a row could not be written.
+   */
+  public void generate(Connection connection) throws SQLException {
+    connection.setAutoCommit(false);
+    long firstId = nextSequenceValue(connection) + RESERVED_IDS;
+    long nodeIds = firstId;
+    long userIds = nodeIds + scale.nodes();
+    long postIds = userIds + scale.users();
+    long commentIds = postIds + scale.posts();
+    long favoriteIds = commentIds + scale.comments();
+    long lastId = favoriteIds + scale.favorites();
+
+    long started = System.nanoTime();
+    insertNodes(connection, nodeIds);
+    insertUsers(connection, userIds);
+    long[] nodePosts = new long[scale.nodes()];
+    int[] postNodes = new int[scale.posts()];
+    long[] postCreated =
+        insertPosts(connection, postIds, nodeIds, userIds, nodePosts, postNodes);
+    long[] postComments = new long[scale.posts()];
+    insertComments(connection, commentIds, postIds, userIds, postCreated, postComments);
+    long[] nodeFavorites = new long[scale.nodes()];
+    long[] postFavorites = new long[scale.posts()];
+    long[] userFavorites = new long[scale.users()];
+    insertFavorites(
+        connection,
+        favoriteIds,
+        nodeIds,
+        userIds,
+        postIds,
+        nodeFavorites,
+        postFavorites,
+        userFavorites);
+    insertCounters(connection, CounterType.NODE_POSTS, nodeIds, nodePosts);
+    insertCounters(connection, CounterType.NODE_FAVORITES, nodeIds, nodeFavorites);
+    insertCounters(connection, CounterType.POST_COMMENTS, postIds, postComments);
+    insertCounters(connection, CounterType.POST_FAVORITES, postIds, postFavorites);
+    insertCounters(connection, CounterType.USER_FAVORITES, userIds, userFavorites);
+    insertCounters(connection, CounterType.POST_VERSION, postIds, new long[scale.posts()]);
+    insertScores(connection, postIds, nodeIds, postNodes);
+    restartSequences(connection, lastId + RESERVED_IDS);
+    log.info("Generated {} in {} s", scale, (System.nanoTime() - started) / 1_000_000_000L);
+  }
+
+  private void insertNodes(Connection connection, long firstId) throws SQLException {
+    try (Batch batch =
+        new Batch(connection, "node", "insert into node (id, name) values (?, ?)")) {
+      for (int i = 0; i < scale.nodes(); i++) {
+        batch.add(firstId + i, "node" + i);
+      }
+    }
+  }
+
+  private void insertUsers(Connection connection, long firstId) throws SQLException {
+    // Hashed once, as hashing is slow on purpose
+    String passwordHash =
+        PasswordEncoders.delegating(PasswordEncoders.ARGON2, 10, 310000).encode(PASSWORD);
+    LocalDateTime createdDate = START.minusDays(1);
+    try (Batch batch =
+        new Batch(
+            connection,
+            "jhi_user",
+            "insert into jhi_user (id, login, password_hash, first_name, last_name, email,"
+                + " image_url, activated, lang_key, created_by, created_date)"
+                + " values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+      for (int i = 0; i < scale.users(); i++) {
+        batch.add(
+            firstId + i,
+            "user" + i,
+            passwordHash,
+            "First" + i,
+            "Last" + i,
+            "user" + i + "@localhost",
+            null,
+            true,
+            "en",
+            "system",
+            createdDate);
+      }
+    }
+    try (Batch batch =
+        new Batch(
+            connection,
+            "jhi_user_authority",
+            "insert into jhi_user_authority (user_id, authority_name) values (?, ?)")) {
+      for (int i = 0; i < scale.users(); i++) {
+        batch.add(firstId + i, AuthoritiesConstants.USER);
+      }
+    }
+  }
+
+  /**
+   * @return the creation time of each post, in minutes after {@link #START}.
+   */
+  private long[] insertPosts(
+      Connection connection,
+      long firstId,
+      long nodeIds,
+      long userIds,
+      long[] nodePosts,
+      int[] postNodes)
+      throws SQLException {
+    Zipf nodes = new Zipf(scale.nodes(), 1.1);
+    Zipf users = new Zipf(scale.users(), 1.0);
+    long[] created = new long[scale.posts()];
+    try (Batch batch =
+        new Batch(
+            connection,
+            "post",
+            "insert into post (id, title, content, created_at, user_id, node_id)"
+                + " values (?, ?, ?, ?, ?, ?)")) {
+      for (int i = 0; i < scale.posts(); i++) {
+        int node = nodes.next(random);
+        nodePosts[node]++;
+        postNodes[i] = node;
+        // Posts are created in id order over a year
+        created[i] = i * SPAN_MINUTES / scale.posts();
+        batch.add(
+            firstId + i,
+            text(3, 8),
+            text(30, 200),
+            START.plusMinutes(created[i]),
+            userIds + users.next(random),
+            nodeIds + node);
+      }
+    }
+    return created;
+  }
+
+  private void insertComments(
+      Connection connection,
+      long firstId,
+      long postIds,
+      long userIds,
+      long[] postCreated,
+      long[] postComments)
+      throws SQLException {
+    Zipf posts = new Zipf(scale.posts(), 1.0);
+    Zipf users = new Zipf(scale.users(), 1.0);
+    long[] lastCommentId = new long[scale.posts()];
+    String[] lastPath = new String[scale.posts()];
+    long[] lastCreated = postCreated.clone();
+    try (Batch batch =
+        new Batch(
+            connection,
+            "comment",
+            "insert into comment (id, content, created_at, post_id, user_id, reply_id, path)"
+                + " values (?, ?, ?, ?, ?, ?, ?)")) {
+      for (int i = 0; i < scale.comments(); i++) {
+        // The most recent posts are the most commented
+        int post = scale.posts() - 1 - posts.next(random);
+        postComments[post]++;
+        long id = firstId + i;
+        Long replyId = null;
+        String path = segment(id);
+        if (lastPath[post] != null
+            && lastPath[post].length() < MAX_REPLY_DEPTH * Comment.PATH_SEGMENT_LENGTH
+            && random.nextDouble() < REPLY_PROBABILITY) {
+          replyId = lastCommentId[post];
+          path = lastPath[post] + path;
+        }
+        lastCommentId[post] = id;
+        lastPath[post] = path;
+        lastCreated[post] += 1 + random.nextInt(60);
+        batch.add(
+            id,
+            text(5, 40),
+            START.plusMinutes(lastCreated[post]),
+            postIds + post,
+            userIds + users.next(random),
+            replyId,
+            path);
+      }
+    }
+  }
+
+  private void insertFavorites(
+      Connection connection,
+      long firstId,
+      long nodeIds,
+      long userIds,
+      long postIds,
+      long[] nodeFavorites,
+      long[] postFavorites,
+      long[] userFavorites)
+      throws SQLException {
+    Zipf owners = new Zipf(scale.users(), 0.8);
+    Zipf nodes = new Zipf(scale.nodes(), 1.1);
+    Zipf users = new Zipf(scale.users(), 1.0);
+    Zipf posts = new Zipf(scale.posts(), 1.0);
+    try (Batch batch =
+        new Batch(
+            connection,
+            "favorite",
+            "insert into favorite (id, type, owner_id, user_id, node_id, post_id)"
+                + " values (?, ?, ?, ?, ?, ?)")) {
+      for (int i = 0; i < scale.favorites(); i++) {
+        long ownerId = userIds + owners.next(random);
+        double type = random.nextDouble();
+        if (type < 0.6) {
+          int post = scale.posts() - 1 - posts.next(random);
+          postFavorites[post]++;
+          batch.add(firstId + i, FavoriteType.POST.name(), ownerId, null, null, postIds + post);
+        } else if (type < 0.8) {
+          int node = nodes.next(random);
+          nodeFavorites[node]++;
+          batch.add(firstId + i, FavoriteType.NODE.name(), ownerId, null, nodeIds + node, null);
+        } else {
+          int user = users.next(random);
+          userFavorites[user]++;
+          batch.add(firstId + i, FavoriteType.USER.name(), ownerId, userIds + user, null, null);
+        }
+      }
+    }
+  }
+
+  private void insertCounters(
+      Connection connection, CounterType type, long firstId, long[] totals) throws SQLException {
+    try (Batch batch =
+        new Batch(
+            connection,
+            "entity_counter",
+            "insert into entity_counter (counter_type, target_id, total) values (?, ?, ?)")) {
+      for (int i = 0; i < totals.length; i++) {
+        batch.add(type.name(), firstId + i, totals[i]);
+      }
+    }
+  }
+
+  /** The hot scores, reset like the ones of posts older than the decay keeps. */
+  private void insertScores(Connection connection, long firstId, long nodeIds, int[] postNodes)
+      throws SQLException {
+    try (Batch batch =
+        new Batch(
+            connection,
+            "post_score",
+            "insert into post_score (post_id, node_id, score, scored_at) values (?, ?, ?, ?)")) {
+      for (int i = 0; i < postNodes.length; i++) {
+        batch.add(firstId + i, nodeIds + postNodes[i], 0.0, 0L);
+      }
+    }
+  }
+
+  /** The greatest next value of the sequences, past every id they handed out. */
+  private static long nextSequenceValue(Connection connection) throws SQLException {
+    long value = 0;
+    try (Statement statement = connection.createStatement()) {
+      for (String sequence : SEQUENCES) {
+        try (ResultSet resultSet = statement.executeQuery("select next value for " + sequence)) {
+          resultSet.next();
+          value = Math.max(value, resultSet.getLong(1));
+        }
+      }
+    }
+    return value;
+  }
+
+  private static void restartSequences(Connection connection, long value) throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      for (String sequence : SEQUENCES) {
+        statement.execute("alter sequence " + sequence + " restart with " + value);
+      }
+    }
+    connection.commit();
+  }
+
+  private String text(int minWords, int maxWords) {
+    int words = minWords + random.nextInt(maxWords - minWords + 1);
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < words; i++) {
+      if (i > 0) {
+        text.append(' ');
+      }
+      text.append(WORDS[random.nextInt(WORDS.length)]);
+    }
+    return text.toString();
+  }
+
+  /** The path segment of a comment, as computed by the {@code CommentService}. */
+  private static String segment(long id) {
+    String digits = Long.toString(id, Character.MAX_RADIX);
+    return "0".repeat(Math.max(0, Comment.PATH_SEGMENT_LENGTH - digits.length())) + digits;
+  }
+
+  /** Prepared insert executed and committed every {@link #BATCH_SIZE} rows. */
+  private final class Batch implements AutoCloseable {
+
+    private final Connection connection;
+
+    private final String table;
+
+    private final PreparedStatement statement;
+
+    private long rows;
+
+    Batch(Connection connection, String table, String sql) throws SQLException {
+      this.connection = connection;
+      this.table = table;
+      this.statement = connection.prepareStatement(sql);
+    }
+
+    void add(Object... values) throws SQLException {
+      for (int i = 0; i < values.length; i++) {
+        statement.setObject(i + 1, values[i]);
+      }
+      statement.addBatch();
+      if (++rows % BATCH_SIZE == 0) {
+        flush();
+      }
+    }
+
+    private void flush() throws SQLException {
+      statement.executeBatch();
+      connection.commit();
+      if (rows % (BATCH_SIZE * 100L) == 0) {
+        log.info("{} rows written to {}", rows, table);
+      }
+    }
+
+    @Override
+    public void close() throws SQLException {
+      try {
+        flush();
+      } finally {
+        statement.close();
+      }
+    }
+  }
+
+  /**
+   * Generate a dataset from the command line.
+   *
+   * @param args {@code jdbcUrl=}, and optionally {@code jdbcUsername=}, {@code jdbcPassword=},
+   *     {@code scale=} (defaults to {@code 1}) and {@code seed=}.
+   * @throws SQLException if the dataset could not be written.
+   */
+  public static void main(String[] args) throws SQLException {
+    Map<String, String> options = new HashMap<>();
+    for (String arg : args) {
+      int separator = arg.indexOf('=');
+      options.put(arg.substring(0, separator), arg.substring(separator + 1));
+    }
+    if (!options.containsKey("jdbcUrl")) {
+      throw new IllegalArgumentException(
+          "Usage: jdbcUrl=<url> [jdbcUsername=] [jdbcPassword=] [scale=] [seed=]");
+    }
+    Scale scale = Scale.of(Double.parseDouble(options.getOrDefault("scale", "1")));
+    long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+    try (Connection connection =
+        DriverManager.getConnection(
+            options.get("jdbcUrl"), options.get("jdbcUsername"), options.get("jdbcPassword"))) {
+      new DatasetGenerator(scale, seed).generate(connection);
+    }
+  }
+
+}
@@ -0,0 +1,352 @@
+package me.lnkkerst.webblogapi.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Scripted HTTP load test of the main endpoints, against an instance filled by the {@link
+ * DatasetGenerator}.
+ *
+ * <p>Each scenario is run in turn by concurrent clients for a warmup and then a measured duration,
+ * and reports its throughput, its 50th and 99th percentile latencies, and its errors. Targets are
+ * taken from the first pages of the lists and drawn with a skew, so that hot nodes and posts get
+ * most of the requests. The {@code create-} scenarios insert a row per request, so their throughput
+ * is the number of inserts per second.
+ *
+ * <p>Run it against a local instance with {@code ./gradlew loadTest
+ * -PbaseUrl=http://localhost:8080} (see {@code gradle/loadtest.gradle}), or against a
+ * Testcontainers MariaDB with {@code LoadTestIT}.
+ */
+public class LoadTest {
+
+  private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+  /** Users logging in, the dataset has at least as many. */
+  private static final int LOGINS = 10;
+
+  private static final String[] SEARCH_TERMS = {"quokka", "database", "coffee travel", "kernel"};
+
+  private static final String CREATED_AT = "2025-01-01T00:00:00Z";
+
+  private final Logger log = LoggerFactory.getLogger(LoadTest.class);
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  private final HttpClient httpClient = HttpClient.newHttpClient();
+
+  private final URI baseUrl;
+
+  private final int clients;
+
+  private final Duration warmup;
+
+  private final Duration duration;
+
+  /** A named request, built from the targets and a random source. */
+  public record Scenario(String name, Function<SplittableRandom, HttpRequest> request) {}
+
+  /** The outcome of a scenario. */
+  public record Result(
+      String name, long requests, long errors, double throughput, double p50, double p99) {
+    @Override
+    public String toString() {
+      return String.format(
+          Locale.ROOT,
+          "%-20s %10d req %6d err %10.1f req/s   p50 %8.2f ms   p99 %8.2f ms",
+          name,
+          requests,
+          errors,
+          throughput,
+          p50,
+          p99);
+    }
+  }
+
+  /**
+   * @param baseUrl the URL of the instance, like {@code http://localhost:8080}.
+   * @param clients the number of concurrent clients of each scenario.
+   * @param warmup the time each scenario runs before it is measured.
+   * @param duration the time each scenario is measured.
+   */
+  public LoadTest(URI baseUrl, int clients, Duration warmup, Duration duration) {
+    this.baseUrl = baseUrl;
+    this.clients = clients;
+    this.warmup = warmup;
+    this.duration = duration;
+  }
+
+  /**
+   * Run every scenario in turn.
+   *
+   * @return the result of each scenario.
+   * @throws IOException if the targets could not be read.
+   * @throws InterruptedException if interrupted.
+   */
+  public List<Result> run() throws IOException, InterruptedException {
+    List<Result> results = new ArrayList<>();
+    for (Scenario scenario : scenarios()) {
+      Result result = run(scenario);
+      log.info("{}", result);
+      results.add(result);
+    }
+    return results;
+  }
+
+  /** The scenarios, with targets read from the instance. */
+  public List<Scenario> scenarios() throws IOException, InterruptedException {
+    long[] nodeIds = ids("/api/nodes?size=100&sort=id,asc");
+    long[] postIds = ids("/api/posts?size=100&sort=id,desc");
+    long[] userIds = ids("/api/users?size=100&sort=id,asc");
+    String token = authenticate("user0", DatasetGenerator.PASSWORD);
+    long userId = json(authorized("/api/account", token).build()).get("id").asLong();
+    Zipf nodes = new Zipf(nodeIds.length, 1.1);
+    Zipf posts = new Zipf(postIds.length, 1.0);
+    Zipf users = new Zipf(userIds.length, 1.0);
+    Zipf logins = new Zipf(LOGINS, 1.0);
+    return List.of(
+        new Scenario(
+            "posts-of-node",
+            random -> get("/api/posts?nodeId.equals=" + nodeIds[nodes.next(random)])),
+        new Scenario("latest-posts", random -> get("/api/posts?sort=createdAt,desc")),
+        new Scenario(
+            "hot-posts-of-node",
+            random -> get("/api/posts/hot?nodeId=" + nodeIds[nodes.next(random)])),
+        new Scenario("post", random -> get("/api/posts/" + postIds[posts.next(random)])),
+        new Scenario(
+            "comment-tree",
+            random -> get("/api/posts/" + postIds[posts.next(random)] + "/comment-tree")),
+        new Scenario(
+            "comments-of-post",
+            random -> get("/api/comments?postId.equals=" + postIds[posts.next(random)])),
+        new Scenario(
+            "favorites-of-user",
+            random -> get("/api/favorites?ownerId.equals=" + userIds[users.next(random)])),
+        new Scenario(
+            "search-posts",
+            random ->
+                get(
+                    "/api/search/posts?q="
+                        + SEARCH_TERMS[random.nextInt(SEARCH_TERMS.length)].replace(' ', '+'))),
+        new Scenario("account", random -> authorized("/api/account", token).build()),
+        new Scenario("feed", random -> authorized("/api/feed", token).build()),
+        new Scenario(
+            "authenticate",
+            random ->
+                authenticateRequest("user" + logins.next(random), DatasetGenerator.PASSWORD)),
+        new Scenario(
+            "create-comment",
+            random ->
+                post(
+                    "/api/comments",
+                    token,
+                    String.format(
+                        Locale.ROOT,
+                        "{\"content\":\"Load test\",\"createdAt\":\"%s\","
+                            + "\"post\":{\"id\":%d},\"user\":{\"id\":%d}}",
+                        CREATED_AT,
+                        postIds[posts.next(random)],
+                        userId))),
+        new Scenario(
+            "create-favorite",
+            random ->
+                post(
+                    "/api/favorites",
+                    token,
+                    String.format(
+                        Locale.ROOT,
+                        "{\"type\":\"POST\",\"owner\":{\"id\":%d},\"post\":{\"id\":%d}}",
+                        userId,
+                        postIds[posts.next(random)]))));
+  }
+
+  /**
+   * Run a scenario.
+   *
+   * @param scenario the scenario.
+   * @return its throughput and latencies.
+   * @throws InterruptedException if interrupted.
+   */
+  public Result run(Scenario scenario) throws InterruptedException {
+    ExecutorService executor = Executors.newFixedThreadPool(clients);
+    try {
+      long warmupEnd = System.nanoTime() + warmup.toNanos();
+      long end = warmupEnd + duration.toNanos();
+      List<Future<Client>> futures = new ArrayList<>();
+      for (int i = 0; i < clients; i++) {
+        long seed = i;
+        futures.add(executor.submit(() -> new Client(seed).run(scenario, warmupEnd, end)));
+      }
+      long[] latencies = new long[0];
+      long errors = 0;
+      for (Future<Client> future : futures) {
+        Client client = future.get();
+        int from = latencies.length;
+        latencies = Arrays.copyOf(latencies, from + client.count);
+        System.arraycopy(client.latencies, 0, latencies, from, client.count);
+        errors += client.errors;
+      }
+      Arrays.sort(latencies);
+      return new Result(
+          scenario.name(),
+          latencies.length,
+          errors,
+          latencies.length / (duration.toNanos() / 1e9),
+          percentile(latencies, 0.50),
+          percentile(latencies, 0.99));
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Scenario " + scenario.name() + " failed", e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /** A client sending the requests of a scenario one after the other. */
+  private final class Client {
+
+    private final SplittableRandom random;
+
+    private long[] latencies = new long[1024];
+
+    private int count;
+
+    private long errors;
+
+    Client(long seed) {
+      this.random = new SplittableRandom(seed);
+    }
+
+    Client run(Scenario scenario, long warmupEnd, long end) throws InterruptedException {
+      for (long now = System.nanoTime(); now < end; now = System.nanoTime()) {
+        HttpRequest request = scenario.request().apply(random);
+        long start = System.nanoTime();
+        boolean failed;
+        try {
+          HttpResponse<Void> response =
+              httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+          failed = response.statusCode() >= 400;
+        } catch (IOException e) {
+          failed = true;
+        }
+        long latency = System.nanoTime() - start;
+        if (start < warmupEnd) {
+          continue;
+        }
+        if (failed) {
+          errors++;
+        }
+        if (count == latencies.length) {
+          latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latency;
+      }
+      return this;
+    }
+  }
+
+  private HttpRequest get(String path) {
+    return HttpRequest.newBuilder(baseUrl.resolve(path)).timeout(REQUEST_TIMEOUT).build();
+  }
+
+  private HttpRequest.Builder authorized(String path, String token) {
+    return HttpRequest.newBuilder(baseUrl.resolve(path))
+        .timeout(REQUEST_TIMEOUT)
+        .header("Authorization", "Bearer " + token);
+  }
+
+  private HttpRequest post(String path, String token, String body) {
+    return authorized(path, token)
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofString(body))
+        .build();
+  }
+
+  private HttpRequest authenticateRequest(String username, String password) {
+    String body =
+        objectMapper
+            .createObjectNode()
+            .put("username", username)
+            .put("password", password)
+            .toString();
+    return HttpRequest.newBuilder(baseUrl.resolve("/api/authenticate"))
+        .timeout(REQUEST_TIMEOUT)
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofString(body))
+        .build();
+  }
+
+  private String authenticate(String username, String password)
+      throws IOException, InterruptedException {
+    return json(authenticateRequest(username, password)).get("id_token").asText();
+  }
+
+  private long[] ids(String path) throws IOException, InterruptedException {
+    JsonNode page = json(get(path));
+    long[] ids = new long[page.size()];
+    for (int i = 0; i < ids.length; i++) {
+      ids[i] = page.get(i).get("id").asLong();
+    }
+    if (ids.length == 0) {
+      throw new IllegalStateException("No targets at " + path + ", generate a dataset first");
+    }
+    return ids;
+  }
+
+  private JsonNode json(HttpRequest request) throws IOException, InterruptedException {
+    HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    if (response.statusCode() >= 400) {
+      throw new IllegalStateException(request.uri() + " answered " + response.statusCode());
+    }
+    return objectMapper.readTree(response.body());
+  }
+
+  /** The latency at a percentile, in milliseconds. */
+  private static double percentile(long[] sortedLatencies, double percentile) {
+    if (sortedLatencies.length == 0) {
+      return Double.NaN;
+    }
+    int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+    return sortedLatencies[Math.max(0, index)] / 1e6;
+  }
+
+  /**
+   * Run the load test from the command line.
+   *
+   * @param args {@code baseUrl=}, and optionally {@code clients=} (defaults to {@code 16}), {@code
+   *     warmup=} and {@code duration=} in seconds (default to {@code 10} and {@code 30}).
+   * @throws Exception if the load test could not run.
+   */
+  public static void main(String[] args) throws Exception {
+    Map<String, String> options = new HashMap<>();
+    for (String arg : args) {
+      int separator = arg.indexOf('=');
+      options.put(arg.substring(0, separator), arg.substring(separator + 1));
+    }
+    LoadTest loadTest =
+        new LoadTest(
+            URI.create(options.getOrDefault("baseUrl", "http://localhost:8080")),
+            Integer.parseInt(options.getOrDefault("clients", "16")),
+            Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10"))),
+            Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "30"))));
+    loadTest.run();
+  }
+}
@@ -0,0 +1,80 @@
+package me.lnkkerst.webblogapi.loadtest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import javax.sql.DataSource;
+import me.lnkkerst.webblogapi.BlogapiApp;
+import me.lnkkerst.webblogapi.config.AsyncSyncConfiguration;
+import me.lnkkerst.webblogapi.config.EmbeddedSQL;
+import me.lnkkerst.webblogapi.service.HotPostService;
+import me.lnkkerst.webblogapi.service.ResponseCacheService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.annotation.DirtiesContext;
+
+/**
+ * Generates a dataset in the test database, the MariaDB test container with the {@code testprod}
+ * profile, then runs the {@link LoadTest} against the application.
+ *
+ * <p>The dataset is written past the application, which is already running, so everything the
+ * application holds about the database is dropped before the load test: the caches, the hot post
+ * rankings, and the feed inboxes, which are rebuilt on their next read.
+ *
+ * <p>Only runs when {@code loadtest.scale} is set, as by {@code ./gradlew -Pprod
+ * loadTestContainer}.
+ */
+@SpringBootTest(
+    classes = {BlogapiApp.class, AsyncSyncConfiguration.class},
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@EmbeddedSQL
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@EnabledIfSystemProperty(named = "loadtest.scale", matches = ".+")
+class LoadTestIT {
+
+  @LocalServerPort private int port;
+
+  @Autowired private DataSource dataSource;
+
+  @Autowired private CacheManager cacheManager;
+
+  @Autowired private HotPostService hotPostService;
+
+  @Autowired private ResponseCacheService responseCacheService;
+
+  @Test
+  void loadTest() throws Exception {
+    double scale = Double.parseDouble(System.getProperty("loadtest.scale"));
+    try (Connection connection = dataSource.getConnection()) {
+      new DatasetGenerator(DatasetGenerator.Scale.of(scale), 42).generate(connection);
+      try (Statement statement = connection.createStatement()) {
+        statement.executeUpdate("delete from feed_entry");
+        statement.executeUpdate("delete from feed_inbox");
+      }
+      connection.commit();
+    }
+    cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    hotPostService.reload();
+    responseCacheService.clear();
+
+    List<LoadTest.Result> results =
+        new LoadTest(
+                URI.create("http://localhost:" + port),
+                Integer.getInteger("loadtest.clients", 8),
+                Duration.ofSeconds(Long.getLong("loadtest.warmup", 5)),
+                Duration.ofSeconds(Long.getLong("loadtest.duration", 15)))
+            .run();
+
+    assertThat(results)
+        .isNotEmpty()
+        .allSatisfy(result -> assertThat(result.errors()).as(result.name()).isZero());
+  }
+}
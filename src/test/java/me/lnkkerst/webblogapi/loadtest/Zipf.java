@@ -0,0 +1,36 @@
+package me.lnkkerst.webblogapi.loadtest;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Zipf distribution over ranks {@code 0} to {@code n - 1}: rank {@code k} is drawn with a
+ * probability proportional to {@code 1 / (k + 1)^exponent}, so that a few ranks get most of the
+ * draws, like hot nodes, prolific users, or popular posts do.
+ */
+final class Zipf {
+
+  private final double[] cumulative;
+
+  /**
+   * @param n the number of ranks.
+   * @param exponent the skew, {@code 0} for a uniform distribution.
+   */
+  Zipf(int n, double exponent) {
+    cumulative = new double[n];
+    double sum = 0;
+    for (int k = 0; k < n; k++) {
+      sum += 1 / Math.pow(k + 1, exponent);
+      cumulative[k] = sum;
+    }
+    for (int k = 0; k < n; k++) {
+      cumulative[k] /= sum;
+    }
+  }
+
+  /** Draw a rank, {@code 0} being the most frequent one. */
+  int next(RandomGenerator random) {
+    int k = Arrays.binarySearch(cumulative, random.nextDouble());
+    return Math.min(k >= 0 ? k : -k - 1, cumulative.length - 1);
+  }
+}
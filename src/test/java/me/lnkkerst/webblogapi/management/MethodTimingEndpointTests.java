@@ -0,0 +1,169 @@
+package me.lnkkerst.webblogapi.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import me.lnkkerst.webblogapi.aop.timing.MethodTimingInterceptor;
+import me.lnkkerst.webblogapi.management.MethodTimingEndpoint.MethodTiming;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+class MethodTimingEndpointTests {
+
+  private MeterRegistry meterRegistry;
+
+  private MethodTimingInterceptor interceptor;
+
+  private MethodTimingEndpoint endpoint;
+
+  private Timed timed;
+
+  @BeforeEach
+  public void setup() {
+    meterRegistry = new SimpleMeterRegistry();
+    interceptor =
+        new MethodTimingInterceptor(
+            new StaticListableBeanFactory(Map.of("meterRegistry", meterRegistry))
+                .getBeanProvider(MeterRegistry.class),
+            1.0,
+            List.of(Duration.ofMillis(10)));
+    endpoint = new MethodTimingEndpoint(interceptor, 1);
+    timed = proxy(new TimedImpl());
+  }
+
+  @Test
+  void testCallsAreTimedByMethod() {
+    timed.fast();
+    timed.fast();
+    timed.slow();
+
+    assertThat(
+            meterRegistry
+                .get(MethodTimingInterceptor.METER_NAME)
+                .tag("class", "TimedImpl")
+                .tag("method", "fast")
+                .timer()
+                .count())
+        .isEqualTo(2);
+    assertThat(
+            meterRegistry
+                .get(MethodTimingInterceptor.METER_NAME)
+                .tag("class", "TimedImpl")
+                .tag("method", "slow")
+                .timer()
+                .count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  void testInheritedMethodsAreTimedByClassOfTheBean() {
+    Timed other = proxy(new OtherTimedImpl());
+    timed.fast();
+    other.fast();
+    other.fast();
+
+    assertThat(
+            meterRegistry
+                .get(MethodTimingInterceptor.METER_NAME)
+                .tag("class", "TimedImpl")
+                .tag("method", "fast")
+                .timer()
+                .count())
+        .isEqualTo(1);
+    assertThat(
+            meterRegistry
+                .get(MethodTimingInterceptor.METER_NAME)
+                .tag("class", "OtherTimedImpl")
+                .tag("method", "fast")
+                .timer()
+                .count())
+        .isEqualTo(2);
+  }
+
+  @Test
+  void testTimersAreRegisteredBeforeTheFirstCall() {
+    interceptor.registerTimers((Advised) timed);
+
+    assertThat(
+            meterRegistry
+                .get(MethodTimingInterceptor.METER_NAME)
+                .tag("class", "TimedImpl")
+                .timers())
+        .hasSize(2);
+    Timer fast =
+        meterRegistry
+            .get(MethodTimingInterceptor.METER_NAME)
+            .tag("class", "TimedImpl")
+            .tag("method", "fast")
+            .timer();
+    assertThat(fast.takeSnapshot().histogramCounts()).isNotEmpty();
+
+    timed.fast();
+
+    assertThat(fast.count()).isEqualTo(1);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testSlowestMethodsComeFirst() {
+    timed.fast();
+    timed.slow();
+
+    assertThat((List<MethodTiming>) endpoint.slowest(null).get("methods"))
+        .extracting(MethodTiming::getMethodName)
+        .containsExactly("slow");
+    assertThat((List<MethodTiming>) endpoint.slowest(2).get("methods"))
+        .extracting(MethodTiming::getMethodName)
+        .containsExactly("slow", "fast");
+  }
+
+  @Test
+  void testDebugCanBeSwitched() {
+    assertThat(endpoint.slowest(null)).containsEntry("debug", false);
+
+    endpoint.debug(true);
+
+    assertThat(interceptor.isDebug()).isTrue();
+    assertThat(endpoint.slowest(null)).containsEntry("debug", true);
+  }
+
+  private Timed proxy(Timed target) {
+    ProxyFactory proxyFactory = new ProxyFactory(target);
+    proxyFactory.addAdvisor(new DefaultPointcutAdvisor(interceptor));
+    return (Timed) proxyFactory.getProxy();
+  }
+
+  interface Timed {
+    void fast();
+
+    void slow();
+  }
+
+  static class TimedImpl implements Timed {
+
+    @Override
+    public void fast() {
+      // Nothing to do
+    }
+
+    @Override
+    public void slow() {
+      try {
+        Thread.sleep(20);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  static class OtherTimedImpl extends TimedImpl {}
+}
@@ -14,6 +14,9 @@ class SecurityMetersServiceTests {
   private static final String INVALID_TOKENS_METER_EXPECTED_NAME =
       "security.authentication.invalid-tokens";
 
+  private static final String TOKEN_CACHE_METER_EXPECTED_NAME =
+      "security.authentication.token-cache";
+
   private MeterRegistry meterRegistry;
 
   private SecurityMetersService securityMetersService;
@@ -120,4 +123,27 @@ class SecurityMetersServiceTests {
                 .count())
         .isEqualTo(1);
   }
+
+  @Test
+  void testTokenCacheCountersAreBoundToCorrectResults() {
+    securityMetersService.trackTokenCacheHit();
+    securityMetersService.trackTokenCacheHit();
+    securityMetersService.trackTokenCacheMiss();
+
+    assertThat(meterRegistry.find(TOKEN_CACHE_METER_EXPECTED_NAME).counters()).hasSize(2);
+    assertThat(
+            meterRegistry
+                .get(TOKEN_CACHE_METER_EXPECTED_NAME)
+                .tag("result", "hit")
+                .counter()
+                .count())
+        .isEqualTo(2);
+    assertThat(
+            meterRegistry
+                .get(TOKEN_CACHE_METER_EXPECTED_NAME)
+                .tag("result", "miss")
+                .counter()
+                .count())
+        .isEqualTo(1);
+  }
 }
@@ -0,0 +1,84 @@
+package me.lnkkerst.webblogapi.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+class SqlStatementBudgetFilterTests {
+
+  private static final String URI = "/api/posts/{id}";
+
+  private final SqlStatementCounter counter = new SqlStatementCounter();
+
+  private MeterRegistry meterRegistry;
+
+  private SqlStatementBudgetFilter filter;
+
+  @BeforeEach
+  public void setup() {
+    meterRegistry = new SimpleMeterRegistry();
+    filter = new SqlStatementBudgetFilter(meterRegistry, 2, 2);
+  }
+
+  @Test
+  void testStatementsAreRecordedByRoute() throws Exception {
+    filter.doFilter(request(), new MockHttpServletResponse(), statements(2));
+
+    assertThat(
+            meterRegistry
+                .get(SqlStatementBudgetFilter.STATEMENTS_METER_NAME)
+                .tag(SqlStatementBudgetFilter.URI_DIMENSION, URI)
+                .summary()
+                .totalAmount())
+        .isEqualTo(2);
+    assertThat(meterRegistry.find(SqlStatementBudgetFilter.OVER_BUDGET_METER_NAME).counter())
+        .isNull();
+  }
+
+  @Test
+  void testRequestsOverBudgetAreCounted() throws Exception {
+    filter.doFilter(request(), new MockHttpServletResponse(), statements(3));
+
+    assertThat(
+            meterRegistry
+                .get(SqlStatementBudgetFilter.OVER_BUDGET_METER_NAME)
+                .tag(SqlStatementBudgetFilter.URI_DIMENSION, URI)
+                .counter()
+                .count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  void testStatementsAreNotCountedOutsideRequests() throws Exception {
+    filter.doFilter(request(), new MockHttpServletResponse(), statements(1));
+    counter.inspect("select 1");
+
+    assertThat(
+            meterRegistry
+                .get(SqlStatementBudgetFilter.STATEMENTS_METER_NAME)
+                .summary()
+                .totalAmount())
+        .isEqualTo(1);
+  }
+
+  private MockHttpServletRequest request() {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/posts/1");
+    request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, URI);
+    return request;
+  }
+
+  private FilterChain statements(int count) {
+    return (request, response) -> {
+      for (int i = 0; i < count; i++) {
+        counter.inspect("select * from post where id=?");
+      }
+    };
+  }
+}
@@ -0,0 +1,58 @@
+package me.lnkkerst.webblogapi.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class SqlStatementCounterTests {
+
+  private static final String SELECT_POST = "select * from post where id=?";
+
+  private static final String SELECT_USER = "select * from jhi_user where id=?";
+
+  private final SqlStatementCounter counter = new SqlStatementCounter();
+
+  @Test
+  void testStatementsAreCountedWithinScope() {
+    counter.inspect(SELECT_POST);
+    try (SqlStatementCounter.Scope scope = SqlStatementCounter.open()) {
+      counter.inspect(SELECT_POST);
+      counter.inspect(SELECT_USER);
+      counter.inspect(SELECT_USER);
+
+      assertThat(scope.getTotal()).isEqualTo(3);
+      assertThat(scope.getRepeated(2)).containsExactly(Map.entry(SELECT_USER, 2));
+    }
+  }
+
+  @Test
+  void testStatementsOfNestedScopeAreAddedToEnclosingScope() {
+    try (SqlStatementCounter.Scope scope = SqlStatementCounter.open()) {
+      counter.inspect(SELECT_USER);
+      try (SqlStatementCounter.Scope nested = SqlStatementCounter.open()) {
+        counter.inspect(SELECT_USER);
+        counter.inspect(SELECT_POST);
+
+        assertThat(nested.getTotal()).isEqualTo(2);
+        assertThat(scope.getTotal()).isEqualTo(1);
+      }
+      counter.inspect(SELECT_POST);
+
+      assertThat(scope.getTotal()).isEqualTo(4);
+      assertThat(scope.getRepeated(2))
+          .containsExactlyInAnyOrderEntriesOf(Map.of(SELECT_USER, 2, SELECT_POST, 2));
+    }
+  }
+
+  @Test
+  void testStatementsAreNotCountedAfterScopeIsClosed() {
+    SqlStatementCounter.Scope scope = SqlStatementCounter.open();
+    counter.inspect(SELECT_POST);
+    scope.close();
+    scope.close();
+    counter.inspect(SELECT_POST);
+
+    assertThat(scope.getTotal()).isEqualTo(1);
+  }
+}
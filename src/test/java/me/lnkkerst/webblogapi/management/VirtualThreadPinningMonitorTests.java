@@ -0,0 +1,85 @@
+package me.lnkkerst.webblogapi.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+// From Java 24 on, virtual threads are no longer pinned in synchronized blocks
+@EnabledForJreRange(min = JRE.JAVA_21, max = JRE.JAVA_23)
+class VirtualThreadPinningMonitorTests {
+
+  private final Object lock = new Object();
+
+  private MeterRegistry meterRegistry;
+
+  private VirtualThreadPinningMonitor monitor;
+
+  @BeforeEach
+  public void setup() {
+    meterRegistry = new SimpleMeterRegistry();
+    monitor = new VirtualThreadPinningMonitor(meterRegistry, Duration.ofMillis(10));
+    monitor.afterPropertiesSet();
+  }
+
+  @AfterEach
+  public void tearDown() {
+    monitor.destroy();
+  }
+
+  @Test
+  void testPinnedWaitIsRecorded() throws Exception {
+    CountDownLatch done = new CountDownLatch(1);
+    new VirtualThreadTaskExecutor("pinned-")
+        .execute(
+            () -> {
+              synchronized (lock) {
+                sleep(50);
+              }
+              done.countDown();
+            });
+    assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+
+    Timer pinned = meterRegistry.get(VirtualThreadPinningMonitor.PINNED_METER_NAME).timer();
+    // Flight recorder events are delivered about once per second
+    for (int i = 0; i < 50 && pinned.count() == 0; i++) {
+      sleep(100);
+    }
+    assertThat(pinned.count()).isEqualTo(1);
+    assertThat(pinned.totalTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(50);
+  }
+
+  @Test
+  void testUnpinnedWaitIsIgnored() throws Exception {
+    CountDownLatch done = new CountDownLatch(1);
+    new VirtualThreadTaskExecutor("unpinned-")
+        .execute(
+            () -> {
+              sleep(50);
+              done.countDown();
+            });
+    assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+    sleep(1500);
+
+    assertThat(meterRegistry.get(VirtualThreadPinningMonitor.PINNED_METER_NAME).timer().count())
+        .isZero();
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,205 @@
+package me.lnkkerst.webblogapi.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import jakarta.persistence.EntityManager;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import me.lnkkerst.webblogapi.IntegrationTest;
+import me.lnkkerst.webblogapi.domain.Comment;
+import me.lnkkerst.webblogapi.domain.Favorite;
+import me.lnkkerst.webblogapi.domain.Node;
+import me.lnkkerst.webblogapi.domain.Post;
+import me.lnkkerst.webblogapi.domain.User;
+import me.lnkkerst.webblogapi.domain.enumeration.FavoriteType;
+import me.lnkkerst.webblogapi.management.SqlStatementCounter;
+import me.lnkkerst.webblogapi.service.CommentQueryService;
+import me.lnkkerst.webblogapi.service.FavoriteQueryService;
+import me.lnkkerst.webblogapi.service.PostQueryService;
+import me.lnkkerst.webblogapi.service.criteria.CommentCriteria;
+import me.lnkkerst.webblogapi.service.criteria.FavoriteCriteria;
+import me.lnkkerst.webblogapi.service.criteria.PostCriteria;
+import me.lnkkerst.webblogapi.service.dto.PostCursor;
+import me.lnkkerst.webblogapi.web.rest.UserResourceIT;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Checks through {@code EXPLAIN} that the list queries issued by the query services are served by
+ * an index, and never by a full table scan. The statements explained are the ones the services
+ * prepare, as captured by the {@link SqlStatementCounter}.
+ *
+ * <p>Plans are database specific, so this only runs against the MariaDB test container of the
+ * {@code testprod} profile.
+ */
+@IntegrationTest
+@EnabledIfSystemProperty(named = "spring.profiles.active", matches = ".*testprod.*")
+@Transactional
+class QueryPlanIT {
+
+  private static final String FULL_TABLE_SCAN = "ALL";
+
+  private static final int PAGE_SIZE = 20;
+
+  /** The column, or the limit or offset, compared to the parameter ending a statement prefix. */
+  private static final Pattern COMPARED_COLUMN =
+      Pattern.compile(
+          "(?:(\\w+)\\s*(?:=|<>|!=|<=|>=|<|>|\\blike|\\bin\\s*\\((?:\\?\\s*,\\s*)*)"
+              + "|\\b(limit|offset)(?:\\s+\\?\\s*,)?)\\s*$",
+          Pattern.CASE_INSENSITIVE);
+
+  @Autowired private EntityManager em;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Autowired private PostQueryService postQueryService;
+
+  @Autowired private CommentQueryService commentQueryService;
+
+  @Autowired private FavoriteQueryService favoriteQueryService;
+
+  private User user;
+
+  private Node node;
+
+  private Post post;
+
+  @BeforeEach
+  public void initTest() {
+    user = UserResourceIT.createEntity(em);
+    em.persist(user);
+    ZonedDateTime createdAt = ZonedDateTime.now();
+    for (int n = 0; n < 5; n++) {
+      node = new Node().name("node" + n);
+      em.persist(node);
+      for (int p = 0; p < 20; p++) {
+        post =
+            new Post()
+                .title("post" + p)
+                .content("content")
+                .createdAt(createdAt.minusMinutes(p))
+                .user(user)
+                .node(node);
+        em.persist(post);
+        for (int c = 0; c < 3; c++) {
+          em.persist(new Comment().content("comment").createdAt(createdAt).post(post).user(user));
+        }
+      }
+      em.persist(new Favorite().type(FavoriteType.NODE).owner(user).node(node));
+    }
+    em.flush();
+  }
+
+  @Test
+  void postsOfNodeUseIndex() {
+    PostCriteria criteria = new PostCriteria();
+    criteria.nodeId().setEquals(node.getId());
+
+    assertNoFullTableScan(
+        () ->
+            postQueryService.findDtoByCriteria(
+                criteria, PageRequest.of(0, PAGE_SIZE, PostQueryService.KEYSET_SORT)));
+  }
+
+  @Test
+  void postsOfNodeAfterCursorUseIndex() {
+    PostCriteria criteria = new PostCriteria();
+    criteria.nodeId().setEquals(node.getId());
+
+    assertNoFullTableScan(
+        () -> postQueryService.findDtoByCriteria(criteria, PostCursor.of(post), PAGE_SIZE));
+  }
+
+  @Test
+  void postsOfUserUseIndex() {
+    PostCriteria criteria = new PostCriteria();
+    criteria.userId().setEquals(user.getId());
+
+    assertNoFullTableScan(
+        () ->
+            postQueryService.findDtoByCriteria(
+                criteria, PageRequest.of(0, PAGE_SIZE, PostQueryService.KEYSET_SORT)));
+  }
+
+  @Test
+  void commentsOfPostUseIndex() {
+    CommentCriteria criteria = new CommentCriteria();
+    criteria.postId().setEquals(post.getId());
+
+    assertNoFullTableScan(
+        () ->
+            commentQueryService.findDtoByCriteria(
+                criteria, PageRequest.of(0, PAGE_SIZE, Sort.by("createdAt", "id"))));
+  }
+
+  @Test
+  void favoritesOfOwnerByTypeUseIndex() {
+    FavoriteCriteria criteria = new FavoriteCriteria();
+    criteria.ownerId().setEquals(user.getId());
+    criteria.type().setEquals(FavoriteType.NODE);
+
+    assertNoFullTableScan(
+        () -> favoriteQueryService.findByCriteria(criteria, PageRequest.of(0, PAGE_SIZE)));
+  }
+
+  /** EXPLAIN the select statements a call prepares, as captured by the statement inspector. */
+  private void assertNoFullTableScan(Runnable call) {
+    em.flush();
+    em.clear();
+    Set<String> statements;
+    try (SqlStatementCounter.Scope scope = SqlStatementCounter.open()) {
+      call.run();
+      statements = scope.getStatements();
+    }
+    List<String> selects =
+        statements.stream().filter(sql -> sql.regionMatches(true, 0, "select", 0, 6)).toList();
+    assertThat(selects).as("select statements").isNotEmpty();
+    for (String sql : selects) {
+      List<Map<String, Object>> plan = jdbcTemplate.queryForList("explain " + sql, bind(sql));
+      assertThat(plan)
+          .as("plan of %s", sql)
+          .isNotEmpty()
+          .allSatisfy(
+              step ->
+                  assertThat(step.get("type"))
+                      .as("access type of %s in %s", step, sql)
+                      .isNotEqualTo(FULL_TABLE_SCAN));
+    }
+  }
+
+  /** The values of the parameters of a statement, by the column each one is compared to. */
+  private Object[] bind(String sql) {
+    Map<String, Object> values =
+        Map.of(
+            "id", post.getId(),
+            "node_id", node.getId(),
+            "user_id", user.getId(),
+            "owner_id", user.getId(),
+            "post_id", post.getId(),
+            "created_at", post.getCreatedAt().toLocalDateTime(),
+            "type", FavoriteType.NODE.name(),
+            "limit", PAGE_SIZE + 1,
+            "offset", 0);
+    List<Object> args = new ArrayList<>();
+    for (int at = sql.indexOf('?'); at >= 0; at = sql.indexOf('?', at + 1)) {
+      Matcher matcher = COMPARED_COLUMN.matcher(sql.substring(0, at));
+      assertThat(matcher.find()).as("column of parameter %d of %s", args.size() + 1, sql).isTrue();
+      String column = matcher.group(1) != null ? matcher.group(1) : matcher.group(2);
+      column = column.toLowerCase();
+      assertThat(values).as("value of %s in %s", column, sql).containsKey(column);
+      args.add(values.get(column));
+    }
+    return args.toArray();
+  }
+}
@@ -0,0 +1,49 @@
+package me.lnkkerst.webblogapi.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/** Unit tests for the {@link PasswordEncoders} factory. */
+class PasswordEncodersTests {
+
+  private static final String PASSWORD = "correct horse battery staple";
+
+  private final PasswordEncoder encoder =
+      PasswordEncoders.delegating(PasswordEncoders.ARGON2, 4, 1000);
+
+  @Test
+  void testNewPasswordsAreHashedWithArgon2() {
+    String hash = encoder.encode(PASSWORD);
+
+    assertThat(hash).startsWith("{argon2}$argon2id$");
+    assertThat(encoder.matches(PASSWORD, hash)).isTrue();
+    assertThat(encoder.matches("wrong", hash)).isFalse();
+    assertThat(encoder.upgradeEncoding(hash)).isFalse();
+  }
+
+  @Test
+  void testBcryptPasswordsAreCheckedAndUpgraded() {
+    String hash = "{bcrypt}" + new BCryptPasswordEncoder(4).encode(PASSWORD);
+
+    assertThat(encoder.matches(PASSWORD, hash)).isTrue();
+    assertThat(encoder.upgradeEncoding(hash)).isTrue();
+  }
+
+  @Test
+  void testLegacyBcryptPasswordsAreCheckedAndUpgraded() {
+    String hash = new BCryptPasswordEncoder(4).encode(PASSWORD);
+
+    assertThat(encoder.matches(PASSWORD, hash)).isTrue();
+    assertThat(encoder.upgradeEncoding(hash)).isTrue();
+  }
+
+  @Test
+  void testUnknownEncodingIdIsRejected() {
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> PasswordEncoders.delegating("md5", 4, 1000));
+  }
+}
@@ -4,6 +4,7 @@ import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
+import me.lnkkerst.webblogapi.config.ApplicationProperties;
 import me.lnkkerst.webblogapi.config.SecurityConfiguration;
 import me.lnkkerst.webblogapi.config.SecurityJwtConfiguration;
 import me.lnkkerst.webblogapi.config.WebConfigurer;
@@ -22,6 +23,7 @@ import tech.jhipster.config.JHipsterProperties;
     },
     classes = {
       JHipsterProperties.class,
+      ApplicationProperties.class,
       WebConfigurer.class,
       SecurityConfiguration.class,
       SecurityJwtConfiguration.class,
@@ -21,6 +21,9 @@ class TokenAuthenticationSecurityMetersIT {
   private static final String INVALID_TOKENS_METER_EXPECTED_NAME =
       "security.authentication.invalid-tokens";
 
+  private static final String TOKEN_CACHE_METER_EXPECTED_NAME =
+      "security.authentication.token-cache";
+
   @Autowired private MockMvc mvc;
 
   @Value("${jhipster.security.authentication.jwt.base64-secret}")
@@ -120,6 +123,33 @@ class TokenAuthenticationSecurityMetersIT {
         .isEqualTo(count + 1);
   }
 
+  @Test
+  void testRepeatedValidTokenIsServedFromCache() throws Exception {
+    String token = createValidToken(jwtKey);
+    tryToAuthenticate(token);
+    var hits =
+        meterRegistry.get(TOKEN_CACHE_METER_EXPECTED_NAME).tag("result", "hit").counter().count();
+    var misses =
+        meterRegistry.get(TOKEN_CACHE_METER_EXPECTED_NAME).tag("result", "miss").counter().count();
+
+    tryToAuthenticate(token);
+
+    assertThat(
+            meterRegistry
+                .get(TOKEN_CACHE_METER_EXPECTED_NAME)
+                .tag("result", "hit")
+                .counter()
+                .count())
+        .isEqualTo(hits + 1);
+    assertThat(
+            meterRegistry
+                .get(TOKEN_CACHE_METER_EXPECTED_NAME)
+                .tag("result", "miss")
+                .counter()
+                .count())
+        .isEqualTo(misses);
+  }
+
   private void tryToAuthenticate(String token) throws Exception {
     mvc.perform(
         MockMvcRequestBuilders.get("/api/authenticate").header(AUTHORIZATION, BEARER + token));
@@ -0,0 +1,133 @@
+package me.lnkkerst.webblogapi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import jakarta.persistence.EntityManager;
+import me.lnkkerst.webblogapi.IntegrationTest;
+import me.lnkkerst.webblogapi.domain.Comment;
+import me.lnkkerst.webblogapi.domain.Favorite;
+import me.lnkkerst.webblogapi.domain.Node;
+import me.lnkkerst.webblogapi.domain.Post;
+import me.lnkkerst.webblogapi.domain.User;
+import me.lnkkerst.webblogapi.domain.enumeration.CounterType;
+import me.lnkkerst.webblogapi.domain.enumeration.FavoriteType;
+import me.lnkkerst.webblogapi.service.criteria.CommentCriteria;
+import me.lnkkerst.webblogapi.service.criteria.PostCriteria;
+import me.lnkkerst.webblogapi.web.rest.CommentResourceIT;
+import me.lnkkerst.webblogapi.web.rest.NodeResourceIT;
+import me.lnkkerst.webblogapi.web.rest.PostResourceIT;
+import me.lnkkerst.webblogapi.web.rest.UserResourceIT;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+/** Integration tests for {@link CounterService}. */
+@IntegrationTest
+@Transactional
+class CounterServiceIT {
+
+  @Autowired private EntityManager em;
+
+  @Autowired private CounterService counterService;
+
+  @Autowired private NodeService nodeService;
+
+  @Autowired private PostService postService;
+
+  @Autowired private CommentService commentService;
+
+  @Autowired private FavoriteService favoriteService;
+
+  @Autowired private PostQueryService postQueryService;
+
+  @Autowired private CommentQueryService commentQueryService;
+
+  private Node node;
+
+  private User user;
+
+  @BeforeEach
+  public void init() {
+    node = nodeService.save(NodeResourceIT.createEntity(em));
+    user = UserResourceIT.createEntity(em);
+    em.persist(user);
+    em.flush();
+  }
+
+  @Test
+  void assertThatCountersFollowPostsAndComments() {
+    Post post = postService.save(newPost());
+    postService.save(newPost());
+    Comment comment = commentService.save(newComment(post));
+    commentService.save(newComment(post));
+
+    assertThat(counterService.getTotal(CounterType.NODE_POSTS, node.getId())).contains(2L);
+    assertThat(counterService.getTotal(CounterType.POST_COMMENTS, post.getId())).contains(2L);
+
+    commentService.delete(comment.getId());
+    postService.delete(post.getId());
+
+    assertThat(counterService.getTotal(CounterType.NODE_POSTS, node.getId())).contains(1L);
+    assertThat(counterService.getTotal(CounterType.POST_COMMENTS, post.getId())).isEmpty();
+  }
+
+  @Test
+  void assertThatCountersFollowFavorites() {
+    Post post = postService.save(newPost());
+    Favorite favorite =
+        favoriteService.save(new Favorite().type(FavoriteType.POST).owner(user).post(post));
+
+    assertThat(counterService.getTotal(CounterType.POST_FAVORITES, post.getId())).contains(1L);
+
+    // Disconnect from session so that the update is compared with the stored favorite
+    em.detach(favorite);
+    favorite.setType(FavoriteType.NODE);
+    favorite.setPost(null);
+    favorite.setNode(node);
+    favoriteService.update(favorite);
+
+    assertThat(counterService.getTotal(CounterType.POST_FAVORITES, post.getId())).contains(0L);
+    assertThat(counterService.getTotal(CounterType.NODE_FAVORITES, node.getId())).contains(1L);
+
+    favoriteService.delete(favorite.getId());
+
+    assertThat(counterService.getTotal(CounterType.NODE_FAVORITES, node.getId())).contains(0L);
+  }
+
+  @Test
+  void assertThatQueryServicesReadMaintainedCounters() {
+    Post post = postService.save(newPost());
+    commentService.save(newComment(post));
+    commentService.save(newComment(post));
+
+    CommentCriteria byPost = new CommentCriteria();
+    byPost.postId().setEquals(post.getId());
+    PostCriteria byNode = new PostCriteria();
+    byNode.nodeId().setEquals(node.getId());
+
+    assertThat(commentQueryService.countByCriteria(byPost)).isEqualTo(2L);
+    Page<Comment> page = commentQueryService.findByCriteria(byPost, PageRequest.of(0, 1));
+    assertThat(page.getContent()).hasSize(1).extracting(Comment::getPost).containsOnly(post);
+    assertThat(page.getTotalElements()).isEqualTo(2L);
+    assertThat(postQueryService.countByCriteria(byNode)).isEqualTo(1L);
+
+    // Filtering on anything else falls back to counting
+    byPost.content().setContains("no such content");
+    assertThat(commentQueryService.countByCriteria(byPost)).isZero();
+  }
+
+  private Post newPost() {
+    Post post = PostResourceIT.createEntity(em);
+    post.setNode(node);
+    return post;
+  }
+
+  private Comment newComment(Post post) {
+    Comment comment = CommentResourceIT.createEntity(em);
+    comment.setPost(post);
+    return comment;
+  }
+}
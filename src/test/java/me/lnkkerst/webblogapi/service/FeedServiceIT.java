@@ -0,0 +1,193 @@
+package me.lnkkerst.webblogapi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import jakarta.persistence.EntityManager;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import me.lnkkerst.webblogapi.IntegrationTest;
+import me.lnkkerst.webblogapi.config.ApplicationProperties;
+import me.lnkkerst.webblogapi.domain.Favorite;
+import me.lnkkerst.webblogapi.domain.Node;
+import me.lnkkerst.webblogapi.domain.Post;
+import me.lnkkerst.webblogapi.domain.User;
+import me.lnkkerst.webblogapi.domain.enumeration.FavoriteType;
+import me.lnkkerst.webblogapi.repository.FeedEntryRepository;
+import me.lnkkerst.webblogapi.repository.FeedInboxRepository;
+import me.lnkkerst.webblogapi.service.dto.PostCursor;
+import me.lnkkerst.webblogapi.service.dto.PostDTO;
+import me.lnkkerst.webblogapi.web.rest.NodeResourceIT;
+import me.lnkkerst.webblogapi.web.rest.PostResourceIT;
+import me.lnkkerst.webblogapi.web.rest.UserResourceIT;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.transaction.annotation.Transactional;
+
+/** Integration tests for the feed inboxes of {@link FeedService}. */
+@IntegrationTest
+@Transactional
+class FeedServiceIT {
+
+  @Autowired private EntityManager em;
+
+  @Autowired private FeedService feedService;
+
+  @Autowired private PostService postService;
+
+  @Autowired private FavoriteService favoriteService;
+
+  @Autowired private FeedInboxRepository feedInboxRepository;
+
+  @Autowired private FeedEntryRepository feedEntryRepository;
+
+  @Autowired private ApplicationProperties applicationProperties;
+
+  private ApplicationProperties.Feed defaults;
+
+  private User reader;
+
+  private Node node;
+
+  @BeforeEach
+  public void init() {
+    ApplicationProperties.Feed feed = applicationProperties.getFeed();
+    defaults = new ApplicationProperties.Feed();
+    defaults.setInboxEnabled(feed.isInboxEnabled());
+    defaults.setInboxThreshold(feed.getInboxThreshold());
+    defaults.setInboxSize(feed.getInboxSize());
+    // Every reader gets an inbox, which holds the two newest posts when created
+    feed.setInboxEnabled(true);
+    feed.setInboxThreshold(0);
+    feed.setInboxSize(2);
+
+    reader = UserResourceIT.createEntity(em);
+    em.persist(reader);
+    node = NodeResourceIT.createEntity(em);
+    em.persist(node);
+    em.flush();
+    favoriteService.save(new Favorite().type(FavoriteType.NODE).owner(reader).node(node));
+  }
+
+  @AfterEach
+  public void restore() {
+    ApplicationProperties.Feed feed = applicationProperties.getFeed();
+    feed.setInboxEnabled(defaults.isInboxEnabled());
+    feed.setInboxThreshold(defaults.getInboxThreshold());
+    feed.setInboxSize(defaults.getInboxSize());
+  }
+
+  @Test
+  void assertThatTheInboxIsFilledThenWrittenOnNewPosts() {
+    ZonedDateTime now = ZonedDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    Post oldest = createPost(now.minusHours(3));
+    Post older = createPost(now.minusHours(2));
+    Post old = createPost(now.minusHours(1));
+
+    // The posts past the ones held by the new inbox are read from the node
+    assertThat(feedService.findFeed(reader.getId(), null, 10).getContent())
+        .extracting(PostDTO::getId)
+        .containsExactly(old.getId(), older.getId(), oldest.getId());
+    assertThat(feedInboxRepository.findById(reader.getId()))
+        .hasValueSatisfying(inbox -> assertThat(inbox.getSincePostId()).isEqualTo(older.getId()));
+    assertThat(inboxPostIds()).containsExactly(old.getId(), older.getId());
+
+    Post created = postService.save(PostResourceIT.createEntity(em).node(node).createdAt(now));
+
+    // The inbox keeps its two newest posts, the older ones are read from the node
+    assertThat(inboxPostIds()).containsExactly(created.getId(), old.getId());
+    assertThat(feedInboxRepository.findById(reader.getId()))
+        .hasValueSatisfying(inbox -> assertThat(inbox.getSincePostId()).isEqualTo(old.getId()));
+    Slice<PostDTO> first = feedService.findFeed(reader.getId(), null, 2);
+    assertThat(first.getContent())
+        .extracting(PostDTO::getId)
+        .containsExactly(created.getId(), old.getId());
+    assertThat(first.hasNext()).isTrue();
+    Slice<PostDTO> next =
+        feedService.findFeed(reader.getId(), PostCursor.of(first.getContent().get(1)), 2);
+    assertThat(next.getContent())
+        .extracting(PostDTO::getId)
+        .containsExactly(older.getId(), oldest.getId());
+    assertThat(next.hasNext()).isFalse();
+  }
+
+  @Test
+  void assertThatTheInboxIsDroppedWhenFollowsChange() {
+    ZonedDateTime now = ZonedDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    createPost(now.minusHours(1));
+    feedService.findFeed(reader.getId(), null, 10);
+    assertThat(feedInboxRepository.existsById(reader.getId())).isTrue();
+
+    User followed = UserResourceIT.createEntity(em);
+    em.persist(followed);
+    favoriteService.save(new Favorite().type(FavoriteType.USER).owner(reader).user(followed));
+
+    assertThat(feedInboxRepository.existsById(reader.getId())).isFalse();
+    assertThat(inboxPostIds()).isEmpty();
+    Post ofFollowed = PostResourceIT.createEntity(em).createdAt(now);
+    ofFollowed.setUser(followed);
+    em.persist(ofFollowed);
+    assertThat(feedService.findFeed(reader.getId(), null, 10).getContent())
+        .extracting(PostDTO::getId)
+        .first()
+        .isEqualTo(ofFollowed.getId());
+  }
+
+  @Test
+  void assertThatBackDatedPostsAreReadInOrder() {
+    ZonedDateTime now = ZonedDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    Post oldest = createPost(now.minusHours(3));
+    Post older = createPost(now.minusHours(2));
+    Post old = createPost(now.minusHours(1));
+    feedService.findFeed(reader.getId(), null, 10);
+    em.remove(old);
+    feedService.deletePost(old.getId());
+
+    // Written to the inbox past its since position, where the node has a newer post
+    Post backDated =
+        postService.save(PostResourceIT.createEntity(em).node(node).createdAt(now.minusHours(4)));
+
+    assertThat(inboxPostIds()).containsExactly(older.getId(), backDated.getId());
+    Slice<PostDTO> first = feedService.findFeed(reader.getId(), null, 2);
+    assertThat(first.getContent())
+        .extracting(PostDTO::getId)
+        .containsExactly(older.getId(), oldest.getId());
+    assertThat(first.hasNext()).isTrue();
+    Slice<PostDTO> next =
+        feedService.findFeed(reader.getId(), PostCursor.of(first.getContent().get(1)), 2);
+    assertThat(next.getContent()).extracting(PostDTO::getId).containsExactly(backDated.getId());
+    assertThat(next.hasNext()).isFalse();
+  }
+
+  @Test
+  void assertThatPostsMovedToAFollowedNodeAreWrittenToTheInbox() {
+    ZonedDateTime now = ZonedDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    createPost(now.minusHours(1));
+    feedService.findFeed(reader.getId(), null, 10);
+    Node other = NodeResourceIT.createEntity(em);
+    em.persist(other);
+    Post moved = postService.save(PostResourceIT.createEntity(em).node(other).createdAt(now));
+    assertThat(inboxPostIds()).doesNotContain(moved.getId());
+    em.flush();
+    em.detach(moved);
+
+    postService.update(moved.node(node));
+
+    assertThat(inboxPostIds()).first().isEqualTo(moved.getId());
+  }
+
+  private Post createPost(ZonedDateTime createdAt) {
+    Post post = PostResourceIT.createEntity(em).node(node).createdAt(createdAt);
+    em.persist(post);
+    em.flush();
+    return post;
+  }
+
+  private List<Long> inboxPostIds() {
+    return feedEntryRepository.findNewestPostIds(reader.getId(), PageRequest.of(0, 10));
+  }
+}
@@ -0,0 +1,140 @@
+package me.lnkkerst.webblogapi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import jakarta.persistence.EntityManager;
+import java.time.Instant;
+import me.lnkkerst.webblogapi.IntegrationTest;
+import me.lnkkerst.webblogapi.config.ApplicationProperties;
+import me.lnkkerst.webblogapi.domain.Comment;
+import me.lnkkerst.webblogapi.domain.Favorite;
+import me.lnkkerst.webblogapi.domain.Node;
+import me.lnkkerst.webblogapi.domain.Post;
+import me.lnkkerst.webblogapi.domain.PostScore;
+import me.lnkkerst.webblogapi.domain.User;
+import me.lnkkerst.webblogapi.domain.enumeration.FavoriteType;
+import me.lnkkerst.webblogapi.repository.PostScoreRepository;
+import me.lnkkerst.webblogapi.service.dto.PostDTO;
+import me.lnkkerst.webblogapi.web.rest.CommentResourceIT;
+import me.lnkkerst.webblogapi.web.rest.NodeResourceIT;
+import me.lnkkerst.webblogapi.web.rest.PostResourceIT;
+import me.lnkkerst.webblogapi.web.rest.UserResourceIT;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+/** Integration tests for {@link HotPostService}. */
+@IntegrationTest
+@Transactional
+class HotPostServiceIT {
+
+  @Autowired private EntityManager em;
+
+  @Autowired private HotPostService hotPostService;
+
+  @Autowired private NodeService nodeService;
+
+  @Autowired private PostService postService;
+
+  @Autowired private CommentService commentService;
+
+  @Autowired private FavoriteService favoriteService;
+
+  @Autowired private PostScoreRepository postScoreRepository;
+
+  @Autowired private ApplicationProperties applicationProperties;
+
+  private Node node;
+
+  private User user;
+
+  @BeforeEach
+  public void init() {
+    node = nodeService.save(NodeResourceIT.createEntity(em));
+    user = UserResourceIT.createEntity(em);
+    em.persist(user);
+    em.flush();
+  }
+
+  @Test
+  void assertThatPostsAreRankedByCommentsAndFavorites() {
+    Post quiet = postService.save(newPost());
+    Post favorited = postService.save(newPost());
+    Post commented = postService.save(newPost());
+    // Load the ranking first, so that it is then moved by the writes; ties go to the newest post
+    assertThat(hotPostService.findHot(node.getId(), 10))
+        .extracting(PostDTO::getId)
+        .containsExactly(commented.getId(), favorited.getId(), quiet.getId());
+
+    commentService.save(newComment(quiet));
+    favoriteService.save(new Favorite().type(FavoriteType.POST).owner(user).post(favorited));
+    for (int i = 0; i < 3; i++) {
+      commentService.save(newComment(commented));
+    }
+
+    assertThat(hotPostService.findHot(node.getId(), 10))
+        .extracting(PostDTO::getId)
+        .containsExactly(commented.getId(), favorited.getId(), quiet.getId());
+    assertThat(hotPostService.findHot(node.getId(), 1))
+        .extracting(PostDTO::getId)
+        .containsExactly(commented.getId());
+    assertThat(hotPostService.findHot(null, hotPostService.getRankingSize()))
+        .extracting(PostDTO::getId)
+        .containsSubsequence(commented.getId(), favorited.getId(), quiet.getId());
+    assertThat(postScoreRepository.findScore(favorited.getId()))
+        .hasValueSatisfying(score -> assertThat(score.getScore()).isCloseTo(3.0, within(0.01)));
+  }
+
+  @Test
+  void assertThatDeletedPostsAreNoLongerRanked() {
+    Post post = postService.save(newPost());
+    Post deleted = postService.save(newPost());
+    commentService.save(newComment(deleted));
+    assertThat(hotPostService.findHot(node.getId(), 10))
+        .extracting(PostDTO::getId)
+        .containsExactly(deleted.getId(), post.getId());
+
+    postService.delete(deleted.getId());
+
+    assertThat(postScoreRepository.findScore(deleted.getId())).isEmpty();
+    assertThat(hotPostService.findHot(node.getId(), 10))
+        .extracting(PostDTO::getId)
+        .containsExactly(post.getId());
+  }
+
+  @Test
+  void assertThatDecayResetsTheOldScores() {
+    Post post = postService.save(newPost());
+    commentService.save(newComment(post));
+    // A post scored ten half-lives ago, which has decayed under the minimum score
+    Post old = PostResourceIT.createEntity(em).node(node);
+    em.persist(old);
+    long halfLife = applicationProperties.getHotPosts().getHalfLife().toSeconds();
+    postScoreRepository.save(
+        new PostScore(old.getId(), node.getId())
+            .score(1.0)
+            .scoredAt(Instant.now().getEpochSecond() - 10 * halfLife));
+
+    hotPostService.decay();
+
+    assertThat(postScoreRepository.findScore(post.getId()))
+        .hasValueSatisfying(score -> assertThat(score.getScore()).isCloseTo(2.0, within(0.01)));
+    assertThat(postScoreRepository.findScore(old.getId()))
+        .hasValueSatisfying(score -> assertThat(score.getScore()).isZero());
+    assertThat(hotPostService.findHot(node.getId(), 10))
+        .extracting(PostDTO::getId)
+        .containsExactly(post.getId());
+  }
+
+  private Post newPost() {
+    return PostResourceIT.createEntity(em).node(node);
+  }
+
+  private Comment newComment(Post post) {
+    Comment comment = CommentResourceIT.createEntity(em);
+    comment.setPost(post);
+    return comment;
+  }
+}
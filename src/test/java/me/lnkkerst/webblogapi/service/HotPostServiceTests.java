@@ -0,0 +1,106 @@
+package me.lnkkerst.webblogapi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.List;
+import me.lnkkerst.webblogapi.config.ApplicationProperties;
+import me.lnkkerst.webblogapi.domain.Node;
+import me.lnkkerst.webblogapi.domain.Post;
+import me.lnkkerst.webblogapi.repository.PostScoreRepository;
+import me.lnkkerst.webblogapi.service.dto.PostDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for the in-memory rankings of {@link HotPostService}. */
+class HotPostServiceTests {
+
+  private static final Long NODE_ID = 1L;
+
+  private final PostScoreRepository postScoreRepository = mock(PostScoreRepository.class);
+
+  private final PostQueryService postQueryService = mock(PostQueryService.class);
+
+  private HotPostService hotPostService;
+
+  @BeforeEach
+  void setUp() {
+    hotPostService =
+        new HotPostService(postScoreRepository, postQueryService, new ApplicationProperties());
+    when(postQueryService.findDtoByIds(anyList()))
+        .thenAnswer(
+            invocation ->
+                invocation.<List<Long>>getArgument(0).stream()
+                    .map(
+                        id -> {
+                          PostDTO post = new PostDTO();
+                          post.setId(id);
+                          return post;
+                        })
+                    .toList());
+  }
+
+  @Test
+  void testWriteCommittedWhileRankingLoadsIsRanked() {
+    long now = Instant.now().getEpochSecond();
+    Post created = new Post().id(2L).node(new Node().id(NODE_ID));
+    // The post is created after the load read the scores, before the ranking is kept
+    when(postScoreRepository.findTopByNode(eq(NODE_ID), anyDouble(), any()))
+        .thenAnswer(
+            invocation -> {
+              hotPostService.create(created);
+              return List.of(score(1L, 0.5, now));
+            });
+
+    assertThat(hotPostService.findHot(NODE_ID, 10))
+        .extracting(PostDTO::getId)
+        .containsExactly(2L, 1L);
+  }
+
+  @Test
+  void testScoreWrittenWhileRankingLoadsIsKeptOverTheLoadedOne() {
+    long now = Instant.now().getEpochSecond();
+    Post created = new Post().id(2L).node(new Node().id(NODE_ID));
+    // The load read an older score of the post than the one written meanwhile
+    when(postScoreRepository.findTopByNode(eq(NODE_ID), anyDouble(), any()))
+        .thenAnswer(
+            invocation -> {
+              hotPostService.create(created);
+              return List.of(score(1L, 0.5, now), score(2L, 0.1, now));
+            });
+
+    assertThat(hotPostService.findHot(NODE_ID, 10))
+        .extracting(PostDTO::getId)
+        .containsExactly(2L, 1L);
+  }
+
+  private static PostScoreRepository.Score score(Long postId, double score, long scoredAt) {
+    return new PostScoreRepository.Score() {
+      @Override
+      public Long getPostId() {
+        return postId;
+      }
+
+      @Override
+      public Long getNodeId() {
+        return NODE_ID;
+      }
+
+      @Override
+      public double getScore() {
+        return score;
+      }
+
+      @Override
+      public long getScoredAt() {
+        return scoredAt;
+      }
+    };
+  }
+}
@@ -0,0 +1,114 @@
+package me.lnkkerst.webblogapi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import java.time.Instant;
+import me.lnkkerst.webblogapi.IntegrationTest;
+import me.lnkkerst.webblogapi.domain.OutboxMail;
+import me.lnkkerst.webblogapi.repository.OutboxMailRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+/** Integration tests for {@link MailDeliveryService}, against a local SMTP server. */
+@IntegrationTest
+@Transactional
+@TestPropertySource(
+    properties = {
+      "spring.mail.port=3025",
+      "application.mail-outbox.batch-size=2",
+      "application.mail-outbox.max-attempts=3"
+    })
+class MailDeliveryServiceIT {
+
+  @RegisterExtension
+  static final GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+  @Autowired private MailService mailService;
+
+  @Autowired private MailDeliveryService mailDeliveryService;
+
+  @Autowired private OutboxMailRepository outboxMailRepository;
+
+  @Autowired private MeterRegistry meterRegistry;
+
+  @BeforeEach
+  public void setup() {
+    outboxMailRepository.deleteAll();
+  }
+
+  @Test
+  void testDueMailsAreSentInBatches() throws Exception {
+    double sent = sentCount();
+    for (int i = 0; i < 5; i++) {
+      mailService.sendEmail("user" + i + "@example.com", "subject " + i, "content", false, false);
+    }
+
+    mailDeliveryService.deliverPending();
+
+    MimeMessage[] received = greenMail.getReceivedMessages();
+    assertThat(received).hasSize(5);
+    assertThat(received[0].getSubject()).isEqualTo("subject 0");
+    assertThat(outboxMailRepository.findAll()).isEmpty();
+    assertThat(sentCount()).isEqualTo(sent + 5);
+  }
+
+  @Test
+  void testFailedMailIsRetriedAfterBackoff() {
+    greenMail.stop();
+    mailService.sendEmail("john.doe@example.com", "subject", "content", false, false);
+
+    mailDeliveryService.deliverPending();
+
+    OutboxMail mail = outboxMailRepository.findAll().get(0);
+    assertThat(mail.getAttempts()).isEqualTo(1);
+    assertThat(mail.getNextAttemptAt()).isAfter(Instant.now());
+    assertThat(mail.getLastError()).isNotBlank();
+
+    greenMail.start();
+    mailDeliveryService.deliverPending();
+    assertThat(greenMail.getReceivedMessages()).isEmpty();
+
+    mail.setNextAttemptAt(Instant.now());
+    mailDeliveryService.deliverPending();
+    assertThat(greenMail.getReceivedMessages()).hasSize(1);
+    assertThat(outboxMailRepository.findAll()).isEmpty();
+  }
+
+  @Test
+  void testFailedMailIsGivenUpAfterMaxAttempts() {
+    greenMail.stop();
+    mailService.sendEmail("john.doe@example.com", "subject", "content", false, false);
+    OutboxMail mail = outboxMailRepository.findAll().get(0);
+    mail.setAttempts(2);
+
+    mailDeliveryService.deliverPending();
+
+    assertThat(mail.getAttempts()).isEqualTo(3);
+    assertThat(mail.getNextAttemptAt()).isNull();
+    assertThat(outboxMailRepository.findAll()).containsExactly(mail);
+  }
+
+  @Test
+  void testInvalidMailIsGivenUp() {
+    mailService.sendEmail("<john.doe@example.com", "subject", "content", false, false);
+
+    mailDeliveryService.deliverPending();
+
+    assertThat(greenMail.getReceivedMessages()).isEmpty();
+    OutboxMail mail = outboxMailRepository.findAll().get(0);
+    assertThat(mail.getAttempts()).isEqualTo(1);
+    assertThat(mail.getNextAttemptAt()).isNull();
+  }
+
+  private double sentCount() {
+    return meterRegistry.get(MailDeliveryService.SENT_METER_NAME).counter().count();
+  }
+}
@@ -21,7 +21,9 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import me.lnkkerst.webblogapi.IntegrationTest;
 import me.lnkkerst.webblogapi.config.Constants;
+import me.lnkkerst.webblogapi.domain.OutboxMail;
 import me.lnkkerst.webblogapi.domain.User;
+import me.lnkkerst.webblogapi.repository.OutboxMailRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
@@ -30,10 +32,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.transaction.annotation.Transactional;
 import tech.jhipster.config.JHipsterProperties;
 
-/** Integration tests for {@link MailService}. */
+/** Integration tests for {@link MailService}, delivering the outbox with a mock mail sender. */
 @IntegrationTest
+@Transactional
 class MailServiceIT {
 
   private static final String[] languages = {
@@ -47,21 +51,26 @@ class MailServiceIT {
 
   @MockBean private JavaMailSender javaMailSender;
 
-  @Captor private ArgumentCaptor<MimeMessage> messageCaptor;
+  @Captor private ArgumentCaptor<MimeMessage[]> messageCaptor;
 
   @Autowired private MailService mailService;
 
+  @Autowired private MailDeliveryService mailDeliveryService;
+
+  @Autowired private OutboxMailRepository outboxMailRepository;
+
   @BeforeEach
   public void setup() {
-    doNothing().when(javaMailSender).send(any(MimeMessage.class));
-    when(javaMailSender.createMimeMessage()).thenReturn(new MimeMessage((Session) null));
+    outboxMailRepository.deleteAll();
+    doNothing().when(javaMailSender).send(any(MimeMessage[].class));
+    when(javaMailSender.createMimeMessage())
+        .thenAnswer(invocation -> new MimeMessage((Session) null));
   }
 
   @Test
   void testSendEmail() throws Exception {
     mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, false);
-    verify(javaMailSender).send(messageCaptor.capture());
-    MimeMessage message = messageCaptor.getValue();
+    MimeMessage message = deliverSingle();
     assertThat(message.getSubject()).isEqualTo("testSubject");
     assertThat(message.getAllRecipients()[0]).hasToString("john.doe@example.com");
     assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
@@ -73,8 +82,7 @@ class MailServiceIT {
   @Test
   void testSendHtmlEmail() throws Exception {
     mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, true);
-    verify(javaMailSender).send(messageCaptor.capture());
-    MimeMessage message = messageCaptor.getValue();
+    MimeMessage message = deliverSingle();
     assertThat(message.getSubject()).isEqualTo("testSubject");
     assertThat(message.getAllRecipients()[0]).hasToString("john.doe@example.com");
     assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
@@ -86,8 +94,7 @@ class MailServiceIT {
   @Test
   void testSendMultipartEmail() throws Exception {
     mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", true, false);
-    verify(javaMailSender).send(messageCaptor.capture());
-    MimeMessage message = messageCaptor.getValue();
+    MimeMessage message = deliverSingle();
     MimeMultipart mp = (MimeMultipart) message.getContent();
     MimeBodyPart part =
         (MimeBodyPart) ((MimeMultipart) mp.getBodyPart(0).getContent()).getBodyPart(0);
@@ -104,8 +111,7 @@ class MailServiceIT {
   @Test
   void testSendMultipartHtmlEmail() throws Exception {
     mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", true, true);
-    verify(javaMailSender).send(messageCaptor.capture());
-    MimeMessage message = messageCaptor.getValue();
+    MimeMessage message = deliverSingle();
     MimeMultipart mp = (MimeMultipart) message.getContent();
     MimeBodyPart part =
         (MimeBodyPart) ((MimeMultipart) mp.getBodyPart(0).getContent()).getBodyPart(0);
@@ -126,8 +132,7 @@ class MailServiceIT {
     user.setLogin("john");
     user.setEmail("john.doe@example.com");
     mailService.sendEmailFromTemplate(user, "mail/testEmail", "email.test.title");
-    verify(javaMailSender).send(messageCaptor.capture());
-    MimeMessage message = messageCaptor.getValue();
+    MimeMessage message = deliverSingle();
     assertThat(message.getSubject()).isEqualTo("test title");
     assertThat(message.getAllRecipients()[0]).hasToString(user.getEmail());
     assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
@@ -143,8 +148,7 @@ class MailServiceIT {
     user.setLogin("john");
     user.setEmail("john.doe@example.com");
     mailService.sendActivationEmail(user);
-    verify(javaMailSender).send(messageCaptor.capture());
-    MimeMessage message = messageCaptor.getValue();
+    MimeMessage message = deliverSingle();
     assertThat(message.getAllRecipients()[0]).hasToString(user.getEmail());
     assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
     assertThat(message.getContent().toString()).isNotEmpty();
@@ -158,8 +162,7 @@ class MailServiceIT {
     user.setLogin("john");
     user.setEmail("john.doe@example.com");
     mailService.sendCreationEmail(user);
-    verify(javaMailSender).send(messageCaptor.capture());
-    MimeMessage message = messageCaptor.getValue();
+    MimeMessage message = deliverSingle();
     assertThat(message.getAllRecipients()[0]).hasToString(user.getEmail());
     assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
     assertThat(message.getContent().toString()).isNotEmpty();
@@ -173,8 +176,7 @@ class MailServiceIT {
     user.setLogin("john");
     user.setEmail("john.doe@example.com");
     mailService.sendPasswordResetMail(user);
-    verify(javaMailSender).send(messageCaptor.capture());
-    MimeMessage message = messageCaptor.getValue();
+    MimeMessage message = deliverSingle();
     assertThat(message.getAllRecipients()[0]).hasToString(user.getEmail());
     assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
     assertThat(message.getContent().toString()).isNotEmpty();
@@ -183,12 +185,36 @@ class MailServiceIT {
 
   @Test
   void testSendEmailWithException() {
-    doThrow(MailSendException.class).when(javaMailSender).send(any(MimeMessage.class));
+    doThrow(new MailSendException("Connection refused"))
+        .when(javaMailSender)
+        .send(any(MimeMessage[].class));
     try {
       mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, false);
+      mailDeliveryService.deliverPending();
     } catch (Exception e) {
       fail("Exception shouldn't have been thrown");
     }
+    assertThat(outboxMailRepository.findAll())
+        .singleElement()
+        .satisfies(
+            mail -> {
+              assertThat(mail.getAttempts()).isEqualTo(1);
+              assertThat(mail.getNextAttemptAt()).isNotNull();
+              assertThat(mail.getLastError()).isEqualTo("Connection refused");
+            });
+  }
+
+  @Test
+  void testEmailIsQueuedUntilDelivered() {
+    mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, false);
+    verify(javaMailSender, never()).send(any(MimeMessage[].class));
+    assertThat(outboxMailRepository.findAll())
+        .extracting(OutboxMail::getRecipient)
+        .containsExactly("john.doe@example.com");
+
+    mailDeliveryService.deliverPending();
+    verify(javaMailSender).send(any(MimeMessage[].class));
+    assertThat(outboxMailRepository.findAll()).isEmpty();
   }
 
   @Test
@@ -199,8 +225,9 @@ class MailServiceIT {
     for (String langKey : languages) {
       user.setLangKey(langKey);
       mailService.sendEmailFromTemplate(user, "mail/testEmail", "email.test.title");
+      mailDeliveryService.deliverPending();
       verify(javaMailSender, atLeastOnce()).send(messageCaptor.capture());
-      MimeMessage message = messageCaptor.getValue();
+      MimeMessage message = messageCaptor.getValue()[0];
 
       String propertyFilePath =
           "i18n/messages_" + getMessageSourceSuffixForLanguage(langKey) + ".properties";
@@ -217,6 +244,14 @@ class MailServiceIT {
     }
   }
 
+  /** Deliver the outbox, which should send a single message. */
+  private MimeMessage deliverSingle() {
+    mailDeliveryService.deliverPending();
+    verify(javaMailSender).send(messageCaptor.capture());
+    assertThat(messageCaptor.getValue()).hasSize(1);
+    return messageCaptor.getValue()[0];
+  }
+
   /** Convert a lang key to the Java locale. */
   private String getMessageSourceSuffixForLanguage(String langKey) {
     String javaLangKey = langKey;
@@ -0,0 +1,85 @@
+package me.lnkkerst.webblogapi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Optional;
+import java.util.Set;
+import me.lnkkerst.webblogapi.IntegrationTest;
+import me.lnkkerst.webblogapi.domain.User;
+import me.lnkkerst.webblogapi.repository.UserRepository;
+import me.lnkkerst.webblogapi.security.AuthoritiesConstants;
+import me.lnkkerst.webblogapi.service.dto.AdminUserDTO;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+/** Integration tests for {@link PrincipalService}, with its cache enabled. */
+@IntegrationTest
+@Transactional
+@TestPropertySource(properties = "application.cache.principal.time-to-live-seconds=60")
+class PrincipalServiceIT {
+
+  private static final String LOGIN = "principal-user";
+
+  @Autowired private UserRepository userRepository;
+
+  @Autowired private UserService userService;
+
+  @Autowired private PrincipalService principalService;
+
+  private User user;
+
+  @BeforeEach
+  public void init() {
+    user = new User();
+    user.setLogin(LOGIN);
+    user.setPassword(RandomStringUtils.randomAlphanumeric(60));
+    user.setActivated(true);
+    user.setEmail("principal-user@localhost");
+    user.setLangKey("en");
+    userRepository.saveAndFlush(user);
+  }
+
+  @AfterEach
+  public void cleanup() {
+    principalService.evict(LOGIN);
+  }
+
+  @Test
+  @WithMockUser(LOGIN)
+  void assertThatCurrentAccountIsCached() {
+    Optional<AdminUserDTO> account = principalService.getCurrentAccount();
+
+    assertThat(account).isPresent();
+    assertThat(principalService.getCurrentAccount()).containsSame(account.orElseThrow());
+  }
+
+  @Test
+  void assertThatAccountIsEvictedWhenUserIsUpdated() {
+    AdminUserDTO account = principalService.getAccount(LOGIN).orElseThrow();
+    assertThat(account.getAuthorities()).isEmpty();
+
+    AdminUserDTO update = new AdminUserDTO(user);
+    update.setAuthorities(Set.of(AuthoritiesConstants.ADMIN));
+    userService.updateUser(update);
+
+    assertThat(principalService.getAccount(LOGIN))
+        .hasValueSatisfying(
+            updated ->
+                assertThat(updated.getAuthorities()).containsExactly(AuthoritiesConstants.ADMIN));
+  }
+
+  @Test
+  void assertThatAccountIsEvictedWhenUserIsDeleted() {
+    assertThat(principalService.getAccount(LOGIN)).isPresent();
+
+    userService.deleteUser(LOGIN);
+
+    assertThat(principalService.getAccount(LOGIN)).isEmpty();
+  }
+}
@@ -0,0 +1,54 @@
+package me.lnkkerst.webblogapi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import me.lnkkerst.webblogapi.config.ApplicationProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for the evictions of {@link ResponseCacheService}. */
+class ResponseCacheServiceTests {
+
+  private static final byte[] BODY = "[]".getBytes(StandardCharsets.UTF_8);
+
+  private ResponseCacheService responseCacheService;
+
+  @BeforeEach
+  void setUp() {
+    responseCacheService =
+        new ResponseCacheService(new ApplicationProperties(), new SimpleMeterRegistry());
+  }
+
+  @Test
+  void testEvictionOnlyRemovesTheResponsesWithTheTag() {
+    put("/api/posts/1", ResponseCacheService.postTag(1L));
+    put("/api/posts/2", ResponseCacheService.postTag(2L));
+    put("/api/nodes/1/posts", ResponseCacheService.nodeTag(1L), ResponseCacheService.postTag(1L));
+
+    responseCacheService.evictPost(1L);
+
+    assertThat(responseCacheService.get("/api/posts/1")).isEmpty();
+    assertThat(responseCacheService.get("/api/nodes/1/posts")).isEmpty();
+    assertThat(responseCacheService.get("/api/posts/2")).isPresent();
+  }
+
+  @Test
+  void testResponseCachedAgainIsEvicted() {
+    put("/api/posts/1", ResponseCacheService.postTag(1L));
+    responseCacheService.evictPost(1L);
+    put("/api/posts/1", ResponseCacheService.postTag(1L));
+
+    responseCacheService.evictPost(1L);
+
+    assertThat(responseCacheService.get("/api/posts/1")).isEmpty();
+  }
+
+  private void put(String key, String... tags) {
+    long since = responseCacheService.position();
+    responseCacheService.put(key, Map.of(), BODY, Set.of(tags), since);
+  }
+}
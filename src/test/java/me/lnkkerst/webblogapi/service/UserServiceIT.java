@@ -3,15 +3,23 @@ package me.lnkkerst.webblogapi.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.when;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import me.lnkkerst.webblogapi.IntegrationTest;
+import me.lnkkerst.webblogapi.config.ApplicationProperties;
+import me.lnkkerst.webblogapi.domain.Authority;
 import me.lnkkerst.webblogapi.domain.User;
 import me.lnkkerst.webblogapi.repository.UserRepository;
+import me.lnkkerst.webblogapi.security.AuthoritiesConstants;
 import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -44,6 +52,12 @@ class UserServiceIT {
 
   @Autowired private AuditingHandler auditingHandler;
 
+  @Autowired private ApplicationProperties applicationProperties;
+
+  @Autowired private MeterRegistry meterRegistry;
+
+  @Autowired private EntityManager em;
+
   @MockBean private DateTimeProvider dateTimeProvider;
 
   private User user;
@@ -64,6 +78,13 @@ class UserServiceIT {
     auditingHandler.setDateTimeProvider(dateTimeProvider);
   }
 
+  @AfterEach
+  public void restoreUserPurge() {
+    ApplicationProperties.UserPurge defaults = new ApplicationProperties.UserPurge();
+    applicationProperties.getUserPurge().setChunkSize(defaults.getChunkSize());
+    applicationProperties.getUserPurge().setPause(defaults.getPause());
+  }
+
   @Test
   @Transactional
   void assertThatUserMustExistToResetPassword() {
@@ -178,4 +199,53 @@ class UserServiceIT {
     Optional<User> maybeDbUser = userRepository.findById(dbUser.getId());
     assertThat(maybeDbUser).contains(dbUser);
   }
+
+  @Test
+  @Transactional
+  void assertThatNotActivatedUsersAreDeletedByChunks() {
+    applicationProperties.getUserPurge().setChunkSize(2);
+    applicationProperties.getUserPurge().setPause(Duration.ZERO);
+    Instant now = Instant.now();
+    Authority userAuthority = em.find(Authority.class, AuthoritiesConstants.USER);
+    User activated = null;
+    User recent = null;
+    User deleted = null;
+    for (int i = 0; i < 7; i++) {
+      User notActivated = new User();
+      notActivated.setLogin("purged" + i);
+      notActivated.setPassword(RandomStringUtils.randomAlphanumeric(60));
+      notActivated.setActivated(i == 3);
+      notActivated.setActivationKey(i == 3 ? null : RandomStringUtils.random(20));
+      notActivated.setAuthorities(Set.of(userAuthority));
+      Instant createdDate = i == 5 ? now : now.minus(4, ChronoUnit.DAYS);
+      when(dateTimeProvider.getNow()).thenReturn(Optional.of(createdDate));
+      notActivated = userRepository.saveAndFlush(notActivated);
+      if (i == 3) {
+        activated = notActivated;
+      } else if (i == 5) {
+        recent = notActivated;
+      } else {
+        deleted = notActivated;
+      }
+    }
+    double purged = meterRegistry.get(UserService.PURGED_METER_NAME).counter().count();
+
+    userService.removeNotActivatedUsers();
+    em.clear();
+
+    assertThat(userRepository.findAll())
+        .extracting(User::getLogin)
+        .filteredOn(login -> login.startsWith("purged"))
+        .containsExactlyInAnyOrder(activated.getLogin(), recent.getLogin());
+    assertThat(
+            em.createNativeQuery(
+                    "select count(*) from jhi_user_authority where user_id in (?1, ?2, ?3)")
+                .setParameter(1, activated.getId())
+                .setParameter(2, recent.getId())
+                .setParameter(3, deleted.getId())
+                .getSingleResult())
+        .isEqualTo(2L);
+    assertThat(meterRegistry.get(UserService.PURGED_METER_NAME).counter().count())
+        .isEqualTo(purged + 5);
+  }
 }
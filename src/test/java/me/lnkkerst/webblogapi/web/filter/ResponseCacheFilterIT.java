@@ -0,0 +1,179 @@
+package me.lnkkerst.webblogapi.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import me.lnkkerst.webblogapi.IntegrationTest;
+import me.lnkkerst.webblogapi.config.ApplicationProperties;
+import me.lnkkerst.webblogapi.domain.Node;
+import me.lnkkerst.webblogapi.domain.Post;
+import me.lnkkerst.webblogapi.domain.User;
+import me.lnkkerst.webblogapi.repository.NodeRepository;
+import me.lnkkerst.webblogapi.repository.PostRepository;
+import me.lnkkerst.webblogapi.repository.UserRepository;
+import me.lnkkerst.webblogapi.service.NodeService;
+import me.lnkkerst.webblogapi.service.PostService;
+import me.lnkkerst.webblogapi.service.ResponseCacheService;
+import me.lnkkerst.webblogapi.web.rest.NodeResourceIT;
+import me.lnkkerst.webblogapi.web.rest.UserResourceIT;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Integration tests for the {@link ResponseCacheFilter}.
+ *
+ * <p>Rows are committed, as the cached responses are only evicted when the writes commit.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+class ResponseCacheFilterIT {
+
+  private static final ZonedDateTime CREATED_AT =
+      ZonedDateTime.ofInstant(Instant.ofEpochMilli(0L), ZoneOffset.UTC);
+
+  @Autowired private UserRepository userRepository;
+
+  @Autowired private NodeRepository nodeRepository;
+
+  @Autowired private PostRepository postRepository;
+
+  @Autowired private NodeService nodeService;
+
+  @Autowired private PostService postService;
+
+  @Autowired private ResponseCacheService responseCacheService;
+
+  @Autowired private ApplicationProperties applicationProperties;
+
+  @Autowired private MeterRegistry meterRegistry;
+
+  @Autowired private MockMvc restMockMvc;
+
+  private ApplicationProperties.ResponseCache defaults;
+
+  private User user;
+
+  private Node node;
+
+  private Post post;
+
+  @BeforeEach
+  public void initTest() {
+    ApplicationProperties.ResponseCache responseCache = applicationProperties.getResponseCache();
+    defaults = new ApplicationProperties.ResponseCache();
+    defaults.setEnabled(responseCache.isEnabled());
+    defaults.setGzipMinSize(responseCache.getGzipMinSize());
+    responseCache.setEnabled(true);
+
+    user = userRepository.saveAndFlush(UserResourceIT.createEntity(null));
+    node = nodeRepository.saveAndFlush(NodeResourceIT.createEntity(null));
+    post =
+        postRepository.saveAndFlush(
+            new Post()
+                .title("Cached")
+                .content("Content")
+                .createdAt(CREATED_AT)
+                .user(user)
+                .node(node));
+  }
+
+  @AfterEach
+  public void cleanup() {
+    ApplicationProperties.ResponseCache responseCache = applicationProperties.getResponseCache();
+    responseCache.setEnabled(defaults.isEnabled());
+    responseCache.setGzipMinSize(defaults.getGzipMinSize());
+    responseCacheService.clear();
+
+    postRepository.deleteById(post.getId());
+    nodeRepository.deleteById(node.getId());
+    userRepository.deleteById(user.getId());
+  }
+
+  @Test
+  void getAllNodesIsCachedUntilANodeIsWritten() throws Exception {
+    String url = "/api/nodes?id.equals=" + node.getId();
+    String name = node.getName();
+    restMockMvc.perform(get(url)).andExpect(jsonPath("$.[*].name").value(contains(name)));
+
+    // Written around the services, which evict the cached responses
+    node = nodeRepository.saveAndFlush(node.name("Renamed"));
+    restMockMvc
+        .perform(get(url))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.[*].name").value(contains(name)));
+    assertThat(
+            meterRegistry
+                .get("cache.gets")
+                .tag("cache", ResponseCacheService.CACHE_NAME)
+                .tag("result", "hit")
+                .functionCounter()
+                .count())
+        .isPositive();
+
+    node = nodeService.update(node.name("Updated"));
+    restMockMvc.perform(get(url)).andExpect(jsonPath("$.[*].name").value(contains("Updated")));
+  }
+
+  @Test
+  void getPostIsServedFromCacheCompressedAndRevalidated() throws Exception {
+    applicationProperties.getResponseCache().setGzipMinSize(DataSize.ofBytes(0));
+    String url = "/api/posts/" + post.getId();
+    String eTag =
+        restMockMvc
+            .perform(get(url))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.title").value("Cached"))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+    restMockMvc
+        .perform(get(url).header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+        .andExpect(header().string(HttpHeaders.ETAG, eTag));
+    restMockMvc
+        .perform(get(url))
+        .andExpect(status().isOk())
+        .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+        .andExpect(jsonPath("$.title").value("Cached"));
+    restMockMvc
+        .perform(get(url).header(HttpHeaders.IF_NONE_MATCH, eTag))
+        .andExpect(status().isNotModified());
+  }
+
+  @Test
+  void getPostsOfNodeIsCachedUntilAPostIsWritten() throws Exception {
+    String url = "/api/posts?nodeId.equals=" + node.getId() + "&sort=id,desc";
+    restMockMvc.perform(get(url)).andExpect(jsonPath("$.[*].title").value(contains("Cached")));
+
+    post = postRepository.saveAndFlush(post.title("Renamed"));
+    restMockMvc.perform(get(url)).andExpect(jsonPath("$.[*].title").value(contains("Cached")));
+
+    post = postService.update(post.title("Updated"));
+    restMockMvc.perform(get(url)).andExpect(jsonPath("$.[*].title").value(contains("Updated")));
+  }
+
+  @Test
+  @WithMockUser
+  void getAllNodesIsNotCachedForAuthenticatedUsers() throws Exception {
+    String url = "/api/nodes?id.equals=" + node.getId();
+    restMockMvc.perform(get(url)).andExpect(status().isOk());
+
+    node = nodeRepository.saveAndFlush(node.name("Renamed"));
+    restMockMvc.perform(get(url)).andExpect(jsonPath("$.[*].name").value(contains("Renamed")));
+  }
+}
@@ -1,5 +1,6 @@
 package me.lnkkerst.webblogapi.web.rest;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.emptyString;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
@@ -17,6 +18,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
@@ -85,6 +87,62 @@ class AuthenticateControllerIT {
         .andExpect(header().string("Authorization", not(is(emptyString()))));
   }
 
+  @Test
+  @Transactional
+  void testAuthorizeRehashesLegacyPassword() throws Exception {
+    User user = new User();
+    user.setLogin("user-jwt-controller-legacy");
+    user.setEmail("user-jwt-controller-legacy@example.com");
+    user.setActivated(true);
+    // Hashed before algorithms were configurable: no algorithm prefix, and a lower cost
+    user.setPassword(new BCryptPasswordEncoder(4).encode("test"));
+
+    userRepository.saveAndFlush(user);
+
+    LoginVM login = new LoginVM();
+    login.setUsername("user-jwt-controller-legacy");
+    login.setPassword("test");
+    mockMvc
+        .perform(
+            post("/api/authenticate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(TestUtil.convertObjectToJsonBytes(login)))
+        .andExpect(status().isOk());
+
+    String password =
+        userRepository.findOneByLogin("user-jwt-controller-legacy").orElseThrow().getPassword();
+    assertThat(password).startsWith("{argon2}");
+    assertThat(passwordEncoder.matches("test", password)).isTrue();
+    assertThat(passwordEncoder.upgradeEncoding(password)).isFalse();
+  }
+
+  @Test
+  @Transactional
+  void testAuthorizeRehashesBcryptPassword() throws Exception {
+    User user = new User();
+    user.setLogin("user-jwt-controller-bcrypt");
+    user.setEmail("user-jwt-controller-bcrypt@example.com");
+    user.setActivated(true);
+    user.setPassword("{bcrypt}" + new BCryptPasswordEncoder(10).encode("test"));
+
+    userRepository.saveAndFlush(user);
+
+    LoginVM login = new LoginVM();
+    login.setUsername("user-jwt-controller-bcrypt");
+    login.setPassword("test");
+    mockMvc
+        .perform(
+            post("/api/authenticate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(TestUtil.convertObjectToJsonBytes(login)))
+        .andExpect(status().isOk());
+
+    String password =
+        userRepository.findOneByLogin("user-jwt-controller-bcrypt").orElseThrow().getPassword();
+    assertThat(password).startsWith("{argon2}");
+    assertThat(passwordEncoder.matches("test", password)).isTrue();
+  }
+
   @Test
   void testAuthorizeFails() throws Exception {
     LoginVM login = new LoginVM();
@@ -1,8 +1,13 @@
 package me.lnkkerst.webblogapi.web.rest;
 
+import static me.lnkkerst.webblogapi.web.rest.TestUtil.assertSqlCount;
 import static me.lnkkerst.webblogapi.web.rest.TestUtil.sameInstant;
+import static me.lnkkerst.webblogapi.web.rest.TestUtil.startSqlCount;
+import static me.lnkkerst.webblogapi.web.rest.TestUtil.stopSqlCount;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.startsWith;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -11,6 +16,8 @@ import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
@@ -18,11 +25,16 @@ import me.lnkkerst.webblogapi.IntegrationTest;
 import me.lnkkerst.webblogapi.domain.Comment;
 import me.lnkkerst.webblogapi.domain.Post;
 import me.lnkkerst.webblogapi.domain.User;
+import me.lnkkerst.webblogapi.domain.enumeration.CounterType;
 import me.lnkkerst.webblogapi.repository.CommentRepository;
+import me.lnkkerst.webblogapi.service.CommentService;
+import me.lnkkerst.webblogapi.service.CounterService;
+import me.lnkkerst.webblogapi.service.PostService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -52,6 +64,12 @@ class CommentResourceIT {
 
   @Autowired private CommentRepository commentRepository;
 
+  @Autowired private CommentService commentService;
+
+  @Autowired private PostService postService;
+
+  @Autowired private CounterService counterService;
+
   @Autowired private EntityManager em;
 
   @Autowired private MockMvc restCommentMockMvc;
@@ -135,6 +153,113 @@ class CommentResourceIT {
     assertThat(testComment.getCreatedAt()).isEqualTo(DEFAULT_CREATED_AT);
   }
 
+  @Test
+  @Transactional
+  void createCommentsBatch() throws Exception {
+    int databaseSizeBeforeCreate = commentRepository.findAll().size();
+    List<Comment> comments = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      comments.add(
+          new Comment()
+              .content(DEFAULT_CONTENT)
+              .createdAt(DEFAULT_CREATED_AT)
+              .post(comment.getPost())
+              .user(comment.getUser()));
+    }
+    // Rejected one by one, the other comments are still created
+    comments.add(
+        new Comment()
+            .createdAt(DEFAULT_CREATED_AT)
+            .post(comment.getPost())
+            .user(comment.getUser()));
+    comments.add(
+        new Comment()
+            .content(DEFAULT_CONTENT)
+            .createdAt(DEFAULT_CREATED_AT)
+            .post(new Post().id(Long.MAX_VALUE))
+            .user(comment.getUser()));
+    em.flush();
+    em.clear();
+
+    startSqlCount();
+    restCommentMockMvc
+        .perform(
+            post(ENTITY_API_URL + "/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(TestUtil.convertObjectToJsonBytes(comments)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$", hasSize(22)))
+        .andExpect(jsonPath("$.[0].status").value(201))
+        .andExpect(jsonPath("$.[0].id").isNumber())
+        .andExpect(jsonPath("$.[19].status").value(201))
+        .andExpect(jsonPath("$.[20].index").value(20))
+        .andExpect(jsonPath("$.[20].status").value(400))
+        .andExpect(jsonPath("$.[20].message").value(startsWith("content ")))
+        .andExpect(jsonPath("$.[21].status").value(400))
+        .andExpect(jsonPath("$.[21].message").value("The post does not exist"));
+    em.flush();
+    // The comments are inserted with JDBC batches, not one statement each
+    assertThat(stopSqlCount()).isLessThan(20);
+
+    List<Comment> commentList = commentRepository.findAll();
+    assertThat(commentList).hasSize(databaseSizeBeforeCreate + 20);
+    assertThat(commentList).allSatisfy(created -> assertThat(created.getPath()).isNotNull());
+  }
+
+  @Test
+  @Transactional
+  void createReplyOnAnotherPost() throws Exception {
+    // Initialize the database
+    Comment root = commentService.save(comment);
+    Post otherPost = PostResourceIT.createEntity(em);
+    em.persist(otherPost);
+    em.flush();
+    int databaseSizeBeforeCreate = commentRepository.findAll().size();
+
+    Comment repliedComment = new Comment();
+    repliedComment.setId(root.getId());
+    Comment reply =
+        new Comment()
+            .content(DEFAULT_CONTENT)
+            .createdAt(DEFAULT_CREATED_AT)
+            .post(otherPost)
+            .user(comment.getUser())
+            .reply(repliedComment);
+
+    // A reply must stay in the thread, on the post of the comment it replies to
+    restCommentMockMvc
+        .perform(
+            post(ENTITY_API_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(TestUtil.convertObjectToJsonBytes(reply)))
+        .andExpect(status().isBadRequest());
+    restCommentMockMvc
+        .perform(
+            post(ENTITY_API_URL + "/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(TestUtil.convertObjectToJsonBytes(List.of(reply))))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.[0].status").value(400))
+        .andExpect(
+            jsonPath("$.[0].message")
+                .value("A reply must be on the post of the comment it replies to"));
+
+    assertThat(commentRepository.findAll()).hasSize(databaseSizeBeforeCreate);
+  }
+
+  @Test
+  @Transactional
+  void createCommentsBatchTooLarge() throws Exception {
+    List<Comment> comments = Collections.nCopies(1001, comment);
+
+    restCommentMockMvc
+        .perform(
+            post(ENTITY_API_URL + "/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(TestUtil.convertObjectToJsonBytes(comments)))
+        .andExpect(status().isBadRequest());
+  }
+
   @Test
   @Transactional
   void createCommentWithExistingId() throws Exception {
@@ -212,6 +337,49 @@ class CommentResourceIT {
         .andExpect(jsonPath("$.[*].createdAt").value(hasItem(sameInstant(DEFAULT_CREATED_AT))));
   }
 
+  @Test
+  @Transactional
+  void getAllCommentsWithListColumnsOnly() throws Exception {
+    // Initialize the database
+    commentRepository.saveAndFlush(comment);
+
+    // Get the commentList, the post and user are reduced to the columns shown in lists
+    restCommentMockMvc
+        .perform(get(ENTITY_API_URL + "?id.equals=" + comment.getId()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.[0].post.id").value(comment.getPost().getId().intValue()))
+        .andExpect(jsonPath("$.[0].post.title").value(comment.getPost().getTitle()))
+        .andExpect(jsonPath("$.[0].post.user").doesNotExist())
+        .andExpect(jsonPath("$.[0].user.login").value(comment.getUser().getLogin()))
+        .andExpect(jsonPath("$.[0].user.email").doesNotExist())
+        .andExpect(jsonPath("$.[0].reply").doesNotExist());
+  }
+
+  @Test
+  @Transactional
+  void getAllCommentsWithoutStatementPerComment() throws Exception {
+    // Initialize the database
+    commentRepository.saveAndFlush(comment);
+    em.clear();
+    String url = ENTITY_API_URL + "?postId.equals=" + comment.getPost().getId();
+
+    startSqlCount();
+    restCommentMockMvc.perform(get(url)).andExpect(status().isOk());
+    long statements = stopSqlCount();
+
+    // Add comments of other users to the post, replying to each other
+    Comment reply = commentRepository.findById(comment.getId()).orElseThrow();
+    for (int i = 0; i < 3; i++) {
+      reply = commentRepository.saveAndFlush(createEntity(em).reply(reply));
+    }
+    em.clear();
+
+    // Get the commentList, with the same statements however many comments and users it has
+    startSqlCount();
+    restCommentMockMvc.perform(get(url)).andExpect(status().isOk());
+    assertSqlCount(statements);
+  }
+
   @Test
   @Transactional
   void getComment() throws Exception {
@@ -228,6 +396,36 @@ class CommentResourceIT {
         .andExpect(jsonPath("$.createdAt").value(sameInstant(DEFAULT_CREATED_AT)));
   }
 
+  @Test
+  @Transactional
+  void getAllCommentsNotModifiedUntilTheirPostChanges() throws Exception {
+    // Initialize the database, with the version of the comments of the post
+    commentRepository.saveAndFlush(comment);
+    counterService.create(CounterType.POST_VERSION, comment.getPost().getId());
+    String url = ENTITY_API_URL + "?postId.equals=" + comment.getPost().getId();
+
+    String eTag =
+        restCommentMockMvc
+            .perform(get(url))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+    restCommentMockMvc
+        .perform(get(url).header(HttpHeaders.IF_NONE_MATCH, eTag))
+        .andExpect(status().isNotModified())
+        .andExpect(content().string(""));
+
+    // The comments show the title of their post, which changes
+    postService.partialUpdate(new Post().id(comment.getPost().getId()).title("retitled"));
+    em.flush();
+
+    restCommentMockMvc
+        .perform(get(url).header(HttpHeaders.IF_NONE_MATCH, eTag))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.[0].post.title").value("retitled"));
+  }
+
   @Test
   @Transactional
   void getCommentsByIdFiltering() throws Exception {
@@ -730,4 +928,131 @@ class CommentResourceIT {
     List<Comment> commentList = commentRepository.findAll();
     assertThat(commentList).hasSize(databaseSizeBeforeDelete - 1);
   }
+
+  @Test
+  @Transactional
+  void deleteCommentWithReplies() throws Exception {
+    // Initialize the database
+    Comment root = commentService.save(comment);
+    Comment reply = commentService.save(createEntity(em).reply(root));
+    Comment nestedReply = commentService.save(createEntity(em).reply(reply));
+    Comment otherRoot = commentService.save(createEntity(em));
+    em.flush();
+
+    assertThat(reply.getPath()).startsWith(root.getPath()).hasSize(2 * Comment.PATH_SEGMENT_LENGTH);
+    assertThat(nestedReply.getPath()).startsWith(reply.getPath());
+
+    restCommentMockMvc
+        .perform(get(ENTITY_API_URL_ID + "/replies/count", root.getId()))
+        .andExpect(status().isOk())
+        .andExpect(content().string("2"));
+
+    // Delete the thread
+    restCommentMockMvc
+        .perform(delete(ENTITY_API_URL_ID, root.getId()).accept(MediaType.APPLICATION_JSON))
+        .andExpect(status().isNoContent());
+
+    // Validate that the replies are gone too
+    assertThat(commentRepository.findById(root.getId())).isEmpty();
+    assertThat(commentRepository.findById(reply.getId())).isEmpty();
+    assertThat(commentRepository.findById(nestedReply.getId())).isEmpty();
+    assertThat(commentRepository.findById(otherRoot.getId())).isPresent();
+  }
+
+  @Test
+  @Transactional
+  void countRepliesOfCommentWithoutPath() throws Exception {
+    // Initialize the database, with a thread saved before paths were maintained
+    Comment root = commentRepository.saveAndFlush(comment);
+    Comment reply = commentRepository.saveAndFlush(createEntity(em).reply(root));
+    commentRepository.saveAndFlush(createEntity(em).reply(reply));
+
+    restCommentMockMvc
+        .perform(get(ENTITY_API_URL_ID + "/replies/count", root.getId()))
+        .andExpect(status().isOk())
+        .andExpect(content().string("2"));
+  }
+
+  @Test
+  @Transactional
+  void backfillPathsOfCommentsWithoutPath() throws Exception {
+    // Initialize the database, with a thread saved before paths were maintained
+    Comment root = commentRepository.saveAndFlush(comment);
+    Comment reply = commentRepository.saveAndFlush(createEntity(em).reply(root));
+    Comment nestedReply = commentRepository.saveAndFlush(createEntity(em).reply(reply));
+
+    commentService.backfillPaths();
+    em.flush();
+    em.clear();
+
+    String rootPath = commentRepository.findById(root.getId()).orElseThrow().getPath();
+    String replyPath = commentRepository.findById(reply.getId()).orElseThrow().getPath();
+    assertThat(rootPath).hasSize(Comment.PATH_SEGMENT_LENGTH);
+    assertThat(replyPath).startsWith(rootPath).hasSize(2 * Comment.PATH_SEGMENT_LENGTH);
+    assertThat(commentRepository.findById(nestedReply.getId()).orElseThrow().getPath())
+        .startsWith(replyPath);
+  }
+
+  @Test
+  @Transactional
+  void putCommentWithRepliesToAnotherPost() throws Exception {
+    // Initialize the database, with the comment counters of both posts
+    Post post = comment.getPost();
+    Post otherPost = PostResourceIT.createEntity(em);
+    em.persist(otherPost);
+    em.flush();
+    counterService.create(CounterType.POST_COMMENTS, post.getId());
+    counterService.create(CounterType.POST_COMMENTS, otherPost.getId());
+    Comment root = commentService.save(comment);
+    Comment reply = commentService.save(createEntity(em).post(post).reply(root));
+    em.flush();
+
+    Comment updatedComment = commentRepository.findById(root.getId()).orElseThrow();
+    em.detach(updatedComment);
+    updatedComment.setPost(otherPost);
+
+    restCommentMockMvc
+        .perform(
+            put(ENTITY_API_URL_ID, updatedComment.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(TestUtil.convertObjectToJsonBytes(updatedComment)))
+        .andExpect(status().isOk());
+
+    // Validate that the reply moved along, and was counted on the other post
+    em.clear();
+    assertThat(commentRepository.findById(reply.getId()).orElseThrow().getPost().getId())
+        .isEqualTo(otherPost.getId());
+    assertThat(counterService.getTotal(CounterType.POST_COMMENTS, post.getId())).contains(0L);
+    assertThat(counterService.getTotal(CounterType.POST_COMMENTS, otherPost.getId()))
+        .contains(2L);
+  }
+
+  @Test
+  @Transactional
+  void countRepliesOfNonExistingComment() throws Exception {
+    restCommentMockMvc
+        .perform(get(ENTITY_API_URL_ID + "/replies/count", Long.MAX_VALUE))
+        .andExpect(status().isNotFound());
+  }
+
+  @Test
+  @Transactional
+  void putCommentReplyingToItsReply() throws Exception {
+    // Initialize the database
+    Comment root = commentService.save(comment);
+    Comment reply = commentService.save(createEntity(em).reply(root));
+    em.flush();
+
+    Comment updatedComment = commentRepository.findById(root.getId()).orElseThrow();
+    em.detach(updatedComment);
+    updatedComment.setReply(new Comment());
+    updatedComment.getReply().setId(reply.getId());
+
+    restCommentMockMvc
+        .perform(
+            put(ENTITY_API_URL_ID, updatedComment.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(TestUtil.convertObjectToJsonBytes(updatedComment)))
+        .andExpect(status().isBadRequest());
+  }
 }
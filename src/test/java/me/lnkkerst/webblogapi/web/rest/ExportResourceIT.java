@@ -0,0 +1,121 @@
+package me.lnkkerst.webblogapi.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import me.lnkkerst.webblogapi.IntegrationTest;
+import me.lnkkerst.webblogapi.domain.Comment;
+import me.lnkkerst.webblogapi.domain.Post;
+import me.lnkkerst.webblogapi.security.AuthoritiesConstants;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+/** Integration tests for the {@link ExportResource} REST controller. */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+class ExportResourceIT {
+
+  private static final String EXPORT_API_URL = "/api/admin/export";
+
+  @Autowired private EntityManager em;
+
+  @Autowired private ObjectMapper objectMapper;
+
+  @Autowired private MockMvc restExportMockMvc;
+
+  private Post post;
+
+  private Post otherPost;
+
+  private Comment comment;
+
+  @BeforeEach
+  public void initTest() {
+    post = PostResourceIT.createEntity(em);
+    em.persist(post);
+    otherPost = PostResourceIT.createEntity(em);
+    otherPost.setTitle("exported");
+    em.persist(otherPost);
+    comment = CommentResourceIT.createEntity(em);
+    comment.setPost(otherPost);
+    em.persist(comment);
+    em.flush();
+  }
+
+  @Test
+  @Transactional
+  void exportPostsByCriteria() throws Exception {
+    List<JsonNode> lines = export("/posts?id.in=" + post.getId() + "," + otherPost.getId());
+
+    assertThat(lines)
+        .extracting(line -> line.get("id").asLong())
+        .containsExactly(post.getId(), otherPost.getId());
+    assertThat(lines.get(1).get("title").asText()).isEqualTo("exported");
+    assertThat(lines.get(1).get("user").get("login").asText())
+        .isEqualTo(otherPost.getUser().getLogin());
+    assertThat(lines.get(1).get("node").get("id").asLong())
+        .isEqualTo(otherPost.getNode().getId());
+
+    assertThat(export("/posts?title.equals=exported&id.equals=" + otherPost.getId()))
+        .extracting(line -> line.get("id").asLong())
+        .containsExactly(otherPost.getId());
+  }
+
+  @Test
+  @Transactional
+  void exportCommentsByCriteria() throws Exception {
+    List<JsonNode> lines = export("/comments?postId.equals=" + otherPost.getId());
+
+    assertThat(lines).extracting(line -> line.get("id").asLong()).containsExactly(comment.getId());
+    assertThat(lines.get(0).get("content").asText()).isEqualTo(comment.getContent());
+    assertThat(lines.get(0).get("post").get("title").asText()).isEqualTo("exported");
+  }
+
+  @Test
+  @Transactional
+  void exportNothing() throws Exception {
+    restExportMockMvc
+        .perform(get(EXPORT_API_URL + "/posts?id.equals=" + Long.MAX_VALUE))
+        .andExpect(status().isOk())
+        .andExpect(content().contentTypeCompatibleWith(ExportResource.NDJSON_CONTENT_TYPE))
+        .andExpect(content().string(""));
+  }
+
+  @Test
+  @Transactional
+  @WithMockUser
+  void exportPostsIsForbiddenToUsers() throws Exception {
+    restExportMockMvc.perform(get(EXPORT_API_URL + "/posts")).andExpect(status().isForbidden());
+  }
+
+  /** Export, and read every line of the response as a JSON document. */
+  private List<JsonNode> export(String path) throws Exception {
+    String body =
+        restExportMockMvc
+            .perform(get(EXPORT_API_URL + path))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(ExportResource.NDJSON_CONTENT_TYPE))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    assertThat(body).endsWith("\n");
+    List<JsonNode> lines = new ArrayList<>();
+    for (String line : body.split("\n")) {
+      lines.add(objectMapper.readTree(line));
+    }
+    return lines;
+  }
+}
@@ -1,7 +1,9 @@
 package me.lnkkerst.webblogapi.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -104,6 +106,35 @@ class FavoriteResourceIT {
     assertThat(testFavorite.getType()).isEqualTo(DEFAULT_TYPE);
   }
 
+  @Test
+  @Transactional
+  void createFavoritesBatch() throws Exception {
+    int databaseSizeBeforeCreate = favoriteRepository.findAll().size();
+    Node node = NodeResourceIT.createEntity(em);
+    em.persist(node);
+    em.flush();
+    User missing = new User();
+    missing.setId(Long.MAX_VALUE);
+    List<Favorite> favorites =
+        List.of(
+            new Favorite().type(FavoriteType.NODE).owner(favorite.getOwner()).node(node),
+            new Favorite().type(FavoriteType.NODE).owner(favorite.getOwner()).node(node),
+            new Favorite().type(FavoriteType.NODE).owner(missing).node(node));
+
+    restFavoriteMockMvc
+        .perform(
+            post(ENTITY_API_URL + "/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(TestUtil.convertObjectToJsonBytes(favorites)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$", hasSize(3)))
+        .andExpect(jsonPath("$.[*].status").value(contains(201, 201, 400)))
+        .andExpect(jsonPath("$.[2].message").value("The owner does not exist"));
+
+    List<Favorite> favoriteList = favoriteRepository.findAll();
+    assertThat(favoriteList).hasSize(databaseSizeBeforeCreate + 2);
+  }
+
   @Test
   @Transactional
   void createFavoriteWithExistingId() throws Exception {
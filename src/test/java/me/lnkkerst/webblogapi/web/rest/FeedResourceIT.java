@@ -0,0 +1,132 @@
+package me.lnkkerst.webblogapi.web.rest;
+
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import jakarta.persistence.EntityManager;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import me.lnkkerst.webblogapi.IntegrationTest;
+import me.lnkkerst.webblogapi.domain.Favorite;
+import me.lnkkerst.webblogapi.domain.Node;
+import me.lnkkerst.webblogapi.domain.Post;
+import me.lnkkerst.webblogapi.domain.User;
+import me.lnkkerst.webblogapi.domain.enumeration.FavoriteType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+/** Integration tests for the {@link FeedResource} REST controller. */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser(FeedResourceIT.READER)
+class FeedResourceIT {
+
+  static final String READER = "feed-reader";
+
+  private static final String FEED_API_URL = "/api/feed";
+
+  @Autowired private EntityManager em;
+
+  @Autowired private MockMvc restFeedMockMvc;
+
+  private User reader;
+
+  private User followedUser;
+
+  private Node followedNode;
+
+  private Node otherNode;
+
+  @BeforeEach
+  public void initTest() {
+    reader = UserResourceIT.createEntity(em);
+    reader.setLogin(READER);
+    em.persist(reader);
+    followedUser = UserResourceIT.createEntity(em);
+    em.persist(followedUser);
+    followedNode = NodeResourceIT.createEntity(em);
+    em.persist(followedNode);
+    otherNode = NodeResourceIT.createEntity(em);
+    em.persist(otherNode);
+    em.persist(new Favorite().type(FavoriteType.USER).owner(reader).user(followedUser));
+    em.persist(new Favorite().type(FavoriteType.NODE).owner(reader).node(followedNode));
+    em.flush();
+  }
+
+  @Test
+  @Transactional
+  void getFeedMergesTheFollowedUsersAndNodes() throws Exception {
+    ZonedDateTime now = ZonedDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    Post ofUser = createPost(followedUser, otherNode, now.minusHours(4));
+    Post inNode = createPost(null, followedNode, now.minusHours(3));
+    // Followed twice, through its user and its node, but listed once
+    Post ofUserInNode = createPost(followedUser, followedNode, now.minusHours(2));
+    createPost(null, otherNode, now.minusHours(1));
+
+    restFeedMockMvc
+        .perform(get(FEED_API_URL))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+        .andExpect(
+            jsonPath("$.[*].id")
+                .value(
+                    contains(
+                        ofUserInNode.getId().intValue(),
+                        inNode.getId().intValue(),
+                        ofUser.getId().intValue())))
+        .andExpect(header().doesNotExist(PostResource.NEXT_CURSOR_HEADER));
+  }
+
+  @Test
+  @Transactional
+  void getFeedBySlices() throws Exception {
+    ZonedDateTime now = ZonedDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    Post oldest = createPost(followedUser, otherNode, now.minusHours(3));
+    Post older = createPost(null, followedNode, now.minusHours(2));
+    Post newest = createPost(followedUser, otherNode, now.minusHours(1));
+
+    MvcResult firstSlice =
+        restFeedMockMvc
+            .perform(get(FEED_API_URL + "?size=2"))
+            .andExpect(status().isOk())
+            .andExpect(
+                jsonPath("$.[*].id")
+                    .value(contains(newest.getId().intValue(), older.getId().intValue())))
+            .andExpect(header().exists(PostResource.NEXT_CURSOR_HEADER))
+            .andReturn();
+    String cursor = firstSlice.getResponse().getHeader(PostResource.NEXT_CURSOR_HEADER);
+
+    restFeedMockMvc
+        .perform(get(FEED_API_URL + "?size=2&after=" + cursor))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.[*].id").value(contains(oldest.getId().intValue())))
+        .andExpect(header().doesNotExist(PostResource.NEXT_CURSOR_HEADER));
+  }
+
+  @Test
+  @Transactional
+  void getFeedWithInvalidCursor() throws Exception {
+    restFeedMockMvc
+        .perform(get(FEED_API_URL + "?after=not-a-cursor"))
+        .andExpect(status().isBadRequest());
+  }
+
+  /** Persist a post, of a new user when none is given. */
+  private Post createPost(User user, Node node, ZonedDateTime createdAt) {
+    Post post = PostResourceIT.createEntity(em).node(node).createdAt(createdAt);
+    if (user != null) {
+      post.setUser(user);
+    }
+    em.persist(post);
+    em.flush();
+    return post;
+  }
+}
@@ -2,6 +2,7 @@ package me.lnkkerst.webblogapi.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -12,10 +13,12 @@ import java.util.concurrent.atomic.AtomicLong;
 import me.lnkkerst.webblogapi.IntegrationTest;
 import me.lnkkerst.webblogapi.domain.Node;
 import me.lnkkerst.webblogapi.repository.NodeRepository;
+import me.lnkkerst.webblogapi.service.NodeService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -38,6 +41,8 @@ class NodeResourceIT {
 
   @Autowired private NodeRepository nodeRepository;
 
+  @Autowired private NodeService nodeService;
+
   @Autowired private EntityManager em;
 
   @Autowired private MockMvc restNodeMockMvc;
@@ -287,6 +292,57 @@ class NodeResourceIT {
         .andExpect(status().isNotFound());
   }
 
+  @Test
+  @Transactional
+  void getNodeNotModified() throws Exception {
+    // Initialize the database
+    nodeRepository.saveAndFlush(node);
+
+    String eTag =
+        restNodeMockMvc
+            .perform(get(ENTITY_API_URL_ID, node.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+    restNodeMockMvc
+        .perform(get(ENTITY_API_URL_ID, node.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(HttpHeaders.ETAG, eTag))
+        .andExpect(content().string(""));
+  }
+
+  @Test
+  @Transactional
+  void getAllNodesNotModifiedUntilUpdated() throws Exception {
+    // Initialize the database
+    nodeRepository.saveAndFlush(node);
+    String url = ENTITY_API_URL + "?sort=id,desc";
+
+    String eTag =
+        restNodeMockMvc
+            .perform(get(url))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+    restNodeMockMvc
+        .perform(get(url).header(HttpHeaders.IF_NONE_MATCH, eTag))
+        .andExpect(status().isNotModified());
+
+    // Update the node, which moves the version of the nodes
+    nodeService.update(nodeRepository.findById(node.getId()).orElseThrow().name(UPDATED_NAME));
+    em.flush();
+
+    restNodeMockMvc
+        .perform(get(url).header(HttpHeaders.IF_NONE_MATCH, eTag))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, not(eTag)))
+        .andExpect(jsonPath("$.[*].name").value(hasItem(UPDATED_NAME)));
+  }
+
   @Test
   @Transactional
   void putExistingNode() throws Exception {
@@ -315,6 +371,26 @@ class NodeResourceIT {
     assertThat(testNode.getName()).isEqualTo(UPDATED_NAME);
   }
 
+  @Test
+  @Transactional
+  void putExistingNodeWithStaleVersion() throws Exception {
+    // Initialize the database
+    nodeRepository.saveAndFlush(node);
+
+    // Read the node, then let it be updated by someone else
+    Node staleNode = nodeRepository.findById(node.getId()).orElseThrow();
+    em.detach(staleNode);
+    nodeRepository.saveAndFlush(nodeRepository.findById(node.getId()).orElseThrow().name("other"));
+    staleNode.name(UPDATED_NAME);
+
+    restNodeMockMvc
+        .perform(
+            put(ENTITY_API_URL_ID, staleNode.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(TestUtil.convertObjectToJsonBytes(staleNode)))
+        .andExpect(status().isConflict());
+  }
+
   @Test
   @Transactional
   void putNonExistingNode() throws Exception {
@@ -1,8 +1,13 @@
 package me.lnkkerst.webblogapi.web.rest;
 
+import static me.lnkkerst.webblogapi.web.rest.TestUtil.assertSqlCount;
 import static me.lnkkerst.webblogapi.web.rest.TestUtil.sameInstant;
+import static me.lnkkerst.webblogapi.web.rest.TestUtil.startSqlCount;
+import static me.lnkkerst.webblogapi.web.rest.TestUtil.stopSqlCount;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -15,17 +20,22 @@ import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
 import me.lnkkerst.webblogapi.IntegrationTest;
+import me.lnkkerst.webblogapi.domain.Comment;
 import me.lnkkerst.webblogapi.domain.Node;
 import me.lnkkerst.webblogapi.domain.Post;
 import me.lnkkerst.webblogapi.domain.User;
 import me.lnkkerst.webblogapi.repository.PostRepository;
+import me.lnkkerst.webblogapi.service.CommentService;
+import me.lnkkerst.webblogapi.service.PostService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 /** Integration tests for the {@link PostResource} REST controller. */
@@ -55,6 +65,10 @@ class PostResourceIT {
 
   @Autowired private PostRepository postRepository;
 
+  @Autowired private PostService postService;
+
+  @Autowired private CommentService commentService;
+
   @Autowired private EntityManager em;
 
   @Autowired private MockMvc restPostMockMvc;
@@ -239,6 +253,47 @@ class PostResourceIT {
         .andExpect(jsonPath("$.[*].createdAt").value(hasItem(sameInstant(DEFAULT_CREATED_AT))));
   }
 
+  @Test
+  @Transactional
+  void getAllPostsWithListColumnsOnly() throws Exception {
+    // Initialize the database
+    postRepository.saveAndFlush(post);
+
+    // Get the postList, the user and node are reduced to the columns shown in lists
+    restPostMockMvc
+        .perform(get(ENTITY_API_URL + "?id.equals=" + post.getId()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.[0].user.id").value(post.getUser().getId().intValue()))
+        .andExpect(jsonPath("$.[0].user.login").value(post.getUser().getLogin()))
+        .andExpect(jsonPath("$.[0].user.email").doesNotExist())
+        .andExpect(jsonPath("$.[0].node.id").value(post.getNode().getId().intValue()))
+        .andExpect(jsonPath("$.[0].node.name").value(post.getNode().getName()));
+  }
+
+  @Test
+  @Transactional
+  void getAllPostsWithoutStatementPerPost() throws Exception {
+    // Initialize the database
+    postRepository.saveAndFlush(post);
+    em.clear();
+    String url = ENTITY_API_URL + "?nodeId.equals=" + post.getNode().getId();
+
+    startSqlCount();
+    restPostMockMvc.perform(get(url)).andExpect(status().isOk());
+    long statements = stopSqlCount();
+
+    // Add posts of other users to the node
+    for (int i = 0; i < 3; i++) {
+      postRepository.saveAndFlush(createEntity(em));
+    }
+    em.clear();
+
+    // Get the postList, with the same statements however many posts and users it has
+    startSqlCount();
+    restPostMockMvc.perform(get(url)).andExpect(status().isOk());
+    assertSqlCount(statements);
+  }
+
   @Test
   @Transactional
   void getPost() throws Exception {
@@ -256,6 +311,34 @@ class PostResourceIT {
         .andExpect(jsonPath("$.createdAt").value(sameInstant(DEFAULT_CREATED_AT)));
   }
 
+  @Test
+  @Transactional
+  void getPostNotModifiedUntilItsNodeChanges() throws Exception {
+    // Initialize the database
+    postRepository.saveAndFlush(post);
+
+    String eTag =
+        restPostMockMvc
+            .perform(get(ENTITY_API_URL_ID, post.getId()))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+    restPostMockMvc
+        .perform(get(ENTITY_API_URL_ID, post.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+        .andExpect(status().isNotModified())
+        .andExpect(content().string(""));
+
+    // The post shows its node, whose name changes
+    post.getNode().setName("renamed");
+    em.flush();
+
+    restPostMockMvc
+        .perform(get(ENTITY_API_URL_ID, post.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.node.name").value("renamed"));
+  }
+
   @Test
   @Transactional
   void getPostsByIdFiltering() throws Exception {
@@ -539,6 +622,48 @@ class PostResourceIT {
     defaultPostShouldNotBeFound("nodeId.equals=" + (nodeId + 1));
   }
 
+  @Test
+  @Transactional
+  void getAllPostsWithCursor() throws Exception {
+    // Initialize the database with three posts in the same node, two of them created together
+    postRepository.saveAndFlush(post);
+    Post secondPost = createEntity(em).createdAt(UPDATED_CREATED_AT);
+    postRepository.saveAndFlush(secondPost);
+    Post thirdPost = createEntity(em).createdAt(UPDATED_CREATED_AT);
+    postRepository.saveAndFlush(thirdPost);
+    String filter = "nodeId.equals=" + post.getNode().getId();
+
+    // The first slice holds the newest posts, ties broken by id
+    MvcResult firstSlice =
+        restPostMockMvc
+            .perform(get(ENTITY_API_URL + "?after=&size=2&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$", hasSize(2)))
+            .andExpect(jsonPath("$.[0].id").value(thirdPost.getId().intValue()))
+            .andExpect(jsonPath("$.[1].id").value(secondPost.getId().intValue()))
+            .andExpect(header().exists(PostResource.NEXT_CURSOR_HEADER))
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andReturn();
+    String cursor = firstSlice.getResponse().getHeader(PostResource.NEXT_CURSOR_HEADER);
+
+    // The last slice holds the remaining post and no further cursor
+    restPostMockMvc
+        .perform(get(ENTITY_API_URL + "?after=" + cursor + "&size=2&" + filter))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$", hasSize(1)))
+        .andExpect(jsonPath("$.[0].id").value(post.getId().intValue()))
+        .andExpect(header().doesNotExist(PostResource.NEXT_CURSOR_HEADER));
+  }
+
+  @Test
+  @Transactional
+  void getAllPostsWithInvalidCursor() throws Exception {
+    restPostMockMvc
+        .perform(get(ENTITY_API_URL + "?after=not-a-cursor"))
+        .andExpect(status().isBadRequest());
+  }
+
   /** Executes the search, and checks that the default entity is returned. */
   private void defaultPostShouldBeFound(String filter) throws Exception {
     restPostMockMvc
@@ -584,6 +709,137 @@ class PostResourceIT {
         .andExpect(status().isNotFound());
   }
 
+  @Test
+  @Transactional
+  void getCommentTree() throws Exception {
+    // Initialize the database
+    postRepository.saveAndFlush(post);
+    Comment thread = persistComment(null, 0);
+    Comment firstReply = persistComment(thread, 1);
+    persistComment(thread, 2);
+    persistComment(firstReply, 3);
+    Comment otherThread = persistComment(null, 4);
+    em.flush();
+
+    // Get the tree, limited to one reply per comment and two levels
+    restPostMockMvc
+        .perform(get(ENTITY_API_URL_ID + "/comment-tree?depth=2&replies=1", post.getId()))
+        .andExpect(status().isOk())
+        .andExpect(header().string("X-Total-Count", "2"))
+        .andExpect(
+            jsonPath("$.[*].id")
+                .value(contains(thread.getId().intValue(), otherThread.getId().intValue())))
+        .andExpect(jsonPath("$.[0].replies", hasSize(1)))
+        .andExpect(jsonPath("$.[0].omittedReplies").value(1))
+        .andExpect(jsonPath("$.[0].replies.[0].id").value(firstReply.getId().intValue()))
+        .andExpect(jsonPath("$.[0].replies.[0].replies", hasSize(0)))
+        .andExpect(jsonPath("$.[0].replies.[0].omittedReplies").value(1))
+        .andExpect(jsonPath("$.[1].replies", hasSize(0)));
+  }
+
+  @Test
+  @Transactional
+  void getCommentTreeNotModifiedUntilReplied() throws Exception {
+    // Initialize the database, through the service which versions the comments of the post
+    postService.save(post);
+    Comment thread = persistComment(null, 0);
+    em.flush();
+    String url = ENTITY_API_URL + "/" + post.getId() + "/comment-tree";
+
+    String eTag =
+        restPostMockMvc
+            .perform(get(url))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+    restPostMockMvc
+        .perform(get(url).header(HttpHeaders.IF_NONE_MATCH, eTag))
+        .andExpect(status().isNotModified());
+
+    commentService.save(
+        new Comment()
+            .content("reply")
+            .createdAt(DEFAULT_CREATED_AT.plusMinutes(1))
+            .post(post)
+            .user(post.getUser())
+            .reply(thread));
+    em.flush();
+
+    restPostMockMvc
+        .perform(get(url).header(HttpHeaders.IF_NONE_MATCH, eTag))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.[0].replies", hasSize(1)));
+  }
+
+  @Test
+  @Transactional
+  void getCommentTreeWithInvalidDepth() throws Exception {
+    // Initialize the database
+    postRepository.saveAndFlush(post);
+
+    restPostMockMvc
+        .perform(get(ENTITY_API_URL_ID + "/comment-tree?depth=0", post.getId()))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @Transactional
+  void getCommentTreeOfNonExistingPost() throws Exception {
+    restPostMockMvc
+        .perform(get(ENTITY_API_URL_ID + "/comment-tree", Long.MAX_VALUE))
+        .andExpect(status().isNotFound());
+  }
+
+  @Test
+  @Transactional
+  void getHotPostsOfNode() throws Exception {
+    // Initialize the database, through the services which maintain the scores
+    Node node = NodeResourceIT.createEntity(em);
+    em.persist(node);
+    Post quiet = postService.save(post.node(node));
+    Post commented = postService.save(createEntity(em).node(node));
+    commentService.save(
+        new Comment()
+            .content("comment")
+            .createdAt(DEFAULT_CREATED_AT)
+            .post(commented)
+            .user(commented.getUser()));
+
+    restPostMockMvc
+        .perform(get(ENTITY_API_URL + "/hot?nodeId=" + node.getId()))
+        .andExpect(status().isOk())
+        .andExpect(
+            jsonPath("$.[*].id")
+                .value(contains(commented.getId().intValue(), quiet.getId().intValue())))
+        .andExpect(jsonPath("$.[0].node.id").value(node.getId().intValue()));
+
+    restPostMockMvc
+        .perform(get(ENTITY_API_URL + "/hot?size=1&nodeId=" + node.getId()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.[*].id").value(contains(commented.getId().intValue())));
+  }
+
+  @Test
+  @Transactional
+  void getHotPostsWithInvalidSize() throws Exception {
+    restPostMockMvc
+        .perform(get(ENTITY_API_URL + "/hot?size=0"))
+        .andExpect(status().isBadRequest());
+  }
+
+  private Comment persistComment(Comment reply, int minutes) {
+    Comment comment =
+        new Comment()
+            .content("comment")
+            .createdAt(DEFAULT_CREATED_AT.plusMinutes(minutes))
+            .post(post)
+            .user(post.getUser())
+            .reply(reply);
+    em.persist(comment);
+    return comment;
+  }
+
   @Test
   @Transactional
   void putExistingPost() throws Exception {
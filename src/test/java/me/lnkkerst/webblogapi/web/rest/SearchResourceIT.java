@@ -0,0 +1,128 @@
+package me.lnkkerst.webblogapi.web.rest;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import me.lnkkerst.webblogapi.IntegrationTest;
+import me.lnkkerst.webblogapi.domain.Comment;
+import me.lnkkerst.webblogapi.domain.Node;
+import me.lnkkerst.webblogapi.domain.Post;
+import me.lnkkerst.webblogapi.domain.User;
+import me.lnkkerst.webblogapi.repository.CommentRepository;
+import me.lnkkerst.webblogapi.repository.NodeRepository;
+import me.lnkkerst.webblogapi.repository.PostRepository;
+import me.lnkkerst.webblogapi.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Integration tests for the {@link SearchResource} REST controller.
+ *
+ * <p>Rows are committed, as InnoDB full-text indexes do not see uncommitted changes.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class SearchResourceIT {
+
+  private static final ZonedDateTime CREATED_AT =
+      ZonedDateTime.ofInstant(Instant.ofEpochMilli(0L), ZoneOffset.UTC);
+
+  @Autowired private UserRepository userRepository;
+
+  @Autowired private NodeRepository nodeRepository;
+
+  @Autowired private PostRepository postRepository;
+
+  @Autowired private CommentRepository commentRepository;
+
+  @Autowired private MockMvc restSearchMockMvc;
+
+  private User user;
+
+  private Node node;
+
+  private Post titleMatch;
+
+  private Post contentMatch;
+
+  private Post unrelated;
+
+  private Comment comment;
+
+  @BeforeEach
+  public void initTest() {
+    user = userRepository.saveAndFlush(UserResourceIT.createEntity(null));
+    node = nodeRepository.saveAndFlush(NodeResourceIT.createEntity(null));
+    contentMatch = postRepository.saveAndFlush(newPost("Travel notes", "A quokka on the beach"));
+    titleMatch = postRepository.saveAndFlush(newPost("Quokka sightings", "A quokka again"));
+    unrelated = postRepository.saveAndFlush(newPost("Unrelated", "Nothing to see"));
+    comment =
+        commentRepository.saveAndFlush(
+            new Comment()
+                .content("Lovely quokka picture")
+                .createdAt(CREATED_AT)
+                .post(contentMatch)
+                .user(user));
+  }
+
+  @AfterEach
+  public void cleanup() {
+    commentRepository.delete(comment);
+    postRepository.deleteAll(List.of(titleMatch, contentMatch, unrelated));
+    nodeRepository.delete(node);
+    userRepository.delete(user);
+  }
+
+  @Test
+  void searchPostsRanksTitleMatchesFirst() throws Exception {
+    restSearchMockMvc
+        .perform(get("/api/search/posts?q=quokka"))
+        .andExpect(status().isOk())
+        .andExpect(header().string("X-Total-Count", "2"))
+        .andExpect(
+            jsonPath("$.[*].id")
+                .value(contains(titleMatch.getId().intValue(), contentMatch.getId().intValue())))
+        .andExpect(jsonPath("$.[0].user.login").value(user.getLogin()));
+  }
+
+  @Test
+  void searchPostsIsPaginated() throws Exception {
+    restSearchMockMvc
+        .perform(get("/api/search/posts?q=quokka&page=1&size=1"))
+        .andExpect(status().isOk())
+        .andExpect(header().string("X-Total-Count", "2"))
+        .andExpect(jsonPath("$", hasSize(1)))
+        .andExpect(jsonPath("$.[0].id").value(contentMatch.getId().intValue()));
+  }
+
+  @Test
+  void searchComments() throws Exception {
+    restSearchMockMvc
+        .perform(get("/api/search/comments?q=quokka"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$", hasSize(1)))
+        .andExpect(jsonPath("$.[0].id").value(comment.getId().intValue()))
+        .andExpect(jsonPath("$.[0].post.id").value(contentMatch.getId().intValue()));
+  }
+
+  @Test
+  void searchWithoutTermsIsRejected() throws Exception {
+    restSearchMockMvc.perform(get("/api/search/posts?q= ")).andExpect(status().isBadRequest());
+  }
+
+  private Post newPost(String title, String content) {
+    return new Post().title(title).content(content).createdAt(CREATED_AT).user(user).node(node);
+  }
+}
@@ -16,6 +16,7 @@ import java.math.BigDecimal;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeParseException;
 import java.util.List;
+import me.lnkkerst.webblogapi.management.SqlStatementCounter;
 import org.hamcrest.Description;
 import org.hamcrest.TypeSafeDiagnosingMatcher;
 import org.hamcrest.TypeSafeMatcher;
@@ -28,6 +29,8 @@ public final class TestUtil {
 
   private static final ObjectMapper mapper = createObjectMapper();
 
+  private static final ThreadLocal<SqlStatementCounter.Scope> SQL_COUNT = new ThreadLocal<>();
+
   private static ObjectMapper createObjectMapper() {
     ObjectMapper mapper = new ObjectMapper();
     mapper.configure(SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS, false);
@@ -208,5 +211,40 @@ public final class TestUtil {
     return allQuery.getResultList();
   }
 
+  /**
+   * Start counting the SQL statements of the current thread, to be checked with {@link
+   * #assertSqlCount(long)}.
+   *
+   * <p>Flush and clear the EntityManager before: otherwise the statements of pending changes are
+   * counted, while the entities already loaded are not loaded again.
+   */
+  public static void startSqlCount() {
+    SQL_COUNT.set(SqlStatementCounter.open());
+  }
+
+  /**
+   * Stop counting the SQL statements of the current thread.
+   *
+   * @return the number of statements prepared since {@link #startSqlCount()}.
+   */
+  public static long stopSqlCount() {
+    SqlStatementCounter.Scope scope = SQL_COUNT.get();
+    assertThat(scope).as("SQL statements counted").isNotNull();
+    SQL_COUNT.remove();
+    scope.close();
+    return scope.getTotal();
+  }
+
+  /**
+   * Stop counting the SQL statements of the current thread, and assert their number.
+   *
+   * @param expected the number of statements expected since {@link #startSqlCount()}.
+   */
+  public static void assertSqlCount(long expected) {
+    SqlStatementCounter.Scope scope = SQL_COUNT.get();
+    long total = stopSqlCount();
+    assertThat(total).as("SQL statements %s", scope.getRepeated(1)).isEqualTo(expected);
+  }
+
   private TestUtil() {}
 }